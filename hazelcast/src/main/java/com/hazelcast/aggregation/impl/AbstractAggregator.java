@@ -19,6 +19,7 @@ package com.hazelcast.aggregation.impl;
 import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.internal.json.NonTerminalJsonValue;
 import com.hazelcast.query.impl.Extractable;
+import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.MultiResult;
 
 import java.util.List;
@@ -57,8 +58,62 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
 
     @Override
     public final void accumulate(I entry) {
+        accumulateExtractedResult(entry, extract(entry));
+    }
+
+    /**
+     * @return the attribute path of the values accumulated by this
+     * aggregator, {@code null} if the whole entry values are accumulated.
+     */
+    public String getAttributePath() {
+        return attributePath;
+    }
 
-        E extractedValue = extract(entry);
+    /**
+     * Accumulates the given batch of entries.
+     * <p>
+     * For batches of {@link QueryableEntry queryable entries} the values of
+     * the attribute path are extracted for the whole batch at once, so the
+     * attribute getter is resolved once per batch instead of once per entry.
+     *
+     * @param entries the entries to accumulate.
+     * @param size    the number of the entries in the batch.
+     * @param values  the buffer to extract the values into, its length must
+     *                be at least {@code size}.
+     */
+    public void accumulateBatch(I[] entries, int size, Object[] values) {
+        if (attributePath != null && entries instanceof QueryableEntry[]) {
+            QueryableEntry.extractAttributeValues((QueryableEntry[]) entries, size, attributePath, values);
+        } else {
+            for (int i = 0; i < size; ++i) {
+                values[i] = extract(entries[i]);
+            }
+        }
+        accumulateExtractedBatch(entries, size, values);
+    }
+
+    /**
+     * Accumulates the values extracted from the given batch of entries.
+     * <p>
+     * Aggregators may override this method to provide a specialized loop for
+     * the values of a primitive type, the values of any other type should be
+     * passed to {@link #accumulateExtractedResult}.
+     *
+     * @param entries the entries the values were extracted from.
+     * @param size    the number of the entries in the batch.
+     * @param values  the extracted values.
+     */
+    protected void accumulateExtractedBatch(I[] entries, int size, Object[] values) {
+        for (int i = 0; i < size; ++i) {
+            accumulateExtractedResult(entries[i], values[i]);
+        }
+    }
+
+    /**
+     * Accumulates the result of the extraction performed on the given entry,
+     * the values of multi-value results are accumulated one by one.
+     */
+    protected final void accumulateExtractedResult(I entry, Object extractedValue) {
         if (extractedValue instanceof MultiResult) {
             boolean nullEmptyTargetSkipped = false;
             @SuppressWarnings("unchecked")
@@ -76,7 +131,9 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
                 accumulateExtracted(entry, results.get(i));
             }
         } else if (extractedValue != NonTerminalJsonValue.INSTANCE) {
-            accumulateExtracted(entry, extractedValue);
+            @SuppressWarnings("unchecked")
+            E value = (E) extractedValue;
+            accumulateExtracted(entry, value);
         }
     }
 
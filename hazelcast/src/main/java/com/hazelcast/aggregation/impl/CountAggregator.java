@@ -40,6 +40,25 @@ public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long
         count++;
     }
 
+    @Override
+    public void accumulateBatch(I[] entries, int size, Object[] values) {
+        if (attributePath == null) {
+            // the entry values are never multi-value results, so there is no
+            // need to deserialize them just to count them
+            count += size;
+        } else {
+            super.accumulateBatch(entries, size, values);
+        }
+    }
+
+    /**
+     * Counts the given number of entries at once, used when the number of
+     * the entries is known without accumulating them.
+     */
+    public void accumulateCount(long count) {
+        this.count += count;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         CountAggregator countAggregator = (CountAggregator) aggregator;
@@ -46,6 +46,19 @@ public final class DoubleAverageAggregator<I> extends AbstractAggregator<I, Numb
         sum += Numbers.asDoubleExactly(value);
     }
 
+    @Override
+    protected void accumulateExtractedBatch(I[] entries, int size, Object[] values) {
+        for (int i = 0; i < size; ++i) {
+            Object value = values[i];
+            if (value instanceof Double) {
+                count++;
+                sum += (Double) value;
+            } else {
+                accumulateExtractedResult(entries[i], value);
+            }
+        }
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleAverageAggregator doubleAverageAggregator = (DoubleAverageAggregator) aggregator;
@@ -43,6 +43,18 @@ public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Number,
         sum += Numbers.asDoubleExactly(value);
     }
 
+    @Override
+    protected void accumulateExtractedBatch(I[] entries, int size, Object[] values) {
+        for (int i = 0; i < size; ++i) {
+            Object value = values[i];
+            if (value instanceof Double) {
+                sum += (Double) value;
+            } else {
+                accumulateExtractedResult(entries[i], value);
+            }
+        }
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleSumAggregator longSumAggregator = (DoubleSumAggregator) aggregator;
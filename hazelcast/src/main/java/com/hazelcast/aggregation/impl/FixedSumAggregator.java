@@ -41,6 +41,18 @@ public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, L
         sum += value.longValue();
     }
 
+    @Override
+    protected void accumulateExtractedBatch(I[] entries, int size, Object[] values) {
+        for (int i = 0; i < size; ++i) {
+            Object value = values[i];
+            if (value instanceof Long) {
+                sum += (Long) value;
+            } else {
+                accumulateExtractedResult(entries[i], value);
+            }
+        }
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         FixedSumAggregator longSumAggregator = (FixedSumAggregator) aggregator;
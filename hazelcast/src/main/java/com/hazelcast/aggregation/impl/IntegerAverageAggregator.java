@@ -46,6 +46,19 @@ public final class IntegerAverageAggregator<I> extends AbstractAggregator<I, Num
         sum += Numbers.asIntExactly(value);
     }
 
+    @Override
+    protected void accumulateExtractedBatch(I[] entries, int size, Object[] values) {
+        for (int i = 0; i < size; ++i) {
+            Object value = values[i];
+            if (value instanceof Integer) {
+                count++;
+                sum += (Integer) value;
+            } else {
+                accumulateExtractedResult(entries[i], value);
+            }
+        }
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         IntegerAverageAggregator integerAverageAggregator = (IntegerAverageAggregator) aggregator;
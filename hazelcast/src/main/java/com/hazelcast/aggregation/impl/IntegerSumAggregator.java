@@ -43,6 +43,18 @@ public final class IntegerSumAggregator<I> extends AbstractAggregator<I, Number,
         sum += Numbers.asIntExactly(value);
     }
 
+    @Override
+    protected void accumulateExtractedBatch(I[] entries, int size, Object[] values) {
+        for (int i = 0; i < size; ++i) {
+            Object value = values[i];
+            if (value instanceof Integer) {
+                sum += (Integer) value;
+            } else {
+                accumulateExtractedResult(entries[i], value);
+            }
+        }
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         IntegerSumAggregator integerSumAggregator = (IntegerSumAggregator) aggregator;
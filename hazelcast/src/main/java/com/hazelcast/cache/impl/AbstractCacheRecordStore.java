@@ -39,6 +39,7 @@ import com.hazelcast.internal.eviction.EvictionChecker;
 import com.hazelcast.internal.eviction.EvictionListener;
 import com.hazelcast.internal.eviction.EvictionPolicyEvaluatorProvider;
 import com.hazelcast.internal.eviction.ExpiredKey;
+import com.hazelcast.internal.eviction.FrequencySketch;
 import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
 import com.hazelcast.internal.eviction.impl.strategy.sampling.SamplingEvictionStrategy;
 import com.hazelcast.internal.nearcache.impl.invalidation.InvalidationQueue;
@@ -130,6 +131,11 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
     protected final ClearExpiredRecordsTask clearExpiredRecordsTask;
     protected final SamplingEvictionStrategy<Data, R, CRM> evictionStrategy;
     protected final EvictionPolicyEvaluator<Data, R> evictionPolicyEvaluator;
+    /**
+     * Counts the accesses of the keys when the {@link com.hazelcast.config.EvictionPolicy#TINY_LFU}
+     * policy is used, {@code null} otherwise.
+     */
+    protected final FrequencySketch frequencySketch;
     protected final Map<CacheEventType, Set<CacheEventData>> batchEvent = new HashMap<CacheEventType, Set<CacheEventData>>();
 
     protected boolean primary;
@@ -194,6 +200,7 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
         this.records = createRecordCacheMap();
         this.evictionChecker = createCacheEvictionChecker(evictionConfig.getSize(), evictionConfig.getMaximumSizePolicy());
         this.evictionPolicyEvaluator = createEvictionPolicyEvaluator(evictionConfig);
+        this.frequencySketch = evictionPolicyEvaluator != null ? evictionPolicyEvaluator.getFrequencySketch() : null;
         this.evictionStrategy = createEvictionStrategy(evictionConfig);
         this.objectNamespace = CacheService.getObjectNamespace(cacheNameWithPrefix);
         this.persistWanReplicatedData = canPersistWanReplicatedData(cacheConfig, nodeEngine);
@@ -363,6 +370,10 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
         }
 
         boolean evicted = evictionStrategy.evict(records, evictionPolicyEvaluator, evictionChecker, this);
+        if (evicted && frequencySketch != null) {
+            // the record store is full, so its size is the expected maximum size
+            frequencySketch.ensureCapacity(records.size());
+        }
         if (isStatisticsEnabled() && evicted && primary) {
             statistics.increaseCacheEvictions(1);
         }
@@ -589,6 +600,9 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
     protected long onRecordAccess(Data key, R record, ExpiryPolicy expiryPolicy, long now) {
         record.setAccessTime(now);
         record.incrementAccessHit();
+        if (frequencySketch != null) {
+            frequencySketch.increment(key);
+        }
         return updateAccessDuration(key, record, expiryPolicy, now);
     }
 
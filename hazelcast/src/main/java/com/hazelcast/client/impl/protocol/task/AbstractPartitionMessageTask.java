@@ -63,6 +63,7 @@ public abstract class AbstractPartitionMessageTask<P> extends AbstractMessageTas
 
     @Override
     public final void processMessage() {
+        nodeEngine.getOperationService().admitClientRequest(getPartitionId());
         beforeProcess();
         Operation op = prepareOperation();
         if (ClientMessage.isFlagSet(clientMessage.getHeaderFlags(), ClientMessage.BACKUP_AWARE_FLAG)) {
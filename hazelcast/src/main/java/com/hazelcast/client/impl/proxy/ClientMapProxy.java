@@ -122,6 +122,7 @@ import com.hazelcast.map.impl.DataAwareEntryEvent;
 import com.hazelcast.map.impl.LazyMapEntry;
 import com.hazelcast.map.impl.ListenerAdapter;
 import com.hazelcast.map.impl.SimpleEntryView;
+import com.hazelcast.map.impl.iterator.MapQueryIterator;
 import com.hazelcast.map.impl.querycache.subscriber.QueryCacheEndToEndProvider;
 import com.hazelcast.map.impl.querycache.subscriber.QueryCacheRequest;
 import com.hazelcast.map.impl.querycache.subscriber.SubscriberContext;
@@ -1803,6 +1804,44 @@ public class ClientMapProxy<K, V> extends ClientProxy
                 predicate, projection);
     }
 
+    /**
+     * Returns an iterator for iterating the result of the projection on all entries of the map which
+     * satisfy the {@code predicate}. The {@link Iterator#remove()} method is not supported and will throw an
+     * {@link UnsupportedOperationException}.
+     * <p>
+     * Unlike {@link #values(Predicate)} and {@link #entrySet(Predicate)}, the result is not materialized
+     * at once. The partitions are queried one after another and the results are pulled from the
+     * partition owners in batches, so the memory needed to run the query is bounded by the
+     * {@code fetchSize} rather than by the result size and the query is not subject to the query result
+     * size limit. See {@link #iterator(int, int, Projection, Predicate)} for the details on the
+     * {@code fetchSize}.
+     * Predicates of type {@link PagingPredicate} are not supported.
+     * <p>
+     * <b>NOTE</b>
+     * Iterating the map should be done only when the {@link IMap} is not being
+     * mutated and the cluster is stable (there are no migrations or membership changes).
+     * In other cases, the iterator may not return some entries or may return an entry twice.
+     *
+     * @param fetchSize  the size of the batches which will be sent when iterating the data
+     * @param projection the projection to apply before returning the value. {@code null} value is not allowed
+     * @param predicate  the predicate which the entries must match. {@code null} value is not allowed
+     * @param <R>        the return type
+     * @return the iterator for the projected entries
+     * @throws UnsupportedOperationException if {@link Iterator#remove()} is invoked
+     * @throws IllegalArgumentException      if the predicate is of type {@link PagingPredicate}
+     */
+    @Override
+    public <R> Iterator<R> iterator(int fetchSize,
+                                    @Nonnull Projection<? super Map.Entry<K, V>, R> projection,
+                                    @Nonnull Predicate<K, V> predicate) {
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkNotPagingPredicate(predicate, "iterator");
+        return new MapQueryIterator<>(getContext().getPartitionService().getPartitionCount(),
+                partitionId -> new ClientMapQueryPartitionIterator<>(this, getContext(), fetchSize, partitionId,
+                        predicate, projection));
+    }
+
     @Override
     public InternalCompletableFuture<EventJournalInitialSubscriberState> subscribeToEventJournal(int partitionId) {
         final ClientMessage request = MapEventJournalSubscribeCodec.encodeRequest(name);
@@ -906,6 +906,7 @@ public class ConfigXmlGenerator {
                             "batch-size", mergePolicyConfig.getBatchSize())
                     .node("split-brain-protection-ref", m.getSplitBrainProtectionName())
                     .node("read-backup-data", m.isReadBackupData())
+                    .node("query-result-cache-size", m.getQueryResultCacheSize())
                     .node("metadata-policy", m.getMetadataPolicy());
 
             appendMerkleTreeConfig(gen, m.getMerkleTreeConfig());
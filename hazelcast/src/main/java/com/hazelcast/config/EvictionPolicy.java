@@ -34,7 +34,16 @@ public enum EvictionPolicy {
     /**
      * Randomly
      */
-    RANDOM(3);
+    RANDOM(3),
+    /**
+     * Least Frequently Used, where the access frequencies are estimated by a
+     * frequency sketch with aging. The sketch also remembers the frequencies
+     * of the recently evicted keys, so a scan of keys accessed only once can't
+     * push the frequently accessed ones out. Near Caches additionally don't
+     * admit a new key if it is accessed less frequently than the entry it
+     * would replace.
+     */
+    TINY_LFU(4);
 
     private final byte id;
 
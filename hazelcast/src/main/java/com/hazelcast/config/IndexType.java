@@ -24,7 +24,14 @@ public enum IndexType {
     SORTED(0),
 
     /** Hash index. Can be used with equality predicates. */
-    HASH(1);
+    HASH(1),
+
+    /**
+     * Bitmap index. Intended for low-cardinality attributes, can be used with
+     * equality predicates. Results produced by the index are combined using
+     * bitwise operations.
+     */
+    BITMAP(2);
 
     private final int id;
 
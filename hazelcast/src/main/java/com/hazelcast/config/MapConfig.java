@@ -36,6 +36,7 @@ import static com.hazelcast.internal.serialization.impl.SerializationUtil.writeN
 import static com.hazelcast.internal.util.Preconditions.checkAsyncBackupCount;
 import static com.hazelcast.internal.util.Preconditions.checkBackupCount;
 import static com.hazelcast.internal.util.Preconditions.checkFalse;
+import static com.hazelcast.internal.util.Preconditions.checkNotNegative;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.Preconditions.isNotNull;
 
@@ -93,6 +94,11 @@ public class MapConfig implements SplitBrainMergeTypeProvider,
      */
     public static final boolean DEFAULT_STATISTICS_ENABLED = true;
 
+    /**
+     * Default size of the query result cache, the cache is disabled by default.
+     */
+    public static final int DEFAULT_QUERY_RESULT_CACHE_SIZE = 0;
+
     private boolean readBackupData;
     private boolean statisticsEnabled = DEFAULT_STATISTICS_ENABLED;
     private int backupCount = DEFAULT_BACKUP_COUNT;
@@ -120,6 +126,7 @@ public class MapConfig implements SplitBrainMergeTypeProvider,
     private HotRestartConfig hotRestartConfig = new HotRestartConfig();
     private MerkleTreeConfig merkleTreeConfig = new MerkleTreeConfig();
     private EventJournalConfig eventJournalConfig = new EventJournalConfig();
+    private int queryResultCacheSize = DEFAULT_QUERY_RESULT_CACHE_SIZE;
 
     public MapConfig() {
     }
@@ -158,6 +165,7 @@ public class MapConfig implements SplitBrainMergeTypeProvider,
         this.hotRestartConfig = new HotRestartConfig(config.hotRestartConfig);
         this.merkleTreeConfig = new MerkleTreeConfig(config.merkleTreeConfig);
         this.eventJournalConfig = new EventJournalConfig(config.eventJournalConfig);
+        this.queryResultCacheSize = config.queryResultCacheSize;
     }
 
     /**
@@ -467,6 +475,40 @@ public class MapConfig implements SplitBrainMergeTypeProvider,
         return this;
     }
 
+    /**
+     * Returns the maximum number of query results cached by every member for
+     * this map.
+     *
+     * @return the maximum number of cached query results, {@code 0} if the
+     * query result cache is disabled
+     * @see #setQueryResultCacheSize(int)
+     */
+    public int getQueryResultCacheSize() {
+        return queryResultCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of query results cached by every member for
+     * this map. {@code 0} disables the query result cache, which is the
+     * default.
+     * <p>
+     * The results of the repeated queries and aggregations are served from the
+     * cache until the map is mutated on the member or the partitions owned by
+     * the member change. Cached results are evicted in the least recently used
+     * order once the cache is full. The total size of the cached results is
+     * bounded by the {@code hazelcast.query.result.cache.max.size.bytes}
+     * property as well, and too large results are not cached. The cache is not used for maps having
+     * expiring entries, since their results may change without mutations.
+     *
+     * @param queryResultCacheSize the maximum number of cached query results
+     * @return the current map config instance
+     * @throws IllegalArgumentException if the size is negative
+     */
+    public MapConfig setQueryResultCacheSize(int queryResultCacheSize) {
+        this.queryResultCacheSize = checkNotNegative(queryResultCacheSize, "Query result cache size must not be negative");
+        return this;
+    }
+
     /**
      * Gets the WAN target replication reference.
      *
@@ -758,6 +800,9 @@ public class MapConfig implements SplitBrainMergeTypeProvider,
         if (statisticsEnabled != that.statisticsEnabled) {
             return false;
         }
+        if (queryResultCacheSize != that.queryResultCacheSize) {
+            return false;
+        }
         if (!name.equals(that.name)) {
             return false;
         }
@@ -850,6 +895,7 @@ public class MapConfig implements SplitBrainMergeTypeProvider,
         result = 31 * result + merkleTreeConfig.hashCode();
         result = 31 * result + eventJournalConfig.hashCode();
         result = 31 * result + hotRestartConfig.hashCode();
+        result = 31 * result + queryResultCacheSize;
         return result;
     }
 
@@ -880,6 +926,7 @@ public class MapConfig implements SplitBrainMergeTypeProvider,
                 + ", splitBrainProtectionName=" + splitBrainProtectionName
                 + ", queryCacheConfigs=" + queryCacheConfigs
                 + ", cacheDeserializedValues=" + cacheDeserializedValues
+                + ", queryResultCacheSize=" + queryResultCacheSize
                 + '}';
     }
 
@@ -922,6 +969,7 @@ public class MapConfig implements SplitBrainMergeTypeProvider,
         out.writeObject(merkleTreeConfig);
         out.writeObject(eventJournalConfig);
         out.writeShort(metadataPolicy.getId());
+        out.writeInt(queryResultCacheSize);
     }
 
     @Override
@@ -953,5 +1001,6 @@ public class MapConfig implements SplitBrainMergeTypeProvider,
         merkleTreeConfig = in.readObject();
         eventJournalConfig = in.readObject();
         metadataPolicy = MetadataPolicy.getById(in.readShort());
+        queryResultCacheSize = in.readInt();
     }
 }
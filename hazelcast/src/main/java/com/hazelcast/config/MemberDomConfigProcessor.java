@@ -1705,6 +1705,8 @@ class MemberDomConfigProcessor extends AbstractDomConfigProcessor {
                 mapConfig.setHotRestartConfig(createHotRestartConfig(node));
             } else if ("read-backup-data".equals(nodeName)) {
                 mapConfig.setReadBackupData(getBooleanValue(value));
+            } else if ("query-result-cache-size".equals(nodeName)) {
+                mapConfig.setQueryResultCacheSize(getIntegerValue("query-result-cache-size", value));
             } else if ("statistics-enabled".equals(nodeName)) {
                 mapConfig.setStatisticsEnabled(getBooleanValue(value));
             } else if ("cache-deserialized-values".equals(nodeName)) {
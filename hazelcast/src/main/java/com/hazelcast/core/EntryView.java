@@ -69,6 +69,8 @@ public interface EntryView<K, V> {
      * Returns number of hits of the entry.
      * <p>
      * <b>Warning:</b> This method returns {@code -1} if statistics are not enabled or not implemented.
+     * The entries of the maps using compact records, see
+     * {@link com.hazelcast.spi.properties.GroupProperty#MAP_COMPACT_RECORDS_ENABLED}, report {@code 0}.
      *
      * @return number of hits of the entry
      */
@@ -24,6 +24,7 @@ import com.hazelcast.internal.cluster.Joiner;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
 import com.hazelcast.internal.networking.Networking;
+import com.hazelcast.internal.networking.NetworkingProvider;
 import com.hazelcast.internal.networking.ServerSocketRegistry;
 import com.hazelcast.internal.networking.nio.NioNetworking;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
@@ -32,18 +33,23 @@ import com.hazelcast.internal.nio.NodeIOService;
 import com.hazelcast.internal.nio.tcp.TcpIpConnectionChannelErrorHandler;
 import com.hazelcast.internal.nio.tcp.TcpIpNetworkingService;
 import com.hazelcast.internal.util.InstantiationUtils;
+import com.hazelcast.internal.util.ServiceLoader;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.impl.LoggingServiceImpl;
 import com.hazelcast.spi.MemberAddressProvider;
 import com.hazelcast.spi.properties.HazelcastProperties;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 
 import static com.hazelcast.config.ConfigAccessor.getActiveMemberNetworkConfig;
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.spi.properties.GroupProperty.IO_BALANCER_INTERVAL_SECONDS;
+import static com.hazelcast.spi.properties.GroupProperty.IO_BUFFER_POOL_ENABLED;
 import static com.hazelcast.spi.properties.GroupProperty.IO_INPUT_THREAD_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.IO_OUTPUT_THREAD_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.IO_TRANSPORT;
 import static com.hazelcast.spi.properties.GroupProperty.IO_WRITE_THROUGH_ENABLED;
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
@@ -55,6 +61,9 @@ public class DefaultNodeContext implements NodeContext {
             "com.hazelcast.instance.impl.DefaultNodeExtension"
     ));
 
+    // the transport of the NioNetworking, see GroupProperty.IO_TRANSPORT
+    private static final String NIO_TRANSPORT = "nio";
+
     @Override
     public NodeExtension createNodeExtension(Node node) {
         return NodeExtensionFactory.create(node, EXTENSION_PRIORITY_LIST);
@@ -168,16 +177,51 @@ public class DefaultNodeContext implements NodeContext {
 
         HazelcastProperties props = node.getProperties();
 
-        return new NioNetworking(
-                new NioNetworking.Context()
-                        .loggingService(loggingService)
-                        .metricsRegistry(node.nodeEngine.getMetricsRegistry())
-                        .threadNamePrefix(node.hazelcastInstance.getName())
-                        .errorHandler(errorHandler)
-                        .inputThreadCount(props.getInteger(IO_INPUT_THREAD_COUNT))
-                        .outputThreadCount(props.getInteger(IO_OUTPUT_THREAD_COUNT))
-                        .balancerIntervalSeconds(props.getInteger(IO_BALANCER_INTERVAL_SECONDS))
-                        .writeThroughEnabled(props.getBoolean(IO_WRITE_THROUGH_ENABLED))
-                        .concurrencyDetection(node.nodeEngine.getConcurrencyDetection()));
+        NioNetworking.Context ctx = new NioNetworking.Context()
+                .loggingService(loggingService)
+                .metricsRegistry(node.nodeEngine.getMetricsRegistry())
+                .threadNamePrefix(node.hazelcastInstance.getName())
+                .errorHandler(errorHandler)
+                .inputThreadCount(props.getInteger(IO_INPUT_THREAD_COUNT))
+                .outputThreadCount(props.getInteger(IO_OUTPUT_THREAD_COUNT))
+                .balancerIntervalSeconds(props.getInteger(IO_BALANCER_INTERVAL_SECONDS))
+                .writeThroughEnabled(props.getBoolean(IO_WRITE_THROUGH_ENABLED))
+                .bufferPoolEnabled(props.getBoolean(IO_BUFFER_POOL_ENABLED))
+                .concurrencyDetection(node.nodeEngine.getConcurrencyDetection())
+                // the partition threads host the io in the thread-per-core mode
+                .eventLoopHosts(node.nodeEngine.getOperationService().getOperationExecutor().getEventLoopHosts());
+
+        NetworkingProvider provider = findNetworkingProvider(node, props.getString(IO_TRANSPORT));
+        return provider == null ? new NioNetworking(ctx) : provider.newNetworking(ctx);
+    }
+
+    private static NetworkingProvider findNetworkingProvider(Node node, String transport) {
+        if (NIO_TRANSPORT.equals(transport)) {
+            return null;
+        }
+
+        ILogger logger = node.getLogger(Networking.class);
+        try {
+            Iterator<NetworkingProvider> providers = ServiceLoader.iterator(NetworkingProvider.class,
+                    NetworkingProvider.FACTORY_ID, node.getConfigClassLoader());
+            while (providers.hasNext()) {
+                NetworkingProvider provider = providers.next();
+                if (!provider.transport().equals(transport)) {
+                    continue;
+                }
+                if (provider.isAvailable()) {
+                    logger.info("Using the " + transport + " transport");
+                    return provider;
+                }
+                logger.warning("The " + transport + " transport isn't available on this platform, "
+                        + "falling back to the " + NIO_TRANSPORT + " transport");
+                return null;
+            }
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+        logger.warning("The " + transport + " transport isn't found, falling back to the "
+                + NIO_TRANSPORT + " transport");
+        return null;
     }
 }
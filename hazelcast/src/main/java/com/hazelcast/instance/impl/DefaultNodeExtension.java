@@ -74,6 +74,8 @@ import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
 import com.hazelcast.internal.nio.IOService;
 import com.hazelcast.internal.nio.tcp.DefaultChannelInitializerProvider;
+import com.hazelcast.internal.nio.tcp.PacketBatcher;
+import com.hazelcast.internal.nio.tcp.PacketCompressor;
 import com.hazelcast.internal.nio.tcp.PacketDecoder;
 import com.hazelcast.internal.nio.tcp.PacketEncoder;
 import com.hazelcast.internal.nio.tcp.TcpIpConnection;
@@ -98,11 +100,13 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.eventservice.impl.EventServiceImpl;
 import com.hazelcast.spi.impl.servicemanager.ServiceManager;
 import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.version.MemberVersion;
 import com.hazelcast.version.Version;
 import com.hazelcast.wan.impl.WanReplicationService;
 import com.hazelcast.wan.impl.WanReplicationServiceImpl;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -293,7 +297,21 @@ public class DefaultNodeExtension implements NodeExtension {
     @Override
     public OutboundHandler[] createOutboundHandlers(EndpointQualifier qualifier,
             TcpIpConnection connection, IOService ioService) {
-        return new OutboundHandler[]{new PacketEncoder()};
+        HazelcastProperties properties = node.getProperties();
+        List<OutboundHandler> handlers = new ArrayList<>(3);
+        if (properties.getBoolean(GroupProperty.IO_PACKET_BATCHING_ENABLED)) {
+            handlers.add(new PacketBatcher(connection, properties.getInteger(GroupProperty.IO_PACKET_BATCH_SIZE)));
+        }
+        if (properties.getBoolean(GroupProperty.IO_COMPRESSION_ENABLED)) {
+            handlers.add(new PacketCompressor(connection, properties.getInteger(GroupProperty.IO_COMPRESSION_THRESHOLD)));
+        }
+        handlers.add(new PacketEncoder(properties.getBoolean(GroupProperty.IO_GATHERING_WRITES_ENABLED)));
+        // the pipeline wires only the buffers between the handlers, so the
+        // handlers passing the packets on are wired here
+        for (int i = 1; i < handlers.size(); i++) {
+            handlers.get(i).src(handlers.get(i - 1).dst());
+        }
+        return handlers.toArray(new OutboundHandler[0]);
     }
 
     @Override
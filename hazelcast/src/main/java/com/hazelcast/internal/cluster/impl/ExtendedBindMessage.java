@@ -40,26 +40,59 @@ import static com.hazelcast.internal.serialization.impl.SerializationUtil.writeC
  * established yet. The {@code ExtendedBindMessage} itself includes a
  * schema version so it can be extended in future versions without having
  * to use another packet type.
+ * <p>
+ * Since schema version 2 it also conveys if the sender compresses the large
+ * packets, see {@link com.hazelcast.internal.nio.PacketCompression}, and the
+ * sender reads the batch packets, see
+ * {@link com.hazelcast.internal.nio.Packet.Type#BATCH}.
+ * <p>
+ * Since schema version 3 the sender reads the compactly encoded Near Cache
+ * invalidation batches, see
+ * {@link com.hazelcast.internal.nearcache.impl.invalidation.CompactBatchNearCacheInvalidation}.
+ * The layout of the message is the same as of version 2.
  *
  * @since 3.12
  * @see BindMessage
  */
 public class ExtendedBindMessage implements IdentifiedDataSerializable {
 
+    /**
+     * The schema version since which the message conveys the packet compression.
+     */
+    public static final byte PACKET_COMPRESSION_SCHEMA_VERSION = 2;
+
+    /**
+     * The schema version since which the sender reads the batch packets.
+     */
+    public static final byte BATCH_PACKET_SCHEMA_VERSION = 2;
+
+    /**
+     * The schema version since which the sender reads the compact Near Cache
+     * invalidation batches.
+     */
+    public static final byte COMPACT_INVALIDATION_SCHEMA_VERSION = 3;
+
     private byte schemaVersion;
     private Map<ProtocolType, Collection<Address>> localAddresses;
     private Address targetAddress;
     private boolean reply;
+    private boolean packetCompression;
 
     public ExtendedBindMessage() {
     }
 
     public ExtendedBindMessage(byte schemaVersion, Map<ProtocolType, Collection<Address>> localAddresses,
                                Address targetAddress, boolean reply) {
+        this(schemaVersion, localAddresses, targetAddress, reply, false);
+    }
+
+    public ExtendedBindMessage(byte schemaVersion, Map<ProtocolType, Collection<Address>> localAddresses,
+                               Address targetAddress, boolean reply, boolean packetCompression) {
         this.schemaVersion = schemaVersion;
         this.localAddresses = new EnumMap<>(localAddresses);
         this.targetAddress = targetAddress;
         this.reply = reply;
+        this.packetCompression = packetCompression;
     }
 
     byte getSchemaVersion() {
@@ -78,6 +111,18 @@ public class ExtendedBindMessage implements IdentifiedDataSerializable {
         return reply;
     }
 
+    public boolean isPacketCompression() {
+        return packetCompression;
+    }
+
+    public boolean isBatchPacketAware() {
+        return schemaVersion >= BATCH_PACKET_SCHEMA_VERSION;
+    }
+
+    public boolean isCompactInvalidationAware() {
+        return schemaVersion >= COMPACT_INVALIDATION_SCHEMA_VERSION;
+    }
+
     @Override
     public int getFactoryId() {
         return ClusterDataSerializerHook.F_ID;
@@ -102,6 +147,9 @@ public class ExtendedBindMessage implements IdentifiedDataSerializable {
             out.writeInt(addressEntry.getKey().ordinal());
             writeCollection(addressEntry.getValue(), out);
         }
+        if (schemaVersion >= PACKET_COMPRESSION_SCHEMA_VERSION) {
+            out.writeBoolean(packetCompression);
+        }
     }
 
     @Override
@@ -112,20 +160,24 @@ public class ExtendedBindMessage implements IdentifiedDataSerializable {
         int size = in.readInt();
         if (size == 0) {
             localAddresses = Collections.emptyMap();
-            return;
+        } else {
+            Map<ProtocolType, Collection<Address>> addressesPerProtocolType = new EnumMap<>(ProtocolType.class);
+            for (int i = 0; i < size; i++) {
+                ProtocolType protocolType = ProtocolType.valueOf(in.readInt());
+                Collection<Address> addresses = readCollection(in);
+                addressesPerProtocolType.put(protocolType, addresses);
+            }
+            this.localAddresses = addressesPerProtocolType;
         }
-        Map<ProtocolType, Collection<Address>> addressesPerProtocolType = new EnumMap<>(ProtocolType.class);
-        for (int i = 0; i < size; i++) {
-            ProtocolType protocolType = ProtocolType.valueOf(in.readInt());
-            Collection<Address> addresses = readCollection(in);
-            addressesPerProtocolType.put(protocolType, addresses);
+        if (schemaVersion >= PACKET_COMPRESSION_SCHEMA_VERSION) {
+            packetCompression = in.readBoolean();
         }
-        this.localAddresses = addressesPerProtocolType;
     }
 
     @Override
     public String toString() {
         return "ExtendedBindMessage{" + "schemaVersion=" + schemaVersion + ", localAddresses=" + localAddresses
-                + ", targetAddress=" + targetAddress + ", reply=" + reply + '}';
+                + ", targetAddress=" + targetAddress + ", reply=" + reply
+                + ", packetCompression=" + packetCompression + '}';
     }
 }
@@ -244,6 +244,11 @@ public class MapConfigReadOnly extends MapConfig {
         throw throwReadOnly();
     }
 
+    @Override
+    public MapConfig setQueryResultCacheSize(int queryResultCacheSize) {
+        throw throwReadOnly();
+    }
+
     @Override
     public MapConfig setWanReplicationRef(WanReplicationRef wanReplicationRef) {
         throw throwReadOnly();
@@ -20,6 +20,7 @@ import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.internal.eviction.impl.comparator.LFUEvictionPolicyComparator;
 import com.hazelcast.internal.eviction.impl.comparator.LRUEvictionPolicyComparator;
 import com.hazelcast.internal.eviction.impl.comparator.RandomEvictionPolicyComparator;
+import com.hazelcast.internal.eviction.impl.comparator.TinyLFUEvictionPolicyComparator;
 import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
 
@@ -43,6 +44,8 @@ public final class EvictionPolicyEvaluatorProvider {
                 return new LFUEvictionPolicyComparator();
             case RANDOM:
                 return new RandomEvictionPolicyComparator();
+            case TINY_LFU:
+                return new TinyLFUEvictionPolicyComparator();
             case NONE:
                 return null;
             default:
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction;
+
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A count-min sketch estimating the access frequencies of the keys of a
+ * store, used by the {@link com.hazelcast.config.EvictionPolicy#TINY_LFU}
+ * eviction policy.
+ * <p>
+ * The sketch has 4-bit counters, 16 of them packed in a {@code long}, and a key
+ * is counted in 4 counters chosen by different hash functions. Its frequency
+ * is the minimum of its counters, so it can only be overestimated by the
+ * collisions. The frequencies are aged: after {@code 10 * capacity} increments
+ * all counters are halved, so the keys which were popular a while ago don't
+ * stay in the store forever. The sketch keeps counting the keys after they are
+ * evicted, which lets an evicted popular key win against the one-hit wonders
+ * when it comes back.
+ * <p>
+ * The sketch takes 8 bytes per expected entry. It grows with the store, see
+ * {@link #ensureCapacity(int)}.
+ * <p>
+ * The sketch isn't synchronized. It can be used by concurrent readers like a
+ * Near Cache, the racing increments are lost, which only makes the estimates a
+ * bit lower.
+ */
+public final class FrequencySketch {
+
+    /**
+     * The maximum frequency of a key.
+     */
+    public static final int MAX_FREQUENCY = 15;
+
+    static final int MIN_CAPACITY = 16;
+    static final int MAX_CAPACITY = 1 << 26;
+
+    private static final int SAMPLE_FACTOR = 10;
+    private static final int HASH_COUNT = 4;
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTER_SELECTOR_SHIFT = 60;
+    private static final long COUNTER_MASK = 0xfL;
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int SPREAD_SHIFT = 16;
+    private static final int SPREAD_MULTIPLIER = 0x45d9f3b;
+    private static final int HALF_LONG_BITS = 32;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L,
+    };
+
+    private volatile long[] table;
+    private int sampleSize;
+    private int additions;
+
+    public FrequencySketch() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize the expected maximum number of entries of the store
+     */
+    public FrequencySketch(int expectedSize) {
+        ensureCapacity(expectedSize);
+    }
+
+    /**
+     * Grows the sketch for the given number of entries. The frequencies are
+     * reset when the sketch grows. The stores call it when they are full, so
+     * it only happens a few times while the store fills up.
+     *
+     * @param expectedSize the expected maximum number of entries of the store
+     */
+    public void ensureCapacity(int expectedSize) {
+        int capacity = nextPowerOfTwo(Math.min(Math.max(expectedSize, MIN_CAPACITY), MAX_CAPACITY));
+        long[] table = this.table;
+        if (table != null && table.length >= capacity) {
+            return;
+        }
+        this.sampleSize = SAMPLE_FACTOR * capacity;
+        this.additions = 0;
+        this.table = new long[capacity];
+    }
+
+    /**
+     * Returns the estimated frequency of the key.
+     *
+     * @param key the key
+     * @return the estimated frequency, between 0 and {@value #MAX_FREQUENCY}
+     */
+    public int frequency(Object key) {
+        long[] table = this.table;
+        int hash = spread(key.hashCode());
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            long h = hash(hash, i);
+            int shift = counterShift(h);
+            int count = (int) ((table[index(h, table)] >>> shift) & COUNTER_MASK);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Counts an access of the key.
+     *
+     * @param key the key
+     */
+    public void increment(Object key) {
+        long[] table = this.table;
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            long h = hash(hash, i);
+            int index = index(h, table);
+            int shift = counterShift(h);
+            long counters = table[index];
+            if (((counters >>> shift) & COUNTER_MASK) != MAX_FREQUENCY) {
+                table[index] = counters + (1L << shift);
+                added = true;
+            }
+        }
+
+        if (added && ++additions >= sampleSize) {
+            reset(table);
+        }
+    }
+
+    /**
+     * Halves all the counters.
+     */
+    private void reset(long[] table) {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    int capacity() {
+        return table.length;
+    }
+
+    private static int spread(int hash) {
+        int h = ((hash >>> SPREAD_SHIFT) ^ hash) * SPREAD_MULTIPLIER;
+        h = ((h >>> SPREAD_SHIFT) ^ h) * SPREAD_MULTIPLIER;
+        return (h >>> SPREAD_SHIFT) ^ h;
+    }
+
+    private static long hash(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        return h + (h >>> HALF_LONG_BITS);
+    }
+
+    private static int index(long h, long[] table) {
+        return (int) h & (table.length - 1);
+    }
+
+    private static int counterShift(long h) {
+        return (int) (h >>> COUNTER_SELECTOR_SHIFT) * COUNTER_BITS;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction.impl.comparator;
+
+import com.hazelcast.internal.eviction.EvictableEntryView;
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.eviction.EvictionPolicyComparator;
+import com.hazelcast.internal.eviction.FrequencySketch;
+import com.hazelcast.internal.serialization.SerializableByConvention;
+
+/**
+ * {@link com.hazelcast.config.EvictionPolicy#TINY_LFU} policy based {@link EvictionPolicyComparator}.
+ * <p>
+ * Each instance owns the {@link FrequencySketch} of the store it is created
+ * for, the store counts the accesses of its keys in it. The keys are compared
+ * by their {@link EvictionCandidate#getAccessor() accessors}, so they are
+ * counted as they are stored.
+ */
+@SerializableByConvention
+public class TinyLFUEvictionPolicyComparator extends EvictionPolicyComparator {
+
+    private final transient FrequencySketch frequencySketch = new FrequencySketch();
+
+    public FrequencySketch getFrequencySketch() {
+        return frequencySketch;
+    }
+
+    @Override
+    public int compare(EvictableEntryView e1, EvictableEntryView e2) {
+        int frequency1 = frequencySketch.frequency(keyOf(e1));
+        int frequency2 = frequencySketch.frequency(keyOf(e2));
+        if (frequency2 < frequency1) {
+            return SECOND_ENTRY_HAS_HIGHER_PRIORITY_TO_BE_EVICTED;
+        } else if (frequency1 < frequency2) {
+            return FIRST_ENTRY_HAS_HIGHER_PRIORITY_TO_BE_EVICTED;
+        } else {
+            long accessTime1 = e1.getLastAccessTime();
+            long accessTime2 = e2.getLastAccessTime();
+            // if frequencies are same, we select the least recently used entry to evict
+            if (accessTime2 < accessTime1) {
+                return SECOND_ENTRY_HAS_HIGHER_PRIORITY_TO_BE_EVICTED;
+            } else if (accessTime2 > accessTime1) {
+                return FIRST_ENTRY_HAS_HIGHER_PRIORITY_TO_BE_EVICTED;
+            } else {
+                return BOTH_OF_ENTRIES_HAVE_SAME_PRIORITY_TO_BE_EVICTED;
+            }
+        }
+    }
+
+    private static Object keyOf(EvictableEntryView entryView) {
+        if (entryView instanceof EvictionCandidate) {
+            return ((EvictionCandidate) entryView).getAccessor();
+        }
+        return entryView.getKey();
+    }
+}
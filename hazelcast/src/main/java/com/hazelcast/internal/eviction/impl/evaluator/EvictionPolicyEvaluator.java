@@ -20,6 +20,8 @@ import com.hazelcast.internal.eviction.Evictable;
 import com.hazelcast.internal.eviction.EvictionCandidate;
 import com.hazelcast.internal.eviction.EvictionPolicyComparator;
 import com.hazelcast.internal.eviction.Expirable;
+import com.hazelcast.internal.eviction.FrequencySketch;
+import com.hazelcast.internal.eviction.impl.comparator.TinyLFUEvictionPolicyComparator;
 import com.hazelcast.internal.util.Clock;
 
 /**
@@ -41,6 +43,20 @@ public class EvictionPolicyEvaluator<A, E extends Evictable> {
         return evictionPolicyComparator;
     }
 
+    /**
+     * Returns the {@link FrequencySketch} the stores count the accesses of
+     * their keys in, when the {@link com.hazelcast.config.EvictionPolicy#TINY_LFU}
+     * policy is used.
+     *
+     * @return the frequency sketch or {@code null} if the eviction policy doesn't use one
+     */
+    public FrequencySketch getFrequencySketch() {
+        if (evictionPolicyComparator instanceof TinyLFUEvictionPolicyComparator) {
+            return ((TinyLFUEvictionPolicyComparator) evictionPolicyComparator).getFrequencySketch();
+        }
+        return null;
+    }
+
     /**
      * Selects the best candidate to be evicted.
      * The definition of the best depends on configured eviction policy. (LRU, LFU, custom, etc)
@@ -30,7 +30,7 @@ public final class SamplingEvictionStrategy<A, E extends Evictable, S extends Sa
 
     public static final SamplingEvictionStrategy INSTANCE = new SamplingEvictionStrategy();
 
-    private static final int SAMPLE_COUNT = 15;
+    public static final int SAMPLE_COUNT = 15;
 
     private SamplingEvictionStrategy() {
     }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * {@link MemoryManager} which allocates blocks with an {@link UnsafeMalloc} and
+ * refuses to allocate more than the configured number of bytes in total.
+ * <p>
+ * The allocator is safe to be used concurrently, e.g. by all partition threads
+ * of a member; the accounting is done with a single {@link AtomicLong}.
+ */
+public final class StandardMemoryManager implements MemoryManager {
+
+    private final long maxMemory;
+    private final AtomicLong usedMemory = new AtomicLong();
+    private final MemoryAllocator malloc = new UnsafeMalloc();
+    private final MemoryAllocator allocator = new BoundedAllocator();
+
+    public StandardMemoryManager(long maxMemory) {
+        checkPositive(maxMemory, "maxMemory should be positive");
+        if (!MEM_AVAILABLE) {
+            throw new IllegalStateException("Native memory accessor is not available on this platform");
+        }
+        this.maxMemory = maxMemory;
+    }
+
+    @Override
+    public MemoryAllocator getAllocator() {
+        return allocator;
+    }
+
+    @Override
+    public MemoryAccessor getAccessor() {
+        return MEM;
+    }
+
+    /**
+     * @return the number of bytes currently allocated through this manager
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    /**
+     * @return the maximum number of bytes this manager will hand out
+     */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * @return the number of bytes which can still be allocated through this manager
+     */
+    public long getFreeMemory() {
+        return Math.max(0, maxMemory - usedMemory.get());
+    }
+
+    @Override
+    public void dispose() {
+        malloc.dispose();
+    }
+
+    private void reserve(long size) {
+        for (; ; ) {
+            long used = usedMemory.get();
+            long newUsed = used + size;
+            if (newUsed > maxMemory) {
+                throw new NativeOutOfMemoryError("Not enough contiguous memory available! Cannot allocate "
+                        + size + " bytes, max: " + maxMemory + ", used: " + used);
+            }
+            if (usedMemory.compareAndSet(used, newUsed)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StandardMemoryManager{maxMemory=" + maxMemory + ", usedMemory=" + usedMemory.get() + '}';
+    }
+
+    private final class BoundedAllocator implements MemoryAllocator {
+
+        @Override
+        public long allocate(long size) {
+            reserve(size);
+            try {
+                return malloc.allocate(size);
+            } catch (NativeOutOfMemoryError e) {
+                usedMemory.addAndGet(-size);
+                throw e;
+            }
+        }
+
+        @Override
+        public long reallocate(long address, long currentSize, long newSize) {
+            long diff = newSize - currentSize;
+            if (diff > 0) {
+                reserve(diff);
+            }
+            long newAddress;
+            try {
+                newAddress = malloc.reallocate(address, currentSize, newSize);
+            } catch (NativeOutOfMemoryError e) {
+                if (diff > 0) {
+                    usedMemory.addAndGet(-diff);
+                }
+                throw e;
+            }
+            if (diff < 0) {
+                usedMemory.addAndGet(diff);
+            }
+            return newAddress;
+        }
+
+        @Override
+        public void free(long address, long size) {
+            malloc.free(address, size);
+            usedMemory.addAndGet(-size);
+        }
+
+        @Override
+        public void dispose() {
+            StandardMemoryManager.this.dispose();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+
+/**
+ * {@link MemoryAllocator} which delegates to the {@code allocateMemory}, {@code reallocateMemory}
+ * and {@code freeMemory} methods of {@link sun.misc.Unsafe}, i.e. to the OS-level {@code malloc}.
+ * <p>
+ * Blocks are zeroed on allocation, as required by the {@link MemoryAllocator} contract.
+ */
+public final class UnsafeMalloc implements MemoryAllocator {
+
+    private static final byte ZERO = 0;
+
+    public UnsafeMalloc() {
+        if (!UNSAFE_AVAILABLE) {
+            throw new IllegalStateException("sun.misc.Unsafe is not available, cannot allocate native memory");
+        }
+    }
+
+    @Override
+    public long allocate(long size) {
+        long address = allocate0(size);
+        UNSAFE.setMemory(address, size, ZERO);
+        return address;
+    }
+
+    @Override
+    public long reallocate(long address, long currentSize, long newSize) {
+        long newAddress;
+        try {
+            newAddress = UNSAFE.reallocateMemory(address, newSize);
+        } catch (OutOfMemoryError e) {
+            throw new NativeOutOfMemoryError("Cannot reallocate " + newSize + " bytes", e);
+        }
+        if (newSize > currentSize) {
+            UNSAFE.setMemory(newAddress + currentSize, newSize - currentSize, ZERO);
+        }
+        return newAddress;
+    }
+
+    @Override
+    public void free(long address, long size) {
+        UNSAFE.freeMemory(address);
+    }
+
+    @Override
+    public void dispose() {
+        // nothing to dispose, every block is freed by its owner
+    }
+
+    private static long allocate0(long size) {
+        try {
+            return UNSAFE.allocateMemory(size);
+        } catch (OutOfMemoryError e) {
+            throw new NativeOutOfMemoryError("Cannot allocate " + size + " bytes", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "UnsafeMalloc";
+    }
+}
@@ -120,6 +120,18 @@ public interface NearCacheRecordStore<K, V> extends InitializingObject {
      */
     void doExpiration();
 
+    /**
+     * Checks if a new key can be stored into this record store. Called before
+     * the eviction which makes room for the new key.
+     *
+     * @param key the key to be stored
+     * @return {@code true} if the key can be stored, {@code false} if the
+     * eviction policy doesn't admit the key into the full record store
+     */
+    default boolean admit(K key) {
+        return true;
+    }
+
     /**
      * Does eviction as specified configuration {@link com.hazelcast.config.EvictionConfig}
      * in {@link com.hazelcast.config.NearCacheConfig}.
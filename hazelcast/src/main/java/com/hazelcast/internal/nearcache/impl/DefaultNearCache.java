@@ -19,9 +19,11 @@ package com.hazelcast.internal.nearcache.impl;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheDataRecordStore;
+import com.hazelcast.internal.nearcache.impl.store.NearCacheNativeRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheObjectRecordStore;
 import com.hazelcast.monitor.NearCacheStats;
 import com.hazelcast.nio.serialization.Data;
@@ -34,6 +36,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.config.NearCacheConfig.DEFAULT_MEMORY_FORMAT;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
 import static com.hazelcast.internal.util.Preconditions.checkNotInstanceOf;
 
 public class DefaultNearCache<K, V> implements NearCache<K, V> {
@@ -42,6 +45,11 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
     protected final ClassLoader classLoader;
     protected final NearCacheConfig nearCacheConfig;
     protected final SerializationService serializationService;
+    /**
+     * The memory manager of the {@link InMemoryFormat#NATIVE} Near Caches,
+     * {@code null} when the native memory isn't enabled.
+     */
+    protected final StandardMemoryManager memoryManager;
 
     protected ScheduledFuture expirationTaskFuture;
     protected NearCacheRecordStore<K, V> nearCacheRecordStore;
@@ -62,6 +70,15 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
                             NearCacheRecordStore<K, V> nearCacheRecordStore,
                             SerializationService serializationService, TaskScheduler scheduler,
                             ClassLoader classLoader, HazelcastProperties properties) {
+        this(name, nearCacheConfig, nearCacheRecordStore,
+                serializationService, scheduler, classLoader, properties, null);
+    }
+
+    public DefaultNearCache(String name, NearCacheConfig nearCacheConfig,
+                            NearCacheRecordStore<K, V> nearCacheRecordStore,
+                            SerializationService serializationService, TaskScheduler scheduler,
+                            ClassLoader classLoader, HazelcastProperties properties,
+                            StandardMemoryManager memoryManager) {
         this.name = name;
         this.nearCacheConfig = nearCacheConfig;
         this.serializationService = serializationService;
@@ -70,6 +87,7 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
         this.nearCacheRecordStore = nearCacheRecordStore;
         this.serializeKeys = nearCacheConfig.isSerializeKeys();
         this.properties = properties;
+        this.memoryManager = memoryManager;
     }
 
     @Override
@@ -92,6 +110,13 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
                 return new NearCacheDataRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
             case OBJECT:
                 return new NearCacheObjectRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
+            case NATIVE:
+                if (memoryManager == null) {
+                    throw new IllegalArgumentException("Enable native memory config to use NATIVE in-memory-format"
+                            + " for Near Cache");
+                }
+                return new NearCacheNativeRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader,
+                        memoryManager);
             default:
                 throw new IllegalArgumentException("Invalid in memory format: " + inMemoryFormat);
         }
@@ -121,6 +146,10 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
     public void put(K key, Data keyData, V value, Data valueData) {
         checkKeyFormat(key);
 
+        if (!nearCacheRecordStore.admit(key)) {
+            return;
+        }
+
         nearCacheRecordStore.doEviction(false);
 
         nearCacheRecordStore.put(key, keyData, value, valueData);
@@ -191,6 +220,10 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
 
     @Override
     public long tryReserveForUpdate(K key, Data keyData) {
+        if (!nearCacheRecordStore.admit(key)) {
+            return NOT_RESERVED;
+        }
+
         nearCacheRecordStore.doEviction(false);
 
         return nearCacheRecordStore.tryReserveForUpdate(key, keyData);
@@ -19,6 +19,7 @@ package com.hazelcast.internal.nearcache.impl;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheManager;
 import com.hazelcast.monitor.NearCacheStats;
@@ -43,6 +44,7 @@ public class DefaultNearCacheManager implements NearCacheManager {
     protected final ClassLoader classLoader;
     protected final HazelcastProperties properties;
     protected final SerializationService serializationService;
+    protected final StandardMemoryManager memoryManager;
 
     private final Object mutex = new Object();
     private final Queue<ScheduledFuture> preloadTaskFutures = new ConcurrentLinkedQueue<ScheduledFuture>();
@@ -52,6 +54,15 @@ public class DefaultNearCacheManager implements NearCacheManager {
 
     public DefaultNearCacheManager(SerializationService ss, TaskScheduler es,
                                    ClassLoader classLoader, HazelcastProperties properties) {
+        this(ss, es, classLoader, properties, null);
+    }
+
+    /**
+     * @param memoryManager the memory manager of the {@link com.hazelcast.config.InMemoryFormat#NATIVE}
+     *                      Near Caches, {@code null} when the native memory isn't enabled
+     */
+    public DefaultNearCacheManager(SerializationService ss, TaskScheduler es, ClassLoader classLoader,
+                                   HazelcastProperties properties, StandardMemoryManager memoryManager) {
         assert ss != null;
         assert es != null;
 
@@ -59,6 +70,7 @@ public class DefaultNearCacheManager implements NearCacheManager {
         this.scheduler = es;
         this.classLoader = classLoader;
         this.properties = properties;
+        this.memoryManager = memoryManager;
     }
 
     @Override
@@ -99,8 +111,8 @@ public class DefaultNearCacheManager implements NearCacheManager {
     }
 
     protected <K, V> NearCache<K, V> createNearCache(String name, NearCacheConfig nearCacheConfig) {
-        return new DefaultNearCache<K, V>(name, nearCacheConfig, serializationService,
-                scheduler, classLoader, properties);
+        return new DefaultNearCache<K, V>(name, nearCacheConfig, null, serializationService,
+                scheduler, classLoader, properties, memoryManager);
     }
 
     @Override
@@ -16,18 +16,29 @@
 
 package com.hazelcast.internal.nearcache.impl.invalidation;
 
+import com.hazelcast.cluster.Address;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.LifecycleEvent;
 import com.hazelcast.core.LifecycleListener;
 import com.hazelcast.core.LifecycleService;
+import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.metrics.MetricTagger;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.nio.Connection;
+import com.hazelcast.internal.nio.tcp.TcpIpConnection;
+import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.impl.eventservice.EventRegistration;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.internal.util.ConstructorFunction;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -38,15 +49,30 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import static com.hazelcast.core.LifecycleEvent.LifecycleState.SHUTTING_DOWN;
+import static com.hazelcast.instance.EndpointQualifier.MEMBER;
 import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutIfAbsent;
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static java.lang.Thread.currentThread;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Sends invalidations to Near Cache in batches.
+ * <p>
+ * The keys are de-duplicated within a batch: only the latest invalidation of
+ * a key is sent, see {@link #compact(List)}. The de-duplicated batches are
+ * sent as {@link CompactBatchNearCacheInvalidation} to the subscribers which
+ * read them, the other members get a {@link BatchNearCacheInvalidation} with
+ * all the polled invalidations.
  */
 public class BatchInvalidator extends Invalidator {
 
+    /**
+     * Orders the invalidations by partition and then by sequence.
+     */
+    private static final Comparator<Invalidation> PARTITION_SEQUENCE_ORDER
+            = Comparator.comparing(Invalidation::getPartitionUuid).thenComparingLong(Invalidation::getSequence);
+
     private final String invalidationExecutorName;
 
     /**
@@ -70,6 +96,13 @@ public class BatchInvalidator extends Invalidator {
     private final UUID nodeShutdownListenerId;
     private final AtomicBoolean runningBackgroundTask = new AtomicBoolean(false);
 
+    @Probe
+    private final MwCounter batchesSent = newMwCounter();
+    @Probe
+    private final MwCounter invalidationsSent = newMwCounter();
+    @Probe
+    private final MwCounter invalidationsSuppressed = newMwCounter();
+
     public BatchInvalidator(String serviceName, int batchSize, int batchFrequencySeconds,
                             Function<EventRegistration, Boolean> eventFilter, NodeEngine nodeEngine) {
         super(serviceName, eventFilter, nodeEngine);
@@ -78,6 +111,11 @@ public class BatchInvalidator extends Invalidator {
         this.batchFrequencySeconds = batchFrequencySeconds;
         this.nodeShutdownListenerId = registerNodeShutdownListener();
         this.invalidationExecutorName = serviceName + getClass();
+
+        MetricsRegistry metricsRegistry = ((NodeEngineImpl) nodeEngine).getMetricsRegistry();
+        MetricTagger tagger = metricsRegistry.newMetricTagger("nearcache.invalidations")
+                                             .withIdTag("service", serviceName);
+        metricsRegistry.registerStaticMetrics(tagger, this);
     }
 
     @Override
@@ -115,7 +153,15 @@ public class BatchInvalidator extends Invalidator {
             invalidationQueue.release();
         }
 
-        sendInvalidations(dataStructureName, invalidations);
+        if (invalidations.isEmpty()) {
+            return;
+        }
+
+        List<Invalidation> compacted = compact(invalidations);
+        batchesSent.inc();
+        invalidationsSent.inc(compacted.size());
+        invalidationsSuppressed.inc(invalidations.size() - compacted.size());
+        sendInvalidations(dataStructureName, invalidations, compacted);
     }
 
     private List<Invalidation> pollInvalidations(InvalidationQueue<Invalidation> invalidationQueue) {
@@ -135,15 +181,70 @@ public class BatchInvalidator extends Invalidator {
         return invalidations;
     }
 
-    private void sendInvalidations(String dataStructureName, List<Invalidation> invalidations) {
+    /**
+     * De-duplicates the keys of the polled invalidations and orders them by
+     * partition.
+     * <p>
+     * Only the latest invalidation of a key is kept. The kept invalidations of
+     * a partition are sorted by sequence and the first one takes the lowest
+     * polled sequence of the partition, so they cover the whole sequence range
+     * of the partition in this batch. The gaps between the sequences of a
+     * partition in a batch are the suppressed invalidations, they aren't counted
+     * as missed by the {@link RepairingHandler}.
+     *
+     * @param invalidations the polled invalidations
+     * @return the de-duplicated invalidations
+     */
+    static List<Invalidation> compact(List<Invalidation> invalidations) {
+        Map<Data, Invalidation> latestByKey = createHashMap(invalidations.size());
+        Map<UUID, Long> lowestSequences = new HashMap<>();
+        for (Invalidation invalidation : invalidations) {
+            latestByKey.merge(invalidation.getKey(), invalidation,
+                    (current, next) -> next.getSequence() > current.getSequence() ? next : current);
+            lowestSequences.merge(invalidation.getPartitionUuid(), invalidation.getSequence(), Math::min);
+        }
+
+        List<Invalidation> compacted = new ArrayList<>(latestByKey.values());
+        compacted.sort(PARTITION_SEQUENCE_ORDER);
+
+        UUID previousPartitionUuid = null;
+        for (int i = 0; i < compacted.size(); i++) {
+            Invalidation invalidation = compacted.get(i);
+            UUID partitionUuid = invalidation.getPartitionUuid();
+            if (partitionUuid.equals(previousPartitionUuid)) {
+                continue;
+            }
+            previousPartitionUuid = partitionUuid;
+
+            long lowestSequence = lowestSequences.get(partitionUuid);
+            if (invalidation.getSequence() != lowestSequence) {
+                compacted.set(i, new SingleNearCacheInvalidation(invalidation.getKey(), invalidation.getName(),
+                        invalidation.getSourceUuid(), partitionUuid, lowestSequence));
+            }
+        }
+        return compacted;
+    }
+
+    private void sendInvalidations(String dataStructureName, List<Invalidation> invalidations,
+                                   List<Invalidation> compacted) {
         // There will always be at least one listener which listens invalidations. This is the reason behind eager creation
-        // of BatchNearCacheInvalidation instance here. There is a causality between listener and invalidation. Only if we have
-        // a listener, we can have an invalidation, otherwise invalidations are not generated.
-        Invalidation invalidation = new BatchNearCacheInvalidation(dataStructureName, invalidations);
+        // of CompactBatchNearCacheInvalidation instance here. There is a causality between listener and invalidation.
+        // Only if we have a listener, we can have an invalidation, otherwise invalidations are not generated.
+        Invalidation compactBatch = new CompactBatchNearCacheInvalidation(dataStructureName, compacted);
+        Invalidation batch = null;
 
         Collection<EventRegistration> registrations = eventService.getRegistrations(serviceName, dataStructureName);
         for (EventRegistration registration : registrations) {
             if (eventFilter.apply(registration)) {
+                Invalidation invalidation = compactBatch;
+                if (!readsCompactBatches(registration.getSubscriber())) {
+                    // the members not aware of the compact batches get all the invalidations, since
+                    // they count the suppressed sequences as missed
+                    if (batch == null) {
+                        batch = new BatchNearCacheInvalidation(dataStructureName, invalidations);
+                    }
+                    invalidation = batch;
+                }
                 // find worker queue of striped executor by using subscribers' address.
                 // we want to send all batch invalidations belonging to same subscriber go into
                 // the same workers queue.
@@ -153,6 +254,20 @@ public class BatchInvalidator extends Invalidator {
         }
     }
 
+    /**
+     * Checks if the given subscriber reads the {@link CompactBatchNearCacheInvalidation}:
+     * the local events are not serialized and the remote members announce it
+     * when their connection is bound.
+     */
+    private boolean readsCompactBatches(Address subscriber) {
+        if (nodeEngine.getThisAddress().equals(subscriber)) {
+            return true;
+        }
+        Node node = ((NodeEngineImpl) nodeEngine).getNode();
+        Connection connection = node.getEndpointManager(MEMBER).getConnection(subscriber);
+        return connection instanceof TcpIpConnection && ((TcpIpConnection) connection).isCompactInvalidation();
+    }
+
     /**
      * Sends remaining invalidation events in this invalidator's queues to the recipients.
      */
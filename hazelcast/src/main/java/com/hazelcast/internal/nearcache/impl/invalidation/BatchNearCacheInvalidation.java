@@ -26,6 +26,11 @@ import java.util.List;
 
 import static java.util.Collections.emptyList;
 
+/**
+ * Represents a batch of key invalidations of a data structure. Every
+ * invalidation of the batch is serialized as a whole, the members reading
+ * the compact encoding are sent a {@link CompactBatchNearCacheInvalidation}.
+ */
 public class BatchNearCacheInvalidation extends Invalidation {
 
     private List<Invalidation> invalidations = emptyList();
@@ -42,20 +47,30 @@ public class BatchNearCacheInvalidation extends Invalidation {
         return invalidations;
     }
 
+    protected void setInvalidations(List<Invalidation> invalidations) {
+        this.invalidations = invalidations;
+    }
+
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
         super.writeData(out);
+        writeInvalidations(out);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        super.readData(in);
+        readInvalidations(in);
+    }
 
+    protected void writeInvalidations(ObjectDataOutput out) throws IOException {
         out.writeInt(invalidations.size());
         for (Invalidation invalidation : invalidations) {
             out.writeObject(invalidation);
         }
     }
 
-    @Override
-    public void readData(ObjectDataInput in) throws IOException {
-        super.readData(in);
-
+    protected void readInvalidations(ObjectDataInput in) throws IOException {
         int size = in.readInt();
         if (size != 0) {
             List<Invalidation> invalidations = new ArrayList<Invalidation>(size);
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.invalidation;
+
+import com.hazelcast.internal.util.UUIDSerializationUtil;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Represents a batch of key invalidations of a data structure, encoded
+ * compactly: the name of the data structure is written once and an
+ * invalidation only writes its partition UUID, sequence and source UUID when
+ * they differ from the previous invalidation. The invalidations are ordered
+ * by partition and sequence by the {@link BatchInvalidator}, so within a
+ * partition only a sequence delta is written.
+ * <p>
+ * Only sent to the members which announced that they read it when the
+ * connection was bound, see
+ * {@link com.hazelcast.internal.cluster.impl.ExtendedBindMessage#isCompactInvalidationAware()}.
+ * The rest of the members are sent a {@link BatchNearCacheInvalidation}.
+ */
+public class CompactBatchNearCacheInvalidation extends BatchNearCacheInvalidation {
+
+    /**
+     * The partition UUID and the absolute sequence follow, otherwise the
+     * sequence delta to the previous invalidation follows.
+     */
+    private static final byte HEADER_PARTITION = 1;
+
+    /**
+     * The source UUID follows, otherwise it is the one of the previous
+     * invalidation.
+     */
+    private static final byte HEADER_SOURCE = 1 << 1;
+
+    public CompactBatchNearCacheInvalidation() {
+    }
+
+    public CompactBatchNearCacheInvalidation(String dataStructureName, List<Invalidation> invalidations) {
+        super(dataStructureName, invalidations);
+    }
+
+    @Override
+    protected void writeInvalidations(ObjectDataOutput out) throws IOException {
+        List<Invalidation> invalidations = getInvalidations();
+        out.writeInt(invalidations.size());
+        UUID partitionUuid = null;
+        UUID sourceUuid = null;
+        long sequence = 0;
+        boolean first = true;
+        for (Invalidation invalidation : invalidations) {
+            long sequenceDelta = invalidation.getSequence() - sequence;
+            byte header = 0;
+            if (first || !invalidation.getPartitionUuid().equals(partitionUuid)
+                    || sequenceDelta < 0 || sequenceDelta > Integer.MAX_VALUE) {
+                header |= HEADER_PARTITION;
+            }
+            if (first || !Objects.equals(invalidation.getSourceUuid(), sourceUuid)) {
+                header |= HEADER_SOURCE;
+            }
+            first = false;
+            partitionUuid = invalidation.getPartitionUuid();
+            sourceUuid = invalidation.getSourceUuid();
+            sequence = invalidation.getSequence();
+
+            out.writeByte(header);
+            if ((header & HEADER_PARTITION) != 0) {
+                out.writeLong(partitionUuid.getMostSignificantBits());
+                out.writeLong(partitionUuid.getLeastSignificantBits());
+                out.writeLong(sequence);
+            } else {
+                out.writeInt((int) sequenceDelta);
+            }
+            if ((header & HEADER_SOURCE) != 0) {
+                UUIDSerializationUtil.writeUUID(out, sourceUuid);
+            }
+            out.writeData(invalidation.getKey());
+        }
+    }
+
+    @Override
+    protected void readInvalidations(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        if (size != 0) {
+            List<Invalidation> invalidations = new ArrayList<Invalidation>(size);
+            UUID partitionUuid = null;
+            UUID sourceUuid = null;
+            long sequence = 0;
+            for (int i = 0; i < size; i++) {
+                byte header = in.readByte();
+                if ((header & HEADER_PARTITION) != 0) {
+                    partitionUuid = new UUID(in.readLong(), in.readLong());
+                    sequence = in.readLong();
+                } else {
+                    sequence += in.readInt();
+                }
+                if ((header & HEADER_SOURCE) != 0) {
+                    sourceUuid = UUIDSerializationUtil.readUUID(in);
+                }
+                Data key = in.readData();
+                invalidations.add(new SingleNearCacheInvalidation(key, getName(), sourceUuid, partitionUuid, sequence));
+            }
+            setInvalidations(invalidations);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompactBatchNearCacheInvalidation{"
+                + "dataStructureName=" + getName()
+                + ", invalidation-count-in-this-batch=" + getInvalidations().size()
+                + '}';
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.NEAR_CACHE_COMPACT_BATCH_INVALIDATION;
+    }
+}
@@ -80,6 +80,10 @@ public final class RepairingHandler {
      * Handles a single invalidation
      */
     public void handle(Data key, UUID sourceUuid, UUID partitionUuid, long sequence) {
+        handle(key, sourceUuid, partitionUuid, sequence, false);
+    }
+
+    private void handle(Data key, UUID sourceUuid, UUID partitionUuid, long sequence, boolean inSequenceRange) {
         // apply invalidation if it's not originated by local member/client (because local
         // Near Caches are invalidated immediately there is no need to invalidate them twice)
         if (!localUuid.equals(sourceUuid)) {
@@ -93,7 +97,11 @@ public final class RepairingHandler {
 
         int partitionId = getPartitionIdOrDefault(key);
         checkOrRepairUuid(partitionId, partitionUuid);
-        checkOrRepairSequence(partitionId, sequence, false);
+        if (inSequenceRange) {
+            advanceSequence(partitionId, sequence);
+        } else {
+            checkOrRepairSequence(partitionId, sequence, false);
+        }
     }
 
     private int getPartitionIdOrDefault(Data key) {
@@ -107,6 +115,10 @@ public final class RepairingHandler {
 
     /**
      * Handles batch invalidations
+     * <p>
+     * The consecutive invalidations of a partition in a batch cover a sequence
+     * range: the gaps between their sequences are the invalidations of the
+     * duplicate keys suppressed by the sender, they aren't counted as missed.
      */
     public void handle(Collection<Data> keys, Collection<UUID> sourceUuids,
                        Collection<UUID> partitionUuids, Collection<Long> sequences) {
@@ -115,9 +127,28 @@ public final class RepairingHandler {
         Iterator<UUID> partitionUuidIterator = partitionUuids.iterator();
         Iterator<UUID> sourceUuidsIterator = sourceUuids.iterator();
 
+        UUID previousPartitionUuid = null;
         while (keyIterator.hasNext() && sourceUuidsIterator.hasNext()
                 && partitionUuidIterator.hasNext() && sequenceIterator.hasNext()) {
-            handle(keyIterator.next(), sourceUuidsIterator.next(), partitionUuidIterator.next(), sequenceIterator.next());
+            UUID partitionUuid = partitionUuidIterator.next();
+            handle(keyIterator.next(), sourceUuidsIterator.next(), partitionUuid, sequenceIterator.next(),
+                    partitionUuid.equals(previousPartitionUuid));
+            previousPartitionUuid = partitionUuid;
+        }
+    }
+
+    /**
+     * Handles batch invalidations
+     *
+     * @see #handle(Collection, Collection, Collection, Collection)
+     */
+    public void handle(BatchNearCacheInvalidation batch) {
+        UUID previousPartitionUuid = null;
+        for (Invalidation invalidation : batch.getInvalidations()) {
+            UUID partitionUuid = invalidation.getPartitionUuid();
+            handle(invalidation.getKey(), invalidation.getSourceUuid(), partitionUuid, invalidation.getSequence(),
+                    partitionUuid.equals(previousPartitionUuid));
+            previousPartitionUuid = partitionUuid;
         }
     }
 
@@ -199,6 +230,20 @@ public final class RepairingHandler {
         }
     }
 
+    /**
+     * Updates current sequence to {@code nextSequence} if next one is bigger,
+     * without counting the sequences in between as missed.
+     */
+    private void advanceSequence(int partition, long nextSequence) {
+        MetaDataContainer metaData = getMetaDataContainer(partition);
+        while (true) {
+            long currentSequence = metaData.getSequence();
+            if (currentSequence >= nextSequence || metaData.casSequence(currentSequence, nextSequence)) {
+                break;
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return "RepairingHandler{"
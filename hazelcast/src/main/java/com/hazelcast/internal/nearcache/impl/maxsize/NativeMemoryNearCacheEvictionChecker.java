@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.maxsize;
+
+import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.nearcache.impl.store.NearCacheNativeRecordStore;
+
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+
+/**
+ * Near Cache max-size policy implementation for the Near Caches with
+ * {@link com.hazelcast.config.InMemoryFormat#NATIVE} in-memory-format.
+ * <p>
+ * Supports {@link MaxSizePolicy#ENTRY_COUNT} and the native memory policies.
+ * The used memory is the off-heap memory of the Near Cache, the free memory
+ * is the free memory of the {@link StandardMemoryManager} shared by all
+ * native data structures of the instance.
+ *
+ * @see EvictionChecker
+ */
+public class NativeMemoryNearCacheEvictionChecker implements EvictionChecker {
+
+    private static final int ONE_HUNDRED = 100;
+
+    private final MaxSizePolicy maxSizePolicy;
+    private final int maxSize;
+    private final StandardMemoryManager memoryManager;
+    private final NearCacheNativeRecordStore recordStore;
+
+    public NativeMemoryNearCacheEvictionChecker(MaxSizePolicy maxSizePolicy, int maxSize,
+                                                StandardMemoryManager memoryManager,
+                                                NearCacheNativeRecordStore recordStore) {
+        this.maxSizePolicy = maxSizePolicy;
+        this.maxSize = maxSize;
+        this.memoryManager = memoryManager;
+        this.recordStore = recordStore;
+    }
+
+    @Override
+    public boolean isEvictionRequired() {
+        switch (maxSizePolicy) {
+            case ENTRY_COUNT:
+                return recordStore.size() >= maxSize;
+            case USED_NATIVE_MEMORY_SIZE:
+                return recordStore.getUsedMemory() >= MEGABYTES.toBytes(maxSize);
+            case USED_NATIVE_MEMORY_PERCENTAGE:
+                return recordStore.getUsedMemory() * ONE_HUNDRED / maxMemory() >= maxSize;
+            case FREE_NATIVE_MEMORY_SIZE:
+                return memoryManager.getFreeMemory() < MEGABYTES.toBytes(maxSize);
+            case FREE_NATIVE_MEMORY_PERCENTAGE:
+                return memoryManager.getFreeMemory() * ONE_HUNDRED / maxMemory() < maxSize;
+            default:
+                throw new IllegalArgumentException("Invalid max-size policy (" + maxSizePolicy
+                        + ") for NATIVE Near Cache");
+        }
+    }
+
+    private long maxMemory() {
+        return Math.max(memoryManager.getMaxMemory(), 1);
+    }
+}
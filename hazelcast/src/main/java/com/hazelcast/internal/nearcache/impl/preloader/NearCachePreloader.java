@@ -18,6 +18,7 @@ package com.hazelcast.internal.nearcache.impl.preloader;
 
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.util.BufferingInputStream;
 import com.hazelcast.internal.util.collection.InflatableSet;
@@ -27,42 +28,89 @@ import com.hazelcast.logging.Logger;
 import com.hazelcast.memory.MemoryUnit;
 import com.hazelcast.monitor.impl.NearCacheStatsImpl;
 import com.hazelcast.nio.serialization.Data;
-import com.hazelcast.internal.serialization.SerializationService;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
 
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.readIntB;
-import static com.hazelcast.internal.nio.Bits.writeIntB;
-import static com.hazelcast.internal.nio.IOUtil.closeResource;
 import static com.hazelcast.internal.nio.IOUtil.deleteQuietly;
 import static com.hazelcast.internal.nio.IOUtil.getPath;
 import static com.hazelcast.internal.nio.IOUtil.readFullyOrNothing;
 import static com.hazelcast.internal.nio.IOUtil.rename;
 import static com.hazelcast.internal.nio.IOUtil.toFileName;
+import static com.hazelcast.internal.util.HashUtil.fastLongMix;
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
 import static com.hazelcast.internal.util.StringUtil.isNullOrEmpty;
 import static java.lang.String.format;
 import static java.nio.ByteBuffer.allocate;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Loads and stores the keys from a Near Cache into a file.
+ * <p>
+ * The keys are stored in {@value #SEGMENT_COUNT} segments, grouped by their
+ * partition hash. The file starts with a table of the segments: the offset,
+ * the length, the key count and an order independent fingerprint of the keys
+ * of each segment, followed by a checksum of the table. A store only appends
+ * the segments whose keys have changed and then updates the table, the file
+ * is rewritten when the superseded segments take more than half of it.
+ * <p>
+ * A store doesn't buffer the keys on heap: they are spilled to a temporary
+ * file in the iteration order while the segment table is computed, and then
+ * copied from it into their segments.
+ * <p>
+ * The segments are loaded in parallel, each through a memory-mapped region of
+ * the file and in batches of keys of the same partition, so the load doesn't
+ * block the live traffic of the Near Cache. Its progress is reported by the
+ * preload statistics of the {@link NearCacheStatsImpl}.
+ * <p>
+ * The files of the previous format, with the length-prefixed keys following
+ * the header, are still loaded.
  *
  * @param <K> type of the {@link com.hazelcast.internal.nearcache.NearCacheRecord} keys
  */
 public class NearCachePreloader<K> {
 
+    /**
+     * Number of the key segments. It's the default partition count, so with
+     * the default configuration a segment holds the keys of one partition.
+     */
+    static final int SEGMENT_COUNT = 271;
+
+    /**
+     * Number of the segments loaded in parallel.
+     */
+    static final int LOAD_PARALLELISM = 4;
+
     /**
      * File format for the file header.
      */
     private enum FileFormat {
-        INTERLEAVED_LENGTH_FIELD
+        INTERLEAVED_LENGTH_FIELD,
+        SEGMENTED
     }
 
     /**
@@ -84,6 +132,18 @@ public class NearCachePreloader<K> {
      */
     private static final int LOAD_BATCH_SIZE = 100;
 
+    /**
+     * The file is rewritten when it grows over this factor of the size of the
+     * stored keys.
+     */
+    private static final int MAX_FRAGMENTATION_FACTOR = 2;
+
+    /**
+     * Size of the buffer of every segment while the keys are copied from the
+     * spill file into their segments.
+     */
+    private static final int SEGMENT_BUFFER_SIZE = 4096;
+
     private final ILogger logger = Logger.getLogger(NearCachePreloader.class);
     private final byte[] tmpBytes = new byte[INT_SIZE_IN_BYTES];
 
@@ -94,10 +154,7 @@ public class NearCachePreloader<K> {
     private final NearCachePreloaderLock lock;
     private final File storeFile;
     private final File tmpStoreFile;
-
-    private ByteBuffer buf;
-    private int lastWrittenBytes;
-    private int lastKeyCount;
+    private final File spillFile;
 
     public NearCachePreloader(String nearCacheName, NearCachePreloaderConfig preloaderConfig,
                               NearCacheStatsImpl nearCacheStats, SerializationService serializationService) {
@@ -109,6 +166,7 @@ public class NearCachePreloader<K> {
         this.lock = new NearCachePreloaderLock(logger, filename + ".lock");
         this.storeFile = new File(filename);
         this.tmpStoreFile = new File(filename + "~");
+        this.spillFile = new File(filename + ".keys~");
     }
 
     public void destroy() {
@@ -128,37 +186,54 @@ public class NearCachePreloader<K> {
         }
 
         long startedNanos = System.nanoTime();
-        BufferingInputStream bis = null;
-        try {
-            bis = new BufferingInputStream(new FileInputStream(storeFile), BUFFER_SIZE);
-            if (!checkHeader(bis)) {
+        try (RandomAccessFile file = new RandomAccessFile(storeFile, "r")) {
+            FileChannel channel = file.getChannel();
+            int loadedKeys;
+            FileFormat fileFormat = readFileFormat(channel);
+            if (fileFormat == FileFormat.SEGMENTED) {
+                SegmentTable table = SegmentTable.read(channel);
+                if (table == null) {
+                    logger.warning(format("Found invalid segment table for Near Cache %s (%s)", nearCacheName,
+                            storeFile.getAbsolutePath()));
+                    return;
+                }
+                loadedKeys = loadSegments(channel, table, adapter);
+            } else if (fileFormat == FileFormat.INTERLEAVED_LENGTH_FIELD) {
+                channel.position(2 * INT_SIZE_IN_BYTES);
+                loadedKeys = loadKeySet(new BufferingInputStream(Channels.newInputStream(channel), BUFFER_SIZE), adapter);
+            } else {
                 return;
             }
 
-            int loadedKeys = loadKeySet(bis, adapter);
-
             long elapsedMillis = getElapsedMillis(startedNanos);
+            nearCacheStats.finishPreload(elapsedMillis);
             logger.info(format("Loaded %d keys of Near Cache %s in %d ms", loadedKeys, nearCacheName, elapsedMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info(format("Interrupted loading keys of Near Cache %s", nearCacheName));
         } catch (Exception e) {
             logger.warning(format("Could not pre-load Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()), e);
-        } finally {
-            closeResource(bis);
         }
     }
 
-    private boolean checkHeader(BufferingInputStream bis) throws IOException {
-        int magicBytes = readInt(bis);
-        if (magicBytes != MAGIC_BYTES) {
+    /**
+     * Reads the header of the file.
+     *
+     * @return the format of the file, or {@code null} if the header is invalid
+     */
+    private FileFormat readFileFormat(FileChannel channel) throws IOException {
+        ByteBuffer header = allocate(2 * INT_SIZE_IN_BYTES);
+        if (!readFully(channel, header, 0) || header.getInt() != MAGIC_BYTES) {
             logger.warning(format("Found invalid header for Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
-        int fileFormat = readInt(bis);
+        int fileFormat = header.getInt();
         if (fileFormat < 0 || fileFormat > FileFormat.values().length - 1) {
             logger.warning(format("Found invalid file format for Near Cache %s (%s)", nearCacheName,
                     storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
-        return true;
+        return FileFormat.values()[fileFormat];
     }
 
     /**
@@ -168,50 +243,280 @@ public class NearCachePreloader<K> {
      */
     public void storeKeys(Iterator<K> iterator) {
         long startedNanos = System.nanoTime();
-        FileOutputStream fos = null;
         try {
-            buf = allocate(BUFFER_SIZE);
-            lastWrittenBytes = 0;
-            lastKeyCount = 0;
-
-            fos = new FileOutputStream(tmpStoreFile, false);
-
-            // write header and keys
-            writeInt(fos, MAGIC_BYTES);
-            writeInt(fos, FileFormat.INTERLEAVED_LENGTH_FIELD.ordinal());
-            writeKeySet(fos, fos.getChannel(), iterator);
+            Segment[] segments = spillKeys(iterator);
+            int keyCount = 0;
+            long storedBytes = SegmentTable.size(segments.length);
+            for (Segment segment : segments) {
+                keyCount += segment.keyCount;
+                storedBytes += segment.size;
+            }
 
             // cleanup if no keys have been written
-            if (lastKeyCount == 0) {
+            if (keyCount == 0) {
                 deleteQuietly(storeFile);
-                updatePersistenceStats(startedNanos);
+                updatePersistenceStats(startedNanos, 0, 0, 0);
                 return;
             }
 
-            fos.flush();
-            closeResource(fos);
-            rename(tmpStoreFile, storeFile);
-
-            updatePersistenceStats(startedNanos);
+            long writtenBytes = storeSegments(segments, storedBytes);
+            updatePersistenceStats(startedNanos, storedBytes, keyCount, writtenBytes);
         } catch (Exception e) {
             logger.warning(format("Could not store keys of Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()), e);
 
             nearCacheStats.addPersistenceFailure(e);
         } finally {
-            closeResource(fos);
             deleteQuietly(tmpStoreFile);
+            deleteQuietly(spillFile);
         }
     }
 
-    private void updatePersistenceStats(long startedNanos) {
+    private void updatePersistenceStats(long startedNanos, long storedBytes, int keyCount, long writtenBytes) {
         long elapsedMillis = getElapsedMillis(startedNanos);
-        nearCacheStats.addPersistence(elapsedMillis, lastWrittenBytes, lastKeyCount);
+        nearCacheStats.addPersistence(elapsedMillis, (int) Math.min(storedBytes, Integer.MAX_VALUE), keyCount);
+
+        logger.info(format("Stored %d keys of Near Cache %s in %d ms (%d kB, %d kB written)", keyCount, nearCacheName,
+                elapsedMillis, MemoryUnit.BYTES.toKiloBytes(storedBytes), MemoryUnit.BYTES.toKiloBytes(writtenBytes)));
+    }
+
+    /**
+     * Writes the serialized keys to the spill file, each prefixed by the
+     * index of its segment and its length.
+     *
+     * @return the segments of the keys
+     */
+    private Segment[] spillKeys(Iterator<K> iterator) throws IOException {
+        Segment[] segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(spillFile, false), BUFFER_SIZE))) {
+            while (iterator.hasNext()) {
+                Data dataKey = serializationService.toData(iterator.next());
+                if (dataKey != null) {
+                    int index = hashToIndex(dataKey.getPartitionHash(), segments.length);
+                    byte[] payload = dataKey.toByteArray();
+                    out.writeInt(index);
+                    out.writeInt(payload.length);
+                    out.write(payload);
+                    segments[index].add(dataKey, payload.length);
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Copies the keys of the given segments from the spill file to the
+     * channel, every segment starting at the given position.
+     *
+     * @param positions the positions of the segments, {@code -1} for the
+     *                  segments which are not copied
+     */
+    private void copySegments(FileChannel channel, long[] positions) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[positions.length];
+        byte[] header = new byte[2 * INT_SIZE_IN_BYTES];
+        byte[] payload = new byte[INT_SIZE_IN_BYTES];
+        try (BufferingInputStream in = new BufferingInputStream(new FileInputStream(spillFile), BUFFER_SIZE)) {
+            while (readFullyOrNothing(in, header)) {
+                int index = readIntB(header, 0);
+                int dataSize = readIntB(header, INT_SIZE_IN_BYTES);
+                if (dataSize > payload.length) {
+                    payload = new byte[dataSize];
+                }
+                readFully(in, payload, dataSize);
+                if (positions[index] < 0) {
+                    continue;
+                }
+
+                ByteBuffer buffer = buffers[index];
+                if (buffer == null) {
+                    buffer = allocate(SEGMENT_BUFFER_SIZE);
+                    buffers[index] = buffer;
+                }
+                if (buffer.remaining() < INT_SIZE_IN_BYTES + dataSize) {
+                    positions[index] = flush(channel, buffer, positions[index]);
+                }
+                if (buffer.remaining() < INT_SIZE_IN_BYTES + dataSize) {
+                    // the key doesn't fit into the buffer at all
+                    ByteBuffer key = allocate(INT_SIZE_IN_BYTES + dataSize);
+                    key.putInt(dataSize).put(payload, 0, dataSize).flip();
+                    positions[index] = writeFully(channel, key, positions[index]);
+                } else {
+                    buffer.putInt(dataSize).put(payload, 0, dataSize);
+                }
+            }
+        }
+        for (int i = 0; i < buffers.length; i++) {
+            if (buffers[i] != null) {
+                flush(channel, buffers[i], positions[i]);
+            }
+        }
+    }
+
+    /**
+     * Stores the segments, only the changed ones if the current file can be
+     * updated in place.
+     *
+     * @return the number of the written bytes
+     */
+    private long storeSegments(Segment[] segments, long storedBytes) throws IOException {
+        SegmentTable table = null;
+        if (storeFile.exists()) {
+            try (RandomAccessFile file = new RandomAccessFile(storeFile, "r")) {
+                table = SegmentTable.read(file.getChannel());
+            }
+        }
+        if (table == null || table.segmentCount() != segments.length) {
+            return writeSegments(segments);
+        }
+
+        int changedSegments = 0;
+        long appendedBytes = 0;
+        for (int i = 0; i < segments.length; i++) {
+            if (!table.matches(i, segments[i])) {
+                changedSegments++;
+                appendedBytes += segments[i].size;
+            }
+        }
+        if (changedSegments == 0) {
+            return 0;
+        }
+        if (storeFile.length() + appendedBytes > MAX_FRAGMENTATION_FACTOR * storedBytes) {
+            return writeSegments(segments);
+        }
+        return updateSegments(table, segments);
+    }
+
+    /**
+     * Writes all segments to a new file.
+     */
+    private long writeSegments(Segment[] segments) throws IOException {
+        SegmentTable table = new SegmentTable(segments.length);
+        long offset = SegmentTable.size(segments.length);
+        for (int i = 0; i < segments.length; i++) {
+            table.set(i, offset, segments[i]);
+            offset += segments[i].size;
+        }
+
+        try (FileOutputStream fos = new FileOutputStream(tmpStoreFile, false)) {
+            FileChannel channel = fos.getChannel();
+            writeFully(channel, table.toByteBuffer(), 0);
+            copySegments(channel, table.offsets.clone());
+            channel.force(true);
+        }
+        rename(tmpStoreFile, storeFile);
+        return offset;
+    }
+
+    /**
+     * Appends the changed segments to the file and then updates the segment
+     * table. A torn write of the table is detected by its checksum, then the
+     * file isn't loaded and the next store rewrites it.
+     */
+    private long updateSegments(SegmentTable table, Segment[] segments) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(storeFile, "rw")) {
+            FileChannel channel = file.getChannel();
+            long end = channel.size();
+            long writtenBytes = 0;
+            long[] positions = new long[segments.length];
+            for (int i = 0; i < segments.length; i++) {
+                Segment segment = segments[i];
+                if (table.matches(i, segment)) {
+                    positions[i] = -1;
+                    continue;
+                }
+                table.set(i, end, segment);
+                positions[i] = end;
+                end += segment.size;
+                writtenBytes += segment.size;
+            }
+            copySegments(channel, positions);
+            // the segments have to be on disk before the table points to them
+            channel.force(false);
+
+            ByteBuffer tableBuffer = table.toByteBuffer();
+            writtenBytes += tableBuffer.remaining();
+            writeFully(channel, tableBuffer, 0);
+            channel.force(true);
+            return writtenBytes;
+        }
+    }
 
-        logger.info(format("Stored %d keys of Near Cache %s in %d ms (%d kB)", lastKeyCount, nearCacheName, elapsedMillis,
-                MemoryUnit.BYTES.toKiloBytes(lastWrittenBytes)));
+    private int loadSegments(FileChannel channel, SegmentTable table, DataStructureAdapter<Object, ?> adapter)
+            throws IOException, InterruptedException {
+        nearCacheStats.startPreload(table.keyCount());
+
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < table.segmentCount(); i++) {
+            if (table.keyCounts[i] > 0) {
+                buffers.add(channel.map(READ_ONLY, table.offsets[i], table.lengths[i]));
+            }
+        }
+        if (buffers.isEmpty()) {
+            return 0;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = newFixedThreadPool(Math.min(LOAD_PARALLELISM, buffers.size()), runnable -> {
+            Thread thread = new Thread(runnable, "hz.nearcache.preloader." + nearCacheName + "." + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Integer>> futures = new ArrayList<>(buffers.size());
+            for (ByteBuffer buffer : buffers) {
+                futures.add(executor.submit(() -> loadSegment(buffer, adapter)));
+            }
+
+            int loadedKeys = 0;
+            for (Future<Integer> future : futures) {
+                try {
+                    loadedKeys += future.get();
+                } catch (ExecutionException e) {
+                    logger.warning(format("Could not pre-load a key segment of Near Cache %s (%s)", nearCacheName,
+                            storeFile.getAbsolutePath()), e.getCause());
+                }
+            }
+            return loadedKeys;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int loadSegment(ByteBuffer buffer, DataStructureAdapter<Object, ?> adapter) throws IOException {
+        int loadedKeys = 0;
+
+        Builder<Object> builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+        while (buffer.hasRemaining()) {
+            int dataSize = buffer.remaining() < INT_SIZE_IN_BYTES ? -1 : buffer.getInt();
+            if (dataSize < 0 || dataSize > buffer.remaining()) {
+                throw new IOException("Found corrupt key segment");
+            }
+            byte[] payload = new byte[dataSize];
+            buffer.get(payload);
+            builder.add(serializationService.toObject(new HeapData(payload)));
+            if (builder.size() == LOAD_BATCH_SIZE) {
+                loadedKeys += loadBatch(builder.build(), adapter);
+                builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+            }
+        }
+        if (builder.size() > 0) {
+            loadedKeys += loadBatch(builder.build(), adapter);
+        }
+        return loadedKeys;
+    }
+
+    private int loadBatch(Set<Object> keys, DataStructureAdapter<Object, ?> adapter) {
+        adapter.getAll(keys);
+        nearCacheStats.addPreloadedKeys(keys.size());
+        return keys.size();
     }
 
     private int loadKeySet(BufferingInputStream bis, DataStructureAdapter<Object, ?> adapter) throws IOException {
+        // the key count of the files of this format is not known upfront
+        nearCacheStats.startPreload(-1);
         int loadedKeys = 0;
 
         Builder<Object> builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
@@ -224,70 +529,61 @@ public class NearCachePreloader<K> {
             Data key = new HeapData(payload);
             builder.add(serializationService.toObject(key));
             if (builder.size() == LOAD_BATCH_SIZE) {
-                adapter.getAll(builder.build());
+                loadedKeys += loadBatch(builder.build(), adapter);
                 builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
             }
-            loadedKeys++;
         }
         if (builder.size() > 0) {
-            adapter.getAll(builder.build());
+            loadedKeys += loadBatch(builder.build(), adapter);
         }
         return loadedKeys;
     }
 
-    private void writeKeySet(FileOutputStream fos, FileChannel outChannel, Iterator<K> iterator) throws IOException {
-        while (iterator.hasNext()) {
-            K key = iterator.next();
-            Data dataKey = serializationService.toData(key);
-            if (dataKey != null) {
-                int dataSize = dataKey.totalSize();
-                writeInt(fos, dataSize);
-
-                int position = 0;
-                int remaining = dataSize;
-                while (remaining > 0) {
-                    int transferredCount = Math.min(BUFFER_SIZE - buf.position(), remaining);
-                    ensureBufHasRoom(fos, transferredCount);
-                    buf.put(dataKey.toByteArray(), position, transferredCount);
-                    position += transferredCount;
-                    remaining -= transferredCount;
-                }
-
-                lastWrittenBytes += INT_SIZE_IN_BYTES + dataSize;
-                lastKeyCount++;
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long readPosition = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, readPosition);
+            if (read < 0) {
+                return false;
             }
-            flushLocalBuffer(outChannel);
+            readPosition += read;
         }
+        buffer.flip();
+        return true;
     }
 
-    private int readInt(BufferingInputStream bis) throws IOException {
-        readFullyOrNothing(bis, tmpBytes);
-        return readIntB(tmpBytes, 0);
-    }
-
-    private void writeInt(FileOutputStream fos, int dataSize) throws IOException {
-        ensureBufHasRoom(fos, INT_SIZE_IN_BYTES);
-        writeIntB(tmpBytes, 0, dataSize);
-        buf.put(tmpBytes);
+    private static void readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        int bytesRead = 0;
+        while (bytesRead < length) {
+            int count = in.read(buffer, bytesRead, length - bytesRead);
+            if (count < 0) {
+                throw new EOFException();
+            }
+            bytesRead += count;
+        }
     }
 
-    private void ensureBufHasRoom(FileOutputStream fos, int expectedSize) throws IOException {
-        if (buf.position() < BUFFER_SIZE - expectedSize) {
-            return;
-        }
-        fos.write(buf.array());
-        buf.position(0);
+    /**
+     * Writes the content of the buffer and clears it.
+     *
+     * @return the position after the written bytes
+     */
+    private static long flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        long writePosition = writeFully(channel, buffer, position);
+        buffer.clear();
+        return writePosition;
     }
 
-    private void flushLocalBuffer(FileChannel outChannel) throws IOException {
-        if (buf.position() == 0) {
-            return;
-        }
-        buf.flip();
-        while (buf.hasRemaining()) {
-            outChannel.write(buf);
+    /**
+     * @return the position after the written bytes
+     */
+    private static long writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long writePosition = position;
+        while (buffer.hasRemaining()) {
+            writePosition += channel.write(buffer, writePosition);
         }
-        buf.clear();
+        return writePosition;
     }
 
     private static String getFilename(String directory, String nearCacheName) {
@@ -301,4 +597,136 @@ public class NearCachePreloader<K> {
     private static long getElapsedMillis(long startedNanos) {
         return NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
     }
+
+    /**
+     * The size, the key count and the fingerprint of the serialized keys of a
+     * segment, each key prefixed by its length.
+     */
+    private static final class Segment {
+
+        private int size;
+        private int keyCount;
+        private long fingerprint;
+
+        void add(Data dataKey, int dataSize) {
+            size += INT_SIZE_IN_BYTES + dataSize;
+            keyCount++;
+            // a sum, since the keys are iterated in a different order by each store
+            fingerprint += fastLongMix(dataKey.hash64());
+        }
+    }
+
+    /**
+     * The header and the segment table of a file of the
+     * {@link FileFormat#SEGMENTED} format.
+     */
+    private static final class SegmentTable {
+
+        private static final int HEADER_SIZE = 3 * INT_SIZE_IN_BYTES;
+        private static final int ENTRY_SIZE = 2 * LONG_SIZE_IN_BYTES + 2 * INT_SIZE_IN_BYTES;
+        private static final int MAX_SEGMENT_COUNT = 1 << 16;
+
+        private final long[] offsets;
+        private final int[] lengths;
+        private final int[] keyCounts;
+        private final long[] fingerprints;
+
+        SegmentTable(int segmentCount) {
+            this.offsets = new long[segmentCount];
+            this.lengths = new int[segmentCount];
+            this.keyCounts = new int[segmentCount];
+            this.fingerprints = new long[segmentCount];
+        }
+
+        static int size(int segmentCount) {
+            return HEADER_SIZE + segmentCount * ENTRY_SIZE + LONG_SIZE_IN_BYTES;
+        }
+
+        int segmentCount() {
+            return offsets.length;
+        }
+
+        long keyCount() {
+            long keyCount = 0;
+            for (int count : keyCounts) {
+                keyCount += count;
+            }
+            return keyCount;
+        }
+
+        boolean matches(int index, Segment segment) {
+            return keyCounts[index] == segment.keyCount
+                    && lengths[index] == segment.size
+                    && fingerprints[index] == segment.fingerprint;
+        }
+
+        void set(int index, long offset, Segment segment) {
+            offsets[index] = offset;
+            lengths[index] = segment.size;
+            keyCounts[index] = segment.keyCount;
+            fingerprints[index] = segment.fingerprint;
+        }
+
+        ByteBuffer toByteBuffer() {
+            int segmentCount = segmentCount();
+            ByteBuffer buffer = allocate(size(segmentCount));
+            buffer.putInt(MAGIC_BYTES)
+                    .putInt(FileFormat.SEGMENTED.ordinal())
+                    .putInt(segmentCount);
+            for (int i = 0; i < segmentCount; i++) {
+                buffer.putLong(offsets[i])
+                        .putInt(lengths[i])
+                        .putInt(keyCounts[i])
+                        .putLong(fingerprints[i]);
+            }
+            buffer.putLong(checksum(buffer.array(), buffer.position()));
+            buffer.flip();
+            return buffer;
+        }
+
+        /**
+         * Reads the segment table of the file.
+         *
+         * @return the segment table, or {@code null} if the file is not of
+         * the {@link FileFormat#SEGMENTED} format or its table is invalid
+         */
+        static SegmentTable read(FileChannel channel) throws IOException {
+            ByteBuffer header = allocate(HEADER_SIZE);
+            if (!readFully(channel, header, 0)
+                    || header.getInt() != MAGIC_BYTES
+                    || header.getInt() != FileFormat.SEGMENTED.ordinal()) {
+                return null;
+            }
+            int segmentCount = header.getInt();
+            long fileSize = channel.size();
+            if (segmentCount <= 0 || segmentCount > MAX_SEGMENT_COUNT || size(segmentCount) > fileSize) {
+                return null;
+            }
+
+            ByteBuffer buffer = allocate(size(segmentCount));
+            if (!readFully(channel, buffer, 0)) {
+                return null;
+            }
+            long expectedChecksum = checksum(buffer.array(), buffer.limit() - LONG_SIZE_IN_BYTES);
+            buffer.position(HEADER_SIZE);
+            SegmentTable table = new SegmentTable(segmentCount);
+            for (int i = 0; i < segmentCount; i++) {
+                table.offsets[i] = buffer.getLong();
+                table.lengths[i] = buffer.getInt();
+                table.keyCounts[i] = buffer.getInt();
+                table.fingerprints[i] = buffer.getLong();
+                if (table.lengths[i] < 0 || table.keyCounts[i] < 0
+                        || table.offsets[i] + table.lengths[i] > fileSize) {
+                    return null;
+                }
+            }
+            return buffer.getLong() == expectedChecksum ? table : null;
+        }
+
+        private static long checksum(byte[] bytes, int length) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, length);
+            return crc.getValue();
+        }
+    }
 }
@@ -20,8 +20,10 @@ import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.eviction.EvictionCandidate;
 import com.hazelcast.internal.eviction.EvictionChecker;
 import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.eviction.FrequencySketch;
 import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
 import com.hazelcast.internal.eviction.impl.strategy.sampling.SamplingEvictionStrategy;
 import com.hazelcast.internal.nearcache.NearCacheRecord;
@@ -39,6 +41,7 @@ import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.function.Function;
 
 import static com.hazelcast.internal.eviction.EvictionPolicyEvaluatorProvider.getEvictionPolicyEvaluator;
+import static com.hazelcast.internal.eviction.impl.strategy.sampling.SamplingEvictionStrategy.SAMPLE_COUNT;
 import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
 import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
 import static com.hazelcast.internal.nearcache.NearCache.CACHED_AS_NULL;
@@ -93,6 +96,11 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     protected EvictionChecker evictionChecker;
     protected SamplingEvictionStrategy<KS, R, NCRM> evictionStrategy;
     protected EvictionPolicyEvaluator<KS, R> evictionPolicyEvaluator;
+    /**
+     * Counts the accesses of the keys when the {@link EvictionPolicy#TINY_LFU}
+     * policy is used, {@code null} otherwise.
+     */
+    protected FrequencySketch frequencySketch;
 
     protected volatile long reservationId;
     protected volatile StaleReadDetector staleReadDetector = ALWAYS_FRESH;
@@ -124,6 +132,7 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         if (!evictionDisabled) {
             this.evictionStrategy = SamplingEvictionStrategy.INSTANCE;
             this.evictionPolicyEvaluator = getEvictionPolicyEvaluator(evictionConfig, classLoader);
+            this.frequencySketch = evictionPolicyEvaluator.getFrequencySketch();
         }
     }
 
@@ -237,6 +246,11 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     public V get(K key) {
         checkAvailable();
 
+        if (frequencySketch != null) {
+            // the misses are counted too, they are the candidates for admission
+            frequencySketch.increment(key);
+        }
+
         R record = null;
         V value = null;
         try {
@@ -398,6 +412,29 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         }
     }
 
+    /**
+     * Admits a new key into a full Near Cache only if it is accessed more
+     * frequently than the entry it would replace, when the {@link EvictionPolicy#TINY_LFU}
+     * policy is used.
+     */
+    @Override
+    public boolean admit(K key) {
+        checkAvailable();
+
+        if (frequencySketch == null || !evictionChecker.isEvictionRequired()) {
+            return true;
+        }
+        // the Near Cache is full, so its size is the expected maximum size
+        frequencySketch.ensureCapacity(records.size());
+        if (containsRecordKey(key)) {
+            return true;
+        }
+
+        Iterable<EvictionCandidate<KS, R>> samples = records.sample(SAMPLE_COUNT);
+        EvictionCandidate<KS, R> victim = evictionPolicyEvaluator.evaluate(samples);
+        return victim == null || frequencySketch.frequency(key) > frequencySketch.frequency(victim.getAccessor());
+    }
+
     @Override
     public long tryReserveForUpdate(K key, Data keyData) {
         checkAvailable();
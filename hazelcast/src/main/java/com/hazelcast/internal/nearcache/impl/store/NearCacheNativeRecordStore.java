@@ -0,0 +1,993 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.eviction.FrequencySketch;
+import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
+import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
+import com.hazelcast.internal.nearcache.impl.maxsize.NativeMemoryNearCacheEvictionChecker;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheDataRecord;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.monitor.NearCacheStats;
+import com.hazelcast.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.hazelcast.internal.eviction.EvictionPolicyEvaluatorProvider.getEvictionPolicyEvaluator;
+import static com.hazelcast.internal.eviction.impl.strategy.sampling.SamplingEvictionStrategy.SAMPLE_COUNT;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nearcache.NearCache.CACHED_AS_NULL;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.RESERVED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector.ALWAYS_FRESH;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.serialization.impl.HeapData.TYPE_OFFSET;
+import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
+
+/**
+ * {@link NearCacheRecordStore} for {@link com.hazelcast.config.InMemoryFormat#NATIVE}
+ * in-memory-format. The keys, the values and the record metadata are kept
+ * off-heap, in the memory of the given {@link StandardMemoryManager}, so a
+ * large Near Cache doesn't add to the heap and to the GC pauses.
+ * <p>
+ * The records are indexed by a {@link HashSlotArray8byteKeyImpl} keyed by
+ * {@link Data#hash64()}. The slot value holds the address of the entry block
+ * and the metadata of the record:
+ * <pre>
+ * +--------------------+----------------------+
+ * | entry address      | 8 bytes (long)       |
+ * | record state       | 8 bytes (long)       |
+ * | creation time      | 8 bytes (long)       |
+ * | access time        | 8 bytes (long)       |
+ * | expiration time    | 8 bytes (long)       |
+ * | invalidation seq.  | 8 bytes (long)       |
+ * | uuid msb, lsb      | 16 bytes (2 longs)   |
+ * | partition ID       | 4 bytes (int)        |
+ * | access hit         | 4 bytes (int)        |
+ * +--------------------+----------------------+
+ * </pre>
+ * The entry block is {@code [int keyLength][key][int valueLength][value]}
+ * with the serialized key and value, the value length is {@code -1} for a
+ * reserved record without a value.
+ * <p>
+ * Since this is a cache, the 64-bit hashes aren't chained: a key replaces
+ * the record of another key with the same hash, and a read of the other key
+ * is a miss.
+ * <p>
+ * The reads copy the value to the heap under a read lock and deserialize it
+ * after the lock is released, all the updates take the write lock. The
+ * access time and the access hit of a record are updated under the read
+ * lock, a lost update of them only affects the eviction.
+ *
+ * @param <K> the type of the key stored in Near Cache
+ * @param <V> the type of the value stored in Near Cache
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class NearCacheNativeRecordStore<K, V> implements NearCacheRecordStore<K, V> {
+
+    static final int ENTRY_ADDRESS_OFFSET = 0;
+    static final int RECORD_STATE_OFFSET = ENTRY_ADDRESS_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int CREATION_TIME_OFFSET = RECORD_STATE_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int ACCESS_TIME_OFFSET = CREATION_TIME_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int EXPIRATION_TIME_OFFSET = ACCESS_TIME_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int INVALIDATION_SEQUENCE_OFFSET = EXPIRATION_TIME_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int UUID_MSB_OFFSET = INVALIDATION_SEQUENCE_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int UUID_LSB_OFFSET = UUID_MSB_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int PARTITION_ID_OFFSET = UUID_LSB_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int ACCESS_HIT_OFFSET = PARTITION_ID_OFFSET + INT_SIZE_IN_BYTES;
+    static final int SLOT_VALUE_LENGTH = ACCESS_HIT_OFFSET + INT_SIZE_IN_BYTES;
+
+    /**
+     * The number of records evicted to make room when the native memory is
+     * exhausted by the other data structures sharing the memory manager.
+     */
+    static final int FORCED_EVICTION_COUNT = 10;
+
+    private static final AtomicLongFieldUpdater<NearCacheNativeRecordStore> RESERVATION_ID
+            = newUpdater(NearCacheNativeRecordStore.class, "reservationId");
+
+    private static final int NO_VALUE = -1;
+    private static final long MILLI_SECONDS_IN_A_SECOND = 1000;
+
+    private final long timeToLiveMillis;
+    private final long maxIdleMillis;
+    private final boolean evictionDisabled;
+    private final ClassLoader classLoader;
+    private final NearCacheConfig nearCacheConfig;
+    private final NearCacheStatsImpl nearCacheStats;
+    private final SerializationService serializationService;
+    private final StandardMemoryManager memoryManager;
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final NearCachePreloader<Data> nearCachePreloader;
+    private final Lock readLock;
+    private final Lock writeLock;
+
+    // guarded by the lock
+    private EntryIndex index;
+    private long entriesMemory;
+    private boolean destroyed;
+
+    private EvictionChecker evictionChecker;
+    private EvictionPolicyEvaluator<Data, NearCacheDataRecord> evictionPolicyEvaluator;
+    /**
+     * Counts the accesses of the keys when the {@link EvictionPolicy#TINY_LFU}
+     * policy is used, {@code null} otherwise.
+     */
+    private FrequencySketch frequencySketch;
+
+    private volatile long reservationId;
+    private volatile StaleReadDetector staleReadDetector = ALWAYS_FRESH;
+
+    public NearCacheNativeRecordStore(String name, NearCacheConfig nearCacheConfig,
+                                      SerializationService serializationService, ClassLoader classLoader,
+                                      StandardMemoryManager memoryManager) {
+        this.nearCacheConfig = nearCacheConfig;
+        this.timeToLiveMillis = nearCacheConfig.getTimeToLiveSeconds() * MILLI_SECONDS_IN_A_SECOND;
+        this.maxIdleMillis = nearCacheConfig.getMaxIdleSeconds() * MILLI_SECONDS_IN_A_SECOND;
+        this.serializationService = serializationService;
+        this.classLoader = classLoader;
+        this.nearCacheStats = new NearCacheStatsImpl();
+        this.evictionDisabled = nearCacheConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.NONE;
+        this.memoryManager = memoryManager;
+        this.malloc = memoryManager.getAllocator();
+        this.mem = memoryManager.getAccessor();
+
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+
+        NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
+        this.nearCachePreloader = preloaderConfig.isEnabled()
+                ? new NearCachePreloader<>(name, preloaderConfig, nearCacheStats, serializationService) : null;
+    }
+
+    @Override
+    public void initialize() {
+        EvictionConfig evictionConfig = nearCacheConfig.getEvictionConfig();
+        this.evictionChecker = new NativeMemoryNearCacheEvictionChecker(evictionConfig.getMaximumSizePolicy(),
+                evictionConfig.getSize(), memoryManager, this);
+        if (!evictionDisabled) {
+            this.evictionPolicyEvaluator = getEvictionPolicyEvaluator(evictionConfig, classLoader);
+            this.frequencySketch = evictionPolicyEvaluator.getFrequencySketch();
+        }
+
+        writeLock.lock();
+        try {
+            EntryIndex index = new EntryIndex(memoryManager);
+            index.gotoNew();
+            this.index = index;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void setStaleReadDetector(StaleReadDetector staleReadDetector) {
+        this.staleReadDetector = staleReadDetector;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Data keyData = toData(key);
+        if (frequencySketch != null) {
+            // the misses are counted too, they are the candidates for admission
+            frequencySketch.increment(keyData);
+        }
+
+        long now = Clock.currentTimeMillis();
+        boolean stale;
+        boolean expired;
+        Data value = null;
+        readLock.lock();
+        try {
+            checkAvailable();
+
+            long slot = findSlot(keyData);
+            if (slot == NULL_ADDRESS) {
+                nearCacheStats.incrementMisses();
+                return null;
+            }
+            if (getRecordState(slot) != READ_PERMITTED) {
+                return null;
+            }
+            stale = isStaleRead(slot);
+            expired = !stale && isExpired(slot, now);
+            if (!stale && !expired) {
+                onRecordAccess(slot, now);
+                value = readValue(mem.getLong(slot + ENTRY_ADDRESS_OFFSET));
+            }
+        } finally {
+            readLock.unlock();
+        }
+
+        if (stale) {
+            invalidate(keyData);
+            nearCacheStats.incrementMisses();
+            return null;
+        }
+        if (expired) {
+            invalidate(keyData);
+            nearCacheStats.incrementExpirations();
+            return null;
+        }
+        nearCacheStats.incrementHits();
+        return value == null ? (V) CACHED_AS_NULL : (V) toValue(value);
+    }
+
+    @Override
+    public void put(K key, Data keyData, V value, Data valueData) {
+        Data keyDataToStore = keyData != null ? keyData : toData(key);
+        Data valueDataToStore = valueData != null ? valueData : toData(value);
+        byte[] keyBytes = keyDataToStore.toByteArray();
+        byte[] valueBytes = valueDataToStore == null ? null : valueDataToStore.toByteArray();
+        long hash = keyDataToStore.hash64();
+
+        writeLock.lock();
+        try {
+            checkAvailable();
+            // if there is no eviction configured we return if the Near Cache is full and it's a new key
+            // (we have to check the key, otherwise we might lose updates on existing keys)
+            if (evictionDisabled && evictionChecker.isEvictionRequired() && findSlot(hash, keyBytes) == NULL_ADDRESS) {
+                return;
+            }
+
+            long slot = putEntry(hash, keyBytes, valueBytes);
+            if (slot == NULL_ADDRESS) {
+                return;
+            }
+            initRecord(slot, keyDataToStore, READ_PERMITTED);
+            onRecordPublish(slot);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long tryReserveForUpdate(K key, Data keyData) {
+        Data keyDataToStore = keyData != null ? keyData : toData(key);
+        byte[] keyBytes = keyDataToStore.toByteArray();
+        long hash = keyDataToStore.hash64();
+
+        writeLock.lock();
+        try {
+            checkAvailable();
+
+            long slot = findSlot(hash, keyBytes);
+            if (slot == NULL_ADDRESS) {
+                // if there is no eviction configured we return if the Near Cache is full and it's a new key
+                if (evictionDisabled && evictionChecker.isEvictionRequired()) {
+                    return NOT_RESERVED;
+                }
+                slot = putEntry(hash, keyBytes, null);
+                if (slot == NULL_ADDRESS) {
+                    return NOT_RESERVED;
+                }
+                initRecord(slot, keyDataToStore, RESERVED);
+            }
+
+            if (getRecordState(slot) != RESERVED) {
+                return NOT_RESERVED;
+            }
+            long reservationId = RESERVATION_ID.incrementAndGet(this);
+            mem.putLong(slot + RECORD_STATE_OFFSET, reservationId);
+            return reservationId;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V tryPublishReserved(K key, V value, long reservationId, boolean deserialize) {
+        Data keyData = toData(key);
+        Data valueData = toData(value);
+        byte[] keyBytes = keyData.toByteArray();
+        byte[] valueBytes = valueData == null ? null : valueData.toByteArray();
+        long hash = keyData.hash64();
+
+        Data cachedValue;
+        writeLock.lock();
+        try {
+            checkAvailable();
+
+            long slot = findSlot(hash, keyBytes);
+            if (slot == NULL_ADDRESS) {
+                return null;
+            }
+            if (getRecordState(slot) == reservationId) {
+                slot = publishValue(hash, keyBytes, valueBytes, reservationId);
+                if (slot == NULL_ADDRESS) {
+                    return null;
+                }
+            }
+            if (!deserialize) {
+                return null;
+            }
+            cachedValue = readValue(mem.getLong(slot + ENTRY_ADDRESS_OFFSET));
+        } finally {
+            writeLock.unlock();
+        }
+        return (V) toValue(cachedValue);
+    }
+
+    @Override
+    public void invalidate(K key) {
+        invalidate(toData(key));
+    }
+
+    private void invalidate(Data keyData) {
+        long hash = keyData.hash64();
+        writeLock.lock();
+        try {
+            checkAvailable();
+
+            long slot = findSlot(hash, keyData.toByteArray());
+            if (slot != NULL_ADDRESS) {
+                if (getRecordState(slot) == READ_PERMITTED) {
+                    nearCacheStats.incrementInvalidations();
+                }
+                removeRecord(hash, slot);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        nearCacheStats.incrementInvalidationRequests();
+    }
+
+    @Override
+    public void clear() {
+        long size;
+        writeLock.lock();
+        try {
+            checkAvailable();
+
+            size = index.size();
+            freeEntries();
+            index.clear();
+        } finally {
+            writeLock.unlock();
+        }
+        nearCacheStats.setOwnedEntryCount(0);
+        nearCacheStats.setOwnedEntryMemoryCost(0L);
+        nearCacheStats.incrementInvalidations(size);
+        nearCacheStats.incrementInvalidationRequests();
+    }
+
+    @Override
+    public void destroy() {
+        writeLock.lock();
+        try {
+            if (index == null || destroyed) {
+                return;
+            }
+            freeEntries();
+            index.dispose();
+            destroyed = true;
+        } finally {
+            writeLock.unlock();
+        }
+        nearCacheStats.setOwnedEntryCount(0);
+        nearCacheStats.setOwnedEntryMemoryCost(0L);
+        if (nearCachePreloader != null) {
+            nearCachePreloader.destroy();
+        }
+    }
+
+    @Override
+    public int size() {
+        readLock.lock();
+        try {
+            checkAvailable();
+
+            return (int) index.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the off-heap memory used by this record store: the entry blocks
+     * and the hash slot array.
+     *
+     * @return the used native memory in bytes
+     */
+    public long getUsedMemory() {
+        readLock.lock();
+        try {
+            checkAvailable();
+
+            return entriesMemory + index.footprint();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    // only used for testing purposes
+    @Override
+    public NearCacheRecord getRecord(K key) {
+        readLock.lock();
+        try {
+            checkAvailable();
+
+            long slot = findSlot(toData(key));
+            return slot == NULL_ADDRESS ? null : toRecord(slot, true);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public NearCacheStats getNearCacheStats() {
+        return nearCacheStats;
+    }
+
+    @Override
+    public void doExpiration() {
+        long now = Clock.currentTimeMillis();
+        List<Data> expiredKeys = new ArrayList<>();
+        readLock.lock();
+        try {
+            checkAvailable();
+
+            EntryIndex index = this.index;
+            for (long i = 0, capacity = index.capacity(); i < capacity; i++) {
+                if (!index.isAssigned(i)) {
+                    continue;
+                }
+                long slot = index.slotValueAddress(i);
+                if (getRecordState(slot) == READ_PERMITTED && isExpired(slot, now)) {
+                    expiredKeys.add(readKey(mem.getLong(slot + ENTRY_ADDRESS_OFFSET)));
+                }
+            }
+        } finally {
+            readLock.unlock();
+        }
+
+        for (Data keyData : expiredKeys) {
+            invalidate(keyData);
+            nearCacheStats.incrementExpirations();
+        }
+    }
+
+    @Override
+    public boolean admit(K key) {
+        if (frequencySketch == null) {
+            return true;
+        }
+
+        Data keyData = toData(key);
+        readLock.lock();
+        try {
+            checkAvailable();
+
+            if (!evictionChecker.isEvictionRequired()) {
+                return true;
+            }
+            // the Near Cache is full, so its size is the expected maximum size
+            frequencySketch.ensureCapacity((int) index.size());
+            if (findSlot(keyData) != NULL_ADDRESS) {
+                return true;
+            }
+
+            NativeEvictionCandidate victim = evictionPolicyEvaluator.evaluate(sample(SAMPLE_COUNT));
+            return victim == null || frequencySketch.frequency(keyData) > frequencySketch.frequency(victim.getAccessor());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void doEviction(boolean withoutMaxSizeCheck) {
+        if (evictionDisabled) {
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            checkAvailable();
+
+            if (withoutMaxSizeCheck || evictionChecker.isEvictionRequired()) {
+                evictRecord();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+        if (nearCachePreloader != null) {
+            nearCachePreloader.loadKeys(adapter);
+        }
+    }
+
+    @Override
+    public void storeKeys() {
+        if (nearCachePreloader == null) {
+            return;
+        }
+
+        List<Data> keys;
+        readLock.lock();
+        try {
+            checkAvailable();
+
+            EntryIndex index = this.index;
+            keys = new ArrayList<>((int) index.size());
+            for (long i = 0, capacity = index.capacity(); i < capacity; i++) {
+                if (index.isAssigned(i)) {
+                    keys.add(readKey(mem.getLong(index.slotValueAddress(i) + ENTRY_ADDRESS_OFFSET)));
+                }
+            }
+        } finally {
+            readLock.unlock();
+        }
+        nearCachePreloader.storeKeys(keys.iterator());
+    }
+
+    private void checkAvailable() {
+        if (index == null || destroyed) {
+            throw new IllegalStateException(nearCacheConfig.getName() + " named Near Cache record store is not available");
+        }
+    }
+
+    private Data toData(Object obj) {
+        return serializationService.toData(obj);
+    }
+
+    private Object toValue(Object obj) {
+        return serializationService.toObject(obj);
+    }
+
+    /**
+     * Finds the slot of the key.
+     *
+     * @return the address of the slot value, or {@link MemoryAllocator#NULL_ADDRESS}
+     * if there is no record of the key
+     */
+    private long findSlot(Data keyData) {
+        return findSlot(keyData.hash64(), keyData.toByteArray());
+    }
+
+    private long findSlot(long hash, byte[] keyBytes) {
+        long slot = index.get(hash);
+        if (slot == NULL_ADDRESS || !keyEquals(mem.getLong(slot + ENTRY_ADDRESS_OFFSET), keyBytes)) {
+            return NULL_ADDRESS;
+        }
+        return slot;
+    }
+
+    /**
+     * Stores a new entry block of the key, it replaces the record of the key
+     * or of another key with the same hash. The metadata of the slot has to
+     * be initialized by the caller.
+     *
+     * @return the address of the slot value, or {@link MemoryAllocator#NULL_ADDRESS}
+     * if there isn't enough native memory to store the entry
+     */
+    private long putEntry(long hash, byte[] keyBytes, byte[] valueBytes) {
+        // allocates first, the forced eviction moves the slots around
+        long entryAddress = allocateEntry(keyBytes, valueBytes);
+        if (entryAddress == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+
+        SlotAssignmentResult result;
+        try {
+            result = index.ensure(hash);
+        } catch (NativeOutOfMemoryError e) {
+            freeEntry(entryAddress);
+            return NULL_ADDRESS;
+        }
+        long slot = result.address();
+        if (!result.isNew()) {
+            long oldEntryAddress = mem.getLong(slot + ENTRY_ADDRESS_OFFSET);
+            if (!keyEquals(oldEntryAddress, keyBytes)) {
+                nearCacheStats.incrementEvictions();
+            }
+            onRecordRemove(slot);
+            freeEntry(oldEntryAddress);
+        }
+        mem.putLong(slot + ENTRY_ADDRESS_OFFSET, entryAddress);
+        return slot;
+    }
+
+    /**
+     * Replaces the value of a reserved record and makes it readable.
+     *
+     * @return the address of the slot value, or {@link MemoryAllocator#NULL_ADDRESS}
+     * if the record is gone
+     */
+    private long publishValue(long hash, byte[] keyBytes, byte[] valueBytes, long reservationId) {
+        long entryAddress = allocateEntry(keyBytes, valueBytes);
+        // the forced eviction might have moved or removed the reserved record
+        long slot = findSlot(hash, keyBytes);
+        if (entryAddress == NULL_ADDRESS) {
+            if (slot != NULL_ADDRESS) {
+                removeRecord(hash, slot);
+            }
+            return NULL_ADDRESS;
+        }
+        if (slot == NULL_ADDRESS || getRecordState(slot) != reservationId) {
+            freeEntry(entryAddress);
+            return slot;
+        }
+
+        freeEntry(mem.getLong(slot + ENTRY_ADDRESS_OFFSET));
+        mem.putLong(slot + ENTRY_ADDRESS_OFFSET, entryAddress);
+        mem.putLong(slot + RECORD_STATE_OFFSET, READ_PERMITTED);
+        onRecordPublish(slot);
+        return slot;
+    }
+
+    /**
+     * Allocates and writes an entry block. If the native memory is exhausted,
+     * it evicts a few records and tries once more.
+     *
+     * @return the address of the entry block, or {@link MemoryAllocator#NULL_ADDRESS}
+     * if there isn't enough native memory
+     */
+    private long allocateEntry(byte[] keyBytes, byte[] valueBytes) {
+        try {
+            return writeEntry(keyBytes, valueBytes);
+        } catch (NativeOutOfMemoryError e) {
+            if (evictionDisabled) {
+                return NULL_ADDRESS;
+            }
+            // the memory manager is shared, so the evicted records are the only room we can make
+            int evicted = 0;
+            while (evicted < FORCED_EVICTION_COUNT && evictRecord()) {
+                evicted++;
+            }
+            try {
+                return writeEntry(keyBytes, valueBytes);
+            } catch (NativeOutOfMemoryError retryError) {
+                return NULL_ADDRESS;
+            }
+        }
+    }
+
+    private long writeEntry(byte[] keyBytes, byte[] valueBytes) {
+        int valueLength = valueBytes == null ? NO_VALUE : valueBytes.length;
+        long size = entrySize(keyBytes.length, valueLength);
+        long address = malloc.allocate(size);
+
+        mem.putInt(address, keyBytes.length);
+        mem.copyFromByteArray(keyBytes, 0, address + INT_SIZE_IN_BYTES, keyBytes.length);
+        long valueAddress = address + INT_SIZE_IN_BYTES + keyBytes.length;
+        mem.putInt(valueAddress, valueLength);
+        if (valueLength > 0) {
+            mem.copyFromByteArray(valueBytes, 0, valueAddress + INT_SIZE_IN_BYTES, valueLength);
+        }
+        entriesMemory += size;
+        return address;
+    }
+
+    private void freeEntry(long entryAddress) {
+        long size = entrySize(entryAddress);
+        malloc.free(entryAddress, size);
+        entriesMemory -= size;
+    }
+
+    private void freeEntries() {
+        EntryIndex index = this.index;
+        for (long i = 0, capacity = index.capacity(); i < capacity; i++) {
+            if (index.isAssigned(i)) {
+                freeEntry(mem.getLong(index.slotValueAddress(i) + ENTRY_ADDRESS_OFFSET));
+            }
+        }
+    }
+
+    private long entrySize(long entryAddress) {
+        int keyLength = mem.getInt(entryAddress);
+        int valueLength = mem.getInt(entryAddress + INT_SIZE_IN_BYTES + keyLength);
+        return entrySize(keyLength, valueLength);
+    }
+
+    private static long entrySize(int keyLength, int valueLength) {
+        return 2L * INT_SIZE_IN_BYTES + keyLength + Math.max(valueLength, 0);
+    }
+
+    private Data readKey(long entryAddress) {
+        return readData(entryAddress + INT_SIZE_IN_BYTES, mem.getInt(entryAddress));
+    }
+
+    private Data readValue(long entryAddress) {
+        long valueAddress = entryAddress + INT_SIZE_IN_BYTES + mem.getInt(entryAddress);
+        int valueLength = mem.getInt(valueAddress);
+        return valueLength == NO_VALUE ? null : readData(valueAddress + INT_SIZE_IN_BYTES, valueLength);
+    }
+
+    private Data readData(long address, int length) {
+        byte[] bytes = new byte[length];
+        if (length > 0) {
+            mem.copyToByteArray(address, bytes, 0, length);
+        }
+        return new HeapData(bytes);
+    }
+
+    /**
+     * Compares the serialized key with the key of the entry block, ignoring
+     * the partition hash like {@link HeapData#equals(Object)} does.
+     */
+    private boolean keyEquals(long entryAddress, byte[] keyBytes) {
+        if (mem.getInt(entryAddress) != keyBytes.length) {
+            return false;
+        }
+        long keyAddress = entryAddress + INT_SIZE_IN_BYTES;
+        for (int i = keyBytes.length - 1; i >= TYPE_OFFSET; i--) {
+            if (mem.getByte(keyAddress + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void initRecord(long slot, Data keyData, long recordState) {
+        long now = Clock.currentTimeMillis();
+        mem.putLong(slot + RECORD_STATE_OFFSET, recordState);
+        mem.putLong(slot + CREATION_TIME_OFFSET, now);
+        mem.putLong(slot + ACCESS_TIME_OFFSET, TIME_NOT_SET);
+        mem.putLong(slot + EXPIRATION_TIME_OFFSET, timeToLiveMillis > 0 ? now + timeToLiveMillis : TIME_NOT_SET);
+        mem.putInt(slot + ACCESS_HIT_OFFSET, 0);
+        initInvalidationMetaData(slot, keyData);
+    }
+
+    private void initInvalidationMetaData(long slot, Data keyData) {
+        StaleReadDetector staleReadDetector = this.staleReadDetector;
+        int partitionId = 0;
+        long sequence = 0;
+        UUID uuid = null;
+        // ALWAYS_FRESH means invalidation event creation is disabled for this Near Cache
+        if (staleReadDetector != ALWAYS_FRESH) {
+            partitionId = staleReadDetector.getPartitionId(keyData);
+            MetaDataContainer metaDataContainer = staleReadDetector.getMetaDataContainer(partitionId);
+            sequence = metaDataContainer.getSequence();
+            uuid = metaDataContainer.getUuid();
+        }
+        mem.putInt(slot + PARTITION_ID_OFFSET, partitionId);
+        mem.putLong(slot + INVALIDATION_SEQUENCE_OFFSET, sequence);
+        mem.putLong(slot + UUID_MSB_OFFSET, uuid == null ? 0 : uuid.getMostSignificantBits());
+        mem.putLong(slot + UUID_LSB_OFFSET, uuid == null ? 0 : uuid.getLeastSignificantBits());
+    }
+
+    private long getRecordState(long slot) {
+        return mem.getLong(slot + RECORD_STATE_OFFSET);
+    }
+
+    private UUID getUuid(long slot) {
+        long msb = mem.getLong(slot + UUID_MSB_OFFSET);
+        long lsb = mem.getLong(slot + UUID_LSB_OFFSET);
+        return msb == 0 && lsb == 0 ? null : new UUID(msb, lsb);
+    }
+
+    private boolean isStaleRead(long slot) {
+        StaleReadDetector staleReadDetector = this.staleReadDetector;
+        if (staleReadDetector == ALWAYS_FRESH) {
+            return false;
+        }
+
+        MetaDataContainer latestMetaData = staleReadDetector.getMetaDataContainer(mem.getInt(slot + PARTITION_ID_OFFSET));
+        UUID latestUuid = latestMetaData.getUuid();
+        return latestUuid == null
+                || latestUuid.getMostSignificantBits() != mem.getLong(slot + UUID_MSB_OFFSET)
+                || latestUuid.getLeastSignificantBits() != mem.getLong(slot + UUID_LSB_OFFSET)
+                || mem.getLong(slot + INVALIDATION_SEQUENCE_OFFSET) < latestMetaData.getStaleSequence();
+    }
+
+    private boolean isExpired(long slot, long now) {
+        long expirationTime = mem.getLong(slot + EXPIRATION_TIME_OFFSET);
+        if (expirationTime > TIME_NOT_SET && expirationTime <= now) {
+            return true;
+        }
+        if (maxIdleMillis > 0) {
+            long accessTime = mem.getLong(slot + ACCESS_TIME_OFFSET);
+            long lastAccessTime = accessTime > TIME_NOT_SET ? accessTime : mem.getLong(slot + CREATION_TIME_OFFSET);
+            return lastAccessTime + maxIdleMillis < now;
+        }
+        return false;
+    }
+
+    private void onRecordAccess(long slot, long now) {
+        mem.putLong(slot + ACCESS_TIME_OFFSET, now);
+        mem.putInt(slot + ACCESS_HIT_OFFSET, mem.getInt(slot + ACCESS_HIT_OFFSET) + 1);
+    }
+
+    private void onRecordPublish(long slot) {
+        nearCacheStats.incrementOwnedEntryMemoryCost(getMemoryCost(slot));
+        nearCacheStats.incrementOwnedEntryCount();
+    }
+
+    private void onRecordRemove(long slot) {
+        if (getRecordState(slot) == READ_PERMITTED) {
+            nearCacheStats.decrementOwnedEntryMemoryCost(getMemoryCost(slot));
+            nearCacheStats.decrementOwnedEntryCount();
+        }
+    }
+
+    private long getMemoryCost(long slot) {
+        return entrySize(mem.getLong(slot + ENTRY_ADDRESS_OFFSET)) + LONG_SIZE_IN_BYTES + SLOT_VALUE_LENGTH;
+    }
+
+    private void removeRecord(long hash, long slot) {
+        onRecordRemove(slot);
+        freeEntry(mem.getLong(slot + ENTRY_ADDRESS_OFFSET));
+        index.remove(hash);
+    }
+
+    /**
+     * Evicts a record chosen by the eviction policy among the sampled records.
+     *
+     * @return {@code true} if a record was evicted, {@code false} otherwise
+     */
+    private boolean evictRecord() {
+        NativeEvictionCandidate candidate = evictionPolicyEvaluator.evaluate(sample(SAMPLE_COUNT));
+        if (candidate == null) {
+            return false;
+        }
+        removeRecord(candidate.hash, candidate.slot);
+        nearCacheStats.incrementEvictions();
+        return true;
+    }
+
+    /**
+     * Samples the assigned slots, starting from a random slot. The samples
+     * are valid only while the lock is held.
+     */
+    private List<NativeEvictionCandidate> sample(int sampleCount) {
+        EntryIndex index = this.index;
+        if (index.size() == 0) {
+            return Collections.emptyList();
+        }
+
+        long capacity = index.capacity();
+        long mask = capacity - 1;
+        long start = ThreadLocalRandom.current().nextLong(capacity);
+        List<NativeEvictionCandidate> samples = new ArrayList<>(sampleCount);
+        for (long i = 0; i < capacity && samples.size() < sampleCount; i++) {
+            long slotIndex = (start + i) & mask;
+            if (index.isAssigned(slotIndex)) {
+                samples.add(new NativeEvictionCandidate(index.keyOfSlot(slotIndex), index.slotValueAddress(slotIndex)));
+            }
+        }
+        return samples;
+    }
+
+    private NearCacheDataRecord toRecord(long slot, boolean withValue) {
+        Data value = withValue ? readValue(mem.getLong(slot + ENTRY_ADDRESS_OFFSET)) : null;
+        NearCacheDataRecord record = new NearCacheDataRecord(value, mem.getLong(slot + CREATION_TIME_OFFSET),
+                mem.getLong(slot + EXPIRATION_TIME_OFFSET));
+        record.setAccessTime(mem.getLong(slot + ACCESS_TIME_OFFSET));
+        record.setAccessHit(mem.getInt(slot + ACCESS_HIT_OFFSET));
+        record.setPartitionId(mem.getInt(slot + PARTITION_ID_OFFSET));
+        record.setInvalidationSequence(mem.getLong(slot + INVALIDATION_SEQUENCE_OFFSET));
+        record.setUuid(getUuid(slot));
+        record.casRecordState(READ_PERMITTED, getRecordState(slot));
+        return record;
+    }
+
+    /**
+     * Eviction candidate of a slot. The key is copied to the heap, the metadata
+     * is a snapshot, the value is read only when it's asked for by a custom
+     * eviction policy comparator.
+     */
+    private final class NativeEvictionCandidate implements EvictionCandidate<Data, NearCacheDataRecord> {
+
+        private final long hash;
+        private final long slot;
+        private final Data key;
+        private final NearCacheDataRecord record;
+
+        NativeEvictionCandidate(long hash, long slot) {
+            this.hash = hash;
+            this.slot = slot;
+            this.key = readKey(mem.getLong(slot + ENTRY_ADDRESS_OFFSET));
+            this.record = toRecord(slot, false);
+        }
+
+        @Override
+        public Data getAccessor() {
+            return key;
+        }
+
+        @Override
+        public NearCacheDataRecord getEvictable() {
+            return record;
+        }
+
+        @Override
+        public Object getKey() {
+            return toValue(key);
+        }
+
+        @Override
+        public Object getValue() {
+            return toValue(readValue(mem.getLong(slot + ENTRY_ADDRESS_OFFSET)));
+        }
+
+        @Override
+        public long getCreationTime() {
+            return record.getCreationTime();
+        }
+
+        @Override
+        public long getLastAccessTime() {
+            return record.getLastAccessTime();
+        }
+
+        @Override
+        public long getAccessHit() {
+            return record.getAccessHit();
+        }
+    }
+
+    private static final class EntryIndex extends HashSlotArray8byteKeyImpl {
+
+        EntryIndex(MemoryManager memoryManager) {
+            super(NULL_ADDRESS, memoryManager, SLOT_VALUE_LENGTH);
+        }
+
+        boolean isAssigned(long slot) {
+            return isAssigned(address(), slot);
+        }
+
+        long keyOfSlot(long slot) {
+            return key1OfSlot(address(), slot);
+        }
+
+        long slotValueAddress(long slot) {
+            return slotBase(address(), slot) + LONG_SIZE_IN_BYTES;
+        }
+
+        long footprint() {
+            return HEADER_SIZE + capacity() * slotLength;
+        }
+    }
+}
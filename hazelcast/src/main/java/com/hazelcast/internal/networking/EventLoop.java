@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+/**
+ * An event loop which has no thread of its own, but is driven by the thread
+ * of an {@link EventLoopHost} in between the other work of the host.
+ * <p>
+ * All the methods except {@link #wakeup()} must be called by the host
+ * thread.
+ */
+public interface EventLoop {
+
+    /**
+     * Processes the pending events and tasks without blocking.
+     *
+     * @return {@code true} if any events or tasks were processed, {@code
+     * false} otherwise.
+     */
+    boolean processNow();
+
+    /**
+     * Processes the pending events and tasks, blocks until there are some if
+     * there are none. Returns once the events are processed, on timeout, on
+     * {@link #wakeup()} or if the host thread is interrupted.
+     */
+    void process();
+
+    /**
+     * Makes the host thread blocked in {@link #process()} return or the next
+     * call to it return immediately.
+     * <p>
+     * May be called on any thread.
+     */
+    void wakeup();
+
+}
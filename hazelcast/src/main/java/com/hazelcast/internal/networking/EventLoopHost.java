@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+/**
+ * A thread able to drive an {@link EventLoop} in between its other work, so
+ * the events are processed without being handed off to another thread.
+ */
+public interface EventLoopHost {
+
+    /**
+     * @return the thread driving the hosted event loop.
+     */
+    Thread getHostThread();
+
+    /**
+     * Starts driving the given event loop instead of the currently hosted
+     * one, if any.
+     *
+     * @param eventLoop the event loop to host or {@code null} to stop hosting.
+     */
+    void setEventLoop(EventLoop eventLoop);
+
+}
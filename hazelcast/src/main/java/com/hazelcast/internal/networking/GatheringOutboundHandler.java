@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Implemented by the {@link OutboundHandler}s which may hand over their
+ * output as a sequence of buffers instead of copying it into the dst buffer,
+ * e.g. to avoid copying the large frames.
+ *
+ * If the last handler of an outbound pipeline has some buffers gathered once
+ * its {@link OutboundHandler#onWrite()} returns, the gathered buffers are
+ * written to the socket by a single
+ * {@link java.nio.channels.GatheringByteChannel#write(ByteBuffer[], int, int)}
+ * instead of the dst buffer. The handler is responsible for keeping the dst
+ * buffer drained in the meantime and for tracking which of the gathered
+ * buffers are written on the next onWrite.
+ *
+ * Only the output of the last handler is written to the socket, so a handler
+ * may gather its output only while it is the last one, see
+ * {@link #setLastHandler(boolean)}.
+ *
+ * @see OutboundHandler
+ */
+public interface GatheringOutboundHandler {
+
+    /**
+     * @return the array containing the gathered buffers.
+     */
+    ByteBuffer[] gatheredBuffers();
+
+    /**
+     * @return the index of the first gathered buffer in the array.
+     */
+    int gatheredOffset();
+
+    /**
+     * @return the number of the gathered buffers or 0 if there are none and
+     * the dst buffer should be written instead.
+     */
+    int gatheredCount();
+
+    /**
+     * Called by the pipeline whenever its handlers change.
+     *
+     * @param lastHandler {@code true} if the handler is the last one of the
+     *                    pipeline, so its gathered buffers are written to the
+     *                    socket, {@code false} otherwise.
+     */
+    void setLastHandler(boolean lastHandler);
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import com.hazelcast.internal.networking.nio.NioNetworking;
+
+/**
+ * Provides an alternative {@link Networking} transport, e.g. one based on a
+ * native edge-triggered epoll or io_uring, next to the {@link NioNetworking}.
+ *
+ * The providers are discovered using the
+ * {@link com.hazelcast.internal.util.ServiceLoader} under the
+ * {@link #FACTORY_ID} and the one to use is selected by its
+ * {@link #transport()} name, see
+ * {@link com.hazelcast.spi.properties.GroupProperty#IO_TRANSPORT}. If the
+ * selected provider can't be found or isn't available on the current
+ * platform, the {@link NioNetworking} is used instead.
+ *
+ * The channels created by the provided Networking are initialized by the
+ * same {@link ChannelInitializer}s, so the {@link InboundHandler}s and the
+ * {@link OutboundHandler}s of the member and the client protocols work
+ * unchanged.
+ */
+public interface NetworkingProvider {
+
+    /**
+     * The id the providers are registered under in the META-INF/services.
+     */
+    String FACTORY_ID = "com.hazelcast.internal.networking.NetworkingProvider";
+
+    /**
+     * @return the name of the transport, e.g. {@code epoll}.
+     */
+    String transport();
+
+    /**
+     * Checks if the transport can be used on the current platform, e.g. if
+     * the native library backing it is loaded.
+     *
+     * @return {@code true} if available, {@code false} otherwise.
+     */
+    boolean isAvailable();
+
+    /**
+     * Creates the Networking. It isn't started yet.
+     *
+     * @param ctx the settings the {@link NioNetworking} would be created with
+     * @return the created Networking
+     */
+    Networking newNetworking(NioNetworking.Context ctx);
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static com.hazelcast.internal.util.QuickMath.isPowerOfTwo;
+import static java.lang.Integer.numberOfTrailingZeros;
+
+/**
+ * A pool of the socket buffers shared by the pipelines owned by a single
+ * {@link NioThread}.
+ * <p>
+ * The buffers are pooled by size classes, which are the powers of two in
+ * between {@link #MIN_BUFFER_SIZE} and {@link #MAX_BUFFER_SIZE}. The direct
+ * buffers are sliced out of {@link #SLAB_SIZE} slabs, so the thousands of
+ * buffers don't result in the thousands of direct memory allocations. Once
+ * more than the given number of bytes is pooled, the released buffers are
+ * dropped and left to the garbage collector.
+ * <p>
+ * The pipelines release their buffers once drained and acquire them back
+ * once there is some data to read or write, so the idle connections don't
+ * hold any buffers at all.
+ * <p>
+ * Not thread-safe, must be used by the thread running the {@link NioThread}
+ * only.
+ */
+final class BufferPool {
+
+    static final int MIN_BUFFER_SIZE = 4096;
+    static final int MAX_BUFFER_SIZE = 1048576;
+    static final int SLAB_SIZE = MAX_BUFFER_SIZE;
+    static final long DEFAULT_MAX_POOLED_BYTES = 16777216;
+
+    private static final int MIN_SHIFT = numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    private static final int SIZE_CLASS_COUNT = numberOfTrailingZeros(MAX_BUFFER_SIZE) - MIN_SHIFT + 1;
+
+    private final long maxPooledBytes;
+    private final SizeClass[] heapSizeClasses = new SizeClass[SIZE_CLASS_COUNT];
+    private final SizeClass[] directSizeClasses = new SizeClass[SIZE_CLASS_COUNT];
+
+    // written by the owning thread only, read by the metrics
+    private volatile long allocatedBytes;
+    private volatile long pooledBytes;
+
+    BufferPool() {
+        this(DEFAULT_MAX_POOLED_BYTES);
+    }
+
+    BufferPool(long maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+        for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+            heapSizeClasses[i] = new SizeClass();
+            directSizeClasses[i] = new SizeClass();
+        }
+    }
+
+    /**
+     * Checks if the given buffer can be pooled. Only the buffers having the
+     * capacity of one of the size classes can be.
+     */
+    static boolean isPoolable(ByteBuffer buffer) {
+        return !buffer.isReadOnly() && isPoolableSize(buffer.capacity());
+    }
+
+    static boolean isPoolableSize(int size) {
+        return size >= MIN_BUFFER_SIZE && size <= MAX_BUFFER_SIZE && isPowerOfTwo(size);
+    }
+
+    /**
+     * Acquires a cleared buffer of the given size.
+     *
+     * @param size   the size of the buffer, must be one of the size classes.
+     * @param direct {@code true} to acquire a direct buffer, {@code false}
+     *               to acquire a heap buffer.
+     * @return the acquired buffer.
+     * @throws IllegalArgumentException if the size isn't one of the size
+     *                                  classes.
+     */
+    ByteBuffer acquire(int size, boolean direct) {
+        checkTrue(isPoolableSize(size), "Unsupported buffer size: " + size);
+
+        SizeClass sizeClass = sizeClass(size, direct);
+        ByteBuffer buffer = sizeClass.buffers.pollLast();
+        if (buffer != null) {
+            pooledBytes -= size;
+            return buffer;
+        }
+
+        if (!direct) {
+            allocatedBytes += size;
+            return ByteBuffer.allocate(size);
+        }
+
+        // slice a new slab, the buffers of the slab other than the
+        // acquired one are pooled
+        ByteBuffer slab = ByteBuffer.allocateDirect(SLAB_SIZE);
+        allocatedBytes += SLAB_SIZE;
+        for (int offset = size; offset < SLAB_SIZE; offset += size) {
+            slab.limit(offset + size).position(offset);
+            sizeClass.buffers.addLast(slab.slice());
+            pooledBytes += size;
+        }
+        slab.clear().limit(size);
+        return slab.slice();
+    }
+
+    /**
+     * Releases the given buffer to the pool. The buffer must not be used by
+     * the caller afterwards.
+     *
+     * @param buffer the released buffer, must be poolable.
+     * @throws IllegalArgumentException if the buffer isn't poolable.
+     * @see #isPoolable(ByteBuffer)
+     */
+    void release(ByteBuffer buffer) {
+        checkTrue(isPoolable(buffer), "Unpoolable buffer: " + buffer);
+
+        int size = buffer.capacity();
+        if (pooledBytes + size > maxPooledBytes) {
+            return;
+        }
+
+        buffer.clear();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        sizeClass(size, buffer.isDirect()).buffers.addLast(buffer);
+        pooledBytes += size;
+    }
+
+    /**
+     * @return the number of bytes allocated by this pool so far.
+     */
+    long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return the number of bytes currently available in this pool.
+     */
+    long pooledBytes() {
+        return pooledBytes;
+    }
+
+    private SizeClass sizeClass(int size, boolean direct) {
+        int index = numberOfTrailingZeros(size) - MIN_SHIFT;
+        return direct ? directSizeClasses[index] : heapSizeClasses[index];
+    }
+
+    private static final class SizeClass {
+        // used as a stack, so the recently used and likely cached buffers
+        // are acquired first
+        final ArrayDeque<ByteBuffer> buffers = new ArrayDeque<>();
+    }
+}
@@ -117,8 +117,10 @@ public final class NioChannel extends AbstractChannel {
             }
         }
 
-        if (Thread.currentThread() instanceof NioThread) {
-            // we don't want to do any tasks on an io thread; we offload it instead
+        if (Thread.currentThread() instanceof NioThread
+                || inboundPipeline.isOwnerThread() || outboundPipeline.isOwnerThread()) {
+            // we don't want to do any tasks on an io thread, including the threads
+            // hosting the io threads; we offload it instead
             try {
                 closeListenerExecutor.execute(() -> {
                     try {
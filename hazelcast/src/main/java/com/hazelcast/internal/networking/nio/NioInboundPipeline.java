@@ -37,7 +37,6 @@ import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.collection.ArrayUtils.append;
 import static com.hazelcast.internal.util.collection.ArrayUtils.replaceFirst;
 import static java.lang.System.currentTimeMillis;
-import static java.lang.Thread.currentThread;
 import static java.nio.channels.SelectionKey.OP_READ;
 
 /**
@@ -45,11 +44,18 @@ import static java.nio.channels.SelectionKey.OP_READ;
  * {@link Selector}, then the {@link #process()} is called to read
  * out the data from the socket into a bytebuffer and hand it over to the
  * {@link InboundHandler} to get processed.
+ * <p>
+ * If the owner pools the buffers, the receive buffer is released to the pool
+ * once all the received data is processed and acquired back once there is
+ * more data to read.
  */
 public final class NioInboundPipeline extends NioPipeline implements InboundPipeline {
 
     private InboundHandler[] handlers = new InboundHandler[0];
     private ByteBuffer receiveBuffer;
+    // the size and the kind of the receive buffer released to the pool
+    private int releasedBufferSize;
+    private boolean releasedBufferDirect;
 
     @Probe(name = "bytesRead")
     private final SwCounter bytesRead = newSwCounter();
@@ -110,6 +116,10 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
         // the connection is going to be closed anyway.
         lastReadTime = currentTimeMillis();
 
+        if (receiveBuffer == null) {
+            acquireReceiveBuffer();
+        }
+
         int readBytes = socketChannel.read(receiveBuffer);
 
         if (readBytes == -1) {
@@ -153,6 +163,8 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
             }
         } while (!cleanPipeline);
 
+        releaseReceiveBufferIfDrained();
+
         if (migrationRequested()) {
             startMigration();
             return;
@@ -163,13 +175,34 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
         }
     }
 
+    private void acquireReceiveBuffer() {
+        receiveBuffer = owner.bufferPool().acquire(releasedBufferSize, releasedBufferDirect);
+        handlers[0].src(receiveBuffer);
+    }
+
+    private void releaseReceiveBufferIfDrained() {
+        BufferPool bufferPool = owner.bufferPool();
+        ByteBuffer buffer = receiveBuffer;
+        // the buffer is in the writing mode, so it's drained if it's cleared
+        if (bufferPool == null || buffer == null || buffer.position() != 0 || buffer.limit() != buffer.capacity()
+                || !BufferPool.isPoolable(buffer)) {
+            return;
+        }
+
+        releasedBufferSize = buffer.capacity();
+        releasedBufferDirect = buffer.isDirect();
+        receiveBuffer = null;
+        handlers[0].src(null);
+        bufferPool.release(buffer);
+    }
+
     long bytesRead() {
         return bytesRead.get();
     }
 
     @Override
     void publishMetrics() {
-        if (currentThread() != owner) {
+        if (!isOwnerThread()) {
             return;
         }
         // since this is executed by the owner, the owner field can't change while
@@ -27,8 +27,10 @@ import com.hazelcast.internal.metrics.ProbeLevel;
 import com.hazelcast.internal.networking.Channel;
 import com.hazelcast.internal.networking.ChannelCloseListener;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
+import com.hazelcast.internal.networking.ChannelHandler;
 import com.hazelcast.internal.networking.ChannelInitializer;
 import com.hazelcast.internal.networking.ChannelInitializerProvider;
+import com.hazelcast.internal.networking.EventLoopHost;
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.Networking;
 import com.hazelcast.internal.networking.OutboundHandler;
@@ -53,6 +55,7 @@ import static com.hazelcast.internal.networking.nio.SelectorMode.SELECT;
 import static com.hazelcast.internal.networking.nio.SelectorMode.SELECT_NOW_STRING;
 import static com.hazelcast.internal.nio.IOUtil.closeResource;
 import static com.hazelcast.internal.util.HashUtil.hashToIndex;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadPoolName;
 import static com.hazelcast.internal.util.concurrent.BackoffIdleStrategy.createBackoffIdleStrategy;
 import static java.util.Collections.newSetFromMap;
@@ -84,6 +87,16 @@ import static java.util.logging.Level.FINE;
  * 'selectNow' mode that makes it spinning on the selector. This is an experimental
  * feature and will cause the io threads to run hot. For this reason, when this feature
  * is enabled, the number of io threads should be reduced (preferably 1).
+ * <p>
+ * If {@link EventLoopHost}s are provided, there are no io threads of its own. Every
+ * host drives a single hosted {@link NioThread} serving both the inbound and the
+ * outbound pipelines, so the channels are processed by the host threads themselves.
+ * A channel can be registered with a selector only once, so the outbound pipeline
+ * of a channel is always served by the NioThread next to the one serving its inbound
+ * pipeline.
+ * <p>
+ * If the buffer pooling is enabled, every NioThread pools the socket buffers of
+ * the pipelines it owns, see {@link BufferPool}.
  */
 public final class NioNetworking implements Networking, DynamicMetricsProvider {
 
@@ -107,6 +120,8 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
     private volatile ExecutorService closeListenerExecutor;
     private final ConcurrencyDetection concurrencyDetection;
     private final boolean writeThroughEnabled;
+    private final EventLoopHost[] eventLoopHosts;
+    private final boolean bufferPoolEnabled;
     private volatile IOBalancer ioBalancer;
     private volatile NioThread[] inputThreads;
     private volatile NioThread[] outputThreads;
@@ -128,8 +143,9 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         this.threadNamePrefix = ctx.threadNamePrefix;
         this.metricsRegistry = ctx.metricsRegistry;
         this.loggingService = ctx.loggingService;
-        this.inputThreadCount = ctx.inputThreadCount;
-        this.outputThreadCount = ctx.outputThreadCount;
+        this.eventLoopHosts = ctx.eventLoopHosts;
+        this.inputThreadCount = eventLoopHosts == null ? ctx.inputThreadCount : eventLoopHosts.length;
+        this.outputThreadCount = eventLoopHosts == null ? ctx.outputThreadCount : eventLoopHosts.length;
         this.logger = loggingService.getLogger(NioNetworking.class);
         this.errorHandler = ctx.errorHandler;
         this.balancerIntervalSeconds = ctx.balancerIntervalSeconds;
@@ -139,6 +155,7 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         this.concurrencyDetection = ctx.concurrencyDetection;
         this.writeThroughEnabled = ctx.writeThroughEnabled;
         this.selectionKeyWakeupEnabled = ctx.selectionKeyWakeupEnabled;
+        this.bufferPoolEnabled = ctx.bufferPoolEnabled;
     }
 
     @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "used only for testing")
@@ -183,6 +200,12 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             return t;
         });
 
+        if (eventLoopHosts != null) {
+            startHostedThreads();
+            metricsRegistry.registerDynamicMetricsProvider(this);
+            return;
+        }
+
         NioThread[] inThreads = new NioThread[inputThreadCount];
         for (int i = 0; i < inThreads.length; i++) {
             NioThread thread = new NioThread(
@@ -193,6 +216,7 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
                     idleStrategy);
             thread.id = i;
             thread.setSelectorWorkaroundTest(selectorWorkaroundTest);
+            initBufferPool(thread);
             inThreads[i] = thread;
             thread.start();
         }
@@ -208,6 +232,7 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
                     idleStrategy);
             thread.id = i;
             thread.setSelectorWorkaroundTest(selectorWorkaroundTest);
+            initBufferPool(thread);
             outThreads[i] = thread;
             thread.start();
         }
@@ -218,6 +243,34 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         metricsRegistry.registerDynamicMetricsProvider(this);
     }
 
+    private void startHostedThreads() {
+        checkTrue(eventLoopHosts.length > 1, "At least 2 event loop hosts are required");
+        NioThread[] threads = new NioThread[eventLoopHosts.length];
+        for (int i = 0; i < threads.length; i++) {
+            NioThread thread = new NioThread(
+                    createThreadPoolName(threadNamePrefix, "IO") + "loop-" + i,
+                    loggingService.getLogger(NioThread.class),
+                    errorHandler,
+                    eventLoopHosts[i]);
+            thread.id = i;
+            initBufferPool(thread);
+            threads[i] = thread;
+            eventLoopHosts[i].setEventLoop(thread);
+        }
+        this.inputThreads = threads;
+        this.outputThreads = threads;
+        // both indexes are incremented once per channel
+        nextOutputThreadIndex.set(nextInputThreadIndex.get() + 1);
+
+        startIOBalancer();
+    }
+
+    private void initBufferPool(NioThread thread) {
+        if (bufferPoolEnabled) {
+            thread.setBufferPool(new BufferPool());
+        }
+    }
+
     private void startIOBalancer() {
         ioBalancer = new IOBalancer(inputThreads, outputThreads, threadNamePrefix, balancerIntervalSeconds, loggingService);
         ioBalancer.start();
@@ -251,9 +304,16 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             logger.finest("Shutting down IO Threads... Total: " + (inputThreads.length + outputThreads.length));
         }
 
+        if (eventLoopHosts != null) {
+            for (EventLoopHost host : eventLoopHosts) {
+                host.setEventLoop(null);
+            }
+        }
         shutdown(inputThreads);
+        if (outputThreads != inputThreads) {
+            shutdown(outputThreads);
+        }
         inputThreads = null;
-        shutdown(outputThreads);
         outputThreads = null;
         closeListenerExecutor.shutdown();
         closeListenerExecutor = null;
@@ -327,16 +387,18 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
 
     @Override
     public void provideDynamicMetrics(MetricTaggerSupplier taggerSupplier, MetricsCollectionContext context) {
-        for (Channel channel : channels) {
+        for (NioChannel channel : channels) {
             String pipelineId = channel.localSocketAddress() + "->" + channel.remoteSocketAddress();
 
             MetricTagger taggerIn = taggerSupplier.getMetricTagger("tcp.connection.in")
                                                   .withIdTag("pipelineId", pipelineId);
             context.collect(taggerIn, channel.inboundPipeline());
+            collectHandlers(taggerIn, channel.inboundPipeline, context);
 
             MetricTagger taggerOut = taggerSupplier.getMetricTagger("tcp.connection.out")
                                                    .withIdTag("pipelineId", pipelineId);
             context.collect(taggerOut, channel.outboundPipeline());
+            collectHandlers(taggerOut, channel.outboundPipeline, context);
         }
 
         for (NioThread nioThread : inputThreads) {
@@ -345,10 +407,13 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             context.collect(tagger, nioThread);
         }
 
-        for (NioThread nioThread : outputThreads) {
-            MetricTagger tagger = taggerSupplier.getMetricTagger("tcp.outputThread")
-                                                .withIdTag("thread", nioThread.getName());
-            context.collect(tagger, nioThread);
+        // the hosted threads serve both directions, they are collected once
+        if (outputThreads != inputThreads) {
+            for (NioThread nioThread : outputThreads) {
+                MetricTagger tagger = taggerSupplier.getMetricTagger("tcp.outputThread")
+                                                    .withIdTag("thread", nioThread.getName());
+                context.collect(tagger, nioThread);
+            }
         }
 
         IOBalancer ioBalancer = this.ioBalancer;
@@ -361,6 +426,16 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         context.collect(tagger, this);
     }
 
+    // the handlers may expose their own probes, e.g. the compression ratio
+    private static void collectHandlers(MetricTagger tagger, NioPipeline pipeline, MetricsCollectionContext context) {
+        if (pipeline == null) {
+            return;
+        }
+        for (ChannelHandler handler : pipeline.handlers()) {
+            context.collect(tagger, handler);
+        }
+    }
+
     private class ChannelCloseListenerImpl implements ChannelCloseListener {
         @Override
         public void onClose(Channel channel) {
@@ -388,12 +463,39 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
                 }
             }
 
+            NioThread[] inputThreads = NioNetworking.this.inputThreads;
+            NioThread[] outputThreads = NioNetworking.this.outputThreads;
+            if (inputThreads != null && inputThreads == outputThreads) {
+                // the hosted threads serve both directions
+                bytesSend = bytesWritten(outputThreads);
+                bytesReceived = bytesTransceived(inputThreads) - bytesSend;
+                packetsSend = framesWritten(outputThreads);
+                packetsReceived = packetsTransceived(inputThreads) - packetsSend;
+                return;
+            }
+
             bytesSend = bytesTransceived(outputThreads);
             bytesReceived = bytesTransceived(inputThreads);
             packetsSend = packetsTransceived(outputThreads);
             packetsReceived = packetsTransceived(inputThreads);
         }
 
+        private long bytesWritten(NioThread[] threads) {
+            long result = 0;
+            for (NioThread nioThread : threads) {
+                result += nioThread.bytesWritten;
+            }
+            return result;
+        }
+
+        private long framesWritten(NioThread[] threads) {
+            long result = 0;
+            for (NioThread nioThread : threads) {
+                result += nioThread.framesWritten;
+            }
+            return result;
+        }
+
         private long bytesTransceived(NioThread[] threads) {
             if (threads == null) {
                 return 0;
@@ -441,6 +543,8 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         private boolean selectionKeyWakeupEnabled
                 = Boolean.parseBoolean(System.getProperty("hazelcast.io.selectionKeyWakeupEnabled", "true"));
         private ConcurrencyDetection concurrencyDetection;
+        private EventLoopHost[] eventLoopHosts;
+        private boolean bufferPoolEnabled;
 
         // if the calling thread is allowed to write through to the socket if that is possible.
         // this is an optimization that can speed up low threaded setups
@@ -507,9 +611,65 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             return this;
         }
 
+        /**
+         * Makes the given hosts drive the io, one hosted io thread per host,
+         * instead of the io threads of its own.
+         */
+        public Context eventLoopHosts(EventLoopHost[] eventLoopHosts) {
+            this.eventLoopHosts = eventLoopHosts;
+            return this;
+        }
+
+        /**
+         * Makes the io threads pool the socket buffers of their pipelines.
+         */
+        public Context bufferPoolEnabled(boolean bufferPoolEnabled) {
+            this.bufferPoolEnabled = bufferPoolEnabled;
+            return this;
+        }
+
         public Context balancerIntervalSeconds(int balancerIntervalSeconds) {
             this.balancerIntervalSeconds = balancerIntervalSeconds;
             return this;
         }
+
+        // the getters below expose the settings to the alternative transports,
+        // see com.hazelcast.internal.networking.NetworkingProvider
+
+        public LoggingService getLoggingService() {
+            return loggingService;
+        }
+
+        public MetricsRegistry getMetricsRegistry() {
+            return metricsRegistry;
+        }
+
+        public String getThreadNamePrefix() {
+            return threadNamePrefix;
+        }
+
+        public ChannelErrorHandler getErrorHandler() {
+            return errorHandler;
+        }
+
+        public int getInputThreadCount() {
+            return inputThreadCount;
+        }
+
+        public int getOutputThreadCount() {
+            return outputThreadCount;
+        }
+
+        public ConcurrencyDetection getConcurrencyDetection() {
+            return concurrencyDetection;
+        }
+
+        public boolean isWriteThroughEnabled() {
+            return writeThroughEnabled;
+        }
+
+        public EventLoopHost[] getEventLoopHosts() {
+            return eventLoopHosts;
+        }
     }
 }
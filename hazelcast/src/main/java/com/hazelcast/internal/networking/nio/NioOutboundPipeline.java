@@ -19,6 +19,7 @@ package com.hazelcast.internal.networking.nio;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
 import com.hazelcast.internal.networking.ChannelHandler;
+import com.hazelcast.internal.networking.GatheringOutboundHandler;
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.networking.OutboundFrame;
 import com.hazelcast.internal.networking.OutboundHandler;
@@ -45,7 +46,6 @@ import static com.hazelcast.internal.util.collection.ArrayUtils.replaceFirst;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static java.lang.Math.max;
 import static java.lang.System.currentTimeMillis;
-import static java.lang.Thread.currentThread;
 import static java.nio.channels.SelectionKey.OP_WRITE;
 
 public final class NioOutboundPipeline
@@ -101,6 +101,11 @@ public final class NioOutboundPipeline
 
     private OutboundHandler[] handlers = new OutboundHandler[0];
     private ByteBuffer sendBuffer;
+    // the last handler if it gathers its output, null otherwise
+    private GatheringOutboundHandler gatheringHandler;
+    // the size and the kind of the send buffer released to the pool
+    private int releasedBufferSize;
+    private boolean releasedBufferDirect;
 
     private final AtomicReference<State> scheduled = new AtomicReference<>(State.SCHEDULED);
     @Probe(name = "bytesWritten")
@@ -109,6 +114,10 @@ public final class NioOutboundPipeline
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = "priorityFramesWritten")
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = "socketWrites")
+    private final SwCounter socketWrites = newSwCounter();
+    @Probe(name = "gatheringSocketWrites")
+    private final SwCounter gatheringSocketWrites = newSwCounter();
 
     private volatile long lastWriteTime;
 
@@ -184,6 +193,18 @@ public final class NioOutboundPipeline
         return scheduled.get().ordinal();
     }
 
+    @Probe(level = DEBUG)
+    private double bytesPerSocketWrite() {
+        long socketWrites = this.socketWrites.get();
+        return socketWrites == 0 ? 0 : (double) bytesWritten.get() / socketWrites;
+    }
+
+    @Probe(level = DEBUG)
+    private double framesPerSocketWrite() {
+        long socketWrites = this.socketWrites.get();
+        return socketWrites == 0 ? 0 : (double) (normalFramesWritten.get() + priorityFramesWritten.get()) / socketWrites;
+    }
+
     public void write(OutboundFrame frame) {
         if (frame.isUrgent()) {
             priorityWriteQueue.offer(frame);
@@ -220,7 +241,8 @@ public final class NioOutboundPipeline
 
     // executes the pipeline. Either on the calling thread or on th owning NIO thread.
     private void executePipeline() {
-         if (writeThroughEnabled && !concurrencyDetection.isDetected()) {
+        // the pooled buffers are acquired on the owner only
+        if (writeThroughEnabled && !concurrencyDetection.isDetected() && sendBuffer != null) {
             // we are allowed to do a write through, so lets process the request on the calling thread
             try {
                 process();
@@ -279,6 +301,10 @@ public final class NioOutboundPipeline
     public void process() throws Exception {
         processCount.inc();
 
+        if (sendBuffer == null) {
+            acquireSendBuffer();
+        }
+
         OutboundHandler[] localHandlers = handlers;
         HandlerStatus pipelineStatus = CLEAN;
         for (int handlerIndex = 0; handlerIndex < localHandlers.length; handlerIndex++) {
@@ -311,6 +337,7 @@ public final class NioOutboundPipeline
 
         switch (pipelineStatus) {
             case CLEAN:
+                releaseSendBuffer();
                 postProcessClean();
                 break;
             case DIRTY:
@@ -356,7 +383,7 @@ public final class NioOutboundPipeline
         // pipeline is dirty, so register for an OP_WRITE to write more data.
         registerOp(OP_WRITE);
 
-        if (writeThroughEnabled && !(Thread.currentThread() instanceof NioThread)) {
+        if (writeThroughEnabled && !isOwnerThread()) {
             // there was a write through. Changing the interested set of the selection key
             // after the IO thread did a select, will not lead to the selector waking up. So
             // if we don't wake up the selector explicitly, only after the selector.select(timeout)
@@ -398,7 +425,7 @@ public final class NioOutboundPipeline
             // we are going to end up with scheduled pipeline that isn't going to be processed.
             // If we can't reclaim ownership, then it is the concern of the other thread deal with the pipeline.
             if (scheduled.compareAndSet(State.UNSCHEDULED, State.SCHEDULED)) {
-                if (Thread.currentThread().getClass() == NioThread.class) {
+                if (isOwnerThread()) {
                     owner().addTask(this);
                 } else {
                     owner().addTaskAndWakeup(this);
@@ -409,11 +436,49 @@ public final class NioOutboundPipeline
         }
     }
 
+    private void acquireSendBuffer() {
+        assert isOwnerThread() : "the send buffer can be acquired by the owner only";
+
+        ByteBuffer buffer = owner.bufferPool().acquire(releasedBufferSize, releasedBufferDirect);
+        // the send buffer is in the reading mode
+        buffer.flip();
+        sendBuffer = buffer;
+        handlers[handlers.length - 1].dst(buffer);
+    }
+
+    private void releaseSendBuffer() {
+        if (!isOwnerThread()) {
+            // written through, the buffer is released by the owner later on
+            return;
+        }
+        BufferPool bufferPool = owner.bufferPool();
+        ByteBuffer buffer = sendBuffer;
+        if (bufferPool == null || !BufferPool.isPoolable(buffer)) {
+            return;
+        }
+
+        releasedBufferSize = buffer.capacity();
+        releasedBufferDirect = buffer.isDirect();
+        sendBuffer = null;
+        handlers[handlers.length - 1].dst(null);
+        bufferPool.release(buffer);
+    }
+
     private void flushToSocket() throws IOException {
         lastWriteTime = currentTimeMillis();
-        int written = socketChannel.write(sendBuffer);
+        GatheringOutboundHandler gatheringHandler = this.gatheringHandler;
+        long written;
+        if (gatheringHandler != null && gatheringHandler.gatheredCount() > 0) {
+            written = socketChannel.write(gatheringHandler.gatheredBuffers(),
+                    gatheringHandler.gatheredOffset(), gatheringHandler.gatheredCount());
+            gatheringSocketWrites.inc();
+        } else if (sendBuffer.hasRemaining()) {
+            written = socketChannel.write(sendBuffer);
+        } else {
+            return;
+        }
+        socketWrites.inc();
         bytesWritten.inc(written);
-        //System.out.println(channel + " bytes written:" + written);
     }
 
     void drainWriteQueues() {
@@ -427,7 +492,7 @@ public final class NioOutboundPipeline
 
     @Override
     protected void publishMetrics() {
-        if (currentThread() != owner) {
+        if (!isOwnerThread()) {
             return;
         }
 
@@ -435,6 +500,9 @@ public final class NioOutboundPipeline
         owner.framesTransceived += normalFramesWritten.get() - normalFramesWrittenLastPublish;
         owner.priorityFramesTransceived += priorityFramesWritten.get() - priorityFramesWrittenLastPublish;
         owner.processCount += processCount.get() - processCountLastPublish;
+        owner.bytesWritten += bytesWritten.get() - bytesWrittenLastPublish;
+        owner.framesWritten += normalFramesWritten.get() - normalFramesWrittenLastPublish
+                + priorityFramesWritten.get() - priorityFramesWrittenLastPublish;
 
         bytesWrittenLastPublish = bytesWritten.get();
         normalFramesWrittenLastPublish = normalFramesWritten.get();
@@ -487,10 +555,16 @@ public final class NioOutboundPipeline
 
     private void updatePipeline(OutboundHandler[] newHandlers) {
         this.handlers = newHandlers;
-        this.sendBuffer = newHandlers.length == 0 ? null : (ByteBuffer) newHandlers[newHandlers.length - 1].dst();
+        OutboundHandler lastHandler = newHandlers.length == 0 ? null : newHandlers[newHandlers.length - 1];
+        this.sendBuffer = lastHandler == null ? null : (ByteBuffer) lastHandler.dst();
+        this.gatheringHandler = lastHandler instanceof GatheringOutboundHandler
+                ? (GatheringOutboundHandler) lastHandler : null;
 
         OutboundHandler prev = null;
         for (OutboundHandler handler : handlers) {
+            if (handler instanceof GatheringOutboundHandler) {
+                ((GatheringOutboundHandler) handler).setLastHandler(handler == lastHandler);
+            }
             if (prev == null) {
                 handler.src(this);
             } else {
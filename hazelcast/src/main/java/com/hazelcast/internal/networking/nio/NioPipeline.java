@@ -114,6 +114,15 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
         return owner;
     }
 
+    /**
+     * @return {@code true} if the current thread runs the owner of this
+     * pipeline, {@code false} otherwise.
+     */
+    final boolean isOwnerThread() {
+        NioThread localOwner = owner;
+        return localOwner != null && localOwner.isCurrentThread();
+    }
+
     void start() {
         owner.addTaskAndWakeup(() -> {
             try {
@@ -219,7 +228,7 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
 
     @Override
     public final void run() {
-        if (owner == currentThread()) {
+        if (isOwnerThread()) {
             try {
                 process();
             } catch (Throwable t) {
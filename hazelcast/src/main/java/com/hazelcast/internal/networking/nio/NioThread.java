@@ -19,6 +19,8 @@ package com.hazelcast.internal.networking.nio;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.ProbeLevel;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
+import com.hazelcast.internal.networking.EventLoop;
+import com.hazelcast.internal.networking.EventLoopHost;
 import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
@@ -27,6 +29,7 @@ import com.hazelcast.internal.util.concurrent.IdleStrategy;
 import java.io.IOException;
 import java.nio.channels.CancelledKeyException;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.util.Iterator;
@@ -42,7 +45,15 @@ import static com.hazelcast.internal.util.EmptyStatement.ignore;
 import static java.lang.Math.max;
 import static java.lang.System.currentTimeMillis;
 
-public class NioThread extends Thread implements OperationHostileThread {
+/**
+ * A thread running the selector loop of the {@link NioPipeline}s it owns.
+ * <p>
+ * A NioThread may also be hosted by an {@link EventLoopHost}: it's never
+ * started then and the selector loop is driven by the host thread through
+ * the {@link EventLoop} methods instead.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class NioThread extends Thread implements OperationHostileThread, EventLoop {
 
     // WARNING: This value has significant effect on idle CPU usage!
     private static final int SELECT_WAIT_TIME_MILLIS
@@ -71,6 +82,10 @@ public class NioThread extends Thread implements OperationHostileThread {
     volatile long priorityFramesTransceived;
     @Probe(level = INFO)
     volatile long processCount;
+    // the part of the bytes and frames above written by the outbound pipelines,
+    // needed to tell the directions apart if the thread serves both of them
+    volatile long bytesWritten;
+    volatile long framesWritten;
 
     @Probe(name = "taskQueueSize")
     private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<Runnable>();
@@ -102,6 +117,12 @@ public class NioThread extends Thread implements OperationHostileThread {
     // set to true while testing
     private boolean selectorWorkaroundTest;
 
+    // the thread driving this NioThread if it's hosted, null otherwise
+    private final Thread hostThread;
+
+    // the pool of the buffers of the owned pipelines, null if disabled
+    private BufferPool bufferPool;
+
     public NioThread(String threadName,
                      ILogger logger,
                      ChannelErrorHandler errorHandler) {
@@ -129,12 +150,53 @@ public class NioThread extends Thread implements OperationHostileThread {
         this.selector = selector;
         this.selectorWorkaroundTest = false;
         this.idleStrategy = idleStrategy;
+        this.hostThread = null;
+    }
+
+    /**
+     * Creates a NioThread hosted by the given host.
+     */
+    public NioThread(String threadName,
+                     ILogger logger,
+                     ChannelErrorHandler errorHandler,
+                     EventLoopHost host) {
+        super(threadName);
+        this.logger = logger;
+        this.selectMode = SelectorMode.SELECT;
+        this.errorHandler = errorHandler;
+        this.selector = newSelector(logger);
+        this.idleStrategy = null;
+        this.hostThread = host.getHostThread();
     }
 
     void setSelectorWorkaroundTest(boolean selectorWorkaroundTest) {
         this.selectorWorkaroundTest = selectorWorkaroundTest;
     }
 
+    /**
+     * Sets the pool of the buffers of the pipelines owned by this NioThread.
+     * Should be called before this NioThread is started.
+     */
+    void setBufferPool(BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * @return the pool of the buffers of the owned pipelines or {@code null}
+     * if the buffers aren't pooled. Must be used by this NioThread only.
+     */
+    BufferPool bufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * @return {@code true} if the current thread is the thread running this
+     * NioThread, which is the host thread for the hosted NioThreads.
+     */
+    public boolean isCurrentThread() {
+        return Thread.currentThread() == (hostThread == null ? this : hostThread);
+    }
+
     public long bytesTransceived() {
         return bytesTransceived;
     }
@@ -187,6 +249,18 @@ public class NioThread extends Thread implements OperationHostileThread {
         return max(currentTimeMillis() - lastSelectTimeMs, 0);
     }
 
+    @Probe
+    private long bufferPoolAllocatedBytes() {
+        BufferPool bufferPool = this.bufferPool;
+        return bufferPool == null ? 0 : bufferPool.allocatedBytes();
+    }
+
+    @Probe
+    private long bufferPoolPooledBytes() {
+        BufferPool bufferPool = this.bufferPool;
+        return bufferPool == null ? 0 : bufferPool.pooledBytes();
+    }
+
     /**
      * Adds a task to this NioThread without notifying the thread.
      *
@@ -255,6 +329,56 @@ public class NioThread extends Thread implements OperationHostileThread {
         logger.finest(getName() + " finished");
     }
 
+    @Override
+    public boolean processNow() {
+        try {
+            boolean tasksProcessed = processTaskQueue();
+            int selectedKeys = stop ? 0 : selector.selectNow();
+            if (selectedKeys > 0) {
+                processSelectionKeys();
+            }
+            return tasksProcessed || selectedKeys > 0;
+        } catch (ClosedSelectorException e) {
+            // shut down concurrently
+            ignore(e);
+        } catch (IOException e) {
+            onHostedSelectFailure(e);
+        }
+        return false;
+    }
+
+    @Override
+    public void process() {
+        try {
+            processTaskQueue();
+            if (stop) {
+                return;
+            }
+            // the selector returns immediately if woken up in between
+            int selectedKeys = taskQueue.isEmpty() ? selector.select(SELECT_WAIT_TIME_MILLIS) : selector.selectNow();
+            if (selectedKeys > 0) {
+                processSelectionKeys();
+            }
+        } catch (ClosedSelectorException e) {
+            // shut down concurrently
+            ignore(e);
+        } catch (IOException e) {
+            onHostedSelectFailure(e);
+        }
+    }
+
+    @Override
+    public void wakeup() {
+        selector.wakeup();
+    }
+
+    private void onHostedSelectFailure(IOException e) {
+        // unlike the selector loops, the host thread can't be paused
+        // to cool down, it's doing some other work too
+        selectorIOExceptionCount.inc();
+        logger.warning(getName() + " " + e.toString(), e);
+    }
+
     /**
      * When an IOException happened, the loop is going to be retried but we need to wait a bit
      * before retrying. If we don't wait, it can be that a subsequent call will run into an IOException
@@ -386,7 +510,12 @@ public class NioThread extends Thread implements OperationHostileThread {
     public void shutdown() {
         stop = true;
         taskQueue.clear();
-        interrupt();
+        if (hostThread == null) {
+            interrupt();
+        } else {
+            // there is no loop of its own to close the selector
+            closeSelector();
+        }
     }
 
     // this method is always invoked in this thread
@@ -185,6 +185,11 @@ public class IOBalancer {
             return false;
         }
 
+        if (inputThreads == outputThreads) {
+            logger.finest("I/O Balancer is disabled as the I/O threads are hosted by the partition threads.");
+            return false;
+        }
+
         if (inputThreads.length == 1 && outputThreads.length == 1) {
             logger.finest("I/O Balancer is disabled as there is only a single a pair of I/O threads. Use the '"
                     + IO_THREAD_COUNT + "' property to increase number of I/O Threads.");
@@ -40,18 +40,24 @@ public final class Packet extends HeapData implements OutboundFrame {
     //             PACKET HEADER FLAGS
     //
     // Flags are dispatched against in a cascade:
-    // 1. URGENT (bit 4)
+    // 1. URGENT (bit 4) and COMPRESSED (bit 8)
     // 2. Packet type (bits 0, 2, 5)
-    // 3. Flags specific to a given packet type (bits 1, 6)
+    // 3. Flags specific to a given packet type (bits 1, 6, 7)
 
 
-    // 1. URGENT flag
+    // 1. URGENT and COMPRESSED flags
 
     /**
      * Marks the packet as Urgent
      */
     public static final int FLAG_URGENT = 1 << 4;
 
+    /**
+     * Marks the packet as compressed, the payload of the packet is compressed
+     * by the {@link PacketCompression}. It is independent of the packet type.
+     */
+    public static final int FLAG_COMPRESSED = 1 << 8;
+
 
     // 2. Packet type flags, encode up to 7 packet types.
     //
@@ -87,6 +93,12 @@ public final class Packet extends HeapData implements OutboundFrame {
      * Marks an Operation packet as Operation control (like invocation-heartbeats)
      */
     public static final int FLAG_OP_CONTROL = 1 << 6;
+    /**
+     * Marks an Operation response packet as sent while the operation queue of
+     * the partition was congested, the sender of the operation shrinks its
+     * credit window for the partition
+     */
+    public static final int FLAG_OP_CONGESTED = 1 << 7;
 
 
     // 3.b Jet packet flags
@@ -258,6 +270,7 @@ public final class Packet extends HeapData implements OutboundFrame {
                 + ", conn=" + conn
                 + ", rawFlags=" + Integer.toBinaryString(flags)
                 + ", isUrgent=" + isUrgent()
+                + ", isCompressed=" + isFlagRaised(FLAG_COMPRESSED)
                 + ", packetType=" + type.name()
                 + ", typeSpecificFlags=" + type.describeFlags(flags)
                 + '}';
@@ -281,7 +294,8 @@ public final class Packet extends HeapData implements OutboundFrame {
             @Override
             public String describeFlags(char flags) {
                 return "[isResponse=" + isFlagRaised(flags, FLAG_OP_RESPONSE)
-                        + ", isOpControl=" + isFlagRaised(flags, FLAG_OP_CONTROL) + ']';
+                        + ", isOpControl=" + isFlagRaised(flags, FLAG_OP_CONTROL)
+                        + ", isCongested=" + isFlagRaised(flags, FLAG_OP_CONGESTED) + ']';
             }
         },
         /**
@@ -314,11 +328,13 @@ public final class Packet extends HeapData implements OutboundFrame {
          */
         EXTENDED_BIND,
         /**
-         * Unused packet type. Available for future use.
+         * The type of a Batch packet, the payload of which consists of
+         * other packets sent at once, since Hazelcast 4.0. See
+         * {@link com.hazelcast.internal.nio.tcp.PacketBatcher}.
          * <p>
          * {@code ordinal = 6}
          */
-        UNDEFINED6,
+        BATCH,
         /**
          * Unused packet type. Available for future use.
          * <p>
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
+
+/**
+ * Compresses and decompresses the payloads of the {@link Packet}s sent
+ * between the members, see {@link Packet#FLAG_COMPRESSED}.
+ *
+ * The compressed payload is the size of the original payload followed by the
+ * original payload deflated with the {@link Deflater#BEST_SPEED} level, so
+ * the compression costs as little cpu as possible. A payload is left as is
+ * if it doesn't shrink.
+ *
+ * The deflater and the inflater are reused, so the instances aren't thread
+ * safe, every connection has its own ones. Their native memory is released
+ * once the connection is garbage collected.
+ */
+public final class PacketCompression {
+
+    private Deflater deflater;
+    private Inflater inflater;
+
+    /**
+     * Compresses the packet.
+     *
+     * @param packet the packet to compress
+     * @return the compressed packet or {@code null} if the payload of the
+     * packet doesn't shrink.
+     */
+    public Packet compress(Packet packet) {
+        byte[] payload = packet.toByteArray();
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+
+        // the compressed payload must be smaller than the original one
+        byte[] compressed = new byte[payload.length];
+        writeIntB(compressed, 0, payload.length);
+        deflater.setInput(payload);
+        deflater.finish();
+        int length = INT_SIZE_IN_BYTES;
+        while (!deflater.finished() && length < compressed.length) {
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        boolean shrunk = deflater.finished() && length < compressed.length;
+        deflater.reset();
+        if (!shrunk) {
+            return null;
+        }
+
+        return new Packet(Arrays.copyOf(compressed, length), packet.getPartitionId())
+                .resetFlagsTo(packet.getFlags() | FLAG_COMPRESSED);
+    }
+
+    /**
+     * Decompresses the packet compressed by the {@link #compress(Packet)}.
+     *
+     * @param packet the packet to decompress
+     * @return the decompressed packet
+     * @throws DataFormatException if the payload of the packet is corrupted
+     */
+    public Packet decompress(Packet packet) throws DataFormatException {
+        byte[] compressed = packet.toByteArray();
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+
+        byte[] payload = new byte[readIntB(compressed, 0)];
+        inflater.setInput(compressed, INT_SIZE_IN_BYTES, compressed.length - INT_SIZE_IN_BYTES);
+        try {
+            int length = 0;
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(payload, length, payload.length - length);
+                if (inflated == 0 && !inflater.finished()) {
+                    // either truncated or larger than the declared size
+                    throw new DataFormatException("Corrupted payload of " + packet);
+                }
+                length += inflated;
+            }
+        } finally {
+            inflater.reset();
+        }
+
+        return new Packet(payload, packet.getPartitionId())
+                .resetFlagsTo(packet.getFlags() & ~FLAG_COMPRESSED)
+                .setConn(packet.getConn());
+    }
+}
@@ -54,15 +54,10 @@ public class PacketIOHelper {
      */
     public boolean writeTo(Packet packet, ByteBuffer dst) {
         if (!headerComplete) {
-            if (dst.remaining() < HEADER_SIZE) {
+            if (!writeHeaderTo(packet, dst)) {
                 return false;
             }
-
-            dst.put(VERSION);
-            dst.putChar(packet.getFlags());
-            dst.putInt(packet.getPartitionId());
             size = packet.totalSize();
-            dst.putInt(size);
             headerComplete = true;
         }
 
@@ -74,6 +69,32 @@ public class PacketIOHelper {
         }
     }
 
+    /**
+     * Writes the header of the packet to the supplied {@code ByteBuffer}, so the payload of the packet,
+     * see {@link Packet#toByteArray()}, can be written separately without being copied into the buffer.
+     *
+     * @param dst the destination byte buffer
+     * @return {@code true} if the header is written; {@code false} if there isn't enough space in the buffer.
+     */
+    public static boolean writeHeaderTo(Packet packet, ByteBuffer dst) {
+        if (dst.remaining() < HEADER_SIZE) {
+            return false;
+        }
+
+        dst.put(VERSION);
+        dst.putChar(packet.getFlags());
+        dst.putInt(packet.getPartitionId());
+        dst.putInt(packet.totalSize());
+        return true;
+    }
+
+    /**
+     * @return {@code true} if a packet is being written or read, {@code false} otherwise.
+     */
+    public boolean isInProgress() {
+        return headerComplete;
+    }
+
     private boolean writeValue(Packet packet, ByteBuffer dst) {
         if (size > 0) {
             // the number of bytes that can be written to the bb.
@@ -37,6 +37,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 
+import static com.hazelcast.spi.properties.GroupProperty.IO_COMPRESSION_ENABLED;
+
 final class BindHandler {
 
     private final TcpIpEndpointManager tcpIpEndpointManager;
@@ -44,6 +46,7 @@ final class BindHandler {
     private final ILogger logger;
     private final boolean spoofingChecks;
     private final boolean unifiedEndpointManager;
+    private final boolean packetCompression;
 
     private final Set<ProtocolType> supportedProtocolTypes;
 
@@ -55,6 +58,7 @@ final class BindHandler {
         this.spoofingChecks = spoofingChecks;
         this.supportedProtocolTypes = supportedProtocolTypes;
         this.unifiedEndpointManager = tcpIpEndpointManager.getEndpointQualifier() == null;
+        this.packetCompression = ioService.properties().getBoolean(IO_COMPRESSION_ENABLED);
     }
 
     public void process(Packet packet) {
@@ -81,6 +85,11 @@ final class BindHandler {
             logger.finest("Extended binding " + connection + ", complete message is " + bindMessage);
         }
 
+        // the packets are compressed only if both sides are willing to
+        connection.setPacketCompression(packetCompression && bindMessage.isPacketCompression());
+        connection.setPacketBatching(bindMessage.isBatchPacketAware());
+        connection.setCompactInvalidation(bindMessage.isCompactInvalidationAware());
+
         Map<ProtocolType, Collection<Address>> remoteAddressesPerProtocolType = bindMessage.getLocalAddresses();
         List<Address> allAliases = new ArrayList<Address>();
         for (Map.Entry<ProtocolType, Collection<Address>> remoteAddresses : remoteAddressesPerProtocolType.entrySet()) {
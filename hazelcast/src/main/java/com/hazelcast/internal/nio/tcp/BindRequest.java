@@ -30,6 +30,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.hazelcast.internal.cluster.impl.ExtendedBindMessage.COMPACT_INVALIDATION_SCHEMA_VERSION;
+import static com.hazelcast.spi.properties.GroupProperty.IO_COMPRESSION_ENABLED;
+
 public class BindRequest {
 
     private final ILogger logger;
@@ -56,7 +59,8 @@ public class BindRequest {
             logger.finest("Sending bind packet to " + remoteEndPoint);
         }
         // since 3.12, send the new bind message followed by the pre-3.12 BindMessage
-        ExtendedBindMessage bind = new ExtendedBindMessage((byte) 1, getConfiguredLocalAddresses(), remoteEndPoint, reply);
+        ExtendedBindMessage bind = new ExtendedBindMessage(COMPACT_INVALIDATION_SCHEMA_VERSION, getConfiguredLocalAddresses(),
+                remoteEndPoint, reply, ioService.properties().getBoolean(IO_COMPRESSION_ENABLED));
         byte[] bytes = ioService.getSerializationService().toBytes(bind);
         // using one of the undefined packet types we can avoid old members
         // logging a serialization exception because they cannot deserialize the
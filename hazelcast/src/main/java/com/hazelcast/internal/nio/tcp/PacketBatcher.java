@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio.tcp;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.networking.OutboundHandler;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.util.counters.SwCounter;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.nio.Bits.CHAR_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.readCharB;
+import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Bits.writeCharB;
+import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+
+/**
+ * A {@link OutboundHandler} placed in front of the {@link PacketEncoder}
+ * which coalesces the operation and the response packets queued for the
+ * connection into a single {@link Packet.Type#BATCH} packet.
+ *
+ * It doesn't wait for the packets to arrive, it batches the packets which
+ * piled up in the write queue while the previous ones were written, so the
+ * batching adds no latency. The urgent packets and the packets of the other
+ * types are never batched. The packets are batched only if the remote member
+ * reads the batch packets, see {@link TcpIpConnection#isPacketBatching()}.
+ *
+ * The batch payload is the number of the batched packets followed by the
+ * flags, the partition id, the size and the payload of every packet. The
+ * {@link PacketDecoder} unpacks the batches, see {@link #unbatch(Packet, Consumer)},
+ * so the batched packets are dispatched one by one as if sent separately.
+ */
+public class PacketBatcher extends OutboundHandler<Supplier<? extends OutboundFrame>, Supplier<Packet>>
+        implements Supplier<Packet> {
+
+    static final int MAX_BATCH_COUNT = 256;
+
+    private static final int ENTRY_HEADER_SIZE = CHAR_SIZE_IN_BYTES + 2 * INT_SIZE_IN_BYTES;
+
+    private final TcpIpConnection connection;
+    private final int maxBatchSize;
+    private final Packet[] batch = new Packet[MAX_BATCH_COUNT];
+    // taken from the src, but not fitting into the last batch
+    private Packet pending;
+
+    @Probe
+    private final SwCounter batches = newSwCounter();
+    @Probe
+    private final SwCounter batchedPackets = newSwCounter();
+
+    public PacketBatcher(TcpIpConnection connection, int maxBatchSize) {
+        this.connection = connection;
+        this.maxBatchSize = maxBatchSize;
+        this.dst = this;
+    }
+
+    @Override
+    public HandlerStatus onWrite() {
+        // the packets are batched when they are taken by the next handler
+        return CLEAN;
+    }
+
+    @Override
+    public Packet get() {
+        Packet packet = next();
+        if (packet == null || !isBatchable(packet) || !connection.isPacketBatching()) {
+            return packet;
+        }
+
+        int count = 0;
+        int size = INT_SIZE_IN_BYTES;
+        do {
+            batch[count++] = packet;
+            size += ENTRY_HEADER_SIZE + packet.totalSize();
+            if (count == batch.length) {
+                break;
+            }
+
+            packet = next();
+            if (packet != null && (!isBatchable(packet) || size + ENTRY_HEADER_SIZE + packet.totalSize() > maxBatchSize)) {
+                pending = packet;
+                packet = null;
+            }
+        } while (packet != null);
+
+        if (count == 1) {
+            Packet single = batch[0];
+            batch[0] = null;
+            return single;
+        }
+        return newBatch(count, size);
+    }
+
+    private Packet next() {
+        Packet packet = pending;
+        if (packet != null) {
+            pending = null;
+            return packet;
+        }
+        return (Packet) src.get();
+    }
+
+    private boolean isBatchable(Packet packet) {
+        return packet.getPacketType() == Packet.Type.OPERATION
+                && !packet.isUrgent()
+                && packet.totalSize() + ENTRY_HEADER_SIZE < maxBatchSize;
+    }
+
+    private Packet newBatch(int count, int size) {
+        byte[] payload = new byte[size];
+        writeIntB(payload, 0, count);
+        int pos = INT_SIZE_IN_BYTES;
+        for (int i = 0; i < count; i++) {
+            Packet packet = batch[i];
+            batch[i] = null;
+            writeCharB(payload, pos, packet.getFlags());
+            pos += CHAR_SIZE_IN_BYTES;
+            writeIntB(payload, pos, packet.getPartitionId());
+            pos += INT_SIZE_IN_BYTES;
+            writeIntB(payload, pos, packet.totalSize());
+            pos += INT_SIZE_IN_BYTES;
+            packet.copyTo(payload, pos);
+            pos += packet.totalSize();
+        }
+
+        batches.inc();
+        batchedPackets.inc(count);
+        return new Packet(payload).setPacketType(Packet.Type.BATCH);
+    }
+
+    @Probe
+    private double packetsPerBatch() {
+        long batches = this.batches.get();
+        return batches == 0 ? 0 : (double) batchedPackets.get() / batches;
+    }
+
+    /**
+     * Unpacks the batch packet.
+     *
+     * @param batch    the batch packet
+     * @param consumer the consumer of the batched packets, in the order they
+     *                 were batched
+     */
+    static void unbatch(Packet batch, Consumer<Packet> consumer) {
+        byte[] payload = batch.toByteArray();
+        int count = readIntB(payload, 0);
+        int pos = INT_SIZE_IN_BYTES;
+        for (int i = 0; i < count; i++) {
+            char flags = readCharB(payload, pos);
+            pos += CHAR_SIZE_IN_BYTES;
+            int partitionId = readIntB(payload, pos);
+            pos += INT_SIZE_IN_BYTES;
+            int size = readIntB(payload, pos);
+            pos += INT_SIZE_IN_BYTES;
+            Packet packet = new Packet(Arrays.copyOfRange(payload, pos, pos + size), partitionId).resetFlagsTo(flags);
+            pos += size;
+            consumer.accept(packet);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio.tcp;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.networking.OutboundHandler;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketCompression;
+import com.hazelcast.internal.util.counters.SwCounter;
+
+import java.util.function.Supplier;
+
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A {@link OutboundHandler} placed in front of the {@link PacketEncoder}
+ * which compresses the large packets, see {@link PacketCompression}.
+ *
+ * It doesn't buffer anything, it is the src of the PacketEncoder and
+ * compresses the packets as the encoder takes them. The packets are
+ * compressed only once the connection is bound and both members agreed
+ * on compressing them, see {@link TcpIpConnection#isPacketCompression()}.
+ * The received packets are decompressed by the {@link PacketDecoder}.
+ */
+public class PacketCompressor extends OutboundHandler<Supplier<? extends OutboundFrame>, Supplier<Packet>>
+        implements Supplier<Packet> {
+
+    private final TcpIpConnection connection;
+    private final int threshold;
+    private final PacketCompression compression = new PacketCompression();
+
+    @Probe
+    private final SwCounter compressedPackets = newSwCounter();
+    @Probe(unit = BYTES)
+    private final SwCounter bytesBeforeCompression = newSwCounter();
+    @Probe(unit = BYTES)
+    private final SwCounter bytesAfterCompression = newSwCounter();
+    private final SwCounter compressionTimeNanos = newSwCounter();
+
+    public PacketCompressor(TcpIpConnection connection, int threshold) {
+        this.connection = connection;
+        this.threshold = threshold;
+        this.dst = this;
+    }
+
+    @Override
+    public HandlerStatus onWrite() {
+        // the packets are compressed when they are taken by the next handler
+        return CLEAN;
+    }
+
+    @Override
+    public Packet get() {
+        Packet packet = (Packet) src.get();
+        if (packet == null || packet.totalSize() < threshold || !connection.isPacketCompression()) {
+            return packet;
+        }
+
+        long startNanos = System.nanoTime();
+        Packet compressed = compression.compress(packet);
+        compressionTimeNanos.inc(System.nanoTime() - startNanos);
+        bytesBeforeCompression.inc(packet.totalSize());
+        if (compressed == null) {
+            bytesAfterCompression.inc(packet.totalSize());
+            return packet;
+        }
+        compressedPackets.inc();
+        bytesAfterCompression.inc(compressed.totalSize());
+        return compressed;
+    }
+
+    @Probe(unit = MS)
+    private long compressionTime() {
+        return NANOSECONDS.toMillis(compressionTimeNanos.get());
+    }
+
+    /**
+     * @return the ratio of the compressed size to the original size of the
+     * packets above the threshold, or 1 if there are none yet.
+     */
+    @Probe
+    private double compressionRatio() {
+        long bytesBeforeCompression = this.bytesBeforeCompression.get();
+        return bytesBeforeCompression == 0 ? 1 : (double) bytesAfterCompression.get() / bytesBeforeCompression;
+    }
+}
@@ -16,18 +16,26 @@
 
 package com.hazelcast.internal.nio.tcp;
 
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.networking.nio.InboundHandlerWithCounters;
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketCompression;
 import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.util.counters.SwCounter;
 
 import java.nio.ByteBuffer;
 import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
 
+import static com.hazelcast.internal.metrics.ProbeUnit.MS;
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
 import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * The {@link InboundHandler} for member to member communication.
@@ -35,6 +43,10 @@ import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
  * It reads as many packets from the src {@link ByteBuffer} as possible, and
  * each of the Packets is send to the destination.
  *
+ * The compressed packets are decompressed and the batch packets are unpacked
+ * before being send to the destination, see {@link PacketCompressor} and
+ * {@link PacketBatcher}.
+ *
  * @see Consumer
  * @see PacketEncoder
  */
@@ -42,6 +54,12 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
 
     protected final TcpIpConnection connection;
     private final PacketIOHelper packetReader = new PacketIOHelper();
+    // created once the first compressed packet is received
+    private PacketCompression compression;
+
+    @Probe
+    private final SwCounter decompressedPackets = newSwCounter();
+    private final SwCounter decompressionTimeNanos = newSwCounter();
 
     public PacketDecoder(TcpIpConnection connection, Consumer<Packet> dst) {
         this.connection = connection;
@@ -62,7 +80,14 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
                 if (packet == null) {
                     break;
                 }
-                onPacketComplete(packet);
+                if (packet.isFlagRaised(FLAG_COMPRESSED)) {
+                    packet = decompress(packet);
+                }
+                if (packet.getPacketType() == Packet.Type.BATCH) {
+                    PacketBatcher.unbatch(packet, this::onPacketComplete);
+                } else {
+                    onPacketComplete(packet);
+                }
             }
 
             return CLEAN;
@@ -71,6 +96,22 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
         }
     }
 
+    private Packet decompress(Packet packet) throws DataFormatException {
+        if (compression == null) {
+            compression = new PacketCompression();
+        }
+        long startNanos = System.nanoTime();
+        Packet decompressed = compression.decompress(packet);
+        decompressionTimeNanos.inc(System.nanoTime() - startNanos);
+        decompressedPackets.inc();
+        return decompressed;
+    }
+
+    @Probe(unit = MS)
+    private long decompressionTime() {
+        return NANOSECONDS.toMillis(decompressionTimeNanos.get());
+    }
+
     protected void onPacketComplete(Packet packet) {
         if (packet.isFlagRaised(FLAG_URGENT)) {
             priorityPacketsRead.inc();
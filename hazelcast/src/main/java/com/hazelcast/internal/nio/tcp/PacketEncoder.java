@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.nio.tcp;
 
+import com.hazelcast.internal.networking.GatheringOutboundHandler;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.nio.Packet;
@@ -27,6 +28,7 @@ import java.util.function.Supplier;
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
 import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
+import static com.hazelcast.internal.nio.PacketIOHelper.writeHeaderTo;
 
 /**
  * A {@link OutboundHandler} that for member to member communication.
@@ -37,14 +39,47 @@ import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
  * multiple connections. The flyweight contains the actual 'position' state of
  * what has been written.
  *
+ * If the gathering is enabled, the encoder is the last handler of the
+ * pipeline and the dst is a heap buffer, the payloads of the large packets
+ * aren't copied into it. Only their headers are, the payloads are gathered
+ * along with the parts of the dst preceding them to be written by a single
+ * gathering write, see {@link GatheringOutboundHandler}. Copying into a
+ * direct dst costs the same as the copying done by the JDK when writing
+ * a heap buffer, so the payloads are always copied into the direct ones.
+ * If a handler follows the encoder, e.g. an encryption one, it reads only
+ * the dst, so the payloads are copied into it as well.
+ *
  * @see PacketDecoder
  */
-public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer> {
+public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
+        implements GatheringOutboundHandler {
+
+    // the payloads of at least this size are gathered instead of copied
+    static final int GATHERING_THRESHOLD = 65536;
+    static final int MAX_GATHERED_BUFFERS = 16;
 
     private final PacketIOHelper packetWriter = new PacketIOHelper();
+    private final ByteBuffer[] gatheredBuffers = new ByteBuffer[MAX_GATHERED_BUFFERS];
+    private final boolean gatheringEnabled;
+    private boolean lastHandler;
+    private int gatheredOffset;
+    private int gatheredCount;
 
     private Packet packet;
 
+    public PacketEncoder() {
+        this(false);
+    }
+
+    /**
+     * @param gatheringEnabled if the payloads of the large packets may be
+     *                         gathered instead of copied
+     * @see com.hazelcast.spi.properties.GroupProperty#IO_GATHERING_WRITES_ENABLED
+     */
+    public PacketEncoder(boolean gatheringEnabled) {
+        this.gatheringEnabled = gatheringEnabled;
+    }
+
     @Override
     public void handlerAdded() {
         initDstBuffer();
@@ -52,19 +87,46 @@ public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
 
     @Override
     public HandlerStatus onWrite() {
+        if (gatheredCount > 0) {
+            if (!lastHandler) {
+                // a handler was added after this one since the buffers were
+                // gathered, it reads only the dst, so they are copied into it
+                if (!copyGatheredBuffers()) {
+                    return DIRTY;
+                }
+            } else if (!drainGatheredBuffers()) {
+                // the gathered buffers aren't written yet and they share the
+                // memory of the dst, so nothing can be written to the dst
+                return DIRTY;
+            }
+        }
+
         compactOrClear(dst);
+        // the start of the part of the dst which isn't gathered yet
+        int segmentStart = 0;
         try {
             for (; ; ) {
                 if (packet == null) {
                     packet = src.get();
 
                     if (packet == null) {
-                        // everything is processed, so we are done
-                        return CLEAN;
+                        // everything is processed, so we are done unless
+                        // the gathered buffers are still to be written
+                        return gatheredCount == 0 ? CLEAN : DIRTY;
                     }
                 }
 
-                if (packetWriter.writeTo(packet, dst)) {
+                if (isGatherable(packet)) {
+                    // a gathered packet takes 2 buffers and 1 more is needed
+                    // for the rest of the dst
+                    if (gatheredCount + 3 > gatheredBuffers.length || !writeHeaderTo(packet, dst)) {
+                        return DIRTY;
+                    }
+                    gather(dstSegment(segmentStart));
+                    segmentStart = dst.position();
+                    gather(ByteBuffer.wrap(packet.toByteArray()));
+                    packet = null;
+                } else if (packetWriter.writeTo(packet, dst)) {
                     // packet got written, lets see if another packet can be written
                     packet = null;
                 } else {
@@ -72,8 +134,141 @@ public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
                     return DIRTY;
                 }
             }
+        } finally {
+            if (gatheredCount > 0) {
+                completeGathering(segmentStart);
+            } else {
+                dst.flip();
+            }
+        }
+    }
+
+    @Override
+    public ByteBuffer[] gatheredBuffers() {
+        return gatheredBuffers;
+    }
+
+    @Override
+    public int gatheredOffset() {
+        return gatheredOffset;
+    }
+
+    @Override
+    public int gatheredCount() {
+        return gatheredCount;
+    }
+
+    @Override
+    public void setLastHandler(boolean lastHandler) {
+        this.lastHandler = lastHandler;
+    }
+
+    private boolean isGatherable(Packet packet) {
+        return gatheringEnabled && lastHandler && packet.totalSize() >= GATHERING_THRESHOLD
+                && !dst.isDirect() && !packetWriter.isInProgress();
+    }
+
+    private ByteBuffer dstSegment(int segmentStart) {
+        ByteBuffer segment = dst.duplicate();
+        segment.limit(dst.position()).position(segmentStart);
+        return segment.slice();
+    }
+
+    private void gather(ByteBuffer buffer) {
+        gatheredBuffers[gatheredCount++] = buffer;
+    }
+
+    private void completeGathering(int segmentStart) {
+        if (dst.position() > segmentStart) {
+            gather(dstSegment(segmentStart));
+        }
+        // the content of the dst is written as a part of the gathered
+        // buffers, so the dst itself has nothing to be written
+        dst.flip();
+        dst.position(dst.limit());
+        limitGatheredBuffers();
+    }
+
+    /**
+     * Drops the gathered buffers written so far.
+     *
+     * @return {@code true} if all the gathered buffers are written,
+     * {@code false} otherwise.
+     */
+    private boolean drainGatheredBuffers() {
+        int end = gatheredOffset + gatheredCount;
+        while (gatheredOffset < end && isWritten(gatheredBuffers[gatheredOffset])) {
+            gatheredBuffers[gatheredOffset++] = null;
+        }
+        gatheredCount = end - gatheredOffset;
+        if (gatheredCount > 0) {
+            limitGatheredBuffers();
+            return false;
+        }
+        gatheredOffset = 0;
+        return true;
+    }
+
+    /**
+     * Copies the not yet written gathered buffers into the dst.
+     *
+     * @return {@code true} if all the gathered buffers are copied,
+     * {@code false} otherwise.
+     */
+    private boolean copyGatheredBuffers() {
+        int end = gatheredOffset + gatheredCount;
+        for (int i = gatheredOffset; i < end; i++) {
+            ByteBuffer buffer = gatheredBuffers[i];
+            buffer.limit(buffer.capacity());
+            if (buffer.hasArray() && buffer.array() == dst.array()) {
+                // the parts of the dst are detached from it first, otherwise
+                // they could be overwritten by the copying
+                ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+                copy.put(buffer).flip();
+                gatheredBuffers[i] = copy;
+            }
+        }
+
+        compactOrClear(dst);
+        try {
+            while (gatheredOffset < end) {
+                ByteBuffer buffer = gatheredBuffers[gatheredOffset];
+                if (buffer.remaining() > dst.remaining()) {
+                    int limit = buffer.limit();
+                    buffer.limit(buffer.position() + dst.remaining());
+                    dst.put(buffer);
+                    buffer.limit(limit);
+                    break;
+                }
+                dst.put(buffer);
+                gatheredBuffers[gatheredOffset++] = null;
+            }
         } finally {
             dst.flip();
         }
+        gatheredCount = end - gatheredOffset;
+        if (gatheredCount > 0) {
+            return false;
+        }
+        gatheredOffset = 0;
+        return true;
+    }
+
+    private static boolean isWritten(ByteBuffer buffer) {
+        return buffer.position() == buffer.capacity();
+    }
+
+    /**
+     * Limits the number of the gathered bytes written at once to the
+     * capacity of the dst, so the gathering writes never use larger
+     * temporary direct buffers than the regular writes of the dst.
+     */
+    private void limitGatheredBuffers() {
+        int budget = dst.capacity();
+        for (int i = gatheredOffset; i < gatheredOffset + gatheredCount; i++) {
+            ByteBuffer buffer = gatheredBuffers[i];
+            buffer.limit(buffer.position() + Math.min(budget, buffer.capacity() - buffer.position()));
+            budget -= buffer.remaining();
+        }
     }
 }
@@ -79,6 +79,15 @@ public class TcpIpConnection
 
     private volatile String closeReason;
 
+    // if both sides agreed on compressing the packets during the bind
+    private volatile boolean packetCompression;
+
+    // if the remote member reads the batch packets
+    private volatile boolean packetBatching;
+
+    // if the remote member reads the compact Near Cache invalidation batches
+    private volatile boolean compactInvalidation;
+
 
     public TcpIpConnection(TcpIpEndpointManager endpointManager,
                            ConnectionLifecycleListener lifecycleListener,
@@ -237,6 +246,43 @@ public class TcpIpConnection
         return binding.compareAndSet(false, true);
     }
 
+    /**
+     * Checks if the large packets sent over this connection are compressed,
+     * see {@link PacketCompressor}.
+     */
+    public boolean isPacketCompression() {
+        return packetCompression;
+    }
+
+    void setPacketCompression(boolean packetCompression) {
+        this.packetCompression = packetCompression;
+    }
+
+    /**
+     * Checks if the packets sent over this connection can be batched, see
+     * {@link PacketBatcher}.
+     */
+    public boolean isPacketBatching() {
+        return packetBatching;
+    }
+
+    void setPacketBatching(boolean packetBatching) {
+        this.packetBatching = packetBatching;
+    }
+
+    /**
+     * Checks if the remote member reads the compact Near Cache invalidation
+     * batches, see
+     * {@link com.hazelcast.internal.nearcache.impl.invalidation.CompactBatchNearCacheInvalidation}.
+     */
+    public boolean isCompactInvalidation() {
+        return compactInvalidation;
+    }
+
+    void setCompactInvalidation(boolean compactInvalidation) {
+        this.compactInvalidation = compactInvalidation;
+    }
+
     private void logClose() {
         Level logLevel = resolveLogLevelOnClose();
         if (!logger.isLoggable(logLevel)) {
@@ -20,10 +20,12 @@ import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.predicates.PagingPredicateImpl;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * Utility class for generating Comparators to be used in sort methods specific to hazelcast classes.
@@ -121,7 +123,7 @@ public final class SortingUtil {
         return (entry1, entry2) -> SortingUtil.compare(comparator, iterationType, entry1, entry2);
     }
 
-    private static Comparator<QueryableEntry> newComparator(final PagingPredicateImpl pagingPredicate) {
+    public static Comparator<QueryableEntry> newComparator(final PagingPredicateImpl pagingPredicate) {
         return (entry1, entry2) ->
                 SortingUtil.compare(pagingPredicate.getComparator(), pagingPredicate.getIterationType(), entry1, entry2);
     }
@@ -133,18 +135,46 @@ public final class SortingUtil {
         }
         PagingPredicateImpl pagingPredicateImpl = (PagingPredicateImpl) pagingPredicate;
         Comparator<QueryableEntry> comparator = newComparator(pagingPredicateImpl);
-        Collections.sort(list, comparator);
         int nearestPage = nearestAnchorEntry.getKey();
         int pageSize = pagingPredicate.getPageSize();
         int page = pagingPredicate.getPage();
         long totalSize = pageSize * ((long) page - nearestPage);
         if (list.size() > totalSize) {
             // it's safe to cast totalSize back to int here since it's limited by the list size
-            list = list.subList(0, (int) totalSize);
+            return selectFirst(list, comparator, (int) totalSize);
         }
+        Collections.sort(list, comparator);
         return list;
     }
 
+    /**
+     * Selects the first {@code count} entries of the given list according to
+     * the given comparator using a bounded heap, so only the selected entries
+     * are fully sorted.
+     */
+    private static List<QueryableEntry> selectFirst(List<QueryableEntry> list, Comparator<QueryableEntry> comparator,
+                                                    int count) {
+        if (count <= 0) {
+            return new ArrayList<QueryableEntry>();
+        }
+
+        // the head of the heap is the greatest selected entry
+        Comparator<QueryableEntry> reversed = comparator.reversed();
+        PriorityQueue<QueryableEntry> heap = new PriorityQueue<QueryableEntry>(count, reversed);
+        for (QueryableEntry entry : list) {
+            if (heap.size() < count) {
+                heap.add(entry);
+            } else if (comparator.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        List<QueryableEntry> selected = new ArrayList<QueryableEntry>(heap);
+        Collections.sort(selected, comparator);
+        return selected;
+    }
+
     @SuppressWarnings("unchecked")
     public static ResultSet getSortedQueryResultSet(List<Map.Entry> list,
                                                     PagingPredicate pagingPredicate, IterationType iterationType) {
@@ -34,6 +34,7 @@ import com.hazelcast.spi.properties.GroupProperty;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -2836,6 +2837,35 @@ public interface IMap<K, V> extends ConcurrentMap<K, V>, BaseMap<K, V> {
     <R> Collection<R> project(@Nonnull Projection<? super Map.Entry<K, V>, R> projection,
                               @Nonnull Predicate<K, V> predicate);
 
+    /**
+     * Returns an iterator over the result of the projection on the map entries
+     * filtered with the predicate.
+     * <p>
+     * Unlike {@link #project(Projection, Predicate)}, {@link #values(Predicate)} and
+     * {@link #entrySet(Predicate)}, the result is not materialized at once. The partitions
+     * are queried one after another and the results are fetched from the partition owners
+     * in batches of about {@code fetchSize} entries, so the memory needed to run the query
+     * is bounded by the {@code fetchSize} rather than by the result size and the query is
+     * not subject to the query result size limit. Predicates of type
+     * {@link com.hazelcast.query.PagingPredicate} are not supported.
+     * <p>
+     * The iterator is weakly consistent: if the map is mutated or the partitions
+     * migrate while it is iterated, it may not return some entries or may return an
+     * entry twice.
+     *
+     * @param fetchSize  the size of the batches fetched from the partition owners
+     * @param projection projection to transform the entries with (may return null)
+     * @param predicate  predicate to filter the entries with
+     * @param <R>        type of the result
+     * @return the iterator over the projected entries
+     * @throws IllegalArgumentException      if the predicate is of type {@link com.hazelcast.query.PagingPredicate}
+     * @throws UnsupportedOperationException if {@link Iterator#remove()} is invoked
+     * @since 4.0
+     */
+    <R> Iterator<R> iterator(int fetchSize,
+                             @Nonnull Projection<? super Map.Entry<K, V>, R> projection,
+                             @Nonnull Predicate<K, V> predicate);
+
     /**
      * Returns corresponding {@code QueryCache} instance for the supplied {@code name} or null.
      * <p>
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A {@link MapLoader} which splits the data of the store into shards, such as
+ * key ranges of a table or the partitions of a sharded database, so the
+ * members can load them in parallel.
+ * <p>
+ * The initial load of the map and {@link IMap#loadAll(boolean)} with
+ * {@code replaceExistingValues} set to {@code true} assign the shards to the
+ * data members of the cluster, instead of loading all keys on a single member
+ * and then the values of the keys on the partition owners. Each member loads
+ * its shards with {@link #loadShard(int)} on the {@code hz:map-load}
+ * executor, whose pool size bounds the number of the shards loaded at once
+ * on a member, and streams the loaded entries in batches to the owners of
+ * their partitions.
+ * <p>
+ * The configured per node max size is not applied to the entries loaded
+ * from the shards, and {@link IMap#loadAll(boolean)} with
+ * {@code replaceExistingValues} set to {@code false} still loads all keys
+ * first, since it has to skip the keys already in the map.
+ *
+ * @param <K> type of the MapLoader key
+ * @param <V> type of the MapLoader value
+ */
+public interface ShardedMapLoader<K, V> extends MapLoader<K, V> {
+
+    /**
+     * Returns the number of the shards of the store. The shards are
+     * identified by their index, from {@code 0} to the returned count
+     * exclusive.
+     *
+     * @return the number of the shards
+     */
+    int getShardCount();
+
+    /**
+     * Loads all entries of the given shard. The returned {@link Iterable} may
+     * return the entries lazily by loading them in batches. The
+     * {@link Iterator} of this {@link Iterable} may implement the
+     * {@link Closeable} interface in which case it will be closed once
+     * iteration is over.
+     * <p>
+     * The returned Iterable should not contain any {@code null} keys, the
+     * entries with a {@code null} value are skipped.
+     *
+     * @param shard the index of the shard
+     * @return all entries of the shard
+     */
+    Iterable<Map.Entry<K, V>> loadShard(int shard);
+}
@@ -19,7 +19,11 @@ package com.hazelcast.map.impl;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.mapstore.MapDataStore;
+import com.hazelcast.map.impl.mapstore.writebehind.WriteBehindStore;
+import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 import com.hazelcast.map.impl.nearcache.MapNearCacheManager;
+import com.hazelcast.map.impl.query.QueryResultCache;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.monitor.LocalMapStats;
 import com.hazelcast.monitor.LocalRecordStoreStats;
@@ -35,6 +39,7 @@ import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.proxyservice.ProxyService;
 import com.hazelcast.spi.partition.IPartition;
 import com.hazelcast.spi.partition.IPartitionService;
+import com.hazelcast.internal.util.Clock;
 import com.hazelcast.internal.util.ConcurrencyUtil;
 import com.hazelcast.internal.util.ConstructorFunction;
 import com.hazelcast.internal.util.ExceptionUtil;
@@ -99,6 +104,8 @@ public class LocalMapStatsProvider {
         LocalMapOnDemandCalculatedStats onDemandStats = new LocalMapOnDemandCalculatedStats();
         addNearCacheStats(mapName, stats, onDemandStats);
         addIndexStats(mapName, stats);
+        addQueryResultCacheStats(mapName, stats);
+        addIndexPopulationStats(mapName, stats);
         updateMapOnDemandStats(mapName, onDemandStats);
 
         return onDemandStats.updateAndGet(stats);
@@ -131,6 +138,8 @@ public class LocalMapStatsProvider {
             LocalMapOnDemandCalculatedStats onDemand = ((LocalMapOnDemandCalculatedStats) entry.getValue());
             addNearCacheStats(mapName, existingStats, onDemand);
             addIndexStats(mapName, existingStats);
+            addQueryResultCacheStats(mapName, existingStats);
+            addIndexPopulationStats(mapName, existingStats);
             addStructureStats(mapName, onDemand);
 
             LocalMapStatsImpl updatedStats = onDemand.updateAndGet(existingStats);
@@ -213,6 +222,7 @@ public class LocalMapStatsProvider {
 
         onDemandStats.incrementHits(stats.getHits());
         onDemandStats.incrementDirtyEntryCount(recordStore.getMapDataStore().notFinishedOperationsCount());
+        onDemandStats.updateWriteBehindQueueLag(getWriteBehindQueueLag(recordStore.getMapDataStore()));
         onDemandStats.incrementOwnedEntryMemoryCost(recordStore.getOwnedEntryCost());
         if (NATIVE != recordStore.getMapContainer().getMapConfig().getInMemoryFormat()) {
             onDemandStats.incrementHeapCost(recordStore.getOwnedEntryCost());
@@ -223,6 +233,18 @@ public class LocalMapStatsProvider {
         onDemandStats.setBackupCount(recordStore.getMapContainer().getMapConfig().getTotalBackupCount());
     }
 
+    /**
+     * Returns the time in milliseconds the head of the write-behind queue, its
+     * oldest entry, is past its store time.
+     */
+    private static long getWriteBehindQueueLag(MapDataStore mapDataStore) {
+        if (!(mapDataStore instanceof WriteBehindStore)) {
+            return 0;
+        }
+        DelayedEntry head = ((WriteBehindStore) mapDataStore).getWriteBehindQueue().peek();
+        return head == null ? 0 : Math.max(0, Clock.currentTimeMillis() - head.getStoreTime());
+    }
+
     /**
      * Calculates and adds replica partition stats.
      */
@@ -322,6 +344,32 @@ public class LocalMapStatsProvider {
         onDemandStats.incrementHeapCost(nearCacheStats.getOwnedEntryMemoryCost());
     }
 
+    private void addQueryResultCacheStats(String mapName, LocalMapStatsImpl localMapStats) {
+        QueryResultCache queryResultCache = mapServiceContext.getMapContainer(mapName).getQueryResultCache();
+        if (queryResultCache == null) {
+            return;
+        }
+
+        localMapStats.setQueryResultCacheHits(queryResultCache.getHits());
+        localMapStats.setQueryResultCacheMisses(queryResultCache.getMisses());
+    }
+
+    private void addIndexPopulationStats(String mapName, LocalMapStatsImpl localMapStats) {
+        long populationCount = 0;
+        long pendingEntryCount = 0;
+        for (PartitionContainer partitionContainer : mapServiceContext.getPartitionContainers()) {
+            for (PartitionIndexPopulator populator : partitionContainer.getIndexPopulators()) {
+                if (populator.getMapName().equals(mapName)) {
+                    ++populationCount;
+                    pendingEntryCount += populator.getPendingEntryCount();
+                }
+            }
+        }
+
+        localMapStats.setPendingIndexPopulationCount(populationCount);
+        localMapStats.setPendingIndexPopulationEntryCount(pendingEntryCount);
+    }
+
     private void addIndexStats(String mapName, LocalMapStatsImpl localMapStats) {
         MapContainer mapContainer = mapServiceContext.getMapContainer(mapName);
         Indexes globalIndexes = mapContainer.getIndexes();
@@ -444,6 +492,7 @@ public class LocalMapStatsProvider {
         private long merkleTreesCost;
         private long lockedEntryCount;
         private long dirtyEntryCount;
+        private long writeBehindQueueLag;
         private long lastAccessTime;
         private long lastUpdateTime;
 
@@ -479,6 +528,10 @@ public class LocalMapStatsProvider {
             this.dirtyEntryCount += dirtyEntryCount;
         }
 
+        public void updateWriteBehindQueueLag(long writeBehindQueueLag) {
+            this.writeBehindQueueLag = Math.max(this.writeBehindQueueLag, writeBehindQueueLag);
+        }
+
         public void incrementHeapCost(long heapCost) {
             this.heapCost += heapCost;
         }
@@ -498,6 +551,7 @@ public class LocalMapStatsProvider {
             stats.setMerkleTreesCost(merkleTreesCost);
             stats.setLockedEntryCount(lockedEntryCount);
             stats.setDirtyEntryCount(dirtyEntryCount);
+            stats.setWriteBehindQueueLag(writeBehindQueueLag);
             stats.setLastAccessTime(lastAccessTime);
             stats.setLastUpdateTime(lastUpdateTime);
             return stats;
@@ -27,6 +27,7 @@ import com.hazelcast.config.WanConsumerConfig;
 import com.hazelcast.config.WanReplicationConfig;
 import com.hazelcast.config.WanReplicationRef;
 import com.hazelcast.config.WanSyncConfig;
+import com.hazelcast.internal.memory.MemoryManager;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.services.ObjectNamespace;
@@ -41,7 +42,11 @@ import com.hazelcast.map.impl.eviction.EvictorImpl;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.nearcache.invalidation.InvalidationListener;
 import com.hazelcast.map.impl.query.QueryEntryFactory;
+import com.hazelcast.map.impl.query.QueryResultCache;
+import com.hazelcast.map.impl.record.CompactDataRecordFactory;
+import com.hazelcast.map.impl.record.CompactObjectRecordFactory;
 import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
 import com.hazelcast.map.impl.record.ObjectRecordFactory;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
@@ -71,7 +76,11 @@ import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
 import static com.hazelcast.map.impl.mapstore.MapStoreContextFactory.createMapStoreContext;
+import static com.hazelcast.map.impl.record.Records.canUseCompactRecords;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_COMPACT_RECORDS_ENABLED;
 import static com.hazelcast.spi.properties.GroupProperty.MAP_EVICTION_BATCH_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.QUERY_RESULT_CACHE_MAX_SIZE_BYTES;
+import static java.lang.String.format;
 import static java.lang.System.getProperty;
 
 /**
@@ -98,6 +107,7 @@ public class MapContainer {
     protected final InterceptorRegistry interceptorRegistry = new InterceptorRegistry();
     protected final Function<Object, Data> toDataFunction = new ObjectToData();
     protected final ConstructorFunction<Void, RecordFactory> recordFactoryConstructor;
+    protected final QueryResultCache queryResultCache;
     /**
      * Holds number of registered {@link InvalidationListener} from clients.
      */
@@ -141,6 +151,11 @@ public class MapContainer {
         } else {
             this.globalIndexes = null;
         }
+        this.queryResultCache = mapConfig.getQueryResultCacheSize() > 0
+                ? new QueryResultCache(mapConfig.getQueryResultCacheSize(),
+                nodeEngine.getProperties().getLong(QUERY_RESULT_CACHE_MAX_SIZE_BYTES),
+                nodeEngine.getPartitionService().getPartitionCount())
+                : null;
         this.mapStoreContext = createMapStoreContext(this);
         this.mapStoreContext.start();
         initEvictor();
@@ -190,6 +205,10 @@ public class MapContainer {
                 return LRUEvictionPolicy.INSTANCE;
             case LFU:
                 return LFUEvictionPolicy.INSTANCE;
+            case TINY_LFU:
+                // the record stores compare the frequencies of their sketches
+                // first, the LRU policy only breaks the ties
+                return LRUEvictionPolicy.INSTANCE;
             case RANDOM:
                 return RandomEvictionPolicy.INSTANCE;
             case NONE:
@@ -225,17 +244,34 @@ public class MapContainer {
     // overridden in different context
     ConstructorFunction<Void, RecordFactory> createRecordFactoryConstructor(final SerializationService serializationService) {
         return notUsedArg -> {
+            boolean compactRecords = mapServiceContext.getNodeEngine().getProperties()
+                    .getBoolean(MAP_COMPACT_RECORDS_ENABLED) && canUseCompactRecords(mapConfig);
             switch (mapConfig.getInMemoryFormat()) {
                 case BINARY:
-                    return new DataRecordFactory(mapConfig, serializationService, partitioningStrategy);
+                    return compactRecords
+                            ? new CompactDataRecordFactory(mapConfig, serializationService, partitioningStrategy)
+                            : new DataRecordFactory(mapConfig, serializationService, partitioningStrategy);
                 case OBJECT:
-                    return new ObjectRecordFactory(mapConfig, serializationService);
+                    return compactRecords
+                            ? new CompactObjectRecordFactory(serializationService)
+                            : new ObjectRecordFactory(mapConfig, serializationService);
+                case NATIVE:
+                    return new NativeRecordFactory(getNativeMemoryManager(), serializationService, partitioningStrategy);
                 default:
                     throw new IllegalArgumentException("Invalid storage format: " + mapConfig.getInMemoryFormat());
             }
         };
     }
 
+    private MemoryManager getNativeMemoryManager() {
+        MemoryManager memoryManager = mapServiceContext.getNativeMemoryManager();
+        if (memoryManager == null) {
+            throw new IllegalStateException(format("Enable native memory config to use NATIVE in-memory-format for the map [%s]",
+                    name));
+        }
+        return memoryManager;
+    }
+
     public void initWanReplication(NodeEngine nodeEngine) {
         WanReplicationRef wanReplicationRef = mapConfig.getWanReplicationRef();
         if (wanReplicationRef == null) {
@@ -309,6 +345,14 @@ public class MapContainer {
         return mapServiceContext.getPartitionContainer(partitionId).getIndexes(name);
     }
 
+    /**
+     * @return the query result cache of the map or {@code null} if the cache
+     * is disabled.
+     */
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
     public boolean isGlobalIndexEnabled() {
         return globalIndexes != null;
     }
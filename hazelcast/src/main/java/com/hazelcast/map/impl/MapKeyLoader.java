@@ -20,9 +20,11 @@ import com.hazelcast.cluster.Member;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.MapLoader;
+import com.hazelcast.map.ShardedMapLoader;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.operation.KeyLoadStatusOperation;
 import com.hazelcast.map.impl.operation.KeyLoadStatusOperationFactory;
+import com.hazelcast.map.impl.operation.LoadShardsOperation;
 import com.hazelcast.map.impl.operation.MapOperation;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
 import com.hazelcast.map.impl.operation.TriggerLoadIfNeededOperation;
@@ -46,12 +48,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
+import static com.hazelcast.cluster.memberselector.MemberSelectors.DATA_MEMBER_SELECTOR;
 import static com.hazelcast.logging.Logger.getLogger;
+import static com.hazelcast.map.impl.MapKeyLoaderUtil.assignShards;
 import static com.hazelcast.map.impl.MapKeyLoaderUtil.assignRole;
 import static com.hazelcast.map.impl.MapKeyLoaderUtil.toBatches;
 import static com.hazelcast.map.impl.MapKeyLoaderUtil.toPartition;
@@ -60,6 +65,7 @@ import static com.hazelcast.internal.nio.IOUtil.closeResource;
 import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_LOAD_ALL_KEYS_EXECUTOR;
 import static com.hazelcast.internal.util.IterableUtil.limit;
 import static com.hazelcast.internal.util.IterableUtil.map;
+import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -107,7 +113,7 @@ public class MapKeyLoader {
      * the {@link Role#RECEIVER} role and that it has triggered key
      * loading on the {@link Role#SENDER} partition.
      *
-     * @see #sendKeys(MapStoreContext, boolean)
+     * @see #sendKeys(MapStoreContext, boolean, boolean)
      * @see #triggerLoading()
      * @see #trackLoading(boolean, Throwable)
      * @see MapLoader#loadAllKeys()
@@ -191,7 +197,7 @@ public class MapKeyLoader {
 
         switch (newRole) {
             case SENDER:
-                return sendKeys(mapStoreContext, false);
+                return sendKeys(mapStoreContext, false, true);
             case SENDER_BACKUP:
             case RECEIVER:
                 return triggerLoading();
@@ -224,18 +230,29 @@ public class MapKeyLoader {
      * {@link ExecutionService#MAP_LOAD_ALL_KEYS_EXECUTOR} executor.
      * The loaded keys will be dispatched to partition owners for value loading.
      *
+     * If the map loader is a {@link ShardedMapLoader} and all loaded entries
+     * replace the existing ones, its shards are loaded in parallel on the
+     * members instead.
+     *
      * @param mapStoreContext       the map store context for this map
      * @param replaceExistingValues if the existing entries for the loaded keys should be replaced
+     * @param initialLoad           if this is the initial load of the map
      * @return a future representing pending completion of the key loading task
      * @see MapLoader#loadAllKeys()
      * @see #sendKeysInBatches(MapStoreContext, boolean)
+     * @see #sendShards(MapStoreContext)
      */
-    private Future<?> sendKeys(final MapStoreContext mapStoreContext, final boolean replaceExistingValues) {
+    private Future<?> sendKeys(final MapStoreContext mapStoreContext, final boolean replaceExistingValues,
+                               final boolean initialLoad) {
         if (keyLoadFinished.isDone()) {
             keyLoadFinished = new LoadFinishedFuture();
 
             Future<Boolean> sent = execService.submit(MAP_LOAD_ALL_KEYS_EXECUTOR, () -> {
-                sendKeysInBatches(mapStoreContext, replaceExistingValues);
+                if (isShardLoadingPossible(mapStoreContext, replaceExistingValues || initialLoad)) {
+                    sendShards(mapStoreContext);
+                } else {
+                    sendKeysInBatches(mapStoreContext, replaceExistingValues);
+                }
                 return false;
             });
 
@@ -322,7 +339,7 @@ public class MapKeyLoader {
         }
         state.next(State.LOADING);
 
-        return sendKeys(mapStoreContext, replaceExistingValues);
+        return sendKeys(mapStoreContext, replaceExistingValues, false);
     }
 
     /**
@@ -448,6 +465,74 @@ public class MapKeyLoader {
         }
     }
 
+    /**
+     * Returns {@code true} if the map loader is a {@link ShardedMapLoader}
+     * whose shards can be loaded instead of the keys. The shards are not used
+     * when the existing entries should be kept, since their entries replace
+     * the existing ones, or when a per node max-size is configured, since the
+     * number of the loaded entries is not limited.
+     *
+     * @param mapStoreContext the map store context for this map
+     * @param replaceExisting if the loaded entries may replace the existing ones
+     */
+    private boolean isShardLoadingPossible(MapStoreContext mapStoreContext, boolean replaceExisting) {
+        return replaceExisting
+                && maxSizePerNode <= 0
+                && mapStoreContext.getMapStoreWrapper().getImpl() instanceof ShardedMapLoader;
+    }
+
+    /**
+     * Assigns the shards of the {@link ShardedMapLoader} to the data members
+     * and waits until every member has loaded its shards. Each member loads
+     * its shards in parallel and puts the loaded entries into the record
+     * stores of their partitions, so the entries do not pass through this
+     * member. At the end, all record stores are notified that the loading
+     * has finished.
+     *
+     * @param mapStoreContext the map store context for this map
+     * @throws Exception if there was an exception when notifying the record stores that the
+     *                   loading has finished
+     * @see LoadShardsOperation
+     */
+    private void sendShards(MapStoreContext mapStoreContext) throws Exception {
+        if (logger.isFinestEnabled()) {
+            logger.finest("sendShards invoked " + getStateMessage());
+        }
+
+        int clusterSize = partitionService.getMemberPartitionsMap().size();
+        Throwable loadError = null;
+
+        try {
+            ShardedMapLoader loader = (ShardedMapLoader) mapStoreContext.getMapStoreWrapper().getImpl();
+            List<Member> members = new ArrayList<>(clusterService.getMembers(DATA_MEMBER_SELECTOR));
+            int[][] shards = assignShards(loader.getShardCount(), members.size());
+            logger.info(format("Loading %d shards of map %s on %d members", loader.getShardCount(), mapName,
+                    members.size()));
+
+            List<Future> futures = new ArrayList<>(members.size());
+            for (int i = 0; i < members.size(); i++) {
+                if (shards[i].length == 0) {
+                    continue;
+                }
+                Operation op = new LoadShardsOperation(mapName, shards[i]);
+                futures.add(opService.invokeOnTarget(SERVICE_NAME, op, members.get(i).getAddress()));
+            }
+
+            // the futures are completed once the members have put all entries of their shards,
+            // so the record stores are notified only after all entries have been loaded
+            FutureUtil.waitForever(futures);
+            for (Future future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException caught) {
+            loadError = caught.getCause();
+        } catch (Exception caught) {
+            loadError = caught;
+        } finally {
+            sendKeyLoadCompleted(clusterSize, loadError);
+        }
+    }
+
     /**
      * Sends the key batches to the partition owners for value loading.
      * The returned futures represent pending offloading of the value loading on the
@@ -579,7 +664,7 @@ public class MapKeyLoader {
     /**
      * A future that can be used as a callback for a pending task.
      *
-     * @see #sendKeys(MapStoreContext, boolean)
+     * @see #sendKeys(MapStoreContext, boolean, boolean)
      * @see #triggerLoading()
      * @see MapLoader#loadAllKeys()
      */
@@ -72,6 +72,27 @@ public final class MapKeyLoaderUtil {
         }
     }
 
+    /**
+     * Assigns the shards of a {@link com.hazelcast.map.ShardedMapLoader}
+     * round-robin to the members, so each member loads at most one shard
+     * more than the others.
+     *
+     * @param shardCount  the number of the shards
+     * @param memberCount the number of the members
+     * @return the indexes of the shards assigned to each member
+     */
+    static int[][] assignShards(int shardCount, int memberCount) {
+        int[][] shardsPerMember = new int[memberCount][];
+        for (int member = 0; member < memberCount; member++) {
+            int memberShardCount = shardCount / memberCount + (member < shardCount % memberCount ? 1 : 0);
+            shardsPerMember[member] = new int[memberShardCount];
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            shardsPerMember[shard % memberCount][shard / memberCount] = shard;
+        }
+        return shardsPerMember;
+    }
+
     /**
      * Transforms an iterator of entries to an iterator of entry batches
      * where each batch is represented as a map from entry key to
@@ -22,9 +22,13 @@ import com.hazelcast.internal.services.ManagedService;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.internal.services.ObjectNamespace;
 import com.hazelcast.internal.util.ConstructorFunction;
+import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.internal.util.executor.ExecutorType;
 
 import java.util.Properties;
 
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_WRITE_BEHIND_EXECUTOR;
+
 /**
  * Defines managed service behavior of map service.
  *
@@ -46,6 +50,10 @@ public class MapManagedService implements ManagedService {
                     new ObjectNamespaceLockStoreInfoConstructorFunction());
         }
         mapServiceContext.initPartitionsContainers();
+        // a dedicated pool, so the threads storing to the database are bounded
+        // by its configured pool size and don't exhaust the shared cached pool
+        nodeEngine.getExecutionService().register(MAP_WRITE_BEHIND_EXECUTOR, RuntimeAvailableProcessors.get(),
+                Integer.MAX_VALUE, ExecutorType.CONCRETE);
     }
 
     @Override
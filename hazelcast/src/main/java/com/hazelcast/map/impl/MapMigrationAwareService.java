@@ -32,7 +32,6 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.InternalIndex;
-import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.partition.FragmentedMigrationAwareService;
 import com.hazelcast.spi.partition.MigrationEndpoint;
@@ -214,6 +213,7 @@ class MapMigrationAwareService implements FragmentedMigrationAwareService {
                 continue;
             }
 
+            container.cancelIndexPopulations(recordStore.getName());
             indexes.clearAll();
         }
     }
@@ -264,8 +264,6 @@ class MapMigrationAwareService implements FragmentedMigrationAwareService {
             return;
         }
 
-        final long now = getNow();
-
         final PartitionContainer container = mapServiceContext.getPartitionContainer(event.getPartitionId());
         for (RecordStore recordStore : container.getMaps().values()) {
             final MapContainer mapContainer = mapServiceContext.getMapContainer(recordStore.getName());
@@ -285,21 +283,9 @@ class MapMigrationAwareService implements FragmentedMigrationAwareService {
                 continue;
             }
 
-            final InternalIndex[] indexesSnapshot = indexes.getIndexes();
-            final Iterator<Record> iterator = recordStore.iterator(now, false);
-            while (iterator.hasNext()) {
-                final Record record = iterator.next();
-                final Data key = record.getKey();
-
-                final Object value = Records.getValueOrCachedValue(record, serializationService);
-                if (value != null) {
-                    QueryableEntry queryEntry = mapContainer.newQueryEntry(key, value);
-                    queryEntry.setRecord(record);
-                    queryEntry.setStoreAdapter(storeAdapter);
-                    indexes.putEntry(queryEntry, null, Index.OperationSource.SYSTEM);
-                }
-            }
-            Indexes.markPartitionAsIndexed(event.getPartitionId(), indexesSnapshot);
+            // large partitions are populated in the background, the indexes
+            // are not used by the queries until the population completes
+            container.populateIndexes(recordStore, indexes.getIndexes(), Index.OperationSource.SYSTEM);
         }
     }
 
@@ -324,6 +310,7 @@ class MapMigrationAwareService implements FragmentedMigrationAwareService {
                 continue;
             }
 
+            container.cancelIndexPopulations(recordStore.getName());
             final InternalIndex[] indexesSnapshot = indexes.getIndexes();
             final Iterator<Record> iterator = recordStore.iterator(now, false);
             while (iterator.hasNext()) {
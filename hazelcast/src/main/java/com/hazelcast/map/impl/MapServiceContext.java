@@ -21,6 +21,7 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.internal.util.comparators.ValueComparator;
 import com.hazelcast.map.impl.event.MapEventPublisher;
@@ -192,4 +193,11 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
     ValueComparator getValueComparatorOf(InMemoryFormat inMemoryFormat);
 
     NodeWideUsedCapacityCounter getNodeWideUsedCapacityCounter();
+
+    /**
+     * @return the memory manager which backs maps with {@link
+     * InMemoryFormat#NATIVE} in-memory-format or {@code null} when
+     * native memory is not enabled on this member
+     */
+    StandardMemoryManager getNativeMemoryManager();
 }
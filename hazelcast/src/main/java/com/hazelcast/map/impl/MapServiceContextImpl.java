@@ -19,8 +19,10 @@ package com.hazelcast.map.impl;
 import com.hazelcast.cluster.ClusterState;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.serialization.DataType;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationService;
@@ -139,6 +141,7 @@ class MapServiceContextImpl implements MapServiceContext {
     private final MapClearExpiredRecordsTask clearExpiredRecordsTask;
     private final PartitioningStrategyFactory partitioningStrategyFactory;
     private final NodeWideUsedCapacityCounter nodeWideUsedCapacityCounter;
+    private final StandardMemoryManager nativeMemoryManager;
     private final ConstructorFunction<String, MapContainer> mapConstructor;
     private final IndexProvider indexProvider = new DefaultIndexProvider();
     private final ContextMutexFactory contextMutexFactory = new ContextMutexFactory();
@@ -156,6 +159,8 @@ class MapServiceContextImpl implements MapServiceContext {
         this.partitionContainers = createPartitionContainers();
         this.clearExpiredRecordsTask = new MapClearExpiredRecordsTask(partitionContainers, nodeEngine);
         this.expirationManager = new ExpirationManager(clearExpiredRecordsTask, nodeEngine);
+        // created before the Near Cache manager, the NATIVE Near Caches use it
+        this.nativeMemoryManager = createNativeMemoryManager();
         this.mapNearCacheManager = createMapNearCacheManager();
         this.localMapStatsProvider = createLocalMapStatsProvider();
         this.mapEventPublisher = createMapEventPublisherSupport();
@@ -179,6 +184,15 @@ class MapServiceContextImpl implements MapServiceContext {
         };
     }
 
+    // this method is overridden in another context
+    StandardMemoryManager createNativeMemoryManager() {
+        NativeMemoryConfig nativeMemoryConfig = nodeEngine.getConfig().getNativeMemoryConfig();
+        if (nativeMemoryConfig == null || !nativeMemoryConfig.isEnabled()) {
+            return null;
+        }
+        return new StandardMemoryManager(nativeMemoryConfig.getSize().bytes());
+    }
+
     // this method is overridden in another context
     MapNearCacheManager createMapNearCacheManager() {
         return new MapNearCacheManager(this);
@@ -436,6 +450,9 @@ class MapServiceContextImpl implements MapServiceContext {
         mapNearCacheManager.shutdown();
         mapContainers.clear();
         expirationManager.onShutdown();
+        if (nativeMemoryManager != null) {
+            nativeMemoryManager.dispose();
+        }
     }
 
     @Override
@@ -815,6 +832,11 @@ class MapServiceContextImpl implements MapServiceContext {
         return nodeWideUsedCapacityCounter;
     }
 
+    @Override
+    public StandardMemoryManager getNativeMemoryManager() {
+        return nativeMemoryManager;
+    }
+
     // used only for testing purposes
     PartitioningStrategyFactory getPartitioningStrategyFactory() {
         return partitioningStrategyFactory;
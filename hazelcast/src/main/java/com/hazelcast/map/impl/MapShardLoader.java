@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.ShardedMapLoader;
+import com.hazelcast.map.impl.operation.MapOperationProvider;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.partition.IPartitionService;
+import com.hazelcast.spi.properties.GroupProperty;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_LOADER_EXECUTOR;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Loads the shards of a {@link ShardedMapLoader} assigned to this member and
+ * streams the loaded entries in batches to the owners of their partitions.
+ * <p>
+ * The shards are loaded in parallel on the
+ * {@link ExecutionService#MAP_LOADER_EXECUTOR} executor, so the partition
+ * threads only put the loaded entries into the record stores. A shard has at
+ * most {@value #MAX_PENDING_BATCHES} batches in flight, which bounds the
+ * memory used by the load when the store is faster than the record stores.
+ *
+ * @see MapKeyLoader
+ */
+public class MapShardLoader {
+
+    private static final int MAX_PENDING_BATCHES = 64;
+
+    private final String mapName;
+    private final ILogger logger;
+    private final MapServiceContext mapServiceContext;
+    private final OperationService operationService;
+    private final IPartitionService partitionService;
+    private final ExecutionService executionService;
+    private final ShardedMapLoader<Object, Object> loader;
+    /**
+     * The maximum number of entries put into a partition by an operation
+     *
+     * @see GroupProperty#MAP_LOAD_CHUNK_SIZE
+     */
+    private final int batchSize;
+
+    @SuppressWarnings("unchecked")
+    public MapShardLoader(MapServiceContext mapServiceContext, String mapName) {
+        NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
+        this.mapName = mapName;
+        this.logger = nodeEngine.getLogger(MapShardLoader.class);
+        this.mapServiceContext = mapServiceContext;
+        this.operationService = nodeEngine.getOperationService();
+        this.partitionService = nodeEngine.getPartitionService();
+        this.executionService = nodeEngine.getExecutionService();
+        MapContainer mapContainer = mapServiceContext.getMapContainer(mapName);
+        this.loader = (ShardedMapLoader<Object, Object>) mapContainer.getMapStoreContext().getMapStoreWrapper().getImpl();
+        this.batchSize = nodeEngine.getProperties().getInteger(GroupProperty.MAP_LOAD_CHUNK_SIZE);
+    }
+
+    /**
+     * Loads the given shards in parallel.
+     *
+     * @param shards the indexes of the shards to be loaded
+     * @return a future completed with the number of the loaded entries once
+     * all of them have been put into the record stores, or with the first
+     * failure once all shards have finished
+     */
+    public InternalCompletableFuture<Long> loadShards(int[] shards) {
+        InternalCompletableFuture<Long> future = new InternalCompletableFuture<>();
+        if (shards.length == 0) {
+            future.complete(0L);
+            return future;
+        }
+
+        long startNanos = System.nanoTime();
+        AtomicInteger remainingShards = new AtomicInteger(shards.length);
+        AtomicLong loadedEntries = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int shard : shards) {
+            executionService.execute(MAP_LOADER_EXECUTOR, () -> {
+                try {
+                    loadedEntries.addAndGet(loadShard(shard));
+                } catch (Throwable t) {
+                    logger.warning(format("Could not load shard %d of map %s", shard, mapName), t);
+                    failure.compareAndSet(null, t);
+                }
+
+                int remaining = remainingShards.decrementAndGet();
+                logger.info(format("Loaded %d of %d shards of map %s on this member", shards.length - remaining,
+                        shards.length, mapName));
+                if (remaining == 0) {
+                    if (failure.get() != null) {
+                        future.completeExceptionally(failure.get());
+                    } else {
+                        logger.info(format("Loaded %d entries from %d shards of map %s in %d ms", loadedEntries.get(),
+                                shards.length, mapName, NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+                        future.complete(loadedEntries.get());
+                    }
+                }
+            });
+        }
+        return future;
+    }
+
+    /**
+     * Loads a shard and puts its entries into the record stores. Returns
+     * after all entries of the shard have been put.
+     *
+     * @param shard the index of the shard
+     * @return the number of the loaded entries
+     * @throws Exception if the shard could not be loaded or its entries
+     *                   could not be put
+     * @see ShardedMapLoader#loadShard(int)
+     */
+    private long loadShard(int shard) throws Exception {
+        Iterator<Map.Entry<Object, Object>> entries = loader.loadShard(shard).iterator();
+        try {
+            List<Data>[] batches = newBatches();
+            Queue<Future> pendingBatches = new ArrayDeque<>(MAX_PENDING_BATCHES);
+            long entryCount = 0;
+            while (entries.hasNext()) {
+                Map.Entry<Object, Object> entry = entries.next();
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                Data key = mapServiceContext.toData(entry.getKey());
+                int partitionId = partitionService.getPartitionId(key);
+                List<Data> batch = batches[partitionId];
+                if (batch == null) {
+                    batch = new ArrayList<>(2 * batchSize);
+                    batches[partitionId] = batch;
+                }
+                // the batches are alternating key-value sequences
+                batch.add(key);
+                batch.add(mapServiceContext.toData(entry.getValue()));
+                entryCount++;
+                if (batch.size() >= 2 * batchSize) {
+                    sendBatch(partitionId, batch, pendingBatches);
+                    batches[partitionId] = null;
+                }
+            }
+            for (int partitionId = 0; partitionId < batches.length; partitionId++) {
+                if (batches[partitionId] != null) {
+                    sendBatch(partitionId, batches[partitionId], pendingBatches);
+                }
+            }
+            for (Future pendingBatch : pendingBatches) {
+                pendingBatch.get();
+            }
+            return entryCount;
+        } finally {
+            if (entries instanceof Closeable) {
+                closeResource((Closeable) entries);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Data>[] newBatches() {
+        return new List[partitionService.getPartitionCount()];
+    }
+
+    /**
+     * Invokes an operation to put the batch into the record store of the
+     * partition, after waiting for the oldest pending batch if there are
+     * too many of them.
+     */
+    private void sendBatch(int partitionId, List<Data> batch, Queue<Future> pendingBatches) throws Exception {
+        if (pendingBatches.size() >= MAX_PENDING_BATCHES) {
+            pendingBatches.poll().get();
+        }
+        MapOperationProvider operationProvider = mapServiceContext.getMapOperationProvider(mapName);
+        Operation operation = operationProvider.createPutFromLoadAllOperation(mapName, batch, false);
+        pendingBatches.add(operationService.invokeOnPartition(SERVICE_NAME, operation, partitionId));
+    }
+}
@@ -21,7 +21,9 @@ import com.hazelcast.config.MapConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
 import com.hazelcast.map.impl.operation.MapClearExpiredOperation;
 import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.internal.services.ObjectNamespace;
@@ -35,12 +37,16 @@ import com.hazelcast.internal.util.ConstructorFunction;
 import com.hazelcast.internal.util.ContextMutexFactory;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.map.impl.MapKeyLoaderUtil.getMaxSizePerNode;
+import static java.util.Collections.newSetFromMap;
 
 public class PartitionContainer {
 
@@ -49,6 +55,7 @@ public class PartitionContainer {
     private final ContextMutexFactory contextMutexFactory = new ContextMutexFactory();
     private final ConcurrentMap<String, RecordStore> maps = new ConcurrentHashMap<>(1000);
     private final ConcurrentMap<String, Indexes> indexes = new ConcurrentHashMap<>(10);
+    private final Set<PartitionIndexPopulator> indexPopulators = newSetFromMap(new ConcurrentHashMap<>());
     private final ConstructorFunction<String, RecordStore> recordStoreConstructor
             = name -> {
                 RecordStore recordStore = createRecordStore(name);
@@ -193,6 +200,73 @@ public class PartitionContainer {
         }
     }
 
+    /**
+     * Starts the population of the given indexes with the entries of the
+     * given record store of this partition, the indexes which are already
+     * being populated are skipped. Small partitions are populated right away,
+     * the large ones are populated incrementally, see {@link
+     * PartitionIndexPopulator}.
+     * <p>
+     * Must be called on the partition thread.
+     *
+     * @param recordStore     the record store to populate the indexes from.
+     * @param indexes         the indexes to populate.
+     * @param operationSource the operation source to populate the indexes
+     *                        with.
+     */
+    public void populateIndexes(RecordStore recordStore, InternalIndex[] indexes, Index.OperationSource operationSource) {
+        List<InternalIndex> indexesToPopulate = new ArrayList<>(indexes.length);
+        for (InternalIndex index : indexes) {
+            if (!isPopulating(recordStore.getName(), index)) {
+                indexesToPopulate.add(index);
+            }
+        }
+        if (indexesToPopulate.isEmpty()) {
+            return;
+        }
+
+        int chunkSize = mapService.getMapServiceContext().getNodeEngine().getProperties()
+                                  .getInteger(GroupProperty.INDEX_POPULATION_CHUNK_SIZE);
+        PartitionIndexPopulator populator = new PartitionIndexPopulator(this, recordStore,
+                indexesToPopulate.toArray(new InternalIndex[0]), operationSource, chunkSize);
+        indexPopulators.add(populator);
+        populator.start();
+    }
+
+    /**
+     * Cancels the index populations of the given map in this partition.
+     *
+     * @param mapName the name of the map to cancel the index populations of.
+     * @see PartitionIndexPopulator#cancel()
+     */
+    public void cancelIndexPopulations(String mapName) {
+        for (PartitionIndexPopulator populator : indexPopulators) {
+            if (populator.getMapName().equals(mapName)) {
+                populator.cancel();
+            }
+        }
+    }
+
+    /**
+     * @return the index populations of this partition which are in progress.
+     */
+    public Collection<PartitionIndexPopulator> getIndexPopulators() {
+        return indexPopulators;
+    }
+
+    void onIndexPopulationDone(PartitionIndexPopulator populator) {
+        indexPopulators.remove(populator);
+    }
+
+    private boolean isPopulating(String mapName, InternalIndex index) {
+        for (PartitionIndexPopulator populator : indexPopulators) {
+            if (populator.getMapName().equals(mapName) && populator.populates(index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public boolean hasRunningCleanup() {
         return hasRunningCleanup;
     }
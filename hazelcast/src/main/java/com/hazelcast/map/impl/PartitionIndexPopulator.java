@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.impl.recordstore.RecordStoreAdapter;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.OperationService;
+
+import java.util.Iterator;
+
+/**
+ * Populates the indexes of a single map partition with the entries of the
+ * partition record store chunk by chunk.
+ * <p>
+ * The keys of the partition are captured once the population starts and
+ * every chunk of them is indexed by a separate task submitted to the
+ * partition thread, so the population of large partitions interleaves with
+ * the rest of the partition operations instead of blocking them. The entries
+ * mutated in between the chunks are indexed by the mutations themselves,
+ * since the indexes are already registered, and indexing them once again is
+ * harmless. The populated indexes are not used for querying until the
+ * population completes, see {@link InternalIndex#isPopulated()}.
+ * <p>
+ * All the methods except {@link #cancel()} and {@link
+ * #getPendingEntryCount()} must be called on the partition thread.
+ */
+public final class PartitionIndexPopulator implements PartitionSpecificRunnable {
+
+    private final PartitionContainer partitionContainer;
+    private final RecordStore recordStore;
+    private final InternalIndex[] indexes;
+    private final Index.OperationSource operationSource;
+    private final int chunkSize;
+    private final MapContainer mapContainer;
+    private final StoreAdapter storeAdapter;
+    private final SerializationService serializationService;
+    private final OperationService operationService;
+
+    private Data[] keys;
+    private int keyCount;
+    private int position;
+    private volatile int pendingEntryCount;
+    private volatile boolean done;
+
+    PartitionIndexPopulator(PartitionContainer partitionContainer, RecordStore recordStore, InternalIndex[] indexes,
+                            Index.OperationSource operationSource, int chunkSize) {
+        this.partitionContainer = partitionContainer;
+        this.recordStore = recordStore;
+        this.indexes = indexes;
+        this.operationSource = operationSource;
+        this.chunkSize = chunkSize;
+        this.mapContainer = recordStore.getMapContainer();
+        this.storeAdapter = new RecordStoreAdapter(recordStore);
+        this.serializationService = mapContainer.getMapServiceContext().getNodeEngine().getSerializationService();
+        this.operationService = mapContainer.getMapServiceContext().getNodeEngine().getOperationService();
+    }
+
+    @Override
+    public int getPartitionId() {
+        return partitionContainer.getPartitionId();
+    }
+
+    /**
+     * @return the name of the map populated by this populator.
+     */
+    public String getMapName() {
+        return recordStore.getName();
+    }
+
+    /**
+     * @return {@code true} if the given index is populated by this populator,
+     * {@code false} otherwise.
+     */
+    public boolean populates(InternalIndex index) {
+        for (InternalIndex populatedIndex : indexes) {
+            if (populatedIndex == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of entries which are still to be indexed by this
+     * populator.
+     */
+    public int getPendingEntryCount() {
+        return pendingEntryCount;
+    }
+
+    /**
+     * Starts the population: captures the keys of the partition and indexes
+     * the first chunk of them right away, the rest of the chunks are
+     * scheduled for the later execution on the partition thread.
+     */
+    void start() {
+        Indexes.markPartitionAsPopulating(getPartitionId(), indexes);
+
+        keys = new Data[recordStore.size()];
+        Iterator<Record> iterator = recordStore.iterator();
+        while (iterator.hasNext() && keyCount < keys.length) {
+            keys[keyCount++] = iterator.next().getKey();
+        }
+        pendingEntryCount = keyCount;
+
+        run();
+    }
+
+    @Override
+    public void run() {
+        if (done) {
+            return;
+        }
+        if (partitionContainer.getExistingRecordStore(recordStore.getName()) != recordStore) {
+            // the record store was destroyed in the meantime
+            cancel();
+            return;
+        }
+
+        long now = Clock.currentTimeMillis();
+        int end = Math.min(position + chunkSize, keyCount);
+        for (; position < end; ++position) {
+            populate(keys[position], now);
+            // release the key, it's no longer needed
+            keys[position] = null;
+        }
+        pendingEntryCount = keyCount - position;
+
+        if (pendingEntryCount == 0) {
+            complete();
+        } else {
+            operationService.execute(this);
+        }
+    }
+
+    /**
+     * Cancels the population. The partition is marked as unindexed by the
+     * populated indexes, the already indexed entries are left as is.
+     * <p>
+     * May be called on any thread.
+     */
+    public void cancel() {
+        if (done) {
+            return;
+        }
+        done = true;
+        pendingEntryCount = 0;
+        Indexes.markPartitionAsUnindexed(getPartitionId(), indexes);
+        partitionContainer.onIndexPopulationDone(this);
+    }
+
+    private void complete() {
+        done = true;
+        Indexes.markPartitionAsIndexed(getPartitionId(), indexes);
+        partitionContainer.onIndexPopulationDone(this);
+    }
+
+    private void populate(Data key, long now) {
+        // the population must not evict the expired entries, they are just skipped
+        Record record = (Record) recordStore.getStorage().get(key);
+        if (record == null || recordStore.isExpired(record, now, false)) {
+            // removed or expired in the meantime
+            return;
+        }
+
+        Object value = Records.getValueOrCachedValue(record, serializationService);
+        if (value == null) {
+            return;
+        }
+
+        QueryableEntry queryEntry = mapContainer.newQueryEntry(record.getKey(), value);
+        queryEntry.setRecord(record);
+        queryEntry.setStoreAdapter(storeAdapter);
+        for (InternalIndex index : indexes) {
+            index.putEntry(queryEntry, null, operationSource);
+        }
+    }
+
+}
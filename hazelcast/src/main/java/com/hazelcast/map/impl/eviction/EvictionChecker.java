@@ -18,6 +18,7 @@ package com.hazelcast.map.impl.eviction;
 
 import com.hazelcast.config.MaxSizeConfig;
 import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.MapContainer;
@@ -54,6 +55,7 @@ public class EvictionChecker {
     private final PartitionContainer[] containers;
     private final MemoryInfoAccessor memoryInfoAccessor;
     private final MapNearCacheManager mapNearCacheManager;
+    private final MapServiceContext mapServiceContext;
     private final AtomicBoolean misconfiguredPerNodeMaxSizeWarningLogged;
 
     public EvictionChecker(MemoryInfoAccessor givenMemoryInfoAccessor, MapServiceContext mapServiceContext) {
@@ -66,6 +68,7 @@ public class EvictionChecker {
         this.clusterService = nodeEngine.getClusterService();
         this.partitionCount = nodeEngine.getPartitionService().getPartitionCount();
         this.mapNearCacheManager = mapServiceContext.getMapNearCacheManager();
+        this.mapServiceContext = mapServiceContext;
         this.memoryInfoAccessor = givenMemoryInfoAccessor;
 
         if (logger.isFinestEnabled()) {
@@ -100,11 +103,35 @@ public class EvictionChecker {
                 return (usedHeapInBytes(mapName) * ONE_HUNDRED / Math.max(maxMemoryInBytes(), 1)) > maxConfiguredSize;
             case FREE_HEAP_PERCENTAGE:
                 return (availableMemoryInBytes() * ONE_HUNDRED / Math.max(maxMemoryInBytes(), 1)) < maxConfiguredSize;
+            case USED_NATIVE_MEMORY_SIZE:
+            case FREE_NATIVE_MEMORY_SIZE:
+            case USED_NATIVE_MEMORY_PERCENTAGE:
+            case FREE_NATIVE_MEMORY_PERCENTAGE:
+                return nativeMemoryThresholdExceeded(maxSizePolicy, maxConfiguredSize, mapName);
             default:
                 throw new IllegalArgumentException("Not an appropriate max size policy [" + maxSizePolicy + ']');
         }
     }
 
+    private boolean nativeMemoryThresholdExceeded(MaxSizeConfig.MaxSizePolicy maxSizePolicy,
+                                                  int maxConfiguredSize, String mapName) {
+        StandardMemoryManager memoryManager = nativeMemoryManager();
+        switch (maxSizePolicy) {
+            case USED_NATIVE_MEMORY_SIZE:
+                return usedNativeMemoryInBytes(mapName) > MEGABYTES.toBytes(maxConfiguredSize);
+            case FREE_NATIVE_MEMORY_SIZE:
+                return memoryManager.getFreeMemory() < MEGABYTES.toBytes(maxConfiguredSize);
+            case USED_NATIVE_MEMORY_PERCENTAGE:
+                return (usedNativeMemoryInBytes(mapName) * ONE_HUNDRED
+                        / Math.max(memoryManager.getMaxMemory(), 1)) > maxConfiguredSize;
+            case FREE_NATIVE_MEMORY_PERCENTAGE:
+                return (memoryManager.getFreeMemory() * ONE_HUNDRED
+                        / Math.max(memoryManager.getMaxMemory(), 1)) < maxConfiguredSize;
+            default:
+                throw new IllegalArgumentException("Not a native max size policy [" + maxSizePolicy + ']');
+        }
+    }
+
     /**
      * Calculates and returns the expected maximum size of an evicted
      * record-store when {@link
@@ -153,6 +180,27 @@ public class EvictionChecker {
         return usedHeapInBytes;
     }
 
+    /**
+     * Off-heap bytes used by the entries of the given map on this member,
+     * record-stores of {@code NATIVE} maps report their off-heap cost as
+     * owned entry cost.
+     */
+    private long usedNativeMemoryInBytes(String mapName) {
+        long usedNativeMemoryInBytes = 0L;
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            usedNativeMemoryInBytes += getRecordStoreHeapCost(mapName, containers[partitionId]);
+        }
+        return usedNativeMemoryInBytes;
+    }
+
+    private StandardMemoryManager nativeMemoryManager() {
+        StandardMemoryManager memoryManager = mapServiceContext.getNativeMemoryManager();
+        if (memoryManager == null) {
+            throw new IllegalStateException("Native memory max size policies require native memory config to be enabled");
+        }
+        return memoryManager;
+    }
+
     private long getRecordStoreHeapCost(String mapName, PartitionContainer container) {
         RecordStore existingRecordStore = container.getExistingRecordStore(mapName);
         if (existingRecordStore == null) {
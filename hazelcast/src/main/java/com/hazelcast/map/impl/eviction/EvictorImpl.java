@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.eviction;
 
 import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.eviction.FrequencySketch;
 import com.hazelcast.map.eviction.MapEvictionPolicy;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.recordstore.LazyEntryViewFromRecord;
@@ -34,6 +35,9 @@ import static com.hazelcast.internal.util.ThreadUtil.assertRunningOnPartitionThr
  * Evictor helper methods.
  */
 public class EvictorImpl implements Evictor {
+    private static final int FORCED_EVICTION_PERCENTAGE = 20;
+    private static final int ONE_HUNDRED_PERCENT = 100;
+
     protected final EvictionChecker evictionChecker;
     protected final IPartitionService partitionService;
     protected final MapEvictionPolicy mapEvictionPolicy;
@@ -52,6 +56,11 @@ public class EvictorImpl implements Evictor {
     public void evict(RecordStore recordStore, Data excludedKey) {
         assertRunningOnPartitionThread();
 
+        FrequencySketch frequencySketch = recordStore.getFrequencySketch();
+        if (frequencySketch != null) {
+            // the record store is full, so its size is the expected size of the sketch
+            frequencySketch.ensureCapacity(recordStore.size());
+        }
         for (int i = 0; i < batchSize; i++) {
             EntryView evictableEntry = selectEvictableEntry(recordStore, excludedKey);
             if (evictableEntry == null) {
@@ -61,12 +70,28 @@ public class EvictorImpl implements Evictor {
         }
     }
 
+    /**
+     * Evicts {@value #FORCED_EVICTION_PERCENTAGE} percent of the entries
+     * of the record-store and releases the off-heap blocks they occupied,
+     * so that a retried operation can allocate again.
+     */
     @Override
     public void forceEvict(RecordStore recordStore) {
+        assertRunningOnPartitionThread();
 
+        int evictionCount = Math.max(1, recordStore.size() * FORCED_EVICTION_PERCENTAGE / ONE_HUNDRED_PERCENT);
+        for (int i = 0; i < evictionCount; i++) {
+            EntryView evictableEntry = selectEvictableEntry(recordStore, null);
+            if (evictableEntry == null) {
+                break;
+            }
+            evictEntry(recordStore, evictableEntry);
+        }
+        recordStore.disposeDeferredBlocks();
     }
 
     private EntryView selectEvictableEntry(RecordStore recordStore, Data excludedKey) {
+        FrequencySketch frequencySketch = recordStore.getFrequencySketch();
         Iterable<EntryView> samples = getSamples(recordStore);
         EntryView excluded = null;
         EntryView selected = null;
@@ -79,7 +104,7 @@ public class EvictorImpl implements Evictor {
 
             if (selected == null) {
                 selected = candidate;
-            } else if (mapEvictionPolicy.compare(candidate, selected) < 0) {
+            } else if (compare(frequencySketch, candidate, selected) < 0) {
                 selected = candidate;
             }
         }
@@ -87,6 +112,17 @@ public class EvictorImpl implements Evictor {
         return selected == null ? excluded : selected;
     }
 
+    private int compare(FrequencySketch frequencySketch, EntryView candidate, EntryView selected) {
+        if (frequencySketch != null) {
+            int result = Integer.compare(frequencySketch.frequency(getDataKey(candidate)),
+                    frequencySketch.frequency(getDataKey(selected)));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return mapEvictionPolicy.compare(candidate, selected);
+    }
+
     private Data getDataKey(EntryView candidate) {
         return getRecordFromEntryView(candidate).getKey();
     }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.map.IMap;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Iterator for iterating the result of a query over all partitions of a map.
+ * <p>
+ * The partitions are iterated one after another using the per-partition
+ * query iterators, which fetch the results from the partition owners in
+ * batches of {@code fetchSize} items. So unlike the fully materialized query
+ * results, at most a single batch is held in memory at any time on both the
+ * caller and the member side, regardless of the total result size.
+ * <p>
+ * The {@link Iterator#remove()} method is not supported and will throw an
+ * {@link UnsupportedOperationException}.
+ * <b>NOTE</b>
+ * Iterating the map should be done only when the {@link IMap} is not being
+ * mutated and the cluster is stable (there are no migrations or membership changes).
+ * In other cases, the iterator may not return some entries or may return an entry twice.
+ *
+ * @param <R> the type of the iterated results
+ */
+public class MapQueryIterator<R> implements Iterator<R> {
+
+    private final int partitionCount;
+    private final IntFunction<Iterator<R>> partitionIteratorFactory;
+
+    private int partitionId = -1;
+    private Iterator<R> partitionIterator = Collections.emptyIterator();
+
+    /**
+     * @param partitionCount           the number of partitions to iterate
+     * @param partitionIteratorFactory the factory creating the iterators for
+     *                                 the given partition IDs
+     */
+    public MapQueryIterator(int partitionCount, IntFunction<Iterator<R>> partitionIteratorFactory) {
+        this.partitionCount = partitionCount;
+        this.partitionIteratorFactory = partitionIteratorFactory;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!partitionIterator.hasNext()) {
+            if (partitionId + 1 >= partitionCount) {
+                return false;
+            }
+            // the previous partition iterator is released here, so only the
+            // current batch is retained
+            partitionIterator = partitionIteratorFactory.apply(++partitionId);
+        }
+        return true;
+    }
+
+    @Override
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return partitionIterator.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removing when iterating map with query is not supported");
+    }
+
+}
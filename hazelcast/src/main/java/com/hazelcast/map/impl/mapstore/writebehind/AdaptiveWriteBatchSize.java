@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+/**
+ * Adapts the batch size of the parallel write-behind flush to the measured
+ * latency of the batch store calls.
+ * <p>
+ * The batch size starts at the configured write batch size, which is also
+ * its upper bound. It is halved when the average latency of a batch exceeds
+ * the target latency, and grows back in steps of a tenth of the upper bound
+ * when the average latency is below half of the target.
+ */
+class AdaptiveWriteBatchSize {
+
+    private static final int INCREASE_STEPS = 10;
+
+    private final int maxBatchSize;
+    private final int increaseStep;
+    private final long targetLatencyNanos;
+    private volatile int batchSize;
+
+    AdaptiveWriteBatchSize(int maxBatchSize, long targetLatencyNanos) {
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        this.increaseStep = Math.max(this.maxBatchSize / INCREASE_STEPS, 1);
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.batchSize = this.maxBatchSize;
+    }
+
+    int get() {
+        return batchSize;
+    }
+
+    /**
+     * Updates the batch size with the duration of a flush.
+     *
+     * @param entryCount   number of the flushed entries
+     * @param usedSize     the batch size the entries were flushed with
+     * @param elapsedNanos duration of the flush
+     */
+    synchronized void update(int entryCount, int usedSize, long elapsedNanos) {
+        if (entryCount == 0 || maxBatchSize == 1) {
+            return;
+        }
+        int batchCount = (entryCount + usedSize - 1) / usedSize;
+        long batchLatencyNanos = elapsedNanos / batchCount;
+        if (batchLatencyNanos > targetLatencyNanos) {
+            batchSize = Math.max(batchSize / 2, 1);
+        } else if (batchLatencyNanos < targetLatencyNanos / 2 && entryCount >= usedSize && usedSize == batchSize) {
+            // only the full batches of the current size tell that it can grow
+            batchSize = Math.min(batchSize + increaseStep, maxBatchSize);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.mapstore.writebehind;
 
 import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
@@ -33,10 +34,16 @@ import com.hazelcast.internal.util.Clock;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_WRITE_BEHIND_EXECUTOR;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_WRITE_BEHIND_FLUSH_PARALLELISM;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_WRITE_BEHIND_FLUSH_TARGET_BATCH_LATENCY_MILLIS;
 import static java.lang.Thread.currentThread;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -45,7 +52,12 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * That thread uses this runnable task to process write-behind-queues. This task collects entries from
  * write behind queues and passes them to {@link #writeBehindProcessor}.
  * <p>
- * Only one {@link StoreWorker} task is created for a map on a member.
+ * Only one {@link StoreWorker} task is created for a map on a member. When the
+ * {@link com.hazelcast.spi.properties.GroupProperty#MAP_WRITE_BEHIND_FLUSH_PARALLELISM}
+ * is greater than 1, it splits the entries of the owned partitions into that many
+ * contiguous ranges of partitions and stores the ranges in parallel on the
+ * {@link ExecutionService#MAP_WRITE_BEHIND_EXECUTOR} executor, with a batch size
+ * adapted to the latency of the store, see {@link AdaptiveWriteBatchSize}.
  */
 public class StoreWorker implements Runnable {
     private final String mapName;
@@ -53,6 +65,9 @@ public class StoreWorker implements Runnable {
     private final IPartitionService partitionService;
     private final ExecutionService executionService;
     private final WriteBehindProcessor writeBehindProcessor;
+    private final ILogger logger;
+    private final int flushParallelism;
+    private final AdaptiveWriteBatchSize writeBatchSize;
     /**
      * Run on backup nodes after this interval.
      */
@@ -79,6 +94,12 @@ public class StoreWorker implements Runnable {
         this.lastHighestStoreTime = Clock.currentTimeMillis();
         this.writeDelayMillis = SECONDS.toMillis(getWriteDelaySeconds(mapStoreContext));
         this.partitionCount = partitionService.getPartitionCount();
+        this.logger = nodeEngine.getLogger(StoreWorker.class);
+        HazelcastProperties properties = nodeEngine.getProperties();
+        this.flushParallelism = Math.min(Math.max(properties.getInteger(MAP_WRITE_BEHIND_FLUSH_PARALLELISM), 1),
+                partitionCount);
+        this.writeBatchSize = new AdaptiveWriteBatchSize(mapStoreContext.getMapStoreConfig().getWriteBatchSize(),
+                properties.getNanos(MAP_WRITE_BEHIND_FLUSH_TARGET_BATCH_LATENCY_MILLIS));
     }
 
 
@@ -144,7 +165,9 @@ public class StoreWorker implements Runnable {
         }
 
         if (!isEmpty(ownersList)) {
-            Map<Integer, List<DelayedEntry>> failuresPerPartition = writeBehindProcessor.process(ownersList);
+            Map<Integer, List<DelayedEntry>> failuresPerPartition = flushParallelism > 1
+                    ? processInParallel(ownersList)
+                    : writeBehindProcessor.process(ownersList);
             removeFinishedStoreOperationsFromQueues(mapName, ownersList);
             reAddFailedStoreOperationsToQueues(mapName, failuresPerPartition);
         }
@@ -157,6 +180,65 @@ public class StoreWorker implements Runnable {
 
     }
 
+    /**
+     * Stores the entries of each range of partitions in a separate task and
+     * waits for all of them. The entries of a key stay in the same task, so
+     * their store order is preserved.
+     *
+     * @param entries entries of the owned partitions to be stored.
+     * @return failed store operations per partition.
+     */
+    private Map<Integer, List<DelayedEntry>> processInParallel(List<DelayedEntry> entries) {
+        List<List<DelayedEntry>> entriesPerRange = new ArrayList<>(flushParallelism);
+        for (int i = 0; i < flushParallelism; i++) {
+            entriesPerRange.add(new ArrayList<>());
+        }
+        for (DelayedEntry entry : entries) {
+            int range = (int) ((long) entry.getPartitionId() * flushParallelism / partitionCount);
+            entriesPerRange.get(range).add(entry);
+        }
+
+        int batchSize = writeBatchSize.get();
+        List<List<DelayedEntry>> submittedRanges = new ArrayList<>(flushParallelism);
+        List<Future<Map<Integer, List<DelayedEntry>>>> futures = new ArrayList<>(flushParallelism);
+        for (List<DelayedEntry> rangeEntries : entriesPerRange) {
+            if (!rangeEntries.isEmpty()) {
+                submittedRanges.add(rangeEntries);
+                futures.add(executionService.submit(MAP_WRITE_BEHIND_EXECUTOR, () -> processRange(rangeEntries, batchSize)));
+            }
+        }
+
+        Map<Integer, List<DelayedEntry>> failuresPerPartition = new HashMap<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                failuresPerPartition.putAll(futures.get(i).get());
+            } catch (InterruptedException e) {
+                currentThread().interrupt();
+                // the entries of the unfinished ranges are retried, they may be stored twice
+                addAllToFailures(failuresPerPartition, submittedRanges.get(i));
+            } catch (ExecutionException e) {
+                logger.warning("Could not store the write-behind entries of map " + mapName, e.getCause());
+                addAllToFailures(failuresPerPartition, submittedRanges.get(i));
+            }
+        }
+        return failuresPerPartition;
+    }
+
+    private Map<Integer, List<DelayedEntry>> processRange(List<DelayedEntry> entries, int batchSize) {
+        long startNanos = System.nanoTime();
+        try {
+            return writeBehindProcessor.process(entries, batchSize);
+        } finally {
+            writeBatchSize.update(entries.size(), batchSize, System.nanoTime() - startNanos);
+        }
+    }
+
+    private static void addAllToFailures(Map<Integer, List<DelayedEntry>> failuresPerPartition, List<DelayedEntry> entries) {
+        for (DelayedEntry entry : entries) {
+            failuresPerPartition.computeIfAbsent(entry.getPartitionId(), k -> new ArrayList<>()).add(entry);
+        }
+    }
+
     private static List<DelayedEntry> initListIfNull(List<DelayedEntry> list, int capacity) {
         if (list == null) {
             list = new ArrayList<>(capacity);
@@ -36,6 +36,17 @@ public interface WriteBehindProcessor<E> {
      */
     Map<Integer, List<E>> process(List<E> delayedEntries);
 
+    /**
+     * Process store operations in batches of the supplied size, instead of
+     * the configured write batch size, and returns failed operation per
+     * partition map.
+     *
+     * @param delayedEntries to be written to store.
+     * @param batchSize      maximum number of entries passed to a batch store call.
+     * @return failed store operations per partition.
+     */
+    Map<Integer, List<E>> process(List<E> delayedEntries, int batchSize);
+
     void callAfterStoreListeners(Collection<E> entries);
 
     void callBeforeStoreListeners(Collection<E> entries);
@@ -64,7 +64,7 @@ public class MapNearCacheManager extends DefaultNearCacheManager {
     public MapNearCacheManager(MapServiceContext mapServiceContext) {
         super(mapServiceContext.getNodeEngine().getSerializationService(),
                 mapServiceContext.getNodeEngine().getExecutionService().getGlobalTaskScheduler(),
-                null, mapServiceContext.getNodeEngine().getProperties());
+                null, mapServiceContext.getNodeEngine().getProperties(), mapServiceContext.getNativeMemoryManager());
         this.nodeEngine = mapServiceContext.getNodeEngine();
         this.mapServiceContext = mapServiceContext;
         this.partitionService = new MemberMinimalPartitionService(nodeEngine.getPartitionService());
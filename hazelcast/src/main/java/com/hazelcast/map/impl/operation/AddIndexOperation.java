@@ -19,26 +19,20 @@ package com.hazelcast.map.impl.operation;
 import com.hazelcast.config.IndexConfig;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.MapService;
-import com.hazelcast.map.impl.record.Record;
-import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.recordstore.RecordStoreAdapter;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
-import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.IndexUtils;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.InternalIndex;
-import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
 import com.hazelcast.spi.impl.operationservice.MutatingOperation;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
-import com.hazelcast.internal.serialization.SerializationService;
-import com.hazelcast.internal.util.Clock;
 
 import java.io.IOException;
-import java.util.Iterator;
 
 public class AddIndexOperation extends MapOperation implements PartitionAwareOperation, MutatingOperation,
     BackupAwareOperation {
@@ -91,24 +85,10 @@ public class AddIndexOperation extends MapOperation implements PartitionAwareOpe
             return;
         }
 
-        final long now = getNow();
-        @SuppressWarnings("unchecked")
-        final Iterator<Record> iterator = recordStore.iterator(now, false);
-        SerializationService serializationService = getNodeEngine().getSerializationService();
-        while (iterator.hasNext()) {
-            final Record record = iterator.next();
-            Data key = record.getKey();
-            Object value = Records.getValueOrCachedValue(record, serializationService);
-            QueryableEntry queryEntry = mapContainer.newQueryEntry(key, value);
-            queryEntry.setRecord(record);
-            queryEntry.setStoreAdapter(recordStoreAdapter);
-            index.putEntry(queryEntry, null, Index.OperationSource.USER);
-        }
-        index.markPartitionAsIndexed(partitionId);
-    }
-
-    private long getNow() {
-        return Clock.currentTimeMillis();
+        // large partitions are populated in the background, the index is not
+        // used by the queries until the population completes
+        PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
+        partitionContainer.populateIndexes(recordStore, new InternalIndex[]{index}, Index.OperationSource.USER);
     }
 
     @Override
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.ShardedMapLoader;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapShardLoader;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.AbstractNamedOperation;
+import com.hazelcast.spi.impl.operationservice.CallStatus;
+import com.hazelcast.spi.impl.operationservice.MutatingOperation;
+import com.hazelcast.spi.impl.operationservice.Offload;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Loads the shards of a {@link ShardedMapLoader} assigned to the target
+ * member and responds once all their entries have been put into the record
+ * stores.
+ *
+ * @see MapShardLoader
+ */
+public class LoadShardsOperation extends AbstractNamedOperation implements MutatingOperation {
+
+    private int[] shards;
+
+    public LoadShardsOperation() {
+    }
+
+    public LoadShardsOperation(String mapName, int[] shards) {
+        super(mapName);
+        this.shards = shards;
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public CallStatus call() {
+        return new OffloadImpl();
+    }
+
+    @Override
+    public void onExecutionFailure(Throwable e) {
+        // the response is sent by the offload, so it has to be sent here on a failure
+        sendResponse(e);
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeIntArray(shards);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        shards = in.readIntArray();
+    }
+
+    @Override
+    protected void toString(StringBuilder sb) {
+        super.toString(sb);
+
+        sb.append(", shards=").append(Arrays.toString(shards));
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.LOAD_SHARDS;
+    }
+
+    private final class OffloadImpl extends Offload {
+
+        private OffloadImpl() {
+            super(LoadShardsOperation.this);
+        }
+
+        @Override
+        public void start() {
+            try {
+                MapService mapService = getService();
+                MapShardLoader shardLoader = new MapShardLoader(mapService.getMapServiceContext(), name);
+                shardLoader.loadShards(shards).whenCompleteAsync((loadedEntries, throwable) ->
+                        sendResponse(throwable == null ? Boolean.TRUE : throwable));
+            } catch (Throwable t) {
+                sendResponse(t);
+            }
+        }
+    }
+}
@@ -29,8 +29,8 @@ import java.io.IOException;
 
 /**
  * Fetches by query a batch of {@code fetchSize} items from a single partition ID for a map. The query is run by the query
- * engine which means it supports projections and filtering. The {@code lastTableIndex} denotes the position from which
- * to resume the query on the partition.
+ * engine which means it supports projections and filtering. Selective queries are answered by the global indexes.
+ * The {@code lastTableIndex} denotes the position from which to resume the query on the partition.
  * This is an operation for maps configured with {@link InMemoryFormat#BINARY} or {{@link InMemoryFormat#OBJECT} format.
  *
  * @see com.hazelcast.map.impl.proxy.MapProxyImpl#iterator(int, int, com.hazelcast.projection.Projection,
@@ -57,7 +57,7 @@ public class MapFetchWithQueryOperation extends MapOperation implements Readonly
     @Override
     protected void runInternal() {
         final QueryRunner runner = mapServiceContext.getMapQueryRunner(query.getMapName());
-        response = runner.runPartitionScanQueryOnPartitionChunk(query, getPartitionId(), lastTableIndex, fetchSize);
+        response = runner.runIndexOrPartitionScanQueryOnPartitionChunk(query, getPartitionId(), lastTableIndex, fetchSize);
     }
 
     @Override
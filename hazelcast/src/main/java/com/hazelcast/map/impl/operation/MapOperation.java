@@ -30,6 +30,7 @@ import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.mapstore.writebehind.TxnReservedCapacityCounter;
 import com.hazelcast.map.impl.nearcache.MapNearCacheManager;
+import com.hazelcast.map.impl.query.QueryResultCache;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.memory.NativeOutOfMemoryError;
@@ -121,6 +122,7 @@ public abstract class MapOperation extends AbstractNamedOperation
     @Override
     public final void afterRun() throws Exception {
         afterRunInternal();
+        settleQueryResultCache();
         disposeDeferredBlocks();
         super.afterRun();
     }
@@ -139,6 +141,13 @@ public abstract class MapOperation extends AbstractNamedOperation
 
     }
 
+    private void settleQueryResultCache() {
+        QueryResultCache queryResultCache = mapContainer.getQueryResultCache();
+        if (queryResultCache != null && recordStore != null) {
+            queryResultCache.onPartitionOperationCompleted(getPartitionId());
+        }
+    }
+
     ILogger logger() {
         return getLogger();
     }
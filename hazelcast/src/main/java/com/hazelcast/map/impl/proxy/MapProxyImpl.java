@@ -32,6 +32,7 @@ import com.hazelcast.map.QueryCache;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.SimpleEntryView;
 import com.hazelcast.map.impl.iterator.MapPartitionIterator;
+import com.hazelcast.map.impl.iterator.MapQueryIterator;
 import com.hazelcast.map.impl.iterator.MapQueryPartitionIterator;
 import com.hazelcast.map.impl.journal.MapEventJournalReadOperation;
 import com.hazelcast.map.impl.journal.MapEventJournalSubscribeOperation;
@@ -911,6 +912,47 @@ public class MapProxyImpl<K, V> extends MapProxySupport<K, V> implements EventJo
         return new MapQueryPartitionIterator<>(this, fetchSize, partitionId, predicate, projection);
     }
 
+    /**
+     * Returns an iterator for iterating the result of the projection on all entries of the map which
+     * satisfy the {@code predicate}.
+     * <p>
+     * Unlike {@link #values(Predicate)} and {@link #entrySet(Predicate)}, the result is not materialized
+     * at once. The partitions are queried one after another and the results are fetched from the
+     * partition owners in batches, so the memory needed to run the query is bounded by the
+     * {@code fetchSize} rather than by the result size and the query is not subject to the query result
+     * size limit. See {@link #iterator(int, int, Projection, Predicate)} for the details on the
+     * {@code fetchSize}.
+     * Predicates of type {@link PagingPredicate} are not supported.
+     * <p>
+     * <b>NOTE</b>
+     * Iterating the map should be done only when the {@link IMap} is not being
+     * mutated and the cluster is stable (there are no migrations or membership changes).
+     * In other cases, the iterator may not return some entries or may return an entry twice.
+     *
+     * @param fetchSize  the size of the batches which will be sent when iterating the data
+     * @param projection the projection to apply before returning the value. {@code null} value is not allowed
+     * @param predicate  the predicate which the entries must match. {@code null} value is not allowed
+     * @param <R>        the return type
+     * @return the iterator for the projected entries
+     * @throws IllegalArgumentException if the predicate is of type {@link PagingPredicate}
+     */
+    @Override
+    public <R> Iterator<R> iterator(int fetchSize,
+                                    @Nonnull Projection<? super Map.Entry<K, V>, R> projection,
+                                    @Nonnull Predicate<K, V> predicate) {
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("Paging predicate is not allowed when iterating map by query");
+        }
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        // HazelcastInstanceAware handled by cloning
+        Projection<? super Map.Entry<K, V>, R> clonedProjection = serializationService.toObject(
+                serializationService.toData(projection));
+        handleHazelcastInstanceAwareParams(predicate);
+        return new MapQueryIterator<>(partitionService.getPartitionCount(),
+                partitionId -> new MapQueryPartitionIterator<>(this, fetchSize, partitionId, predicate, clonedProjection));
+    }
+
     @Override
     public CompletionStage<EventJournalInitialSubscriberState> subscribeToEventJournal(int partitionId) {
         final MapEventJournalSubscribeOperation op = new MapEventJournalSubscribeOperation(name);
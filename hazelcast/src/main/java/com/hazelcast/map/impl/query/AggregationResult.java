@@ -42,6 +42,7 @@ public class AggregationResult implements Result<AggregationResult> {
     private PartitionIdSet partitionIds;
 
     private final transient SerializationService serializationService;
+    private transient BatchAccumulator accumulator;
 
     public AggregationResult() {
         this.serializationService = null;
@@ -54,6 +55,7 @@ public class AggregationResult implements Result<AggregationResult> {
 
     @SuppressWarnings("unchecked")
     public <R> Aggregator<?, R> getAggregator() {
+        flush();
         return aggregator;
     }
 
@@ -73,11 +75,14 @@ public class AggregationResult implements Result<AggregationResult> {
         } else {
             partitionIds.addAll(otherPartitionIds);
         }
+        flush();
+        result.flush();
         aggregator.combine(result.aggregator);
     }
 
     @Override
     public void onCombineFinished() {
+        flush();
         if (aggregator != null) {
             aggregator.onCombinationFinished();
         }
@@ -85,7 +90,10 @@ public class AggregationResult implements Result<AggregationResult> {
 
     @Override
     public void add(QueryableEntry entry) {
-        aggregator.accumulate(entry);
+        if (accumulator == null) {
+            accumulator = new BatchAccumulator(aggregator);
+        }
+        accumulator.accumulate(entry);
     }
 
     @Override
@@ -96,12 +104,14 @@ public class AggregationResult implements Result<AggregationResult> {
 
     @Override
     public void orderAndLimit(PagingPredicate pagingPredicate, Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
-        // Do nothing, since there is no support of paging predicates for
-        // aggregations.
+        // There is no support of paging predicates for aggregations, just
+        // accumulate the entries batched by the partition scan.
+        flush();
     }
 
     @Override
     public void completeConstruction(PartitionIdSet partitionIds) {
+        flush();
         setPartitionIds(partitionIds);
     }
 
@@ -110,6 +120,12 @@ public class AggregationResult implements Result<AggregationResult> {
         this.partitionIds = new PartitionIdSet(partitionIds);
     }
 
+    private void flush() {
+        if (accumulator != null) {
+            accumulator.flush();
+        }
+    }
+
     @Override
     public int getFactoryId() {
         return MapDataSerializerHook.F_ID;
@@ -122,6 +138,7 @@ public class AggregationResult implements Result<AggregationResult> {
 
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
+        flush();
         writeNullablePartitionIdSet(partitionIds, out);
         out.writeObject(aggregator);
     }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.AbstractAggregator;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Arrays;
+
+/**
+ * Feeds entries to an aggregator in batches if the aggregator supports that,
+ * see {@link AbstractAggregator#accumulateBatch}; other aggregators receive
+ * the entries one by one.
+ * <p>
+ * The batched entries are retained until the batch is flushed, so the entries
+ * passed to the accumulator must not be reused by the caller.
+ * <p>
+ * Not thread-safe.
+ */
+final class BatchAccumulator {
+
+    static final int BATCH_SIZE = 1024;
+
+    private final Aggregator aggregator;
+    private final QueryableEntry[] batch;
+    private final Object[] values;
+    private int size;
+
+    BatchAccumulator(Aggregator aggregator) {
+        this.aggregator = aggregator;
+        if (aggregator instanceof AbstractAggregator) {
+            this.batch = new QueryableEntry[BATCH_SIZE];
+            this.values = new Object[BATCH_SIZE];
+        } else {
+            this.batch = null;
+            this.values = null;
+        }
+    }
+
+    /**
+     * Accumulates all the given entries into the given aggregator.
+     */
+    static void accumulate(Aggregator aggregator, Iterable<QueryableEntry> entries) {
+        BatchAccumulator accumulator = new BatchAccumulator(aggregator);
+        for (QueryableEntry entry : entries) {
+            accumulator.accumulate(entry);
+        }
+        accumulator.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    void accumulate(QueryableEntry entry) {
+        if (batch == null) {
+            aggregator.accumulate(entry);
+            return;
+        }
+
+        batch[size++] = entry;
+        if (size == batch.length) {
+            flush();
+        }
+    }
+
+    /**
+     * Accumulates the entries batched so far.
+     */
+    @SuppressWarnings("unchecked")
+    void flush() {
+        if (size == 0) {
+            return;
+        }
+
+        try {
+            ((AbstractAggregator) aggregator).accumulateBatch(batch, size, values);
+        } finally {
+            Arrays.fill(batch, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            size = 0;
+        }
+    }
+
+}
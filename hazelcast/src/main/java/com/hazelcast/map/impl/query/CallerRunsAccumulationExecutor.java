@@ -40,9 +40,7 @@ public class CallerRunsAccumulationExecutor implements AccumulationExecutor {
             Aggregator aggregator, Collection<QueryableEntry> entries, PartitionIdSet partitionIds) {
         Aggregator resultAggregator = serializationService.toObject(serializationService.toData(aggregator));
         try {
-            for (QueryableEntry entry : entries) {
-                resultAggregator.accumulate(entry);
-            }
+            BatchAccumulator.accumulate(resultAggregator, entries);
         } finally {
             resultAggregator.onAccumulationFinished();
         }
@@ -122,9 +122,7 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
         @Override
         public Aggregator call() throws Exception {
             try {
-                for (QueryableEntry entry : entries) {
-                    aggregator.accumulate(entry);
-                }
+                BatchAccumulator.accumulate(aggregator, entries);
             } finally {
                 aggregator.onAccumulationFinished();
             }
@@ -37,6 +37,7 @@ import com.hazelcast.query.impl.Metadata;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.ColumnarPredicateEvaluator;
 import com.hazelcast.query.impl.predicates.PagingPredicateImpl;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.OperationService;
@@ -51,12 +52,18 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import static com.hazelcast.internal.util.SortingUtil.compareAnchor;
+import static com.hazelcast.spi.properties.GroupProperty.QUERY_COLUMNAR_SCAN;
 
 /**
  * Responsible for running a full-partition scan for a single partition in the calling thread.
  */
 public class PartitionScanRunner {
 
+    /**
+     * The number of entries evaluated at once by the columnar scan.
+     */
+    static final int COLUMNAR_SCAN_BATCH_SIZE = 1024;
+
     protected final MapServiceContext mapServiceContext;
     protected final NodeEngine nodeEngine;
     protected final ILogger logger;
@@ -64,6 +71,7 @@ public class PartitionScanRunner {
     protected final IPartitionService partitionService;
     protected final OperationService operationService;
     protected final ClusterService clusterService;
+    protected final boolean columnarScan;
 
     public PartitionScanRunner(MapServiceContext mapServiceContext) {
         this.mapServiceContext = mapServiceContext;
@@ -73,6 +81,7 @@ public class PartitionScanRunner {
         this.logger = nodeEngine.getLogger(getClass());
         this.operationService = nodeEngine.getOperationService();
         this.clusterService = nodeEngine.getClusterService();
+        this.columnarScan = nodeEngine.getProperties().getBoolean(QUERY_COLUMNAR_SCAN);
     }
 
     @SuppressWarnings("unchecked")
@@ -83,26 +92,27 @@ public class PartitionScanRunner {
         MapContainer mapContainer = mapServiceContext.getMapContainer(mapName);
         RecordStore recordStore = partitionContainer.getRecordStore(mapName);
         Iterator<Record> iterator = recordStore.loadAwareIterator(getNow(), false);
-        Map.Entry<Integer, Map.Entry> nearestAnchorEntry =
-                pagingPredicate == null ? null : pagingPredicate.getNearestAnchorEntry();
         boolean useCachedValues = isUseCachedDeserializedValuesEnabled(mapContainer, partitionId);
         Extractors extractors = mapServiceContext.getExtractors(mapName);
-        LazyMapEntry queryEntry = new LazyMapEntry();
         StoreAdapter storeAdapter = new RecordStoreAdapter(recordStore);
+
+        ColumnarPredicateEvaluator columnarEvaluator = columnarScan && pagingPredicate == null
+                ? ColumnarPredicateEvaluator.compile(predicate, COLUMNAR_SCAN_BATCH_SIZE) : null;
+        if (columnarEvaluator != null) {
+            runColumnar(columnarEvaluator, recordStore, iterator, useCachedValues, extractors, storeAdapter, result);
+            result.orderAndLimit(null, null);
+            return;
+        }
+
+        Map.Entry<Integer, Map.Entry> nearestAnchorEntry =
+                pagingPredicate == null ? null : pagingPredicate.getNearestAnchorEntry();
+        LazyMapEntry queryEntry = new LazyMapEntry();
         while (iterator.hasNext()) {
             Record record = iterator.next();
-            Data key = (Data) toData(record.getKey());
-            Metadata metadata = getMetadataFromRecord(recordStore, record);
-            Object value = toData(
-                    useCachedValues ? Records.getValueOrCachedValue(record, serializationService) : record.getValue());
-            if (value == null) {
+            if (!initQueryEntry(queryEntry, recordStore, record, useCachedValues, extractors, storeAdapter)) {
                 continue;
             }
 
-            queryEntry.init(serializationService, key, value, extractors);
-            queryEntry.setMetadata(metadata);
-            queryEntry.setRecord(record);
-            queryEntry.setStoreAdapter(storeAdapter);
             boolean valid = predicate.apply(queryEntry);
             if (valid && compareAnchor(pagingPredicate, queryEntry, nearestAnchorEntry)) {
                 result.add(queryEntry);
@@ -115,6 +125,64 @@ public class PartitionScanRunner {
         result.orderAndLimit(pagingPredicate, nearestAnchorEntry);
     }
 
+    /**
+     * Scans the records in batches, the predicate is evaluated for every
+     * batch at once by the given columnar evaluator.
+     */
+    @SuppressWarnings({"unchecked", "checkstyle:parameternumber"})
+    private void runColumnar(ColumnarPredicateEvaluator evaluator, RecordStore recordStore, Iterator<Record> iterator,
+                             boolean useCachedValues, Extractors extractors, StoreAdapter storeAdapter, Result result) {
+        LazyMapEntry[] batch = new LazyMapEntry[COLUMNAR_SCAN_BATCH_SIZE];
+        boolean[] matches = new boolean[COLUMNAR_SCAN_BATCH_SIZE];
+        int size = 0;
+        while (iterator.hasNext()) {
+            LazyMapEntry queryEntry = batch[size];
+            if (queryEntry == null) {
+                queryEntry = new LazyMapEntry();
+                batch[size] = queryEntry;
+            }
+            if (initQueryEntry(queryEntry, recordStore, iterator.next(), useCachedValues, extractors, storeAdapter)
+                    && ++size == batch.length) {
+                addMatches(evaluator, batch, size, matches, result);
+                size = 0;
+            }
+        }
+        if (size > 0) {
+            addMatches(evaluator, batch, size, matches, result);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addMatches(ColumnarPredicateEvaluator evaluator, LazyMapEntry[] batch, int size, boolean[] matches,
+                                   Result result) {
+        evaluator.evaluate(batch, size, matches);
+        for (int i = 0; i < size; ++i) {
+            if (matches[i]) {
+                result.add(batch[i]);
+
+                // We can't reuse the entries added to the result.
+                batch[i] = null;
+            }
+        }
+    }
+
+    private boolean initQueryEntry(LazyMapEntry queryEntry, RecordStore recordStore, Record record, boolean useCachedValues,
+                                   Extractors extractors, StoreAdapter storeAdapter) {
+        Data key = (Data) toData(record.getKey());
+        Metadata metadata = getMetadataFromRecord(recordStore, record);
+        Object value = toData(
+                useCachedValues ? Records.getValueOrCachedValue(record, serializationService) : record.getValue());
+        if (value == null) {
+            return false;
+        }
+
+        queryEntry.init(serializationService, key, value, extractors);
+        queryEntry.setMetadata(metadata);
+        queryEntry.setRecord(record);
+        queryEntry.setStoreAdapter(storeAdapter);
+        return true;
+    }
+
     // overridden in ee
     protected Metadata getMetadataFromRecord(RecordStore recordStore, Record record) {
         return record.getMetadata();
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.util.collection.PartitionIdSet;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Holds the results of the global index queries run for the partition
+ * iterators, grouped by the owned partitions of the member.
+ * <p>
+ * An iterator fetches the partitions one by one, while a global index
+ * answers a query for all the owned partitions at once. The first partition
+ * fetched on a member runs the index query, the rest of the owned partitions
+ * take their entries from its result instead of repeating the member-wide
+ * lookup. Every partition takes its entries once, the result is dropped when
+ * all the partitions have taken theirs, when the partitions migrate or when
+ * it gets older than {@link #MAX_AGE_NANOS}. The iterators are weakly
+ * consistent, so a partition may be served the entries it had when the
+ * index query ran.
+ */
+class PartitionedIndexResults {
+
+    private static final long MAX_AGE_NANOS = SECONDS.toNanos(30);
+    private static final int MAX_RESULT_COUNT = 64;
+
+    private final ConcurrentMap<Data, PartitionedResult> results = new ConcurrentHashMap<>();
+
+    /**
+     * Takes the entries of the given partition from the result of the given
+     * query.
+     *
+     * @return the entries of the partition or {@code null} if there is no
+     * result the partition can take its entries from.
+     */
+    List<QueryableEntry> take(Data queryKey, int partitionId, int migrationStamp) {
+        PartitionedResult result = results.get(queryKey);
+        if (result == null) {
+            return null;
+        }
+        if (result.migrationStamp != migrationStamp || System.nanoTime() - result.creationNanos > MAX_AGE_NANOS) {
+            results.remove(queryKey, result);
+            return null;
+        }
+
+        List<QueryableEntry> entries;
+        boolean taken;
+        synchronized (result) {
+            taken = result.pendingPartitions.remove(partitionId);
+            entries = result.entriesPerPartition.remove(partitionId);
+            if (result.pendingPartitions.isEmpty()) {
+                results.remove(queryKey, result);
+            }
+        }
+        if (!taken) {
+            return null;
+        }
+        return entries == null ? Collections.emptyList() : entries;
+    }
+
+    /**
+     * Groups the entries of the query result by partition and keeps them for
+     * the given pending partitions, which are the owned partitions except the
+     * one the result was computed for.
+     */
+    void put(Data queryKey, Map<Integer, List<QueryableEntry>> entriesPerPartition, PartitionIdSet pendingPartitions,
+             int migrationStamp) {
+        if (pendingPartitions.isEmpty()) {
+            return;
+        }
+        if (results.size() >= MAX_RESULT_COUNT) {
+            removeStaleResults();
+            if (results.size() >= MAX_RESULT_COUNT) {
+                // abandoned iterations are not expected to pile up, the partitions run the index query themselves
+                return;
+            }
+        }
+        results.put(queryKey, new PartitionedResult(new HashMap<>(entriesPerPartition), pendingPartitions, migrationStamp));
+    }
+
+    private void removeStaleResults() {
+        long now = System.nanoTime();
+        results.values().removeIf(result -> now - result.creationNanos > MAX_AGE_NANOS);
+    }
+
+    private static final class PartitionedResult {
+
+        // guarded by this
+        final Map<Integer, List<QueryableEntry>> entriesPerPartition;
+        // guarded by this
+        final PartitionIdSet pendingPartitions;
+        final int migrationStamp;
+        final long creationNanos = System.nanoTime();
+
+        PartitionedResult(Map<Integer, List<QueryableEntry>> entriesPerPartition, PartitionIdSet pendingPartitions,
+                          int migrationStamp) {
+            this.entriesPerPartition = entriesPerPartition;
+            this.pendingPartitions = pendingPartitions;
+            this.migrationStamp = migrationStamp;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Member-local cache of the query results of a single map.
+ * <p>
+ * The results are keyed by the serialized query and stored in their
+ * serialized form, so every hit produces a fresh result instance which may
+ * be freely mutated by the caller.
+ * <p>
+ * Every partition has a mutation stamp incremented on every mutation of the
+ * partition, see {@link #onPartitionMutated}. A cached result remembers the
+ * sum of the stamps of the partitions it was computed for and becomes stale
+ * once the sum changes. Stale results are dropped lazily on access or by the
+ * LRU eviction, so the mutations never touch the cached results themselves.
+ * <p>
+ * The cache is bounded by both the number of the cached results and their
+ * total serialized size. The results larger than a fraction of the size
+ * bound are not cached at all: their size is estimated from the serialized
+ * keys and values they hold, so they are rejected without serializing them.
+ * <p>
+ * The mutations are reported before they are fully applied, for instance
+ * before the indexes are updated, so the stamp is incremented once again
+ * after the operation applying them completes, see {@link
+ * #onPartitionOperationCompleted}. This way the results computed while the
+ * mutations are in progress never look up-to-date.
+ * <p>
+ * Thread-safe.
+ */
+public final class QueryResultCache {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    /**
+     * A single result may take at most this fraction of the size bound, so
+     * a single large result can't evict the rest of the cache.
+     */
+    private static final int MAX_RESULT_SIZE_FRACTION = 8;
+
+    private final int capacity;
+    private final long maxSizeInBytes;
+    private final long maxResultSizeInBytes;
+    private final AtomicLongArray mutationStamps;
+    private final AtomicIntegerArray unsettledPartitions;
+    private final Map<Data, CachedResult> results;
+    private final Counter hits = newMwCounter();
+    private final Counter misses = newMwCounter();
+    // guarded by results
+    private long sizeInBytes;
+
+    public QueryResultCache(int capacity, long maxSizeInBytes, int partitionCount) {
+        this.capacity = capacity;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.maxResultSizeInBytes = maxSizeInBytes / MAX_RESULT_SIZE_FRACTION;
+        this.mutationStamps = new AtomicLongArray(partitionCount);
+        this.unsettledPartitions = new AtomicIntegerArray(partitionCount);
+        this.results = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    }
+
+    /**
+     * Invalidates the cached results computed for the given partition.
+     */
+    public void onPartitionMutated(int partitionId) {
+        mutationStamps.incrementAndGet(partitionId);
+        unsettledPartitions.set(partitionId, 1);
+    }
+
+    /**
+     * Invalidates the cached results computed for the given partition once
+     * again if the partition was mutated by the completed operation.
+     */
+    public void onPartitionOperationCompleted(int partitionId) {
+        if (unsettledPartitions.get(partitionId) != 0 && unsettledPartitions.compareAndSet(partitionId, 1, 0)) {
+            mutationStamps.incrementAndGet(partitionId);
+        }
+    }
+
+    /**
+     * @return the current mutation stamp of the given partitions, must be
+     * obtained before the query runs to detect the concurrent mutations.
+     */
+    long getMutationStamp(Iterable<Integer> partitions) {
+        long stamp = 0;
+        for (int partitionId : partitions) {
+            stamp += mutationStamps.get(partitionId);
+        }
+        return stamp;
+    }
+
+    /**
+     * Looks up the result of the given query.
+     *
+     * @param key            the serialized query.
+     * @param migrationStamp the current migration stamp.
+     * @param mutationStamp  the current mutation stamp of the owned partitions.
+     * @return the serialized result or {@code null} if there is no up-to-date
+     * result cached.
+     */
+    Data get(Data key, int migrationStamp, long mutationStamp) {
+        Data result = null;
+        synchronized (results) {
+            CachedResult cached = results.get(key);
+            if (cached != null) {
+                if (cached.migrationStamp == migrationStamp && cached.mutationStamp == mutationStamp) {
+                    result = cached.result;
+                } else {
+                    results.remove(key);
+                    sizeInBytes -= cached.sizeInBytes;
+                }
+            }
+        }
+
+        if (result == null) {
+            misses.inc();
+        } else {
+            hits.inc();
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the given result may be cached before it's serialized.
+     *
+     * @return {@code false} if the estimated serialized size of the result
+     * exceeds the maximum size of a single cached result, {@code true}
+     * otherwise.
+     */
+    boolean accepts(Result result) {
+        if (!(result instanceof QueryResult)) {
+            // the rest of the results are aggregations, their size is not proportional to the map size
+            return true;
+        }
+
+        long estimate = 0;
+        for (Object row : ((QueryResult) result).getRows()) {
+            if (!(row instanceof QueryResultRow)) {
+                // not converted to the serialized form yet, rely on the check of the serialized result
+                return true;
+            }
+            QueryResultRow resultRow = (QueryResultRow) row;
+            estimate += heapCost(resultRow.getKey()) + heapCost(resultRow.getValue());
+            if (estimate > maxResultSizeInBytes) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Caches the result of the given query computed at the given stamps,
+     * unless the result exceeds the maximum size of a single cached result.
+     */
+    void put(Data key, Data result, int migrationStamp, long mutationStamp) {
+        CachedResult cached = new CachedResult(result, migrationStamp, mutationStamp,
+                heapCost(key) + heapCost(result));
+        if (cached.sizeInBytes > maxResultSizeInBytes) {
+            return;
+        }
+
+        synchronized (results) {
+            CachedResult previous = results.put(key, cached);
+            if (previous != null) {
+                sizeInBytes -= previous.sizeInBytes;
+            }
+            sizeInBytes += cached.sizeInBytes;
+            evict();
+        }
+    }
+
+    /**
+     * Evicts the least recently used results until the cache fits into its
+     * bounds.
+     */
+    private void evict() {
+        Iterator<CachedResult> iterator = results.values().iterator();
+        while ((results.size() > capacity || sizeInBytes > maxSizeInBytes) && iterator.hasNext()) {
+            sizeInBytes -= iterator.next().sizeInBytes;
+            iterator.remove();
+        }
+    }
+
+    private static long heapCost(Data data) {
+        return data == null ? 0 : data.getHeapCost();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static final class CachedResult {
+
+        final Data result;
+        final int migrationStamp;
+        final long mutationStamp;
+        final long sizeInBytes;
+
+        CachedResult(Data result, int migrationStamp, long mutationStamp, long sizeInBytes) {
+            this.result = result;
+            this.migrationStamp = migrationStamp;
+            this.mutationStamp = mutationStamp;
+            this.sizeInBytes = sizeInBytes;
+        }
+
+    }
+
+}
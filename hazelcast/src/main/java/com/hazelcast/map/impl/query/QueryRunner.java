@@ -16,24 +16,44 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.AbstractAggregator;
+import com.hazelcast.aggregation.impl.CountAggregator;
+import com.hazelcast.aggregation.impl.MaxAggregator;
+import com.hazelcast.aggregation.impl.MinAggregator;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.LocalMapStatsProvider;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryContext.IndexMatchHint;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.predicates.QueryOptimizer;
+import com.hazelcast.query.impl.predicates.SelectivityVisitor;
+import com.hazelcast.query.impl.predicates.TruePredicate;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.partition.IPartitionService;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static com.hazelcast.internal.util.SetUtil.singletonPartitionIdSet;
+import static com.hazelcast.query.impl.IndexUtils.canonicalizeAttribute;
 
 /**
  * Runs query operations in the calling thread (thus blocking it)
@@ -56,6 +76,7 @@ public class QueryRunner {
     protected final ResultProcessorRegistry resultProcessorRegistry;
 
     private final int partitionCount;
+    private final PartitionedIndexResults partitionedIndexResults = new PartitionedIndexResults();
 
     public QueryRunner(MapServiceContext mapServiceContext,
                        QueryOptimizer optimizer,
@@ -98,6 +119,97 @@ public class QueryRunner {
         return new ResultSegment(result, entries.getNextTableIndexToReadFrom());
     }
 
+    /**
+     * Runs a query on a chunk of a single partition like
+     * {@link #runPartitionScanQueryOnPartitionChunk}, but answers the first
+     * chunk of the partition using a global index if the index estimates at
+     * most {@code fetchSize} matching entries on this member. In that case all
+     * the matching entries of the partition are returned in a single chunk, so
+     * a selective indexed query costs a single index lookup per member
+     * instead of a scan of every partition, see {@link PartitionedIndexResults}.
+     * <p>
+     * Must be run on the partition thread of the given partition.
+     *
+     * @param query       the query
+     * @param partitionId the partition which is queried
+     * @param tableIndex  the index at which to start querying
+     * @param fetchSize   the soft limit for the number of items to be queried
+     * @return the queried entries along with the next {@code tableIndex} to resume querying
+     */
+    public ResultSegment runIndexOrPartitionScanQueryOnPartitionChunk(Query query, int partitionId, int tableIndex,
+                                                                      int fetchSize) {
+        // the iteration of a partition starts from the highest table index
+        if (tableIndex == Integer.MAX_VALUE) {
+            ResultSegment segment = runIndexQueryOnPartition(query, partitionId, fetchSize);
+            if (segment != null) {
+                return segment;
+            }
+        }
+        return runPartitionScanQueryOnPartitionChunk(query, partitionId, tableIndex, fetchSize);
+    }
+
+    private ResultSegment runIndexQueryOnPartition(Query query, int partitionId, int fetchSize) {
+        MapContainer mapContainer = mapServiceContext.getMapContainer(query.getMapName());
+        Indexes indexes = mapContainer.getIndexes();
+        if (indexes == null || !indexes.isGlobal()) {
+            return null;
+        }
+        Predicate predicate = queryOptimizer.optimize(query.getPredicate(), indexes);
+        long estimate = SelectivityVisitor.estimateRecordCount(predicate, indexes);
+        if (estimate == SelectivityVisitor.UNKNOWN || estimate > fetchSize) {
+            return null;
+        }
+
+        int migrationStamp = getMigrationStamp();
+        Data queryKey = toQueryKey(query);
+        List<QueryableEntry> partitionEntries = queryKey == null
+                ? null : partitionedIndexResults.take(queryKey, partitionId, migrationStamp);
+        if (partitionEntries == null) {
+            partitionEntries = runUsingGlobalIndexOnPartitionSafely(predicate, mapContainer, partitionId, queryKey,
+                    migrationStamp);
+            if (partitionEntries == null) {
+                return null;
+            }
+        }
+
+        ResultProcessor processor = resultProcessorRegistry.get(query.getResultType());
+        Result result = processor.populateResult(query, Long.MAX_VALUE, partitionEntries,
+                singletonPartitionIdSet(partitionCount, partitionId));
+        // the partition is done, there is nothing to resume from
+        return new ResultSegment(result, -1);
+    }
+
+    /**
+     * Runs the member-wide global index query and returns the entries of the
+     * given partition. The entries of the rest of the owned partitions are
+     * kept in {@link #partitionedIndexResults}, so their iteration doesn't
+     * repeat the index query.
+     */
+    private List<QueryableEntry> runUsingGlobalIndexOnPartitionSafely(Predicate predicate, MapContainer mapContainer,
+                                                                      int partitionId, Data queryKey,
+                                                                      int migrationStamp) {
+        PartitionIdSet ownedPartitions = mapServiceContext.getOwnedPartitions();
+        Collection<QueryableEntry> entries = runUsingGlobalIndexSafely(predicate, mapContainer, migrationStamp);
+        if (entries == null) {
+            return null;
+        }
+
+        IPartitionService partitionService = nodeEngine.getPartitionService();
+        Map<Integer, List<QueryableEntry>> entriesPerPartition = new HashMap<>();
+        for (QueryableEntry entry : entries) {
+            entriesPerPartition.computeIfAbsent(partitionService.getPartitionId(entry.getKeyData()),
+                    k -> new ArrayList<>()).add(entry);
+        }
+        List<QueryableEntry> partitionEntries = entriesPerPartition.remove(partitionId);
+
+        if (queryKey != null && validateMigrationStamp(migrationStamp)) {
+            PartitionIdSet pendingPartitions = new PartitionIdSet(ownedPartitions);
+            pendingPartitions.remove(partitionId);
+            partitionedIndexResults.put(queryKey, entriesPerPartition, pendingPartitions, migrationStamp);
+        }
+        return partitionEntries == null ? Collections.emptyList() : partitionEntries;
+    }
+
     // MIGRATION SAFE QUERYING -> MIGRATION STAMPS ARE VALIDATED (does not have to run on a partition thread)
     // full query = index query (if possible), then partition-scan query
     public Result runIndexOrPartitionScanQueryOnOwnedPartitions(Query query) {
@@ -105,6 +217,31 @@ public class QueryRunner {
         PartitionIdSet initialPartitions = mapServiceContext.getOwnedPartitions();
         MapContainer mapContainer = mapServiceContext.getMapContainer(query.getMapName());
 
+        QueryResultCache queryResultCache = mapContainer.getQueryResultCache();
+        Data cacheKey = queryResultCache == null ? null : toQueryKey(query);
+        if (cacheKey == null) {
+            return runIndexOrPartitionScanQuery(query, mapContainer, initialPartitions, migrationStamp);
+        }
+
+        // the stamp must be obtained before the query runs to detect the concurrent mutations
+        long mutationStamp = queryResultCache.getMutationStamp(initialPartitions);
+        if (validateMigrationStamp(migrationStamp)) {
+            Data cachedResult = queryResultCache.get(cacheKey, migrationStamp, mutationStamp);
+            if (cachedResult != null) {
+                return serializationService.toObject(cachedResult);
+            }
+        }
+
+        Result result = runIndexOrPartitionScanQuery(query, mapContainer, initialPartitions, migrationStamp);
+        if (initialPartitions.equals(result.getPartitionIds()) && !hasExpirableEntries(mapContainer, initialPartitions)
+                && queryResultCache.accepts(result) && validateMigrationStamp(migrationStamp)) {
+            queryResultCache.put(cacheKey, serializationService.toData(result), migrationStamp, mutationStamp);
+        }
+        return result;
+    }
+
+    private Result runIndexOrPartitionScanQuery(Query query, MapContainer mapContainer, PartitionIdSet initialPartitions,
+                                                int migrationStamp) {
         // to optimize the query we need to get any index instance
         Indexes indexes = mapContainer.getIndexes();
         if (indexes == null) {
@@ -113,10 +250,20 @@ public class QueryRunner {
         // first we optimize the query
         Predicate predicate = queryOptimizer.optimize(query.getPredicate(), indexes);
 
+        // aggregations of the whole map may be answered by an index or the record store sizes alone
+        Result result = runAggregationUsingGlobalIndexSafely(query, predicate, mapContainer, initialPartitions,
+                migrationStamp);
+        if (result == null) {
+            result = runCountUsingRecordStoreSizesSafely(query, predicate, mapContainer, initialPartitions,
+                    migrationStamp);
+        }
+        if (result != null) {
+            return result;
+        }
+
         // then we try to run using an index, but if that doesn't work, we'll try a full table scan
         Collection<QueryableEntry> entries = runUsingGlobalIndexSafely(predicate, mapContainer, migrationStamp);
 
-        Result result;
         if (entries == null) {
             result = runUsingPartitionScanSafely(query, predicate, initialPartitions, migrationStamp);
             if (result == null) {
@@ -254,6 +401,93 @@ public class QueryRunner {
         return null;
     }
 
+    /**
+     * Answers the min and max aggregations of the whole map using the entries
+     * having the boundary values in an ordered global index on the aggregated
+     * attribute, no entries are scanned.
+     *
+     * @return the result of the aggregation or {@code null} if the
+     * aggregation can't be answered by an index.
+     */
+    protected Result runAggregationUsingGlobalIndexSafely(Query query, Predicate predicate, MapContainer mapContainer,
+                                                          PartitionIdSet partitions, int migrationStamp) {
+        Aggregator aggregator = query.getAggregator();
+        if (!(predicate instanceof TruePredicate)
+                || !(aggregator instanceof MinAggregator || aggregator instanceof MaxAggregator)) {
+            return null;
+        }
+
+        String attributePath = ((AbstractAggregator) aggregator).getAttributePath();
+        InternalIndex index = attributePath == null ? null : matchOrderedGlobalIndex(attributePath, mapContainer, partitions);
+        if (index == null || !validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+
+        Set<QueryableEntry> entries = index.getBoundaryRecords(aggregator instanceof MaxAggregator);
+        if (entries == null || !validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+        return populateNonEmptyResult(query, entries, partitions);
+    }
+
+    /**
+     * Answers the count aggregation of the whole map using the sizes of the
+     * record stores, no entries are scanned. The counts of the predicates
+     * covered by an index are answered by the index already, the entries it
+     * returns are counted without deserializing them.
+     *
+     * @return the result of the aggregation or {@code null} if the
+     * aggregation can't be answered by the record store sizes.
+     */
+    protected Result runCountUsingRecordStoreSizesSafely(Query query, Predicate predicate, MapContainer mapContainer,
+                                                         PartitionIdSet partitions, int migrationStamp) {
+        Aggregator aggregator = query.getAggregator();
+        // the counts of an attribute skip the null values, the loaded and
+        // expirable entries may be not reflected by the sizes yet
+        if (!(predicate instanceof TruePredicate) || !(aggregator instanceof CountAggregator)
+                || ((CountAggregator) aggregator).getAttributePath() != null
+                || mapContainer.getMapStoreContext().isMapLoader() || hasExpirableEntries(mapContainer, partitions)
+                || !validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+
+        long count = 0;
+        for (int partitionId : partitions) {
+            RecordStore recordStore = mapServiceContext.getExistingRecordStore(partitionId, mapContainer.getName());
+            if (recordStore != null) {
+                count += recordStore.size();
+            }
+        }
+        if (!validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+
+        AggregationResult result = (AggregationResult) createResult(query, partitions);
+        ((CountAggregator) result.getAggregator()).accumulateCount(count);
+        result.completeConstruction(partitions);
+        return result;
+    }
+
+    private static InternalIndex matchOrderedGlobalIndex(String attributePath, MapContainer mapContainer,
+                                                         PartitionIdSet partitions) {
+        Indexes indexes = mapContainer.getIndexes();
+        if (indexes == null || !indexes.isGlobal()) {
+            return null;
+        }
+
+        InternalIndex index = indexes.matchIndex(canonicalizeAttribute(attributePath), IndexMatchHint.PREFER_ORDERED);
+        if (index == null || !index.isOrdered()) {
+            return null;
+        }
+        // the index may be still under construction
+        for (int partitionId : partitions) {
+            if (!index.hasPartitionIndexed(partitionId)) {
+                return null;
+            }
+        }
+        return index;
+    }
+
     protected Result runUsingPartitionScanSafely(Query query, Predicate predicate, PartitionIdSet partitions,
                                                  int migrationStamp) {
 
@@ -276,6 +510,35 @@ public class QueryRunner {
         return null;
     }
 
+    /**
+     * @return the serialized query or {@code null} if the query can't be
+     * serialized, for instance if it has a non-serializable predicate
+     * submitted locally.
+     */
+    private Data toQueryKey(Query query) {
+        try {
+            return serializationService.toData(query);
+        } catch (HazelcastSerializationException e) {
+            logger.finest("Results of a non-serializable query are not reused", e);
+            return null;
+        }
+    }
+
+    /**
+     * The results of the maps having expirable entries may change without any
+     * mutations, so they are never cached.
+     */
+    private boolean hasExpirableEntries(MapContainer mapContainer, PartitionIdSet partitions) {
+        String mapName = mapContainer.getName();
+        for (int partitionId : partitions) {
+            RecordStore recordStore = mapServiceContext.getExistingRecordStore(partitionId, mapName);
+            if (recordStore != null && recordStore.isExpirable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private int getMigrationStamp() {
         return mapServiceContext.getService().getMigrationStamp();
     }
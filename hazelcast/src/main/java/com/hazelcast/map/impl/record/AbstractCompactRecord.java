@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.Metadata;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_READER_WRITER;
+
+/**
+ * Base of the on-heap records. Keeps the fields every record needs.
+ * <p>
+ * Used directly by the records created when compact records are enabled
+ * and the map config needs neither the access hits (statistics disabled,
+ * no LFU eviction) nor the JSON metadata (metadata policy is {@code OFF}):
+ * {@link #getHits()} always returns {@code 0} and {@link #getMetadata()}
+ * always returns {@code null}.
+ * {@link AbstractRecord} adds both fields on top.
+ *
+ * @param <V> the type of the value of Record.
+ * @see Records#canUseCompactRecords
+ * @see com.hazelcast.spi.properties.GroupProperty#MAP_COMPACT_RECORDS_ENABLED
+ */
+@SuppressWarnings({"checkstyle:methodcount", "VolatileLongOrDoubleField"})
+abstract class AbstractCompactRecord<V> implements Record<V> {
+
+    private static final int NUMBER_OF_LONGS = 1;
+    private static final int NUMBER_OF_INTS = 5;
+
+    protected Data key;
+    protected int ttl;
+    protected int maxIdle;
+    protected long version;
+
+    private volatile int lastAccessTime = UNSET;
+    private volatile int lastUpdateTime = UNSET;
+    private int creationTime = UNSET;
+
+    AbstractCompactRecord() {
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        return DATA_RECORD_READER_WRITER;
+    }
+
+    @Override
+    public void setMetadata(Metadata metadata) {
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        return null;
+    }
+
+    @Override
+    public final long getVersion() {
+        return version;
+    }
+
+    @Override
+    public final void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(lastAccessTime);
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        this.lastAccessTime = stripBaseTime(lastAccessTime);
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(lastUpdateTime);
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        this.lastUpdateTime = stripBaseTime(lastUpdateTime);
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(creationTime);
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        this.creationTime = stripBaseTime(creationTime);
+    }
+
+    @Override
+    public int getHits() {
+        return 0;
+    }
+
+    @Override
+    public void setHits(int hits) {
+    }
+
+    @Override
+    public long getCost() {
+        return REFERENCE_COST_IN_BYTES
+                + (NUMBER_OF_LONGS * LONG_SIZE_IN_BYTES)
+                + (NUMBER_OF_INTS * INT_SIZE_IN_BYTES);
+    }
+
+    @Override
+    public Object getCachedValueUnsafe() {
+        return Record.NOT_CACHED;
+    }
+
+    @Override
+    public boolean casCachedValue(Object expectedValue, Object newValue) {
+        return true;
+    }
+
+    @Override
+    public Data getKey() {
+        return key;
+    }
+
+    @Override
+    public void setKey(Data key) {
+        this.key = key;
+    }
+
+    @Override
+    public final long getSequence() {
+        return UNSET;
+    }
+
+    @Override
+    public final void setSequence(long sequence) {
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return UNSET;
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        return UNSET;
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:booleanexpressioncomplexity")
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        AbstractCompactRecord<?> that = (AbstractCompactRecord<?>) o;
+        return ttl == that.ttl
+                && maxIdle == that.maxIdle
+                && version == that.version
+                && lastAccessTime == that.lastAccessTime
+                && lastUpdateTime == that.lastUpdateTime
+                && creationTime == that.creationTime
+                && key.equals(that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = key.hashCode();
+        result = 31 * result + ttl;
+        result = 31 * result + maxIdle;
+        result = 31 * result + (int) (version ^ (version >>> 32));
+        result = 31 * result + lastAccessTime;
+        result = 31 * result + lastUpdateTime;
+        result = 31 * result + creationTime;
+        return result;
+    }
+
+    @Override
+    public int getRawTtl() {
+        return ttl;
+    }
+
+    @Override
+    public int getRawMaxIdle() {
+        return maxIdle;
+    }
+
+    @Override
+    public int getRawCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public int getRawLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    @Override
+    public int getRawLastUpdateTime() {
+        return lastUpdateTime;
+    }
+
+    @Override
+    public void setRawTtl(int ttl) {
+        this.ttl = ttl;
+    }
+
+    @Override
+    public void setRawMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    @Override
+    public void setRawCreationTime(int creationTime) {
+        this.creationTime = creationTime;
+    }
+
+    @Override
+    public void setRawLastAccessTime(int lastAccessTime) {
+        this.lastAccessTime = lastAccessTime;
+    }
+
+    @Override
+    public void setRawLastUpdateTime(int lastUpdateTime) {
+        this.lastUpdateTime = lastUpdateTime;
+    }
+
+    @Override
+    public int getRawLastStoredTime() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setRawLastStoredTime(int time) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getRawExpirationTime() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setRawExpirationTime(int time) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String toString() {
+        return "AbstractCompactRecord{"
+                + "key=" + key
+                + ", ttl=" + ttl
+                + ", maxIdle=" + maxIdle
+                + ", version=" + version
+                + ", lastAccessTime=" + lastAccessTime
+                + ", lastUpdateTime=" + lastUpdateTime
+                + ", creationTime=" + creationTime
+                + '}';
+    }
+}
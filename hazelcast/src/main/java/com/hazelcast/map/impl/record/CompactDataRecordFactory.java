@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.PartitioningStrategy;
+
+/**
+ * {@link DataRecordFactory} variant creating records without hits and
+ * metadata fields, used when {@link Records#canUseCompactRecords} allows it.
+ */
+public class CompactDataRecordFactory implements RecordFactory<Data> {
+
+    private final SerializationService serializationService;
+    private final PartitioningStrategy partitionStrategy;
+    private final CacheDeserializedValues cacheDeserializedValues;
+
+    public CompactDataRecordFactory(MapConfig config, SerializationService serializationService,
+                                    PartitioningStrategy partitionStrategy) {
+        this.serializationService = serializationService;
+        this.partitionStrategy = partitionStrategy;
+        this.cacheDeserializedValues = config.getCacheDeserializedValues();
+    }
+
+    @Override
+    public Record<Data> newRecord(Data key, Object value) {
+        assert value != null : "value can not be null";
+
+        final Data valueData = serializationService.toData(value, partitionStrategy);
+        Record<Data> record = cacheDeserializedValues == CacheDeserializedValues.NEVER
+                ? new CompactDataRecord(valueData) : new CompactCachedDataRecord(valueData);
+        record.setKey(key);
+        return record;
+    }
+
+    @Override
+    public void setValue(Record<Data> record, Object value) {
+        assert value != null : "value can not be null";
+
+        final Data v;
+        if (value instanceof Data) {
+            v = (Data) value;
+        } else {
+            v = serializationService.toData(value, partitionStrategy);
+        }
+        record.setValue(v);
+    }
+}
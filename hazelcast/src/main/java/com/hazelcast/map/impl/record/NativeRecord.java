@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.Metadata;
+
+import static com.hazelcast.map.impl.record.NativeRecordAccessor.CREATION_TIME_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecordAccessor.EXPIRATION_TIME_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecordAccessor.HITS_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecordAccessor.LAST_ACCESS_TIME_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecordAccessor.LAST_STORED_TIME_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecordAccessor.LAST_UPDATE_TIME_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecordAccessor.MAX_IDLE_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecordAccessor.TTL_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecordAccessor.VERSION_OFFSET;
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_WITH_STATS_READER_WRITER;
+
+/**
+ * {@link Record} flyweight over an off-heap record block, see
+ * {@link NativeRecordAccessor} for the block layout.
+ * <p>
+ * All metadata reads and writes go straight to the block, so two
+ * flyweights over the same address always observe the same state. The
+ * key and the value are copied to the heap on every read; the key copy
+ * is cached since it never changes once the record is stored.
+ * <p>
+ * A flyweight is only valid on the partition thread of its record-store
+ * and only until the next {@link NativeRecordAccessor#disposeDeferredBlocks()}
+ * call, it must not be retained across operations.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class NativeRecord implements Record<Data> {
+
+    private final NativeRecordAccessor accessor;
+    private final long address;
+    private Data key;
+
+    public NativeRecord(NativeRecordAccessor accessor, long address) {
+        this.accessor = accessor;
+        this.address = address;
+    }
+
+    public long getAddress() {
+        return address;
+    }
+
+    @Override
+    public Data getKey() {
+        if (key == null) {
+            key = accessor.readData(accessor.getKeyAddress(address));
+        }
+        return key;
+    }
+
+    @Override
+    public void setKey(Data key) {
+        if (accessor.dataEquals(accessor.getKeyAddress(address), key)) {
+            return;
+        }
+        accessor.replaceKey(address, key);
+        this.key = null;
+    }
+
+    @Override
+    public Data getValue() {
+        return accessor.readData(accessor.getValueAddress(address));
+    }
+
+    @Override
+    public void setValue(Data value) {
+        accessor.replaceValue(address, value);
+    }
+
+    @Override
+    public long getCost() {
+        return accessor.getRecordCost(address);
+    }
+
+    @Override
+    public long getVersion() {
+        return accessor.getLong(address, VERSION_OFFSET);
+    }
+
+    @Override
+    public void setVersion(long version) {
+        accessor.putLong(address, VERSION_OFFSET, version);
+    }
+
+    @Override
+    public Object getCachedValueUnsafe() {
+        return Record.NOT_CACHED;
+    }
+
+    @Override
+    public boolean casCachedValue(Object expectedValue, Object newValue) {
+        return true;
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(getRawLastAccessTime());
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        setRawLastAccessTime(stripBaseTime(lastAccessTime));
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(getRawLastUpdateTime());
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        setRawLastUpdateTime(stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(getRawCreationTime());
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        setRawCreationTime(stripBaseTime(creationTime));
+    }
+
+    @Override
+    public int getHits() {
+        return accessor.getInt(address, HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(int hits) {
+        accessor.putInt(address, HITS_OFFSET, hits);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        int expirationTime = getRawExpirationTime();
+        if (expirationTime == UNSET) {
+            return 0L;
+        }
+
+        if (expirationTime == Integer.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+
+        return recomputeWithBaseTime(expirationTime);
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        setRawExpirationTime(expirationTime == Long.MAX_VALUE
+                ? Integer.MAX_VALUE
+                : stripBaseTime(expirationTime));
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        int lastStoredTime = getRawLastStoredTime();
+        if (lastStoredTime == UNSET) {
+            return 0L;
+        }
+
+        return recomputeWithBaseTime(lastStoredTime);
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        setRawLastStoredTime(stripBaseTime(lastStoredTime));
+    }
+
+    @Override
+    public long getSequence() {
+        return UNSET;
+    }
+
+    @Override
+    public void setSequence(long sequence) {
+    }
+
+    /**
+     * JSON metadata is not kept for off-heap records,
+     * queries fall back to parsing the value.
+     */
+    @Override
+    public void setMetadata(Metadata metadata) {
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        return null;
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        return DATA_RECORD_WITH_STATS_READER_WRITER;
+    }
+
+    @Override
+    public int getRawTtl() {
+        return accessor.getInt(address, TTL_OFFSET);
+    }
+
+    @Override
+    public int getRawMaxIdle() {
+        return accessor.getInt(address, MAX_IDLE_OFFSET);
+    }
+
+    @Override
+    public int getRawCreationTime() {
+        return accessor.getInt(address, CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public int getRawLastAccessTime() {
+        return accessor.getInt(address, LAST_ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public int getRawLastUpdateTime() {
+        return accessor.getInt(address, LAST_UPDATE_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawTtl(int ttl) {
+        accessor.putInt(address, TTL_OFFSET, ttl);
+    }
+
+    @Override
+    public void setRawMaxIdle(int maxIdle) {
+        accessor.putInt(address, MAX_IDLE_OFFSET, maxIdle);
+    }
+
+    @Override
+    public void setRawCreationTime(int creationTime) {
+        accessor.putInt(address, CREATION_TIME_OFFSET, creationTime);
+    }
+
+    @Override
+    public void setRawLastAccessTime(int lastAccessTime) {
+        accessor.putInt(address, LAST_ACCESS_TIME_OFFSET, lastAccessTime);
+    }
+
+    @Override
+    public void setRawLastUpdateTime(int lastUpdateTime) {
+        accessor.putInt(address, LAST_UPDATE_TIME_OFFSET, lastUpdateTime);
+    }
+
+    @Override
+    public int getRawLastStoredTime() {
+        return accessor.getInt(address, LAST_STORED_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastStoredTime(int time) {
+        accessor.putInt(address, LAST_STORED_TIME_OFFSET, time);
+    }
+
+    @Override
+    public int getRawExpirationTime() {
+        return accessor.getInt(address, EXPIRATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawExpirationTime(int time) {
+        accessor.putInt(address, EXPIRATION_TIME_OFFSET, time);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        return address == ((NativeRecord) o).address;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (address ^ (address >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "NativeRecord{address=" + address + '}';
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.serialization.impl.HeapData.TYPE_OFFSET;
+import static com.hazelcast.map.impl.record.Record.UNSET;
+
+/**
+ * Reads and writes the off-heap blocks which back {@link NativeRecord}s.
+ * <p>
+ * A record block has a fixed layout:
+ * <pre>
+ *   0 key address       8 value address      16 version       24 next record address
+ *  32 ttl              36 max-idle           40 hits          44 last access time
+ *  48 last update time 52 creation time      56 last stored   60 expiration time
+ *  64 flags
+ * </pre>
+ * Keys and values are stored in separate blocks as {@code [int length][payload]}.
+ * <p>
+ * Blocks which become unreachable while an operation is running (removed
+ * records, replaced values) are not freed immediately since flyweights
+ * pointing to them can still be in use; they are queued and freed on
+ * {@link #disposeDeferredBlocks()}. Likewise, records which were created but
+ * never handed over to a storage are freed there.
+ * <p>
+ * Not thread-safe, an instance is confined to the partition thread of its
+ * record-store.
+ */
+public final class NativeRecordAccessor {
+
+    /**
+     * Size of a record block in bytes, kept 8-byte aligned.
+     */
+    public static final int RECORD_SIZE = 72;
+
+    static final int KEY_ADDRESS_OFFSET = 0;
+    static final int VALUE_ADDRESS_OFFSET = 8;
+    static final int VERSION_OFFSET = 16;
+    static final int NEXT_OFFSET = 24;
+    static final int TTL_OFFSET = 32;
+    static final int MAX_IDLE_OFFSET = 36;
+    static final int HITS_OFFSET = 40;
+    static final int LAST_ACCESS_TIME_OFFSET = 44;
+    static final int LAST_UPDATE_TIME_OFFSET = 48;
+    static final int CREATION_TIME_OFFSET = 52;
+    static final int LAST_STORED_TIME_OFFSET = 56;
+    static final int EXPIRATION_TIME_OFFSET = 60;
+    static final int FLAGS_OFFSET = 64;
+
+    private static final int FLAG_OWNED_BY_STORAGE = 1;
+    private static final int INITIAL_LIST_CAPACITY = 16;
+
+    private final MemoryManager memoryManager;
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+
+    private final AddressList deferredBlocks = new AddressList();
+    private final AddressList pendingRecords = new AddressList();
+
+    public NativeRecordAccessor(MemoryManager memoryManager) {
+        this.memoryManager = memoryManager;
+        this.malloc = memoryManager.getAllocator();
+        this.mem = memoryManager.getAccessor();
+    }
+
+    public MemoryManager getMemoryManager() {
+        return memoryManager;
+    }
+
+    /**
+     * Allocates a record block holding copies of the given key and value.
+     * The record is considered pending until it is marked as owned by a
+     * storage via {@link #markOwnedByStorage(long)}.
+     */
+    long newRecord(Data key, Data value) {
+        long address = malloc.allocate(RECORD_SIZE);
+        try {
+            putInt(address, LAST_ACCESS_TIME_OFFSET, UNSET);
+            putInt(address, LAST_UPDATE_TIME_OFFSET, UNSET);
+            putInt(address, CREATION_TIME_OFFSET, UNSET);
+            putInt(address, LAST_STORED_TIME_OFFSET, UNSET);
+            putInt(address, EXPIRATION_TIME_OFFSET, UNSET);
+            putLong(address, KEY_ADDRESS_OFFSET, writeData(key));
+            putLong(address, VALUE_ADDRESS_OFFSET, writeData(value));
+        } catch (Error e) {
+            freeRecordNow(address);
+            throw e;
+        }
+        pendingRecords.add(address, RECORD_SIZE);
+        return address;
+    }
+
+    public void markOwnedByStorage(long recordAddress) {
+        putInt(recordAddress, FLAGS_OFFSET, getInt(recordAddress, FLAGS_OFFSET) | FLAG_OWNED_BY_STORAGE);
+    }
+
+    public long getNext(long recordAddress) {
+        return getLong(recordAddress, NEXT_OFFSET);
+    }
+
+    public void setNext(long recordAddress, long nextAddress) {
+        putLong(recordAddress, NEXT_OFFSET, nextAddress);
+    }
+
+    public long getKeyAddress(long recordAddress) {
+        return getLong(recordAddress, KEY_ADDRESS_OFFSET);
+    }
+
+    public long getValueAddress(long recordAddress) {
+        return getLong(recordAddress, VALUE_ADDRESS_OFFSET);
+    }
+
+    /**
+     * @return total number of off-heap bytes occupied by the record
+     * including its key and value blocks
+     */
+    public long getRecordCost(long recordAddress) {
+        return RECORD_SIZE + blockSize(getKeyAddress(recordAddress)) + blockSize(getValueAddress(recordAddress));
+    }
+
+    /**
+     * @return the number of bytes occupied by the block at the given address
+     */
+    public long blockSize(long dataAddress) {
+        if (dataAddress == NULL_ADDRESS) {
+            return 0;
+        }
+        return INT_SIZE_IN_BYTES + mem.getInt(dataAddress);
+    }
+
+    public long writeData(Data data) {
+        if (data == null) {
+            return NULL_ADDRESS;
+        }
+        byte[] bytes = data.toByteArray();
+        int length = bytes == null ? 0 : bytes.length;
+        long address = malloc.allocate(INT_SIZE_IN_BYTES + length);
+        mem.putInt(address, length);
+        if (length > 0) {
+            mem.copyFromByteArray(bytes, 0, address + INT_SIZE_IN_BYTES, length);
+        }
+        return address;
+    }
+
+    public Data readData(long dataAddress) {
+        if (dataAddress == NULL_ADDRESS) {
+            return null;
+        }
+        int length = mem.getInt(dataAddress);
+        byte[] bytes = new byte[length];
+        if (length > 0) {
+            mem.copyToByteArray(dataAddress + INT_SIZE_IN_BYTES, bytes, 0, length);
+        }
+        return new HeapData(bytes);
+    }
+
+    /**
+     * Compares the payload of the off-heap block at the given address
+     * with the given on-heap data without copying the block. Like
+     * {@link HeapData#equals(Object)}, the partition hash is ignored.
+     */
+    public boolean dataEquals(long dataAddress, Data data) {
+        if (dataAddress == NULL_ADDRESS) {
+            return data == null;
+        }
+        int length = mem.getInt(dataAddress);
+        if (data == null || data.totalSize() != length) {
+            return false;
+        }
+        byte[] bytes = data.toByteArray();
+        long payloadAddress = dataAddress + INT_SIZE_IN_BYTES;
+        for (int i = length - 1; i >= TYPE_OFFSET; i--) {
+            if (mem.getByte(payloadAddress + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the value block of the record, the previous block is
+     * freed on {@link #disposeDeferredBlocks()}.
+     */
+    void replaceValue(long recordAddress, Data value) {
+        long newValueAddress = writeData(value);
+        long oldValueAddress = getValueAddress(recordAddress);
+        putLong(recordAddress, VALUE_ADDRESS_OFFSET, newValueAddress);
+        deferFreeData(oldValueAddress);
+    }
+
+    /**
+     * Replaces the key block of the record, the previous block is
+     * freed on {@link #disposeDeferredBlocks()}.
+     */
+    void replaceKey(long recordAddress, Data key) {
+        long newKeyAddress = writeData(key);
+        long oldKeyAddress = getKeyAddress(recordAddress);
+        putLong(recordAddress, KEY_ADDRESS_OFFSET, newKeyAddress);
+        deferFreeData(oldKeyAddress);
+    }
+
+    /**
+     * Queues the record block and its key and value blocks to be freed on
+     * {@link #disposeDeferredBlocks()}.
+     */
+    public void deferFreeRecord(long recordAddress) {
+        deferFreeData(getKeyAddress(recordAddress));
+        deferFreeData(getValueAddress(recordAddress));
+        deferredBlocks.add(recordAddress, RECORD_SIZE);
+    }
+
+    /**
+     * Frees the record block and its key and value blocks immediately.
+     */
+    public void freeRecordNow(long recordAddress) {
+        freeData(getKeyAddress(recordAddress));
+        freeData(getValueAddress(recordAddress));
+        malloc.free(recordAddress, RECORD_SIZE);
+    }
+
+    /**
+     * Frees all blocks which were queued for deferred disposal and all
+     * records which were created but never stored.
+     */
+    public void disposeDeferredBlocks() {
+        AddressList pending = pendingRecords;
+        for (int i = 0; i < pending.size; i++) {
+            long recordAddress = pending.addresses[i];
+            if ((getInt(recordAddress, FLAGS_OFFSET) & FLAG_OWNED_BY_STORAGE) == 0) {
+                freeRecordNow(recordAddress);
+            }
+        }
+        pending.clear();
+
+        AddressList deferred = deferredBlocks;
+        for (int i = 0; i < deferred.size; i++) {
+            malloc.free(deferred.addresses[i], deferred.sizes[i]);
+        }
+        deferred.clear();
+    }
+
+    long getLong(long recordAddress, int offset) {
+        return mem.getLong(recordAddress + offset);
+    }
+
+    void putLong(long recordAddress, int offset, long value) {
+        mem.putLong(recordAddress + offset, value);
+    }
+
+    int getInt(long recordAddress, int offset) {
+        return mem.getInt(recordAddress + offset);
+    }
+
+    void putInt(long recordAddress, int offset, int value) {
+        mem.putInt(recordAddress + offset, value);
+    }
+
+    private void deferFreeData(long dataAddress) {
+        if (dataAddress != NULL_ADDRESS) {
+            deferredBlocks.add(dataAddress, blockSize(dataAddress));
+        }
+    }
+
+    private void freeData(long dataAddress) {
+        if (dataAddress != NULL_ADDRESS) {
+            malloc.free(dataAddress, blockSize(dataAddress));
+        }
+    }
+
+    /**
+     * Growable list of (address, size) pairs.
+     */
+    private static final class AddressList {
+        private long[] addresses = new long[INITIAL_LIST_CAPACITY];
+        private long[] sizes = new long[INITIAL_LIST_CAPACITY];
+        private int size;
+
+        void add(long address, long blockSize) {
+            if (size == addresses.length) {
+                addresses = Arrays.copyOf(addresses, size << 1);
+                sizes = Arrays.copyOf(sizes, size << 1);
+            }
+            addresses[size] = address;
+            sizes[size] = blockSize;
+            size++;
+        }
+
+        void clear() {
+            if (addresses.length > INITIAL_LIST_CAPACITY) {
+                addresses = new long[INITIAL_LIST_CAPACITY];
+                sizes = new long[INITIAL_LIST_CAPACITY];
+            }
+            size = 0;
+        }
+    }
+}
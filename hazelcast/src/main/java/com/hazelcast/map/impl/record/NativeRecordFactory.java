@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.PartitioningStrategy;
+
+/**
+ * Creates {@link NativeRecord}s whose key, value and metadata live in
+ * off-heap blocks allocated from the supplied {@link MemoryManager}.
+ * <p>
+ * One instance is created per record-store, it owns the
+ * {@link NativeRecordAccessor} shared by the records and the storage of
+ * that record-store.
+ */
+public class NativeRecordFactory implements RecordFactory<Data> {
+
+    private final SerializationService serializationService;
+    private final PartitioningStrategy partitionStrategy;
+    private final NativeRecordAccessor accessor;
+
+    public NativeRecordFactory(MemoryManager memoryManager, SerializationService serializationService,
+                               PartitioningStrategy partitionStrategy) {
+        this.serializationService = serializationService;
+        this.partitionStrategy = partitionStrategy;
+        this.accessor = new NativeRecordAccessor(memoryManager);
+    }
+
+    public NativeRecordAccessor getAccessor() {
+        return accessor;
+    }
+
+    @Override
+    public Record<Data> newRecord(Data key, Object value) {
+        assert value != null : "value can not be null";
+
+        Data valueData = serializationService.toData(value, partitionStrategy);
+        return new NativeRecord(accessor, accessor.newRecord(key, valueData));
+    }
+
+    @Override
+    public void setValue(Record<Data> record, Object value) {
+        assert value != null : "value can not be null";
+
+        Data v;
+        if (value instanceof Data) {
+            v = (Data) value;
+        } else {
+            v = serializationService.toData(value, partitionStrategy);
+        }
+        record.setValue(v);
+    }
+}
@@ -16,10 +16,14 @@
 
 package com.hazelcast.map.impl.record;
 
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MetadataPolicy;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.merge.HigherHitsMergePolicy;
 
 import java.io.IOException;
 
@@ -34,6 +38,32 @@ public final class Records {
     private Records() {
     }
 
+    /**
+     * Decides whether records of a map with the given config can omit the
+     * hits and metadata fields: hits are only read by statistics, LFU
+     * eviction and the {@link HigherHitsMergePolicy}, metadata is only set
+     * when the metadata policy is {@link MetadataPolicy#CREATE_ON_UPDATE}.
+     * Custom eviction policies may compare hits, so they always get full
+     * records. Entry views of compact records always report {@code 0} hits,
+     * so they are used only when enabled by
+     * {@link com.hazelcast.spi.properties.GroupProperty#MAP_COMPACT_RECORDS_ENABLED}.
+     *
+     * @return {@code true} if compact records carry every field the map needs
+     */
+    public static boolean canUseCompactRecords(MapConfig mapConfig) {
+        return !mapConfig.isStatisticsEnabled()
+                && mapConfig.getMetadataPolicy() == MetadataPolicy.OFF
+                && mapConfig.getMapEvictionPolicy() == null
+                && mapConfig.getEvictionPolicy() != EvictionPolicy.LFU
+                && !usesHigherHitsMergePolicy(mapConfig);
+    }
+
+    private static boolean usesHigherHitsMergePolicy(MapConfig mapConfig) {
+        String mergePolicy = mapConfig.getMergePolicyConfig().getPolicy();
+        return HigherHitsMergePolicy.class.getName().equals(mergePolicy)
+                || HigherHitsMergePolicy.class.getSimpleName().equals(mergePolicy);
+    }
+
     public static void writeRecord(ObjectDataOutput out, Record record, Data dataValue) throws IOException {
         out.writeByte(record.getMatchingRecordReaderWriter().getId());
         record.getMatchingRecordReaderWriter().writeRecord(out, record, dataValue);
@@ -21,6 +21,7 @@ import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.EntryView;
 import com.hazelcast.internal.eviction.ClearExpiredRecordsTask;
 import com.hazelcast.internal.eviction.ExpiredKey;
+import com.hazelcast.internal.eviction.FrequencySketch;
 import com.hazelcast.internal.nearcache.impl.invalidation.InvalidationQueue;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.event.MapEventPublisher;
@@ -40,6 +41,7 @@ import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.config.EvictionPolicy.TINY_LFU;
 import static com.hazelcast.core.EntryEventType.EVICTED;
 import static com.hazelcast.core.EntryEventType.EXPIRED;
 import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
@@ -62,6 +64,12 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
     protected final MapEventPublisher mapEventPublisher;
     protected final ClearExpiredRecordsTask clearExpiredRecordsTask;
     protected final InvalidationQueue<ExpiredKey> expiredKeys = new InvalidationQueue<>();
+    /**
+     * Counts the accesses of the keys when the map uses the
+     * {@link com.hazelcast.config.EvictionPolicy#TINY_LFU} eviction policy,
+     * {@code null} otherwise.
+     */
+    protected final FrequencySketch frequencySketch;
     /**
      * Iterates over a pre-set entry count/percentage in one round.
      * Used in expiration logic for traversing entries. Initializes lazily.
@@ -79,6 +87,16 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         mapEventPublisher = mapServiceContext.getMapEventPublisher();
         thisAddress = nodeEngine.getThisAddress();
         clearExpiredRecordsTask = mapServiceContext.getExpirationManager().getTask();
+        frequencySketch = usesFrequencySketch(mapContainer.getMapConfig()) ? new FrequencySketch() : null;
+    }
+
+    private static boolean usesFrequencySketch(MapConfig mapConfig) {
+        return mapConfig.getMapEvictionPolicy() == null && mapConfig.getEvictionPolicy() == TINY_LFU;
+    }
+
+    @Override
+    public FrequencySketch getFrequencySketch() {
+        return frequencySketch;
     }
 
     /**
@@ -338,6 +356,9 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
     @Override
     public void accessRecord(Record record, long now) {
         record.onAccess(now);
+        if (frequencySketch != null) {
+            frequencySketch.increment(record.getKey());
+        }
         updateStatsOnGet(now);
         setExpirationTime(record);
     }
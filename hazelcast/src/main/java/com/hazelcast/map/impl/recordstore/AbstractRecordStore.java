@@ -33,6 +33,8 @@ import com.hazelcast.map.impl.MapStoreWrapper;
 import com.hazelcast.map.impl.StoreAdapter;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
+import com.hazelcast.map.impl.query.QueryResultCache;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.record.Records;
@@ -49,6 +51,7 @@ import javax.annotation.Nonnull;
 import java.util.Collection;
 import java.util.UUID;
 
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.setExpirationTimes;
 
 /**
@@ -109,6 +112,12 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
         if (mapContainer.getMapConfig().getMetadataPolicy() == MetadataPolicy.CREATE_ON_UPDATE) {
             addJsonMetadataMutationObserver();
         }
+
+        // Add observer for query result cache
+        QueryResultCache queryResultCache = mapContainer.getQueryResultCache();
+        if (queryResultCache != null) {
+            mutationObserver.add(new QueryResultCacheMutationObserver(queryResultCache, partitionId));
+        }
     }
 
     // Overridden in EE.
@@ -158,6 +167,9 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     }
 
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (memoryFormat == NATIVE) {
+            return new NativeStorageImpl((NativeRecordFactory) recordFactory, serializationService);
+        }
         return new StorageImpl(recordFactory, memoryFormat, serializationService);
     }
 
@@ -1329,6 +1329,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
      * Only indexed data will be removed, index info will stay.
      */
     private void clearIndexedData(boolean onShutdown, boolean onStorageDestroy) {
+        mapServiceContext.getPartitionContainer(partitionId).cancelIndexPopulations(name);
         clearGlobalIndexes(onShutdown);
         clearPartitionedIndexes(onStorageDestroy);
     }
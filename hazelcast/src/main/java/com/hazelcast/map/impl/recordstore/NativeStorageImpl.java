@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.NativeRecord;
+import com.hazelcast.map.impl.record.NativeRecordAccessor;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.map.impl.OwnedEntryCostEstimatorFactory.createMapSizeEstimator;
+
+/**
+ * {@link Storage} implementation for {@link InMemoryFormat#NATIVE} maps which
+ * keeps keys, values and record metadata in off-heap blocks.
+ * <p>
+ * Records are indexed by an off-heap {@link HashSlotArray8byteKeyImpl}
+ * keyed by the 64-bit hash of the key; the slot value is the address of the
+ * first record with that hash and records sharing a hash are chained through
+ * their {@code next} field. The heap footprint of this storage therefore does
+ * not depend on the number or the size of the entries.
+ * <p>
+ * Returned records are {@link NativeRecord} flyweights. Blocks of removed
+ * records and replaced values are freed on {@link #disposeDeferredBlocks()},
+ * which is called after each map operation.
+ * <p>
+ * Like all record-store storages, it must only be accessed from the
+ * partition thread owning it.
+ */
+public class NativeStorageImpl implements Storage<Data, Record> {
+
+    private final NativeRecordAccessor accessor;
+    private final NativeRecordFactory recordFactory;
+    private final SerializationService serializationService;
+    private final RecordIndex index;
+
+    private int size;
+    private boolean destroyed;
+
+    // not final for testing purposes.
+    private EntryCostEstimator<Data, Record> entryCostEstimator;
+
+    NativeStorageImpl(NativeRecordFactory recordFactory, SerializationService serializationService) {
+        this.recordFactory = recordFactory;
+        this.accessor = recordFactory.getAccessor();
+        this.serializationService = serializationService;
+        this.entryCostEstimator = createMapSizeEstimator(InMemoryFormat.NATIVE);
+        this.index = new RecordIndex(accessor.getMemoryManager());
+        this.index.gotoNew();
+    }
+
+    @Override
+    public void put(Data key, Record record) {
+        NativeRecord nativeRecord = (NativeRecord) record;
+        long recordAddress = nativeRecord.getAddress();
+        nativeRecord.setKey(key);
+
+        SlotAssignmentResult slot = index.ensure(key.hash64());
+        long slotAddress = slot.address();
+        if (slot.isNew()) {
+            accessor.setNext(recordAddress, NULL_ADDRESS);
+            index.setHead(slotAddress, recordAddress);
+            onAdd(key, nativeRecord);
+            return;
+        }
+
+        long previous = NULL_ADDRESS;
+        long current = index.getHead(slotAddress);
+        while (current != NULL_ADDRESS) {
+            if (current == recordAddress) {
+                return;
+            }
+            if (keyEquals(current, key)) {
+                accessor.setNext(recordAddress, accessor.getNext(current));
+                link(slotAddress, previous, recordAddress);
+                accessor.markOwnedByStorage(recordAddress);
+                updateCostEstimate(-entryCostEstimator.calculateEntryCost(key, new NativeRecord(accessor, current)));
+                updateCostEstimate(entryCostEstimator.calculateEntryCost(key, nativeRecord));
+                accessor.deferFreeRecord(current);
+                return;
+            }
+            previous = current;
+            current = accessor.getNext(current);
+        }
+
+        accessor.setNext(recordAddress, index.getHead(slotAddress));
+        index.setHead(slotAddress, recordAddress);
+        onAdd(key, nativeRecord);
+    }
+
+    @Override
+    public void updateRecordValue(Data key, Record record, Object value) {
+        updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
+
+        recordFactory.setValue(record, value);
+
+        updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+    }
+
+    @Override
+    public Record get(Data key) {
+        long recordAddress = findRecord(key);
+        return recordAddress == NULL_ADDRESS ? null : new NativeRecord(accessor, recordAddress);
+    }
+
+    /**
+     * Off-heap keys are never shared with the caller,
+     * so this method is equivalent to {@link #get(Data)}.
+     */
+    @Override
+    public Record getIfSameKey(Data key) {
+        return get(key);
+    }
+
+    @Override
+    public void removeRecord(Record record) {
+        if (record == null) {
+            return;
+        }
+
+        long recordAddress = ((NativeRecord) record).getAddress();
+        Data key = record.getKey();
+        long hash = key.hash64();
+        long slotAddress = index.get(hash);
+        if (slotAddress == NULL_ADDRESS) {
+            return;
+        }
+
+        long previous = NULL_ADDRESS;
+        long current = index.getHead(slotAddress);
+        while (current != NULL_ADDRESS) {
+            long next = accessor.getNext(current);
+            if (current == recordAddress) {
+                if (previous == NULL_ADDRESS && next == NULL_ADDRESS) {
+                    index.remove(hash);
+                } else {
+                    link(slotAddress, previous, next);
+                }
+                size--;
+                updateCostEstimate(-entryCostEstimator.calculateEntryCost(key, record));
+                accessor.deferFreeRecord(recordAddress);
+                return;
+            }
+            previous = current;
+            current = next;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return findRecord(key) != NULL_ADDRESS;
+    }
+
+    @Override
+    public Collection<Record> values() {
+        List<Record> records = new ArrayList<>(size);
+        long capacity = index.capacity();
+        for (long slot = 0; slot < capacity; slot++) {
+            for (long address = index.getHeadOfSlot(slot); address != NULL_ADDRESS; address = accessor.getNext(address)) {
+                records.add(new NativeRecord(accessor, address));
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public Iterator<Record> mutationTolerantIterator() {
+        return new MutationTolerantIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Frees all records immediately, the caller must not use
+     * any record obtained from this storage afterwards.
+     */
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        if (destroyed) {
+            return;
+        }
+        long capacity = index.capacity();
+        for (long slot = 0; slot < capacity; slot++) {
+            long address = index.getHeadOfSlot(slot);
+            while (address != NULL_ADDRESS) {
+                long next = accessor.getNext(address);
+                accessor.freeRecordNow(address);
+                address = next;
+            }
+        }
+        index.clear();
+        size = 0;
+
+        entryCostEstimator.reset();
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        if (destroyed) {
+            return;
+        }
+        clear(isDuringShutdown);
+        accessor.disposeDeferredBlocks();
+        index.dispose();
+        destroyed = true;
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        accessor.disposeDeferredBlocks();
+    }
+
+    @Override
+    public Iterable<EntryView> getRandomSamples(int sampleCount) {
+        if (size == 0 || sampleCount <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<EntryView> samples = new ArrayList<>(sampleCount);
+        long capacity = index.capacity();
+        long mask = capacity - 1;
+        long startSlot = ThreadLocalRandom.current().nextLong(capacity);
+        for (long i = 0; i < capacity && samples.size() < sampleCount; i++) {
+            long slot = (startSlot + i) & mask;
+            long address = index.getHeadOfSlot(slot);
+            while (address != NULL_ADDRESS && samples.size() < sampleCount) {
+                samples.add(new LazyEntryViewFromRecord<>(new NativeRecord(accessor, address), serializationService));
+                address = accessor.getNext(address);
+            }
+        }
+        return samples;
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(int tableIndex, int size) {
+        List<Data> keys = new ArrayList<>(size);
+        int nextTableIndex = startTableIndex(tableIndex);
+        while (nextTableIndex >= 0 && keys.size() < size) {
+            long address = index.getHeadOfSlot(nextTableIndex--);
+            for (; address != NULL_ADDRESS; address = accessor.getNext(address)) {
+                keys.add(accessor.readData(accessor.getKeyAddress(address)));
+            }
+        }
+        return new MapKeysWithCursor(keys, nextTableIndex);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(int tableIndex, int size, SerializationService serializationService) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<>(size);
+        int nextTableIndex = startTableIndex(tableIndex);
+        while (nextTableIndex >= 0 && entries.size() < size) {
+            long address = index.getHeadOfSlot(nextTableIndex--);
+            for (; address != NULL_ADDRESS; address = accessor.getNext(address)) {
+                Data key = accessor.readData(accessor.getKeyAddress(address));
+                Data value = accessor.readData(accessor.getValueAddress(address));
+                entries.add(new AbstractMap.SimpleEntry<>(key, value));
+            }
+        }
+        return new MapEntriesWithCursor(entries, nextTableIndex);
+    }
+
+    @Override
+    public Record extractRecordFromLazy(EntryView entryView) {
+        return ((LazyEntryViewFromRecord) entryView).getRecord();
+    }
+
+    private void onAdd(Data key, NativeRecord record) {
+        accessor.markOwnedByStorage(record.getAddress());
+        size++;
+        updateCostEstimate(entryCostEstimator.calculateEntryCost(key, record));
+    }
+
+    private long findRecord(Data key) {
+        long slotAddress = index.get(key.hash64());
+        if (slotAddress == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        for (long address = index.getHead(slotAddress); address != NULL_ADDRESS; address = accessor.getNext(address)) {
+            if (keyEquals(address, key)) {
+                return address;
+            }
+        }
+        return NULL_ADDRESS;
+    }
+
+    private boolean keyEquals(long recordAddress, Data key) {
+        return accessor.dataEquals(accessor.getKeyAddress(recordAddress), key);
+    }
+
+    private void link(long slotAddress, long previous, long recordAddress) {
+        if (previous == NULL_ADDRESS) {
+            index.setHead(slotAddress, recordAddress);
+        } else {
+            accessor.setNext(previous, recordAddress);
+        }
+    }
+
+    private int startTableIndex(int tableIndex) {
+        int capacity = (int) index.capacity();
+        return tableIndex >= 0 && tableIndex < capacity ? tableIndex : capacity - 1;
+    }
+
+    private void updateCostEstimate(long entrySize) {
+        entryCostEstimator.adjustEstimateBy(entrySize);
+    }
+
+    /**
+     * Hash slot array from key hash to the address of the first record
+     * with that hash, exposing the slot layout for table-index based
+     * iteration.
+     */
+    private static final class RecordIndex extends HashSlotArray8byteKeyImpl {
+
+        RecordIndex(MemoryManager memoryManager) {
+            super(NULL_ADDRESS, memoryManager, LONG_SIZE_IN_BYTES);
+        }
+
+        long getHead(long slotValueAddress) {
+            return mem().getLong(slotValueAddress);
+        }
+
+        void setHead(long slotValueAddress, long recordAddress) {
+            mem().putLong(slotValueAddress, recordAddress);
+        }
+
+        /**
+         * @return the address of the first record in the given slot or
+         * {@link com.hazelcast.internal.memory.MemoryAllocator#NULL_ADDRESS}
+         * if the slot is unassigned
+         */
+        long getHeadOfSlot(long slot) {
+            return mem().getLong(slotBase(address(), slot) + LONG_SIZE_IN_BYTES);
+        }
+    }
+
+    /**
+     * Iterator over a snapshot of the on-heap key copies. It never keeps a
+     * record address, every key is looked up again when it is reached, so
+     * it stays safe to use across operations even when records are removed
+     * or the index is rehashed in the meantime; keys removed since the
+     * snapshot are skipped.
+     */
+    private final class MutationTolerantIterator implements Iterator<Record> {
+
+        private final List<Data> keys;
+        private int position;
+        private long nextRecordAddress = NULL_ADDRESS;
+
+        MutationTolerantIterator() {
+            keys = new ArrayList<>(size);
+            long capacity = index.capacity();
+            for (long slot = 0; slot < capacity; slot++) {
+                for (long address = index.getHeadOfSlot(slot); address != NULL_ADDRESS; address = accessor.getNext(address)) {
+                    keys.add(accessor.readData(accessor.getKeyAddress(address)));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            nextRecordAddress = NULL_ADDRESS;
+            while (position < keys.size()) {
+                nextRecordAddress = findRecord(keys.get(position));
+                if (nextRecordAddress != NULL_ADDRESS) {
+                    return true;
+                }
+                position++;
+            }
+            return false;
+        }
+
+        @Override
+        public Record next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            position++;
+            return new NativeRecord(accessor, nextRecordAddress);
+        }
+    }
+}
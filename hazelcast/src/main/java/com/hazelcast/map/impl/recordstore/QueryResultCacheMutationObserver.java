@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.map.impl.query.QueryResultCache;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+
+/**
+ * Invalidates the cached query results of the observed partition on every
+ * mutation.
+ */
+public class QueryResultCacheMutationObserver implements MutationObserver<Record> {
+
+    private final QueryResultCache queryResultCache;
+    private final int partitionId;
+
+    public QueryResultCacheMutationObserver(QueryResultCache queryResultCache, int partitionId) {
+        this.queryResultCache = queryResultCache;
+        this.partitionId = partitionId;
+    }
+
+    @Override
+    public void onClear() {
+        queryResultCache.onPartitionMutated(partitionId);
+    }
+
+    @Override
+    public void onPutRecord(Data key, Record record) {
+        queryResultCache.onPartitionMutated(partitionId);
+    }
+
+    @Override
+    public void onReplicationPutRecord(Data key, Record record) {
+        queryResultCache.onPartitionMutated(partitionId);
+    }
+
+    @Override
+    public void onUpdateRecord(Data key, Record record, Object newValue) {
+        queryResultCache.onPartitionMutated(partitionId);
+    }
+
+    @Override
+    public void onRemoveRecord(Data key, Record record) {
+        queryResultCache.onPartitionMutated(partitionId);
+    }
+
+    @Override
+    public void onEvictRecord(Data key, Record record) {
+        queryResultCache.onPartitionMutated(partitionId);
+    }
+
+    @Override
+    public void onLoadRecord(Data key, Record record) {
+        queryResultCache.onPartitionMutated(partitionId);
+    }
+
+    @Override
+    public void onDestroy(boolean internal) {
+        queryResultCache.onPartitionMutated(partitionId);
+    }
+
+    @Override
+    public void onReset() {
+        queryResultCache.onPartitionMutated(partitionId);
+    }
+}
@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.recordstore;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.internal.eviction.ExpiredKey;
+import com.hazelcast.internal.eviction.FrequencySketch;
 import com.hazelcast.internal.nearcache.impl.invalidation.InvalidationQueue;
 import com.hazelcast.internal.util.comparators.ValueComparator;
 import com.hazelcast.map.IMap;
@@ -432,6 +433,16 @@ public interface RecordStore<R extends Record> {
 
     Storage getStorage();
 
+    /**
+     * Returns the sketch estimating the access frequencies of the keys
+     * of this record store.
+     *
+     * @return the frequency sketch if the map uses the
+     * {@link com.hazelcast.config.EvictionPolicy#TINY_LFU} eviction
+     * policy, otherwise {@code null}
+     */
+    FrequencySketch getFrequencySketch();
+
     void sampleAndForceRemoveEntries(int entryCountToRemove);
 
     /**
@@ -266,6 +266,48 @@ public interface LocalMapStats extends LocalInstanceStats {
      */
     long getIndexedQueryCount();
 
+    /**
+     * Returns the number of queries served from the query result cache of
+     * the map.
+     * <p>
+     * If the query result cache is disabled, the returned value is {@code 0}.
+     *
+     * @see com.hazelcast.config.MapConfig#setQueryResultCacheSize(int)
+     * @see #getQueryResultCacheMisses()
+     */
+    long getQueryResultCacheHits();
+
+    /**
+     * Returns the number of queries which were looked up in the query result
+     * cache of the map, but have not found an up-to-date result there.
+     * <p>
+     * If the query result cache is disabled, the returned value is {@code 0}.
+     *
+     * @see com.hazelcast.config.MapConfig#setQueryResultCacheSize(int)
+     * @see #getQueryResultCacheHits()
+     */
+    long getQueryResultCacheMisses();
+
+    /**
+     * Returns the number of partitions of the map whose index population is
+     * in progress on this member.
+     * <p>
+     * The indexes being populated are not used by the queries until their
+     * population completes, the queries fall back to the full scans in the
+     * meantime.
+     *
+     * @see #getPendingIndexPopulationEntryCount()
+     */
+    long getPendingIndexPopulationCount();
+
+    /**
+     * Returns the number of entries of the map which are still to be indexed
+     * by the index populations in progress on this member.
+     *
+     * @see #getPendingIndexPopulationCount()
+     */
+    long getPendingIndexPopulationEntryCount();
+
     /**
      * Returns the per-index statistics map keyed by the index name.
      */
@@ -137,6 +137,12 @@ public class LocalMapStatsImpl implements LocalMapStats {
     private volatile long lockedEntryCount;
     @Probe
     private volatile long dirtyEntryCount;
+    /**
+     * Holds the time in milliseconds the oldest entry of the write-behind
+     * queues is overdue, the lag in entries is the {@link #dirtyEntryCount}
+     */
+    @Probe
+    private volatile long writeBehindQueueLag;
     @Probe
     private volatile int backupCount;
     private volatile NearCacheStats nearCacheStats;
@@ -144,6 +150,14 @@ public class LocalMapStatsImpl implements LocalMapStats {
     private volatile long queryCount;
     @Probe
     private volatile long indexedQueryCount;
+    @Probe
+    private volatile long queryResultCacheHits;
+    @Probe
+    private volatile long queryResultCacheMisses;
+    @Probe
+    private volatile long pendingIndexPopulationCount;
+    @Probe
+    private volatile long pendingIndexPopulationEntryCount;
 
     public LocalMapStatsImpl() {
         creationTime = Clock.currentTimeMillis();
@@ -244,6 +258,14 @@ public class LocalMapStatsImpl implements LocalMapStats {
         this.dirtyEntryCount = dirtyEntryCount;
     }
 
+    public long getWriteBehindQueueLag() {
+        return writeBehindQueueLag;
+    }
+
+    public void setWriteBehindQueueLag(long writeBehindQueueLag) {
+        this.writeBehindQueueLag = writeBehindQueueLag;
+    }
+
     @Override
     public long getPutOperationCount() {
         return putCount;
@@ -383,6 +405,66 @@ public class LocalMapStatsImpl implements LocalMapStats {
         this.indexedQueryCount = indexedQueryCount;
     }
 
+    @Override
+    public long getQueryResultCacheHits() {
+        return queryResultCacheHits;
+    }
+
+    /**
+     * Sets the query result cache hit count of this stats to the given value.
+     *
+     * @param queryResultCacheHits the query result cache hit count to set.
+     */
+    public void setQueryResultCacheHits(long queryResultCacheHits) {
+        this.queryResultCacheHits = queryResultCacheHits;
+    }
+
+    @Override
+    public long getQueryResultCacheMisses() {
+        return queryResultCacheMisses;
+    }
+
+    /**
+     * Sets the query result cache miss count of this stats to the given value.
+     *
+     * @param queryResultCacheMisses the query result cache miss count to set.
+     */
+    public void setQueryResultCacheMisses(long queryResultCacheMisses) {
+        this.queryResultCacheMisses = queryResultCacheMisses;
+    }
+
+    @Override
+    public long getPendingIndexPopulationCount() {
+        return pendingIndexPopulationCount;
+    }
+
+    /**
+     * Sets the pending index population count of this stats to the given
+     * value.
+     *
+     * @param pendingIndexPopulationCount the pending index population count
+     *                                    to set.
+     */
+    public void setPendingIndexPopulationCount(long pendingIndexPopulationCount) {
+        this.pendingIndexPopulationCount = pendingIndexPopulationCount;
+    }
+
+    @Override
+    public long getPendingIndexPopulationEntryCount() {
+        return pendingIndexPopulationEntryCount;
+    }
+
+    /**
+     * Sets the pending index population entry count of this stats to the
+     * given value.
+     *
+     * @param pendingIndexPopulationEntryCount the pending index population
+     *                                         entry count to set.
+     */
+    public void setPendingIndexPopulationEntryCount(long pendingIndexPopulationEntryCount) {
+        this.pendingIndexPopulationEntryCount = pendingIndexPopulationEntryCount;
+    }
+
     @Override
     public Map<String, LocalIndexStats> getIndexStats() {
         return indexStats;
@@ -483,6 +565,7 @@ public class LocalMapStatsImpl implements LocalMapStats {
         root.add("creationTime", creationTime);
         root.add("lockedEntryCount", lockedEntryCount);
         root.add("dirtyEntryCount", dirtyEntryCount);
+        root.add("writeBehindQueueLag", writeBehindQueueLag);
 
         // keep the contract as milliseconds for latencies sent using Json
         root.add("totalGetLatencies", convertNanosToMillis(totalGetLatenciesNanos));
@@ -502,6 +585,10 @@ public class LocalMapStatsImpl implements LocalMapStats {
 
         root.add("queryCount", queryCount);
         root.add("indexedQueryCount", indexedQueryCount);
+        root.add("queryResultCacheHits", queryResultCacheHits);
+        root.add("queryResultCacheMisses", queryResultCacheMisses);
+        root.add("pendingIndexPopulationCount", pendingIndexPopulationCount);
+        root.add("pendingIndexPopulationEntryCount", pendingIndexPopulationEntryCount);
         Map<String, LocalIndexStats> localIndexStats = indexStats;
         if (!localIndexStats.isEmpty()) {
             JsonObject indexes = new JsonObject();
@@ -544,6 +631,7 @@ public class LocalMapStatsImpl implements LocalMapStats {
         creationTime = getLong(json, "creationTime", -1L);
         lockedEntryCount = getLong(json, "lockedEntryCount", -1L);
         dirtyEntryCount = getLong(json, "dirtyEntryCount", -1L);
+        writeBehindQueueLag = getLong(json, "writeBehindQueueLag", -1L);
         heapCost = getLong(json, "heapCost", -1L);
         merkleTreesCost = getLong(json, "merkleTreesCost", -1L);
         JsonValue jsonNearCacheStats = json.get("nearCacheStats");
@@ -554,6 +642,10 @@ public class LocalMapStatsImpl implements LocalMapStats {
 
         queryCount = getLong(json, "queryCount", -1L);
         indexedQueryCount = getLong(json, "indexedQueryCount", -1L);
+        queryResultCacheHits = getLong(json, "queryResultCacheHits", -1L);
+        queryResultCacheMisses = getLong(json, "queryResultCacheMisses", -1L);
+        pendingIndexPopulationCount = getLong(json, "pendingIndexPopulationCount", -1L);
+        pendingIndexPopulationEntryCount = getLong(json, "pendingIndexPopulationEntryCount", -1L);
         JsonObject indexes = getObject(json, "indexStats", null);
         if (indexes != null && !indexes.isEmpty()) {
             Map<String, LocalIndexStatsImpl> localIndexStats = new HashMap<String, LocalIndexStatsImpl>();
@@ -596,11 +688,16 @@ public class LocalMapStatsImpl implements LocalMapStats {
                 + ", creationTime=" + creationTime
                 + ", lockedEntryCount=" + lockedEntryCount
                 + ", dirtyEntryCount=" + dirtyEntryCount
+                + ", writeBehindQueueLag=" + writeBehindQueueLag
                 + ", heapCost=" + heapCost
                 + ", merkleTreesCost=" + merkleTreesCost
                 + ", nearCacheStats=" + (nearCacheStats != null ? nearCacheStats : "")
                 + ", queryCount=" + queryCount
                 + ", indexedQueryCount=" + indexedQueryCount
+                + ", queryResultCacheHits=" + queryResultCacheHits
+                + ", queryResultCacheMisses=" + queryResultCacheMisses
+                + ", pendingIndexPopulationCount=" + pendingIndexPopulationCount
+                + ", pendingIndexPopulationEntryCount=" + pendingIndexPopulationEntryCount
                 + ", indexStats=" + indexStats
                 + '}';
     }
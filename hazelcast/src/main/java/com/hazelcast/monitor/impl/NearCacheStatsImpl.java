@@ -50,6 +50,8 @@ public class NearCacheStatsImpl implements NearCacheStats {
             newUpdater(NearCacheStatsImpl.class, "invalidationRequests");
     private static final AtomicLongFieldUpdater<NearCacheStatsImpl> PERSISTENCE_COUNT =
             newUpdater(NearCacheStatsImpl.class, "persistenceCount");
+    private static final AtomicLongFieldUpdater<NearCacheStatsImpl> LAST_PRELOAD_LOADED_KEY_COUNT =
+            newUpdater(NearCacheStatsImpl.class, "lastPreloadLoadedKeyCount");
 
     @Probe
     private volatile long creationTime;
@@ -83,6 +85,15 @@ public class NearCacheStatsImpl implements NearCacheStats {
     private volatile long lastPersistenceKeyCount;
     private volatile String lastPersistenceFailure = "";
 
+    @Probe
+    private volatile long lastPreloadTime;
+    @Probe
+    private volatile long lastPreloadDuration;
+    @Probe
+    private volatile long lastPreloadKeyCount;
+    @Probe
+    private volatile long lastPreloadLoadedKeyCount;
+
     public NearCacheStatsImpl() {
         this.creationTime = getNowInMillis();
     }
@@ -105,6 +116,11 @@ public class NearCacheStatsImpl implements NearCacheStats {
         lastPersistenceWrittenBytes = stats.lastPersistenceWrittenBytes;
         lastPersistenceKeyCount = stats.lastPersistenceKeyCount;
         lastPersistenceFailure = stats.lastPersistenceFailure;
+
+        lastPreloadTime = stats.lastPreloadTime;
+        lastPreloadDuration = stats.lastPreloadDuration;
+        lastPreloadKeyCount = stats.lastPreloadKeyCount;
+        lastPreloadLoadedKeyCount = stats.lastPreloadLoadedKeyCount;
     }
 
     @Override
@@ -253,6 +269,42 @@ public class NearCacheStatsImpl implements NearCacheStats {
         lastPersistenceFailure = t.getClass().getSimpleName() + ": " + t.getMessage();
     }
 
+    /**
+     * Starts tracking the progress of a preload of the Near Cache.
+     *
+     * @param keyCount the number of keys to be loaded
+     */
+    public void startPreload(long keyCount) {
+        lastPreloadTime = getNowInMillis();
+        lastPreloadDuration = 0;
+        lastPreloadKeyCount = keyCount;
+        LAST_PRELOAD_LOADED_KEY_COUNT.set(this, 0);
+    }
+
+    public void addPreloadedKeys(int keyCount) {
+        LAST_PRELOAD_LOADED_KEY_COUNT.addAndGet(this, keyCount);
+    }
+
+    public void finishPreload(long duration) {
+        lastPreloadDuration = duration;
+    }
+
+    public long getLastPreloadTime() {
+        return lastPreloadTime;
+    }
+
+    public long getLastPreloadDuration() {
+        return lastPreloadDuration;
+    }
+
+    public long getLastPreloadKeyCount() {
+        return lastPreloadKeyCount;
+    }
+
+    public long getLastPreloadLoadedKeyCount() {
+        return lastPreloadLoadedKeyCount;
+    }
+
     private static long getNowInMillis() {
         return System.currentTimeMillis();
     }
@@ -300,6 +352,10 @@ public class NearCacheStatsImpl implements NearCacheStats {
         root.add("lastPersistenceWrittenBytes", lastPersistenceWrittenBytes);
         root.add("lastPersistenceKeyCount", lastPersistenceKeyCount);
         root.add("lastPersistenceFailure", lastPersistenceFailure);
+        root.add("lastPreloadTime", lastPreloadTime);
+        root.add("lastPreloadDuration", lastPreloadDuration);
+        root.add("lastPreloadKeyCount", lastPreloadKeyCount);
+        root.add("lastPreloadLoadedKeyCount", lastPreloadLoadedKeyCount);
         return root;
     }
 
@@ -320,6 +376,10 @@ public class NearCacheStatsImpl implements NearCacheStats {
         lastPersistenceWrittenBytes = getLong(json, "lastPersistenceWrittenBytes", -1L);
         lastPersistenceKeyCount = getLong(json, "lastPersistenceKeyCount", -1L);
         lastPersistenceFailure = getString(json, "lastPersistenceFailure", "");
+        lastPreloadTime = getLong(json, "lastPreloadTime", -1L);
+        lastPreloadDuration = getLong(json, "lastPreloadDuration", -1L);
+        lastPreloadKeyCount = getLong(json, "lastPreloadKeyCount", -1L);
+        lastPreloadLoadedKeyCount = getLong(json, "lastPreloadLoadedKeyCount", -1L);
     }
 
     @Override
@@ -340,6 +400,10 @@ public class NearCacheStatsImpl implements NearCacheStats {
                 + ", lastPersistenceWrittenBytes=" + lastPersistenceWrittenBytes
                 + ", lastPersistenceKeyCount=" + lastPersistenceKeyCount
                 + ", lastPersistenceFailure='" + lastPersistenceFailure + "'"
+                + ", lastPreloadTime=" + lastPreloadTime
+                + ", lastPreloadDuration=" + lastPreloadDuration
+                + ", lastPreloadKeyCount=" + lastPreloadKeyCount
+                + ", lastPreloadLoadedKeyCount=" + lastPreloadLoadedKeyCount
                 + '}';
     }
 }
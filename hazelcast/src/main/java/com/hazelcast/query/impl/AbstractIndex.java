@@ -31,6 +31,8 @@ import com.hazelcast.query.impl.getters.MultiResult;
 import com.hazelcast.query.impl.predicates.PredicateDataSerializerHook;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Set;
 
 import static com.hazelcast.query.impl.CompositeValue.NEGATIVE_INFINITY;
@@ -221,6 +223,44 @@ public abstract class AbstractIndex implements InternalIndex {
         return result;
     }
 
+    @Override
+    public long estimateRecordCount(Comparable value) {
+        if (converter == null) {
+            return 0;
+        }
+
+        return indexStore.estimateRecordCount(convert(value));
+    }
+
+    @Override
+    public long estimateRecordCount(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        if (converter == null) {
+            return 0;
+        }
+
+        Comparable convertedFrom = from == null ? null : convert(from);
+        Comparable convertedTo = to == null ? null : convert(to);
+        return indexStore.estimateRecordCount(convertedFrom, fromInclusive, convertedTo, toInclusive);
+    }
+
+    @Override
+    public Set<QueryableEntry> getBoundaryRecords(boolean highest) {
+        if (converter == null) {
+            return ordered ? emptySet() : null;
+        }
+
+        return indexStore.getBoundaryRecords(highest);
+    }
+
+    @Override
+    public Iterator<Set<QueryableEntry>> getRecordGroups(Comparable from, boolean fromInclusive) {
+        if (converter == null) {
+            return ordered ? Collections.<Set<QueryableEntry>>emptyIterator() : null;
+        }
+
+        return indexStore.getRecordGroups(from == null ? null : convert(from), fromInclusive);
+    }
+
     @Override
     public void clear() {
         indexStore.clear();
@@ -22,6 +22,7 @@ import com.hazelcast.monitor.impl.PerIndexStats;
 import com.hazelcast.nio.serialization.Data;
 
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -286,6 +287,34 @@ public class AttributeIndexRegistry {
             }
         }
 
+        @Override
+        public long estimateRecordCount(Comparable value) {
+            Comparable from = new CompositeValue(width, value, NEGATIVE_INFINITY);
+            Comparable to = new CompositeValue(width, value, POSITIVE_INFINITY);
+            return delegate.estimateRecordCount(from, false, to, false);
+        }
+
+        @Override
+        public long estimateRecordCount(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+            Comparable compositeFrom = from == null ? new CompositeValue(width, NULL, POSITIVE_INFINITY)
+                    : new CompositeValue(width, from, fromInclusive ? NEGATIVE_INFINITY : POSITIVE_INFINITY);
+            Comparable compositeTo = to == null ? null
+                    : new CompositeValue(width, to, toInclusive ? POSITIVE_INFINITY : NEGATIVE_INFINITY);
+            return delegate.estimateRecordCount(compositeFrom, false, compositeTo, false);
+        }
+
+        @Override
+        public Set<QueryableEntry> getBoundaryRecords(boolean highest) {
+            // the boundary composite values may have null first components
+            return null;
+        }
+
+        @Override
+        public Iterator<Set<QueryableEntry>> getRecordGroups(Comparable from, boolean fromInclusive) {
+            // the groups are formed by the whole composite values
+            return null;
+        }
+
         @Override
         public void clear() {
             throw newUnsupportedException();
@@ -316,6 +345,16 @@ public class AttributeIndexRegistry {
             throw newUnsupportedException();
         }
 
+        @Override
+        public void markPartitionAsPopulating(int partitionId) {
+            throw newUnsupportedException();
+        }
+
+        @Override
+        public boolean isPopulated() {
+            return delegate.isPopulated();
+        }
+
         @Override
         public PerIndexStats getPerIndexStats() {
             return delegate.getPerIndexStats();
@@ -59,6 +59,20 @@ public abstract class BaseIndexStore implements IndexStore {
      */
     private boolean isIndexStoreExpirable;
 
+    /**
+     * The number of value-to-entry associations in this index store.
+     * <p>
+     * Updated under the write lock and read without locking by estimations.
+     */
+    private volatile long recordCount;
+
+    /**
+     * The number of insertions and removals performed on this index store.
+     * <p>
+     * Updated under the write lock and read without locking by estimations.
+     */
+    private volatile long modificationCount;
+
     BaseIndexStore(IndexCopyBehavior copyOn) {
         if (copyOn == IndexCopyBehavior.COPY_ON_WRITE || copyOn == IndexCopyBehavior.NEVER) {
             resultCopyFunctor = new PassThroughFunctor();
@@ -111,6 +125,19 @@ public abstract class BaseIndexStore implements IndexStore {
      */
     abstract Object removeInternal(Comparable value, Data recordKey);
 
+    /**
+     * Called under the write lock once an update or a removal of the record
+     * identified by the given record key is done. Updates are performed as
+     * a removal followed by an insertion, so the stores keeping some state
+     * per record across the update release it here instead of on the
+     * removal.
+     *
+     * @param recordKey the key of the updated or removed record.
+     */
+    void afterUpdateOrRemove(Data recordKey) {
+        // no per record state by default
+    }
+
     void takeWriteLock() {
         writeLock.lock();
     }
@@ -156,6 +183,7 @@ public abstract class BaseIndexStore implements IndexStore {
             Data indexKey = entry.getKeyData();
             unwrapAndRemoveFromIndex(oldValue, indexKey, operationStats);
             unwrapAndInsertToIndex(newValue, entry, operationStats);
+            afterUpdateOrRemove(indexKey);
         } finally {
             releaseWriteLock();
         }
@@ -166,6 +194,7 @@ public abstract class BaseIndexStore implements IndexStore {
         takeWriteLock();
         try {
             unwrapAndRemoveFromIndex(value, indexKey, operationStats);
+            afterUpdateOrRemove(indexKey);
         } finally {
             releaseWriteLock();
         }
@@ -187,11 +216,13 @@ public abstract class BaseIndexStore implements IndexStore {
             for (Object o : results) {
                 Comparable sanitizedValue = sanitizeValue(o);
                 Object oldValue = insertInternal(sanitizedValue, record);
+                onInserted(oldValue);
                 operationStats.onEntryAdded(oldValue, newValue);
             }
         } else {
             Comparable sanitizedValue = sanitizeValue(newValue);
             Object oldValue = insertInternal(sanitizedValue, record);
+            onInserted(oldValue);
             operationStats.onEntryAdded(oldValue, newValue);
         }
     }
@@ -206,15 +237,35 @@ public abstract class BaseIndexStore implements IndexStore {
             for (Object o : results) {
                 Comparable sanitizedValue = sanitizeValue(o);
                 Object removedValue = removeInternal(sanitizedValue, indexKey);
+                onRemoved(removedValue);
                 operationStats.onEntryRemoved(removedValue);
             }
         } else {
             Comparable sanitizedValue = sanitizeValue(oldValue);
             Object removedValue = removeInternal(sanitizedValue, indexKey);
+            onRemoved(removedValue);
             operationStats.onEntryRemoved(removedValue);
         }
     }
 
+    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    private void onInserted(Object oldValue) {
+        // guarded by the write lock
+        if (oldValue == null) {
+            recordCount++;
+        }
+        modificationCount++;
+    }
+
+    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    private void onRemoved(Object removedValue) {
+        // guarded by the write lock
+        if (removedValue != null) {
+            recordCount--;
+        }
+        modificationCount++;
+    }
+
     private Comparable sanitizeValue(Object input) {
         if (input instanceof CompositeValue) {
             CompositeValue compositeValue = (CompositeValue) input;
@@ -242,6 +293,62 @@ public abstract class BaseIndexStore implements IndexStore {
         }
     }
 
+    /**
+     * Returns the number of value-to-entry associations in this index store.
+     */
+    final long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the number of insertions and removals performed on this index
+     * store.
+     */
+    final long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Resets the statistics maintained by this index store, should be called
+     * by the implementations while clearing them.
+     */
+    final void resetStatistics() {
+        assert lock.isWriteLockedByCurrentThread();
+        recordCount = 0;
+        modificationCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The default implementation reports the number of all the entries stored
+     * in this index store, since the range lookup has to scan them anyway.
+     */
+    @Override
+    public long estimateRecordCount(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        return recordCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The default implementation reports the index store as unordered.
+     */
+    @Override
+    public Set<QueryableEntry> getBoundaryRecords(boolean highest) {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The default implementation reports the index store as unordered.
+     */
+    @Override
+    public Iterator<Set<QueryableEntry>> getRecordGroups(Comparable from, boolean fromInclusive) {
+        return null;
+    }
+
     void markIndexStoreExpirableIfNecessary(QueryableEntry record) {
         assert lock.isWriteLockedByCurrentThread();
         // StoreAdapter is not set in plenty of internal unit tests
@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+
+/**
+ * Index store for low-cardinality attributes.
+ * <p>
+ * Every indexed entry is assigned an int id which is unique within this
+ * store and a {@link SparseBitSet} of entry ids is maintained for every
+ * distinct attribute value. Queries are answered with {@link BitmapResultSet}
+ * instances, so results obtained from the same store could be combined using
+ * bitwise operations instead of hash lookups, see {@link BitmapResultSet#and}
+ * and {@link BitmapResultSet#or}.
+ * <p>
+ * The entries are kept in an array indexed by their ids and the ids are
+ * looked up by the entry keys in an open addressing table of the ids, so
+ * no object is allocated per entry. An entry keeps its id while it's
+ * updated and the ids of the removed entries are reused, so the id space
+ * stays as dense as the index.
+ * <p>
+ * A result set holds a snapshot of the bits and resolves the ids lazily, so
+ * every id assignment is stamped: a result set skips the ids assigned after
+ * it was created, otherwise a reused id could make it return an unrelated
+ * entry.
+ * <p>
+ * Bit sets are mutated under the write lock and copied under the read lock,
+ * so the results are never affected by the later index updates and the
+ * {@link IndexCopyBehavior} has no effect on this store.
+ */
+public class BitmapIndexStore extends BaseIndexStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_ID = -1;
+
+    private final Map<Comparable, SparseBitSet> bitmaps = new HashMap<Comparable, SparseBitSet>();
+
+    private SparseBitSet nullBitmap = new SparseBitSet();
+
+    // read lazily by the result sets, replaced as a whole when grown
+    private volatile Slots slots;
+    // the following fields are guarded by the lock
+    private int[] references;
+    private int[] hashes;
+    // open addressing table of the ids, see findSlot
+    private int[] table;
+    private int[] freeIds;
+    private int freeIdCount;
+    private int nextId;
+    private int idCount;
+    private long lastStamp;
+    // the id of the entry whose references dropped to zero during an update
+    private int releasedId = NO_ID;
+
+    public BitmapIndexStore(IndexCopyBehavior copyOn) {
+        super(copyOn);
+        init();
+    }
+
+    @Override
+    Object insertInternal(Comparable value, QueryableEntry record) {
+        markIndexStoreExpirableIfNecessary(record);
+
+        Data key = record.getKeyData();
+        int hash = hash(key);
+        int slot = findSlot(key, hash);
+        int id = table[slot];
+        QueryableEntry oldEntry = null;
+        if (id == NO_ID) {
+            id = assignId(slot, hash, record);
+        } else {
+            oldEntry = slots.entries.getAndSet(id, record);
+        }
+
+        SparseBitSet bitmap = bitmapFor(value, true);
+        if (bitmap.set(id)) {
+            references[id]++;
+            return null;
+        }
+        return oldEntry;
+    }
+
+    @Override
+    Object removeInternal(Comparable value, Data recordKey) {
+        int slot = findSlot(recordKey, hash(recordKey));
+        int id = table[slot];
+        if (id == NO_ID) {
+            return null;
+        }
+
+        SparseBitSet bitmap = bitmapFor(value, false);
+        if (bitmap == null || !bitmap.clear(id)) {
+            return null;
+        }
+        if (bitmap.isEmpty() && value != NULL) {
+            bitmaps.remove(value);
+        }
+
+        if (--references[id] == 0) {
+            // the id is released once the update or the removal is done,
+            // so an updated entry keeps its id
+            releasedId = id;
+        }
+        return slots.entries.get(id);
+    }
+
+    @Override
+    void afterUpdateOrRemove(Data recordKey) {
+        int id = releasedId;
+        if (id == NO_ID) {
+            return;
+        }
+        releasedId = NO_ID;
+        if (references[id] == 0) {
+            releaseId(findSlot(recordKey, hashes[id]), id);
+        }
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        // Using a storage representation for arguments here to save on
+        // conversions later.
+        return canonicalizeScalarForStorage(value);
+    }
+
+    @Override
+    Comparable canonicalizeScalarForStorage(Comparable value) {
+        // Bitmap indexes are intended for low-cardinality attributes, so
+        // there is no point in trying to save on the value representation.
+        return Comparables.canonicalizeForHashLookup(value);
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            bitmaps.clear();
+            nullBitmap = new SparseBitSet();
+            init();
+            resetStatistics();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            SparseBitSet bitmap = bitmapFor(value == NULL ? NULL : canonicalize(value), false);
+            return newResultSet(bitmap == null ? new SparseBitSet() : bitmap.copy());
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            SparseBitSet result = new SparseBitSet();
+            for (Comparable value : values) {
+                // value is already canonicalized by the associated index
+                SparseBitSet bitmap = bitmapFor(value, false);
+                if (bitmap != null) {
+                    result = SparseBitSet.or(result, bitmap);
+                }
+            }
+            return newResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable value) {
+        takeReadLock();
+        try {
+            SparseBitSet result = new SparseBitSet();
+            for (Map.Entry<Comparable, SparseBitSet> bitmapEntry : bitmaps.entrySet()) {
+                int order = Comparables.compare(value, bitmapEntry.getKey());
+                boolean valid;
+                switch (comparison) {
+                    case LESS:
+                        valid = order > 0;
+                        break;
+                    case LESS_OR_EQUAL:
+                        valid = order >= 0;
+                        break;
+                    case GREATER:
+                        valid = order < 0;
+                        break;
+                    case GREATER_OR_EQUAL:
+                        valid = order <= 0;
+                        break;
+                    default:
+                        throw new IllegalStateException("Unrecognized comparison: " + comparison);
+                }
+                if (valid) {
+                    result = SparseBitSet.or(result, bitmapEntry.getValue());
+                }
+            }
+            return newResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            SparseBitSet result = new SparseBitSet();
+            int fromBound = fromInclusive ? 0 : +1;
+            int toBound = toInclusive ? 0 : -1;
+            for (Map.Entry<Comparable, SparseBitSet> bitmapEntry : bitmaps.entrySet()) {
+                Comparable value = bitmapEntry.getKey();
+                if (Comparables.compare(value, from) >= fromBound && Comparables.compare(value, to) <= toBound) {
+                    result = SparseBitSet.or(result, bitmapEntry.getValue());
+                }
+            }
+            return newResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public long estimateRecordCount(Comparable value) {
+        takeReadLock();
+        try {
+            SparseBitSet bitmap = bitmapFor(value == NULL ? NULL : canonicalize(value), false);
+            return bitmap == null ? 0 : bitmap.cardinality();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * Returns the entry having the given id or {@code null} if there is no
+     * such entry in this store anymore or the id was assigned to another
+     * entry after the given stamp.
+     */
+    QueryableEntry getEntry(int id, long stamp) {
+        Slots slots = this.slots;
+        if (id >= slots.entries.length()) {
+            return null;
+        }
+        // the entry is read first, the stamp is written before it
+        QueryableEntry entry = slots.entries.get(id);
+        return entry == null || slots.stamps.get(id) > stamp ? null : entry;
+    }
+
+    /**
+     * Returns the id assigned to the entry having the given key or {@code -1}
+     * if there is no such entry in this store or the id was assigned after
+     * the given stamp.
+     */
+    int getId(Data key, long stamp) {
+        takeReadLock();
+        try {
+            int id = table[findSlot(key, hash(key))];
+            return id == NO_ID || slots.stamps.get(id) > stamp ? NO_ID : id;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    private Comparable canonicalize(Comparable value) {
+        if (value instanceof CompositeValue) {
+            Comparable[] components = ((CompositeValue) value).getComponents();
+            for (int i = 0; i < components.length; ++i) {
+                components[i] = canonicalizeScalarForStorage(components[i]);
+            }
+            return value;
+        } else {
+            return canonicalizeScalarForStorage(value);
+        }
+    }
+
+    private SparseBitSet bitmapFor(Comparable value, boolean create) {
+        if (value == NULL) {
+            return nullBitmap;
+        }
+
+        SparseBitSet bitmap = bitmaps.get(value);
+        if (bitmap == null && create) {
+            bitmap = new SparseBitSet();
+            bitmaps.put(value, bitmap);
+        }
+        return bitmap;
+    }
+
+    private Set<QueryableEntry> newResultSet(SparseBitSet bitmap) {
+        // called under the read lock, so no id is assigned in the meantime
+        return new BitmapResultSet(this, bitmap, lastStamp);
+    }
+
+    private void init() {
+        slots = new Slots(INITIAL_CAPACITY);
+        references = new int[INITIAL_CAPACITY];
+        hashes = new int[INITIAL_CAPACITY];
+        table = newTable(2 * INITIAL_CAPACITY);
+        freeIds = new int[INITIAL_CAPACITY];
+        freeIdCount = 0;
+        nextId = 0;
+        idCount = 0;
+        releasedId = NO_ID;
+        // the stamps keep growing, so the result sets created before the
+        // clear never resolve the ids assigned after it
+    }
+
+    private int assignId(int slot, int hash, QueryableEntry record) {
+        int id;
+        if (freeIdCount > 0) {
+            id = freeIds[--freeIdCount];
+        } else {
+            id = nextId++;
+            if (id == references.length) {
+                grow();
+            }
+        }
+        Slots slots = this.slots;
+        slots.stamps.set(id, ++lastStamp);
+        slots.entries.set(id, record);
+        hashes[id] = hash;
+        table[slot] = id;
+        if (++idCount * 2 > table.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void releaseId(int slot, int id) {
+        slots.entries.set(id, null);
+        removeFromTable(slot);
+        --idCount;
+        if (freeIdCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeIdCount++] = id;
+    }
+
+    private void grow() {
+        int capacity = references.length * 2;
+        references = Arrays.copyOf(references, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        slots = slots.copy(capacity);
+    }
+
+    /**
+     * Returns the slot of the table holding the id of the entry having the
+     * given key or the empty slot where the id should be placed if there is
+     * no such entry.
+     */
+    private int findSlot(Data key, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        for (; ; ) {
+            int id = table[slot];
+            if (id == NO_ID || (hashes[id] == hash && key.equals(slots.entries.get(id).getKeyData()))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes the id from the given slot of the table and shifts the ids
+     * following it back, so no id gets separated from its home slot by an
+     * empty one.
+     */
+    private void removeFromTable(int slot) {
+        int mask = table.length - 1;
+        int gap = slot;
+        for (int i = (slot + 1) & mask; table[i] != NO_ID; i = (i + 1) & mask) {
+            int id = table[i];
+            int home = hashes[id] & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                table[gap] = id;
+                gap = i;
+            }
+        }
+        table[gap] = NO_ID;
+    }
+
+    private void rehash() {
+        int[] oldTable = table;
+        table = newTable(oldTable.length * 2);
+        int mask = table.length - 1;
+        for (int id : oldTable) {
+            if (id != NO_ID) {
+                int slot = hashes[id] & mask;
+                while (table[slot] != NO_ID) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = id;
+            }
+        }
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, NO_ID);
+        return table;
+    }
+
+    private static int hash(Data key) {
+        return fastIntMix(key.hashCode());
+    }
+
+    /**
+     * The entries and the stamps of their id assignments indexed by the ids.
+     */
+    private static final class Slots {
+
+        final AtomicReferenceArray<QueryableEntry> entries;
+        final AtomicLongArray stamps;
+
+        Slots(int capacity) {
+            this.entries = new AtomicReferenceArray<QueryableEntry>(capacity);
+            this.stamps = new AtomicLongArray(capacity);
+        }
+
+        Slots copy(int capacity) {
+            Slots copy = new Slots(capacity);
+            for (int i = 0; i < entries.length(); ++i) {
+                copy.stamps.set(i, stamps.get(i));
+                copy.entries.set(i, entries.get(i));
+            }
+            return copy;
+        }
+
+    }
+
+}
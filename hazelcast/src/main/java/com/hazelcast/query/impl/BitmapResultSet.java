@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.util.Clock;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+/**
+ * Result set backed by a snapshot of the entry ids produced by a
+ * {@link BitmapIndexStore}.
+ * <p>
+ * Entries are resolved lazily while iterating; the ids of the entries
+ * removed from the index in the meantime are skipped, and so are the ids
+ * assigned after the stamp of the result set, since they might be reused
+ * by unrelated entries.
+ */
+public final class BitmapResultSet extends AbstractSet<QueryableEntry> {
+
+    private final BitmapIndexStore store;
+    private final SparseBitSet bitmap;
+    private final long stamp;
+
+    BitmapResultSet(BitmapIndexStore store, SparseBitSet bitmap, long stamp) {
+        this.store = store;
+        this.bitmap = bitmap;
+        this.stamp = stamp;
+    }
+
+    /**
+     * Intersects the bitmap result sets in the given list which were produced
+     * by the same index store, the rest of the result sets are kept intact.
+     *
+     * @param resultSets the result sets to intersect.
+     * @return the given list if there was nothing to intersect, a new list of
+     * the result sets otherwise.
+     */
+    public static List<Set<QueryableEntry>> and(List<Set<QueryableEntry>> resultSets) {
+        return combine(resultSets, true);
+    }
+
+    /**
+     * Unites the bitmap result sets in the given list which were produced by
+     * the same index store, the rest of the result sets are kept intact.
+     *
+     * @param resultSets the result sets to unite.
+     * @return the given list if there was nothing to unite, a new list of the
+     * result sets otherwise.
+     */
+    public static List<Set<QueryableEntry>> or(List<Set<QueryableEntry>> resultSets) {
+        return combine(resultSets, false);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof QueryableEntry)) {
+            return false;
+        }
+
+        int id = store.getId(((QueryableEntry) o).getKeyData(), stamp);
+        return id != -1 && bitmap.get(id);
+    }
+
+    @Override
+    public Iterator<QueryableEntry> iterator() {
+        return new It();
+    }
+
+    @Override
+    public int size() {
+        return bitmap.cardinality();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bitmap.isEmpty();
+    }
+
+    private static List<Set<QueryableEntry>> combine(List<Set<QueryableEntry>> resultSets, boolean intersect) {
+        List<Set<QueryableEntry>> combined = new ArrayList<Set<QueryableEntry>>(resultSets);
+        boolean changed = false;
+        for (int i = 0; i < combined.size(); ++i) {
+            Set<QueryableEntry> resultSet = combined.get(i);
+            if (!(resultSet instanceof BitmapResultSet)) {
+                continue;
+            }
+
+            BitmapResultSet bitmapResultSet = (BitmapResultSet) resultSet;
+            for (int j = i + 1; j < combined.size(); ++j) {
+                Set<QueryableEntry> other = combined.get(j);
+                if (other instanceof BitmapResultSet && ((BitmapResultSet) other).store == bitmapResultSet.store) {
+                    SparseBitSet otherBitmap = ((BitmapResultSet) other).bitmap;
+                    SparseBitSet bitmap = intersect
+                            ? SparseBitSet.and(bitmapResultSet.bitmap, otherBitmap)
+                            : SparseBitSet.or(bitmapResultSet.bitmap, otherBitmap);
+                    // an id reused in between the stamps refers to different
+                    // entries in the two, so only the earlier stamp is valid
+                    long stamp = Math.min(bitmapResultSet.stamp, ((BitmapResultSet) other).stamp);
+                    bitmapResultSet = new BitmapResultSet(bitmapResultSet.store, bitmap, stamp);
+                    combined.set(i, bitmapResultSet);
+                    combined.set(j, null);
+                    changed = true;
+                }
+            }
+        }
+
+        if (!changed) {
+            return resultSets;
+        }
+
+        List<Set<QueryableEntry>> result = new ArrayList<Set<QueryableEntry>>(combined.size());
+        for (Set<QueryableEntry> resultSet : combined) {
+            if (resultSet != null) {
+                result.add(resultSet);
+            }
+        }
+        return result;
+    }
+
+    private class It implements Iterator<QueryableEntry> {
+
+        private final PrimitiveIterator.OfLong ids = bitmap.iterator();
+        private final boolean expirable = store.isExpirable();
+        private final long now = expirable ? Clock.currentTimeMillis() : 0;
+
+        private QueryableEntry nextEntry;
+
+        @Override
+        public boolean hasNext() {
+            while (nextEntry == null && ids.hasNext()) {
+                nextEntry = store.getEntry((int) ids.nextLong(), stamp);
+            }
+            return nextEntry != null;
+        }
+
+        @Override
+        public QueryableEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            QueryableEntry entry = nextEntry;
+            nextEntry = null;
+            if (expirable) {
+                entry.getRecord().onAccessSafe(now);
+            }
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
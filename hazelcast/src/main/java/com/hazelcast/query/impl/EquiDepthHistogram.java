@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Equi-depth histogram of the values stored in an ordered index.
+ * <p>
+ * The histogram splits the sorted values into buckets holding roughly the
+ * same number of entries and remembers the upper bound of every bucket along
+ * with the number of entries having values less than or equal to it. Range
+ * estimations are computed at the bucket granularity, so they never
+ * underestimate the actual number of entries at the time the histogram was
+ * built and overestimate it by at most two buckets.
+ * <p>
+ * Histograms are immutable; the owning index store rebuilds them once they
+ * become stale.
+ */
+final class EquiDepthHistogram {
+
+    static final int BUCKET_COUNT = 64;
+
+    private final Comparable[] bounds;
+    private final long[] cumulativeCounts;
+    private final long recordCount;
+    private final long modificationCount;
+
+    private EquiDepthHistogram(Comparable[] bounds, long[] cumulativeCounts, long recordCount, long modificationCount) {
+        this.bounds = bounds;
+        this.cumulativeCounts = cumulativeCounts;
+        this.recordCount = recordCount;
+        this.modificationCount = modificationCount;
+    }
+
+    /**
+     * Builds a histogram of the given sorted value-to-entries map.
+     *
+     * @param recordMap         the map to build the histogram of, may be
+     *                          concurrently modified.
+     * @param modificationCount the modification count of the index store at
+     *                          the time the build started.
+     * @return the built histogram.
+     */
+    static EquiDepthHistogram build(NavigableMap<Comparable, ? extends Map<?, ?>> recordMap, long modificationCount) {
+        long total = 0;
+        for (Map<?, ?> records : recordMap.values()) {
+            total += records.size();
+        }
+        long depth = Math.max(1, (total + BUCKET_COUNT - 1) / BUCKET_COUNT);
+
+        Comparable[] bounds = new Comparable[BUCKET_COUNT + 1];
+        long[] cumulativeCounts = new long[BUCKET_COUNT + 1];
+        int bucketCount = 0;
+        long cumulativeCount = 0;
+        long threshold = depth;
+        Comparable lastValue = null;
+        for (Map.Entry<Comparable, ? extends Map<?, ?>> entry : recordMap.entrySet()) {
+            int size = entry.getValue().size();
+            if (size >= depth && bucketCount < BUCKET_COUNT && isOpen(bounds, bucketCount, lastValue)) {
+                // give a frequent value its own bucket, so it doesn't inflate
+                // the estimations for the preceding values
+                bounds[bucketCount] = lastValue;
+                cumulativeCounts[bucketCount] = cumulativeCount;
+                ++bucketCount;
+            }
+            lastValue = entry.getKey();
+            cumulativeCount += size;
+            if (cumulativeCount >= threshold && bucketCount < BUCKET_COUNT) {
+                bounds[bucketCount] = lastValue;
+                cumulativeCounts[bucketCount] = cumulativeCount;
+                ++bucketCount;
+                // a frequent value may fill several buckets at once
+                threshold = cumulativeCount + depth;
+            }
+        }
+        if (isOpen(bounds, bucketCount, lastValue)) {
+            // close the last partially filled bucket
+            bounds[bucketCount] = lastValue;
+            cumulativeCounts[bucketCount] = cumulativeCount;
+            ++bucketCount;
+        }
+
+        return new EquiDepthHistogram(Arrays.copyOf(bounds, bucketCount), Arrays.copyOf(cumulativeCounts, bucketCount),
+                cumulativeCount, modificationCount);
+    }
+
+    /**
+     * @return {@code true} if there are values up to the given one which are
+     * not yet covered by the buckets, {@code false} otherwise.
+     */
+    private static boolean isOpen(Comparable[] bounds, int bucketCount, Comparable value) {
+        return value != null && (bucketCount == 0 || bounds[bucketCount - 1] != value);
+    }
+
+    /**
+     * @return the number of entries the histogram was built for.
+     */
+    long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return the modification count of the index store at the time the
+     * histogram was built.
+     */
+    long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Estimates the number of entries having values belonging to the given
+     * range.
+     *
+     * @param from the beginning of the range, {@code null} if the range is
+     *             left-unbounded.
+     * @param to   the end of the range, {@code null} if the range is
+     *             right-unbounded.
+     * @return the estimated number of entries.
+     */
+    long estimateRecordCount(Comparable from, Comparable to) {
+        long upper = to == null ? recordCount : countUpTo(to);
+        long lower = from == null ? 0 : countBelow(from);
+        return Math.max(0, upper - lower);
+    }
+
+    /**
+     * @return the cumulative count of the first bucket having its upper bound
+     * greater than or equal to the given value.
+     */
+    private long countUpTo(Comparable value) {
+        int bucket = firstBucketNotBelow(value);
+        return bucket == bounds.length ? recordCount : cumulativeCounts[bucket];
+    }
+
+    /**
+     * @return the cumulative count of the last bucket having its upper bound
+     * less than the given value.
+     */
+    private long countBelow(Comparable value) {
+        int bucket = firstBucketNotBelow(value) - 1;
+        return bucket < 0 ? 0 : cumulativeCounts[bucket];
+    }
+
+    private int firstBucketNotBelow(Comparable value) {
+        int low = 0;
+        int high = bounds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Comparables.compare(bounds[middle], value) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+}
@@ -23,6 +23,7 @@ import com.hazelcast.nio.serialization.Data;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 
 /**
@@ -153,6 +154,30 @@ public class GlobalQueryContextWithStats extends QueryContext {
             return result;
         }
 
+        @Override
+        public long estimateRecordCount(Comparable value) {
+            return delegate.estimateRecordCount(value);
+        }
+
+        @Override
+        public long estimateRecordCount(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+            return delegate.estimateRecordCount(from, fromInclusive, to, toInclusive);
+        }
+
+        @Override
+        public Set<QueryableEntry> getBoundaryRecords(boolean highest) {
+            Set<QueryableEntry> result = delegate.getBoundaryRecords(highest);
+            hasQueries = true;
+            return result;
+        }
+
+        @Override
+        public Iterator<Set<QueryableEntry>> getRecordGroups(Comparable from, boolean fromInclusive) {
+            Iterator<Set<QueryableEntry>> result = delegate.getRecordGroups(from, fromInclusive);
+            hasQueries = true;
+            return result;
+        }
+
         @Override
         public void clear() {
             delegate.clear();
@@ -183,6 +208,16 @@ public class GlobalQueryContextWithStats extends QueryContext {
             delegate.markPartitionAsUnindexed(partitionId);
         }
 
+        @Override
+        public void markPartitionAsPopulating(int partitionId) {
+            delegate.markPartitionAsPopulating(partitionId);
+        }
+
+        @Override
+        public boolean isPopulated() {
+            return delegate.isPopulated();
+        }
+
         @Override
         public PerIndexStats getPerIndexStats() {
             return delegate.getPerIndexStats();
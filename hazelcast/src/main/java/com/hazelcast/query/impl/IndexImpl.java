@@ -17,6 +17,7 @@
 package com.hazelcast.query.impl;
 
 import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.monitor.impl.PerIndexStats;
 import com.hazelcast.query.impl.getters.Extractors;
@@ -32,6 +33,7 @@ import static java.util.Collections.newSetFromMap;
 public class IndexImpl extends AbstractIndex {
 
     private final Set<Integer> indexedPartitions = newSetFromMap(new ConcurrentHashMap<>());
+    private final Set<Integer> populatingPartitions = newSetFromMap(new ConcurrentHashMap<>());
 
     public IndexImpl(
         IndexConfig config,
@@ -45,6 +47,9 @@ public class IndexImpl extends AbstractIndex {
 
     @Override
     protected IndexStore createIndexStore(boolean ordered, PerIndexStats stats) {
+        if (getConfig().getType() == IndexType.BITMAP) {
+            return new BitmapIndexStore(copyBehavior);
+        }
         return ordered ? new OrderedIndexStore(copyBehavior) : new UnorderedIndexStore(copyBehavior);
     }
 
@@ -52,6 +57,7 @@ public class IndexImpl extends AbstractIndex {
     public void clear() {
         super.clear();
         indexedPartitions.clear();
+        populatingPartitions.clear();
     }
 
     @Override
@@ -63,11 +69,24 @@ public class IndexImpl extends AbstractIndex {
     public void markPartitionAsIndexed(int partitionId) {
         assert !indexedPartitions.contains(partitionId);
         indexedPartitions.add(partitionId);
+        populatingPartitions.remove(partitionId);
     }
 
     @Override
     public void markPartitionAsUnindexed(int partitionId) {
         indexedPartitions.remove(partitionId);
+        populatingPartitions.remove(partitionId);
+    }
+
+    @Override
+    public void markPartitionAsPopulating(int partitionId) {
+        assert !indexedPartitions.contains(partitionId);
+        populatingPartitions.add(partitionId);
+    }
+
+    @Override
+    public boolean isPopulated() {
+        return populatingPartitions.isEmpty();
     }
 
 }
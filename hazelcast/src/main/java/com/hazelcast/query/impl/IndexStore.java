@@ -19,6 +19,7 @@ package com.hazelcast.query.impl;
 import com.hazelcast.monitor.impl.IndexOperationStats;
 import com.hazelcast.nio.serialization.Data;
 
+import java.util.Iterator;
 import java.util.Set;
 
 /**
@@ -145,4 +146,64 @@ public interface IndexStore {
      */
     Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive);
 
+    /**
+     * Estimates the number of entries that have indexed attribute value equal
+     * to the given value.
+     * <p>
+     * The estimation is expected to be much cheaper than the actual lookup.
+     *
+     * @param value the value to estimate the number of entries for.
+     * @return the estimated number of entries.
+     * @see #getRecords(Comparable)
+     */
+    long estimateRecordCount(Comparable value);
+
+    /**
+     * Estimates the number of entries that have indexed attribute value
+     * belonging to the given range.
+     * <p>
+     * The estimation is expected to be much cheaper than the actual lookup.
+     * Stores which are unable to provide a meaningful estimation report the
+     * number of all the entries stored in them.
+     *
+     * @param from          the beginning of the range, {@code null} if the
+     *                      range is left-unbounded.
+     * @param fromInclusive {@code true} if the beginning of the range is
+     *                      inclusive, {@code false} otherwise.
+     * @param to            the end of the range, {@code null} if the range
+     *                      is right-unbounded.
+     * @param toInclusive   {@code true} if the end of the range is inclusive,
+     *                      {@code false} otherwise.
+     * @return the estimated number of entries.
+     * @see #getRecords(Comparable, boolean, Comparable, boolean)
+     */
+    long estimateRecordCount(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive);
+
+    /**
+     * Obtains entries that have the lowest or the highest non-null indexed
+     * attribute value.
+     *
+     * @param highest {@code true} to obtain the entries having the highest
+     *                value, {@code false} to obtain the entries having the
+     *                lowest value.
+     * @return the obtained entries or {@code null} if this index store is
+     * unordered.
+     * @see InternalIndex#getBoundaryRecords
+     */
+    Set<QueryableEntry> getBoundaryRecords(boolean highest);
+
+    /**
+     * Obtains an iterator over the groups of entries having the same non-null
+     * indexed attribute value in the ascending order of the values.
+     *
+     * @param from          the value to start the iteration from, {@code null}
+     *                      to start from the lowest value.
+     * @param fromInclusive {@code true} if the group of the starting value
+     *                      should be obtained, {@code false} otherwise.
+     * @return the obtained iterator or {@code null} if this index store is
+     * unordered.
+     * @see InternalIndex#getRecordGroups
+     */
+    Iterator<Set<QueryableEntry>> getRecordGroups(Comparable from, boolean fromInclusive);
+
 }
@@ -302,6 +302,8 @@ public final class IndexUtils {
             return IndexType.SORTED;
         } else if (typeStr.equals(IndexType.HASH.name().toLowerCase())) {
             return IndexType.HASH;
+        } else if (typeStr.equals(IndexType.BITMAP.name().toLowerCase())) {
+            return IndexType.BITMAP;
         } else {
             throw new IllegalArgumentException("Unsupported index type: " + typeStr);
         }
@@ -330,6 +332,8 @@ public final class IndexUtils {
             type = IndexType.SORTED;
         } else if (typeStr.equals(IndexType.HASH.name().toLowerCase())) {
             type = IndexType.HASH;
+        } else if (typeStr.equals(IndexType.BITMAP.name().toLowerCase())) {
+            type = IndexType.BITMAP;
         } else {
             throw new IllegalArgumentException("Unsupported index type: " + typeStr);
         }
@@ -355,6 +359,9 @@ public final class IndexUtils {
             case HASH:
                 return "hash";
 
+            case BITMAP:
+                return "bitmap";
+
             default:
                 throw new IllegalArgumentException("Unsupported index type: " + type);
         }
@@ -99,6 +99,18 @@ public class Indexes {
         }
     }
 
+    /**
+     * Marks the given partition as being populated by the given indexes.
+     *
+     * @param partitionId the ID of the partition to mark as being populated.
+     * @param indexes     the indexes by which the given partition is populated.
+     */
+    public static void markPartitionAsPopulating(int partitionId, InternalIndex[] indexes) {
+        for (InternalIndex index : indexes) {
+            index.markPartitionAsPopulating(partitionId);
+        }
+    }
+
     /**
      * @param ss                the serializationService
      * @param indexCopyBehavior the indexCopyBehavior
@@ -316,16 +328,23 @@ public class Indexes {
      * @param pattern   the pattern to match an index for. May be either an
      *                  attribute name or an exact index name.
      * @param matchHint the match hint.
-     * @return the matched index or {@code null} if nothing matched.
+     * @return the matched index or {@code null} if nothing matched or the
+     * matched index is still being populated.
      * @see QueryContext.IndexMatchHint
      * @see Indexes#matchIndex
+     * @see InternalIndex#isPopulated()
      */
     public InternalIndex matchIndex(String pattern, QueryContext.IndexMatchHint matchHint) {
+        InternalIndex index;
         if (matchHint == QueryContext.IndexMatchHint.EXACT_NAME) {
-            return indexesByName.get(pattern);
+            index = indexesByName.get(pattern);
         } else {
-            return attributeIndexRegistry.match(pattern, matchHint);
+            index = attributeIndexRegistry.match(pattern, matchHint);
         }
+
+        // partially populated indexes can't be used, the queries fall back
+        // to the partition scans until the population completes
+        return index == null || index.isPopulated() ? index : null;
     }
 
     /**
@@ -18,6 +18,9 @@ package com.hazelcast.query.impl;
 
 import com.hazelcast.monitor.impl.PerIndexStats;
 
+import java.util.Iterator;
+import java.util.Set;
+
 /**
  * Provides the private index API.
  */
@@ -43,6 +46,9 @@ public interface InternalIndex extends Index {
 
     /**
      * Marks the given partition as indexed by this index.
+     * <p>
+     * Completes the population of the partition, if it was marked as being
+     * populated.
      *
      * @param partitionId the ID of the partition to mark as indexed.
      */
@@ -50,14 +56,101 @@ public interface InternalIndex extends Index {
 
     /**
      * Marks the given partition as unindexed by this index.
+     * <p>
+     * Aborts the population of the partition, if it was marked as being
+     * populated.
      *
      * @param partitionId the ID of the partition to mark as unindexed.
      */
     void markPartitionAsUnindexed(int partitionId);
 
+    /**
+     * Marks the given partition as being populated by this index.
+     * <p>
+     * While at least one partition is being populated, the index contains
+     * only a part of the entries it's supposed to contain and it can't be
+     * used for querying, see {@link #isPopulated()}. The population ends once
+     * the partition is marked as indexed or unindexed.
+     *
+     * @param partitionId the ID of the partition to mark as being populated.
+     */
+    void markPartitionAsPopulating(int partitionId);
+
+    /**
+     * Returns {@code true} if there are no partitions being populated by this
+     * index, {@code false} otherwise.
+     */
+    boolean isPopulated();
+
     /**
      * Returns the index stats associated with this index.
      */
     PerIndexStats getPerIndexStats();
 
+    /**
+     * Estimates the number of entries that have indexed attribute value equal
+     * to the given value.
+     * <p>
+     * The estimation is much cheaper than the actual lookup, it's used by the
+     * cost-based query optimizer to compare the selectivity of predicates.
+     *
+     * @param value the value to estimate the number of entries for.
+     * @return the estimated number of entries.
+     * @see #getRecords(Comparable)
+     */
+    long estimateRecordCount(Comparable value);
+
+    /**
+     * Estimates the number of entries that have indexed attribute value
+     * belonging to the given range.
+     * <p>
+     * The estimation is much cheaper than the actual lookup, it's used by the
+     * cost-based query optimizer to compare the selectivity of predicates.
+     *
+     * @param from          the beginning of the range, {@code null} if the
+     *                      range is left-unbounded.
+     * @param fromInclusive {@code true} if the beginning of the range is
+     *                      inclusive, {@code false} otherwise.
+     * @param to            the end of the range, {@code null} if the range
+     *                      is right-unbounded.
+     * @param toInclusive   {@code true} if the end of the range is inclusive,
+     *                      {@code false} otherwise.
+     * @return the estimated number of entries.
+     * @see #getRecords(Comparable, boolean, Comparable, boolean)
+     */
+    long estimateRecordCount(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive);
+
+    /**
+     * Produces a result set containing entries having the lowest or the
+     * highest non-null attribute value.
+     * <p>
+     * It's used to answer min and max aggregations without scanning the
+     * entries.
+     *
+     * @param highest {@code true} to produce the entries having the highest
+     *                value, {@code false} to produce the entries having the
+     *                lowest value.
+     * @return the produced result set or {@code null} if this index is unable
+     * to produce it.
+     */
+    Set<QueryableEntry> getBoundaryRecords(boolean highest);
+
+    /**
+     * Produces an iterator over the groups of entries having the same non-null
+     * attribute value, the groups are produced in the ascending order of the
+     * values.
+     * <p>
+     * The groups are obtained lazily, so the index may be walked in order
+     * without producing all the entries upfront. It's used to answer paging
+     * queries ordered by the indexed attribute.
+     *
+     * @param from          the value to start the iteration from, {@code null}
+     *                      to start from the lowest value.
+     * @param fromInclusive {@code true} if the group of the starting value
+     *                      should be produced, {@code false} otherwise.
+     * @return the produced iterator or {@code null} if this index is unable to
+     * produce it.
+     */
+    Iterator<Set<QueryableEntry>> getRecordGroups(Comparable from, boolean fromInclusive);
+
 }
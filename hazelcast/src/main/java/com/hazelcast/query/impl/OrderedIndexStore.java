@@ -20,7 +20,10 @@ import com.hazelcast.nio.serialization.Data;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.ConcurrentHashMap;
@@ -34,6 +37,18 @@ import static java.util.Collections.emptySet;
  */
 public class OrderedIndexStore extends BaseIndexStore {
 
+    /**
+     * The minimum number of modifications after which the histogram is
+     * considered stale.
+     */
+    private static final int HISTOGRAM_MIN_STALE_MODIFICATIONS = 100;
+
+    /**
+     * The histogram is considered stale once the number of modifications
+     * exceeds the number of entries it was built for divided by this ratio.
+     */
+    private static final int HISTOGRAM_STALE_RATIO = 10;
+
     private final ConcurrentSkipListMap<Comparable, Map<Data, QueryableEntry>> recordMap =
             new ConcurrentSkipListMap<Comparable, Map<Data, QueryableEntry>>(Comparables.COMPARATOR);
 
@@ -42,6 +57,9 @@ public class OrderedIndexStore extends BaseIndexStore {
 
     private volatile Map<Data, QueryableEntry> recordsWithNullValue;
 
+    private final Object histogramMutex = new Object();
+    private volatile EquiDepthHistogram histogram;
+
     public OrderedIndexStore(IndexCopyBehavior copyOn) {
         super(copyOn);
         assert copyOn != null;
@@ -88,11 +106,31 @@ public class OrderedIndexStore extends BaseIndexStore {
         try {
             recordsWithNullValue.clear();
             recordMap.clear();
+            resetStatistics();
+            histogram = null;
         } finally {
             releaseWriteLock();
         }
     }
 
+    @Override
+    public long estimateRecordCount(Comparable value) {
+        takeReadLock();
+        try {
+            Map<Data, QueryableEntry> records = value == NULL
+                    ? recordsWithNullValue
+                    : recordMap.get(canonicalizeQueryArgumentScalar(value));
+            return records == null ? 0 : records.size();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public long estimateRecordCount(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        return getHistogram().estimateRecordCount(from, to);
+    }
+
     @Override
     public Set<QueryableEntry> getRecords(Comparable value) {
         takeReadLock();
@@ -185,6 +223,46 @@ public class OrderedIndexStore extends BaseIndexStore {
         }
     }
 
+    @Override
+    public Set<QueryableEntry> getBoundaryRecords(boolean highest) {
+        takeReadLock();
+        try {
+            Map.Entry<Comparable, Map<Data, QueryableEntry>> boundary =
+                    highest ? recordMap.lastEntry() : recordMap.firstEntry();
+            return boundary == null ? emptySet() : toSingleResultSet(boundary.getValue());
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Iterator<Set<QueryableEntry>> getRecordGroups(Comparable from, boolean fromInclusive) {
+        NavigableMap<Comparable, Map<Data, QueryableEntry>> groups =
+                from == null ? recordMap : recordMap.tailMap(from, fromInclusive);
+        return new RecordGroupIterator(groups.values().iterator());
+    }
+
+    private EquiDepthHistogram getHistogram() {
+        EquiDepthHistogram current = histogram;
+        if (current != null && !isStale(current)) {
+            return current;
+        }
+
+        synchronized (histogramMutex) {
+            current = histogram;
+            if (current == null || isStale(current)) {
+                current = EquiDepthHistogram.build(recordMap, getModificationCount());
+                histogram = current;
+            }
+            return current;
+        }
+    }
+
+    private boolean isStale(EquiDepthHistogram histogram) {
+        long modifications = getModificationCount() - histogram.getModificationCount();
+        return modifications > Math.max(HISTOGRAM_MIN_STALE_MODIFICATIONS, histogram.getRecordCount() / HISTOGRAM_STALE_RATIO);
+    }
+
     /**
      * Adds entry to the given index map without copying it.
      * Needs to be invoked in a thread-safe way.
@@ -306,4 +384,48 @@ public class OrderedIndexStore extends BaseIndexStore {
 
     }
 
+    /**
+     * Iterates over the groups of entries lazily, every group is obtained
+     * under the read lock to respect the copy behavior of the store.
+     */
+    private class RecordGroupIterator implements Iterator<Set<QueryableEntry>> {
+
+        private final Iterator<Map<Data, QueryableEntry>> groups;
+        private Set<QueryableEntry> nextGroup;
+
+        RecordGroupIterator(Iterator<Map<Data, QueryableEntry>> groups) {
+            this.groups = groups;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextGroup == null && groups.hasNext()) {
+                Set<QueryableEntry> group;
+                takeReadLock();
+                try {
+                    group = toSingleResultSet(groups.next());
+                } finally {
+                    releaseReadLock();
+                }
+                // the group might be emptied concurrently
+                if (!group.isEmpty()) {
+                    nextGroup = group;
+                }
+            }
+            return nextGroup != null;
+        }
+
+        @Override
+        public Set<QueryableEntry> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Set<QueryableEntry> group = nextGroup;
+            nextGroup = null;
+            return group;
+        }
+
+    }
+
 }
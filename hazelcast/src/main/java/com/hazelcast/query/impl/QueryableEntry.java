@@ -30,6 +30,7 @@ import com.hazelcast.query.impl.getters.MultiResult;
 import com.hazelcast.query.impl.getters.ReflectionHelper;
 
 import java.util.Map;
+import java.util.function.IntFunction;
 
 import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
 import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
@@ -144,6 +145,44 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
         return null;
     }
 
+    /**
+     * Extracts the values of the given attribute from a batch of entries
+     * sharing the same extractors, the result is the same as the one produced
+     * by {@link #getAttributeValue} invoked for every entry.
+     * <p>
+     * The getters are resolved once for the runs of the entries having the
+     * target objects of the same class, see {@link Extractors#extract(Object[],
+     * int, String, IntFunction)}.
+     *
+     * @param entries       the entries to extract the values from.
+     * @param size          the number of entries in the batch.
+     * @param attributeName the name of the attribute to extract.
+     * @param values        the array to store the extracted values to.
+     */
+    public static void extractAttributeValues(QueryableEntry[] entries, int size, String attributeName, Object[] values) {
+        if (size == 0) {
+            return;
+        }
+        if (KEY_ATTRIBUTE_NAME.value().equals(attributeName) || THIS_ATTRIBUTE_NAME.value().equals(attributeName)) {
+            for (int i = 0; i < size; ++i) {
+                values[i] = entries[i].getAttributeValue(attributeName);
+            }
+            return;
+        }
+
+        boolean isKey = startsWithKeyConstant(attributeName);
+        String name = getAttributeName(isKey, attributeName);
+        for (int i = 0; i < size; ++i) {
+            values[i] = entries[i].getTargetObject(isKey);
+        }
+        entries[0].extractors.extract(values, size, name, i -> getMetadataOrNull(entries[i].getMetadata(), isKey));
+        for (int i = 0; i < size; ++i) {
+            if (values[i] instanceof HazelcastJsonValue) {
+                values[i] = Json.parse(values[i].toString());
+            }
+        }
+    }
+
     /**
      * Static version of the extractAttributeValue() method used when the caller does not have
      * an instance of the QueryableEntry, but is in possession of key and value.
@@ -0,0 +1,399 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Compressed bit set over non-negative {@code long} positions.
+ * <p>
+ * Only non-empty 64-bit words are stored. The positions are split into
+ * containers of 2^16 positions each, i.e. 1024 words. The containers are
+ * kept in an array sorted by the container key and every container keeps
+ * its non-empty words in two parallel arrays sorted by the word index. That
+ * keeps the memory footprint proportional to the number of populated words
+ * instead of the highest set position, bounds the cost of inserting and
+ * removing a word by the size of a single container and allows
+ * intersections and unions to be computed word by word in a single merge
+ * pass.
+ * <p>
+ * Not thread-safe.
+ */
+final class SparseBitSet {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final int ADDRESS_BITS_PER_CONTAINER = 16;
+    private static final int WORD_INDEX_MASK = (1 << (ADDRESS_BITS_PER_CONTAINER - ADDRESS_BITS_PER_WORD)) - 1;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] keys;
+    private Container[] containers;
+    private int size;
+    private int cardinality;
+
+    SparseBitSet() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private SparseBitSet(int capacity) {
+        this.keys = new long[capacity];
+        this.containers = new Container[capacity];
+    }
+
+    /**
+     * Sets the bit at the given position.
+     *
+     * @return {@code true} if the bit was not set before, {@code false}
+     * otherwise.
+     */
+    boolean set(long position) {
+        long key = position >>> ADDRESS_BITS_PER_CONTAINER;
+        int slot = Arrays.binarySearch(keys, 0, size, key);
+        Container container;
+        if (slot >= 0) {
+            container = containers[slot];
+        } else {
+            container = new Container(INITIAL_CAPACITY);
+            insert(-slot - 1, key, container);
+        }
+        if (container.set(wordIndex(position), 1L << position)) {
+            ++cardinality;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Clears the bit at the given position.
+     *
+     * @return {@code true} if the bit was set before, {@code false}
+     * otherwise.
+     */
+    boolean clear(long position) {
+        int slot = Arrays.binarySearch(keys, 0, size, position >>> ADDRESS_BITS_PER_CONTAINER);
+        if (slot < 0) {
+            return false;
+        }
+
+        Container container = containers[slot];
+        if (!container.clear(wordIndex(position), 1L << position)) {
+            return false;
+        }
+        if (container.size == 0) {
+            remove(slot);
+        }
+        --cardinality;
+        return true;
+    }
+
+    boolean get(long position) {
+        int slot = Arrays.binarySearch(keys, 0, size, position >>> ADDRESS_BITS_PER_CONTAINER);
+        return slot >= 0 && containers[slot].get(wordIndex(position), 1L << position);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    SparseBitSet copy() {
+        SparseBitSet copy = new SparseBitSet(Math.max(size, 1));
+        System.arraycopy(keys, 0, copy.keys, 0, size);
+        for (int i = 0; i < size; ++i) {
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.size = size;
+        copy.cardinality = cardinality;
+        return copy;
+    }
+
+    /**
+     * @return a new bit set having only the bits set in both the given bit
+     * sets.
+     */
+    static SparseBitSet and(SparseBitSet left, SparseBitSet right) {
+        SparseBitSet result = new SparseBitSet(Math.max(Math.min(left.size, right.size), 1));
+        int i = 0;
+        int j = 0;
+        while (i < left.size && j < right.size) {
+            long leftKey = left.keys[i];
+            long rightKey = right.keys[j];
+            if (leftKey < rightKey) {
+                ++i;
+            } else if (leftKey > rightKey) {
+                ++j;
+            } else {
+                Container container = Container.and(left.containers[i++], right.containers[j++]);
+                if (container.size > 0) {
+                    result.append(leftKey, container);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new bit set having the bits set in any of the given bit
+     * sets.
+     */
+    static SparseBitSet or(SparseBitSet left, SparseBitSet right) {
+        SparseBitSet result = new SparseBitSet(Math.max(left.size + right.size, 1));
+        int i = 0;
+        int j = 0;
+        while (i < left.size && j < right.size) {
+            long leftKey = left.keys[i];
+            long rightKey = right.keys[j];
+            if (leftKey < rightKey) {
+                result.append(leftKey, left.containers[i++].copy());
+            } else if (leftKey > rightKey) {
+                result.append(rightKey, right.containers[j++].copy());
+            } else {
+                result.append(leftKey, Container.or(left.containers[i++], right.containers[j++]));
+            }
+        }
+        while (i < left.size) {
+            result.append(left.keys[i], left.containers[i++].copy());
+        }
+        while (j < right.size) {
+            result.append(right.keys[j], right.containers[j++].copy());
+        }
+        return result;
+    }
+
+    /**
+     * @return the iterator over the positions of the set bits in ascending
+     * order.
+     */
+    PrimitiveIterator.OfLong iterator() {
+        return new It();
+    }
+
+    private static int wordIndex(long position) {
+        return (int) (position >>> ADDRESS_BITS_PER_WORD) & WORD_INDEX_MASK;
+    }
+
+    private void append(long key, Container container) {
+        ensureCapacity(size + 1);
+        keys[size] = key;
+        containers[size] = container;
+        ++size;
+        cardinality += container.cardinality;
+    }
+
+    private void insert(int slot, long key, Container container) {
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, slot, keys, slot + 1, size - slot);
+        System.arraycopy(containers, slot, containers, slot + 1, size - slot);
+        keys[slot] = key;
+        containers[slot] = container;
+        ++size;
+    }
+
+    private void remove(int slot) {
+        System.arraycopy(keys, slot + 1, keys, slot, size - slot - 1);
+        System.arraycopy(containers, slot + 1, containers, slot, size - slot - 1);
+        containers[--size] = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newCapacity = Math.max(capacity, keys.length << 1);
+            keys = Arrays.copyOf(keys, newCapacity);
+            containers = Arrays.copyOf(containers, newCapacity);
+        }
+    }
+
+    /**
+     * The non-empty words of 2^16 consecutive positions, sorted by their
+     * index within the container.
+     */
+    private static final class Container {
+
+        private char[] indexes;
+        private long[] words;
+        private int size;
+        private int cardinality;
+
+        Container(int capacity) {
+            this.indexes = new char[capacity];
+            this.words = new long[capacity];
+        }
+
+        boolean set(int index, long mask) {
+            int slot = binarySearch(index);
+            if (slot >= 0) {
+                long word = words[slot];
+                if ((word & mask) != 0) {
+                    return false;
+                }
+                words[slot] = word | mask;
+            } else {
+                slot = -slot - 1;
+                ensureCapacity(size + 1);
+                System.arraycopy(indexes, slot, indexes, slot + 1, size - slot);
+                System.arraycopy(words, slot, words, slot + 1, size - slot);
+                indexes[slot] = (char) index;
+                words[slot] = mask;
+                ++size;
+            }
+            ++cardinality;
+            return true;
+        }
+
+        boolean clear(int index, long mask) {
+            int slot = binarySearch(index);
+            if (slot < 0 || (words[slot] & mask) == 0) {
+                return false;
+            }
+
+            long word = words[slot] & ~mask;
+            if (word == 0) {
+                System.arraycopy(indexes, slot + 1, indexes, slot, size - slot - 1);
+                System.arraycopy(words, slot + 1, words, slot, size - slot - 1);
+                --size;
+            } else {
+                words[slot] = word;
+            }
+            --cardinality;
+            return true;
+        }
+
+        boolean get(int index, long mask) {
+            int slot = binarySearch(index);
+            return slot >= 0 && (words[slot] & mask) != 0;
+        }
+
+        Container copy() {
+            Container copy = new Container(Math.max(size, 1));
+            System.arraycopy(indexes, 0, copy.indexes, 0, size);
+            System.arraycopy(words, 0, copy.words, 0, size);
+            copy.size = size;
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        static Container and(Container left, Container right) {
+            Container result = new Container(Math.max(Math.min(left.size, right.size), 1));
+            int i = 0;
+            int j = 0;
+            while (i < left.size && j < right.size) {
+                char leftIndex = left.indexes[i];
+                char rightIndex = right.indexes[j];
+                if (leftIndex < rightIndex) {
+                    ++i;
+                } else if (leftIndex > rightIndex) {
+                    ++j;
+                } else {
+                    long word = left.words[i++] & right.words[j++];
+                    if (word != 0) {
+                        result.append(leftIndex, word);
+                    }
+                }
+            }
+            return result;
+        }
+
+        static Container or(Container left, Container right) {
+            Container result = new Container(Math.max(left.size + right.size, 1));
+            int i = 0;
+            int j = 0;
+            while (i < left.size && j < right.size) {
+                char leftIndex = left.indexes[i];
+                char rightIndex = right.indexes[j];
+                if (leftIndex < rightIndex) {
+                    result.append(leftIndex, left.words[i++]);
+                } else if (leftIndex > rightIndex) {
+                    result.append(rightIndex, right.words[j++]);
+                } else {
+                    result.append(leftIndex, left.words[i++] | right.words[j++]);
+                }
+            }
+            while (i < left.size) {
+                result.append(left.indexes[i], left.words[i++]);
+            }
+            while (j < right.size) {
+                result.append(right.indexes[j], right.words[j++]);
+            }
+            return result;
+        }
+
+        private void append(char index, long word) {
+            ensureCapacity(size + 1);
+            indexes[size] = index;
+            words[size] = word;
+            ++size;
+            cardinality += Long.bitCount(word);
+        }
+
+        private int binarySearch(int index) {
+            return Arrays.binarySearch(indexes, 0, size, (char) index);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > indexes.length) {
+                int newCapacity = Math.max(capacity, indexes.length << 1);
+                indexes = Arrays.copyOf(indexes, newCapacity);
+                words = Arrays.copyOf(words, newCapacity);
+            }
+        }
+
+    }
+
+    private class It implements PrimitiveIterator.OfLong {
+
+        private int containerSlot;
+        private int wordSlot = -1;
+        private long word;
+
+        @Override
+        public boolean hasNext() {
+            while (word == 0) {
+                if (containerSlot >= size) {
+                    return false;
+                }
+                Container container = containers[containerSlot];
+                if (++wordSlot < container.size) {
+                    word = container.words[wordSlot];
+                } else {
+                    ++containerSlot;
+                    wordSlot = -1;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            long lowestBit = word & -word;
+            word ^= lowestBit;
+            long wordPosition = (keys[containerSlot] << (ADDRESS_BITS_PER_CONTAINER - ADDRESS_BITS_PER_WORD))
+                    + containers[containerSlot].indexes[wordSlot];
+            return (wordPosition << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(lowestBit);
+        }
+
+    }
+
+}
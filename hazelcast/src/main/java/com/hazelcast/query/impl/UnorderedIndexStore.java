@@ -115,11 +115,18 @@ public class UnorderedIndexStore extends BaseIndexStore {
         try {
             recordsWithNullValue.clear();
             recordMap.clear();
+            resetStatistics();
         } finally {
             releaseWriteLock();
         }
     }
 
+    @Override
+    public long estimateRecordCount(Comparable value) {
+        Map<Data, QueryableEntry> records = value == NULL ? recordsWithNullValue : recordMap.get(canonicalize(value));
+        return records == null ? 0 : records.size();
+    }
+
     @Override
     public Set<QueryableEntry> getRecords(Comparable value) {
         takeReadLock();
@@ -30,6 +30,7 @@ import com.hazelcast.internal.util.Preconditions;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntFunction;
 
 import static com.hazelcast.query.impl.getters.ExtractorHelper.extractArgumentsFromAttributeName;
 import static com.hazelcast.query.impl.getters.ExtractorHelper.extractAttributeNameNameWithoutArguments;
@@ -80,6 +81,50 @@ public final class Extractors {
         return null;
     }
 
+    /**
+     * Extracts the values of the given attribute from a batch of targets.
+     * <p>
+     * Unlike {@link #extract} invoked for every target, the getter is not
+     * looked up in the getter cache for every target: a cacheable getter
+     * resolved for a target is reused for the following targets of the same
+     * class. That saves the cache lookups dominating the extraction costs
+     * when a batch of similar targets is processed.
+     *
+     * @param targetsAndValues the targets to extract the values from, the
+     *                         extracted values are stored in place of the
+     *                         targets.
+     * @param size             the number of targets in the batch.
+     * @param attributeName    the name of the attribute to extract.
+     * @param metadata         the function providing the metadata for the
+     *                         target at the given index.
+     */
+    public void extract(Object[] targetsAndValues, int size, String attributeName, IntFunction<Object> metadata) {
+        Class lastClass = null;
+        Getter lastGetter = null;
+        for (int i = 0; i < size; ++i) {
+            Object targetObject = getTargetObject(targetsAndValues[i]);
+            if (targetObject == null) {
+                targetsAndValues[i] = null;
+                continue;
+            }
+
+            Getter getter;
+            if (targetObject.getClass() == lastClass) {
+                getter = lastGetter;
+            } else {
+                getter = getGetter(targetObject, attributeName);
+                lastClass = getter.isCacheable() ? targetObject.getClass() : null;
+                lastGetter = getter;
+            }
+
+            try {
+                targetsAndValues[i] = getter.getValue(targetObject, attributeName, metadata.apply(i));
+            } catch (Exception ex) {
+                throw new QueryException(ex);
+            }
+        }
+    }
+
     /**
      * Returns the form of this data that is queryable.
      * Returns {@link Data} if {@code target} is
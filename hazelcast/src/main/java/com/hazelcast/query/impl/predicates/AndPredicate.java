@@ -22,6 +22,7 @@ import com.hazelcast.internal.serialization.BinaryInterface;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.AndResultSet;
+import com.hazelcast.query.impl.BitmapResultSet;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
@@ -68,32 +69,42 @@ public final class AndPredicate
 
     @Override
     public Set<QueryableEntry> filter(QueryContext queryContext) {
-        Set<QueryableEntry> smallestResultSet = null;
-        List<Set<QueryableEntry>> otherResultSets = null;
+        List<Set<QueryableEntry>> indexedResultSets = null;
         List<Predicate> unindexedPredicates = null;
 
         for (Predicate predicate : predicates) {
             if (isIndexedPredicate(predicate, queryContext)) {
-                Set<QueryableEntry> currentResultSet = ((IndexAwarePredicate) predicate).filter(queryContext);
-                if (smallestResultSet == null) {
-                    smallestResultSet = currentResultSet;
-                } else if (estimatedSizeOf(currentResultSet) < estimatedSizeOf(smallestResultSet)) {
-                    otherResultSets = initOrGetListOf(otherResultSets);
-                    otherResultSets.add(smallestResultSet);
-                    smallestResultSet = currentResultSet;
-                } else {
-                    otherResultSets = initOrGetListOf(otherResultSets);
-                    otherResultSets.add(currentResultSet);
-                }
+                indexedResultSets = initOrGetListOf(indexedResultSets);
+                indexedResultSets.add(((IndexAwarePredicate) predicate).filter(queryContext));
             } else {
                 unindexedPredicates = initOrGetListOf(unindexedPredicates);
                 unindexedPredicates.add(predicate);
             }
         }
 
-        if (smallestResultSet == null) {
+        if (indexedResultSets == null) {
             return null;
         }
+
+        // results of the same bitmap index are intersected bitwise
+        Set<QueryableEntry> smallestResultSet = null;
+        List<Set<QueryableEntry>> otherResultSets = null;
+        for (Set<QueryableEntry> currentResultSet : BitmapResultSet.and(indexedResultSets)) {
+            if (smallestResultSet == null) {
+                smallestResultSet = currentResultSet;
+            } else if (estimatedSizeOf(currentResultSet) < estimatedSizeOf(smallestResultSet)) {
+                otherResultSets = initOrGetListOf(otherResultSets);
+                otherResultSets.add(smallestResultSet);
+                smallestResultSet = currentResultSet;
+            } else {
+                otherResultSets = initOrGetListOf(otherResultSets);
+                otherResultSets.add(currentResultSet);
+            }
+        }
+
+        if (otherResultSets == null && unindexedPredicates == null && smallestResultSet instanceof BitmapResultSet) {
+            return smallestResultSet;
+        }
         return new AndResultSet(smallestResultSet, otherResultSets, unindexedPredicates);
     }
 
@@ -0,0 +1,505 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.query.impl.Comparables.canonicalizeForHashLookup;
+import static com.hazelcast.query.impl.predicates.PredicateUtils.isNull;
+
+/**
+ * Evaluates a predicate over batches of entries in a columnar fashion.
+ * <p>
+ * The numeric attributes referenced by the {@link EqualPredicate},
+ * {@link GreaterLessPredicate}, {@link BetweenPredicate},
+ * {@link BoundedRangePredicate} and {@link InPredicate} instances found in
+ * the predicate tree are extracted for the whole batch into primitive column
+ * arrays and these predicates are evaluated over the columns in tight loops
+ * instead of converting and comparing the boxed values entry by entry. The
+ * extraction of a column resolves the attribute getter once per batch
+ * instead of looking it up for every entry, see
+ * {@link QueryableEntry#extractAttributeValues}. The
+ * rest of the predicates are evaluated entry by entry, but only for the
+ * entries which are not already decided by the columnar ones.
+ * <p>
+ * An attribute value is put into a column only if it has the same numeric
+ * type as the rest of the values in the column. The entries having values of
+ * other types, nulls or multi-values are evaluated using the regular
+ * {@link Predicate#apply} for the whole predicate, so the results are always
+ * the same as the ones produced by the entry-by-entry evaluation.
+ * <p>
+ * Instances are stateful and not thread-safe.
+ */
+public final class ColumnarPredicateEvaluator {
+
+    private final Predicate predicate;
+    private final Node root;
+    private final Column[] columns;
+    private final boolean[] irregular;
+
+    private ColumnarPredicateEvaluator(Predicate predicate, Node root, Column[] columns, boolean[] irregular) {
+        this.predicate = predicate;
+        this.root = root;
+        this.columns = columns;
+        this.irregular = irregular;
+    }
+
+    /**
+     * Compiles the given predicate into a columnar evaluator.
+     *
+     * @param predicate the predicate to compile.
+     * @param batchSize the maximum size of the batches to evaluate.
+     * @return the compiled evaluator or {@code null} if the predicate has no
+     * parts which could benefit from the columnar evaluation.
+     */
+    public static ColumnarPredicateEvaluator compile(Predicate predicate, int batchSize) {
+        Compiler compiler = new Compiler(batchSize);
+        Node root = compiler.compile(predicate);
+        if (compiler.columns.isEmpty()) {
+            return null;
+        }
+        Column[] columns = compiler.columns.values().toArray(new Column[0]);
+        return new ColumnarPredicateEvaluator(predicate, root, columns, compiler.irregular);
+    }
+
+    /**
+     * Evaluates the predicate for the given batch of entries.
+     *
+     * @param entries the entries to evaluate the predicate for.
+     * @param size    the number of entries in the batch.
+     * @param matches the array to store the results to, the result for every
+     *                entry is stored at the index of the entry.
+     */
+    public void evaluate(QueryableEntry[] entries, int size, boolean[] matches) {
+        Arrays.fill(irregular, 0, size, false);
+        for (Column column : columns) {
+            column.fill(entries, size, irregular);
+        }
+
+        if (root.specialize()) {
+            root.evaluate(entries, size, null, matches);
+            for (int i = 0; i < size; ++i) {
+                if (irregular[i]) {
+                    matches[i] = predicate.apply(entries[i]);
+                }
+            }
+        } else {
+            for (int i = 0; i < size; ++i) {
+                matches[i] = predicate.apply(entries[i]);
+            }
+        }
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        return type == Long.class || type == Integer.class || type == Short.class || type == Byte.class;
+    }
+
+    private static boolean isFloating(Class<?> type) {
+        return type == Double.class || type == Float.class;
+    }
+
+    /**
+     * Column of the values of a single attribute.
+     */
+    private static final class Column {
+
+        final String attribute;
+        final Object[] values;
+        final long[] longs;
+        final double[] doubles;
+
+        /**
+         * The type of the values in the column or {@code null} if there are
+         * no regular values in the current batch.
+         */
+        Class<?> type;
+        Comparable sample;
+
+        Column(String attribute, int batchSize) {
+            this.attribute = attribute;
+            this.values = new Object[batchSize];
+            this.longs = new long[batchSize];
+            this.doubles = new double[batchSize];
+        }
+
+        boolean isFloating() {
+            return ColumnarPredicateEvaluator.isFloating(type);
+        }
+
+        void fill(QueryableEntry[] entries, int size, boolean[] irregular) {
+            type = null;
+            sample = null;
+            QueryableEntry.extractAttributeValues(entries, size, attribute, values);
+            for (int i = 0; i < size; ++i) {
+                Object value = values[i];
+                Class<?> valueClass = value == null ? null : value.getClass();
+                if (type == null && (isIntegral(valueClass) || ColumnarPredicateEvaluator.isFloating(valueClass))) {
+                    type = valueClass;
+                    sample = (Comparable) value;
+                }
+
+                if (valueClass == null || valueClass != type) {
+                    irregular[i] = true;
+                } else if (isFloating()) {
+                    doubles[i] = ((Number) value).doubleValue();
+                } else {
+                    longs[i] = ((Number) value).longValue();
+                }
+            }
+            // don't retain the values till the next batch
+            Arrays.fill(values, 0, size, null);
+        }
+
+    }
+
+    /**
+     * Node of the compiled predicate tree.
+     */
+    private interface Node {
+
+        /**
+         * Prepares the node for the evaluation of the current batch.
+         *
+         * @return {@code true} if the node can be evaluated in the columnar
+         * fashion for the current batch, {@code false} otherwise.
+         */
+        boolean specialize();
+
+        /**
+         * Evaluates the node for the current batch.
+         *
+         * @param entries the entries of the batch.
+         * @param size    the size of the batch.
+         * @param mask    the entries to evaluate the node for, {@code null}
+         *                if the node should be evaluated for all the entries.
+         *                The results for the rest of the entries are
+         *                undefined.
+         * @param out     the array to store the results to.
+         */
+        void evaluate(QueryableEntry[] entries, int size, boolean[] mask, boolean[] out);
+
+    }
+
+    /**
+     * Evaluates a predicate which has no columnar implementation entry by
+     * entry.
+     */
+    private static final class GenericNode implements Node {
+
+        private final Predicate predicate;
+        private final boolean[] irregular;
+
+        GenericNode(Predicate predicate, boolean[] irregular) {
+            this.predicate = predicate;
+            this.irregular = irregular;
+        }
+
+        @Override
+        public boolean specialize() {
+            return true;
+        }
+
+        @Override
+        public void evaluate(QueryableEntry[] entries, int size, boolean[] mask, boolean[] out) {
+            for (int i = 0; i < size; ++i) {
+                // irregular entries are evaluated separately for the whole predicate
+                if ((mask == null || mask[i]) && !irregular[i]) {
+                    out[i] = predicate.apply(entries[i]);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Evaluates a conjunction or a disjunction of the child nodes. The
+     * children are evaluated only for the entries not yet decided by the
+     * preceding children.
+     */
+    private static final class CompoundNode implements Node {
+
+        private final boolean conjunction;
+        private final Node[] children;
+        private final boolean[] childMask;
+        private final boolean[] childOut;
+
+        CompoundNode(boolean conjunction, Node[] children, int batchSize) {
+            this.conjunction = conjunction;
+            this.children = children;
+            this.childMask = new boolean[batchSize];
+            this.childOut = new boolean[batchSize];
+        }
+
+        @Override
+        public boolean specialize() {
+            for (Node child : children) {
+                if (!child.specialize()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void evaluate(QueryableEntry[] entries, int size, boolean[] mask, boolean[] out) {
+            Arrays.fill(out, 0, size, conjunction);
+            for (Node child : children) {
+                // the entries are undecided while their result equals to the neutral element
+                for (int i = 0; i < size; ++i) {
+                    childMask[i] = (mask == null || mask[i]) && out[i] == conjunction;
+                }
+                child.evaluate(entries, size, childMask, childOut);
+                if (conjunction) {
+                    for (int i = 0; i < size; ++i) {
+                        out[i] &= childOut[i];
+                    }
+                } else {
+                    for (int i = 0; i < size; ++i) {
+                        out[i] |= childMask[i] && childOut[i];
+                    }
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Evaluates a range predicate over a column, the equality is a range
+     * having the same inclusive bounds.
+     */
+    private static final class RangeNode implements Node {
+
+        private final AbstractPredicate predicate;
+        private final Column column;
+        private final Comparable from;
+        private final boolean fromInclusive;
+        private final Comparable to;
+        private final boolean toInclusive;
+
+        private Comparable convertedFrom;
+        private Comparable convertedTo;
+
+        RangeNode(AbstractPredicate predicate, Column column, RangePredicate range) {
+            this.predicate = predicate;
+            this.column = column;
+            this.from = range.getFrom();
+            this.fromInclusive = range.isFromInclusive();
+            this.to = range.getTo();
+            this.toInclusive = range.isToInclusive();
+        }
+
+        @Override
+        public boolean specialize() {
+            if (column.type == null) {
+                // nothing to evaluate, all the entries are irregular
+                return true;
+            }
+
+            // Convert the bounds exactly like the predicate does it for the
+            // values of the column type. The comparison of the primitive
+            // values is equivalent to Comparables.compare only if the types
+            // are the same.
+            convertedFrom = from == null ? null : predicate.convert(column.sample, from);
+            convertedTo = to == null ? null : predicate.convert(column.sample, to);
+            return (convertedFrom == null || convertedFrom.getClass() == column.type)
+                    && (convertedTo == null || convertedTo.getClass() == column.type);
+        }
+
+        @Override
+        public void evaluate(QueryableEntry[] entries, int size, boolean[] mask, boolean[] out) {
+            if (column.type == null) {
+                return;
+            }
+
+            if (column.isFloating()) {
+                evaluateDoubles(size, out);
+            } else {
+                evaluateLongs(size, out);
+            }
+        }
+
+        private void evaluateLongs(int size, boolean[] out) {
+            long[] values = column.longs;
+            long low = convertedFrom == null ? Long.MIN_VALUE : ((Number) convertedFrom).longValue();
+            long high = convertedTo == null ? Long.MAX_VALUE : ((Number) convertedTo).longValue();
+            if (convertedFrom != null && !fromInclusive) {
+                if (low == Long.MAX_VALUE) {
+                    Arrays.fill(out, 0, size, false);
+                    return;
+                }
+                ++low;
+            }
+            if (convertedTo != null && !toInclusive) {
+                if (high == Long.MIN_VALUE) {
+                    Arrays.fill(out, 0, size, false);
+                    return;
+                }
+                --high;
+            }
+
+            for (int i = 0; i < size; ++i) {
+                long value = values[i];
+                out[i] = value >= low & value <= high;
+            }
+        }
+
+        private void evaluateDoubles(int size, boolean[] out) {
+            // Double.compare matches the Double/Float.compareTo semantics
+            // used by the predicates for NaNs and signed zeros
+            double[] values = column.doubles;
+            boolean hasLow = convertedFrom != null;
+            boolean hasHigh = convertedTo != null;
+            double low = hasLow ? ((Number) convertedFrom).doubleValue() : 0;
+            double high = hasHigh ? ((Number) convertedTo).doubleValue() : 0;
+            int lowLimit = fromInclusive ? 0 : 1;
+            int highLimit = toInclusive ? 0 : -1;
+            for (int i = 0; i < size; ++i) {
+                double value = values[i];
+                out[i] = (!hasLow || Double.compare(value, low) >= lowLimit)
+                        && (!hasHigh || Double.compare(value, high) <= highLimit);
+            }
+        }
+
+    }
+
+    /**
+     * Evaluates an {@link InPredicate} over an integral column.
+     */
+    private static final class InNode implements Node {
+
+        private final InPredicate predicate;
+        private final Column column;
+
+        private long[] values;
+
+        InNode(InPredicate predicate, Column column) {
+            this.predicate = predicate;
+            this.column = column;
+        }
+
+        @Override
+        public boolean specialize() {
+            if (column.type == null) {
+                return true;
+            }
+            if (column.isFloating()) {
+                return false;
+            }
+
+            // The predicate looks up the canonicalized values in a hash set,
+            // integral values are canonicalized to longs, so only the values
+            // converted to longs could match.
+            long[] converted = new long[predicate.values.length];
+            int count = 0;
+            for (Comparable value : predicate.values) {
+                Comparable canonical = canonicalizeForHashLookup(predicate.convert(column.sample, value));
+                if (canonical instanceof Long) {
+                    converted[count++] = (Long) canonical;
+                }
+            }
+            values = Arrays.copyOf(converted, count);
+            Arrays.sort(values);
+            return true;
+        }
+
+        @Override
+        public void evaluate(QueryableEntry[] entries, int size, boolean[] mask, boolean[] out) {
+            if (column.type == null) {
+                return;
+            }
+
+            long[] columnValues = column.longs;
+            for (int i = 0; i < size; ++i) {
+                out[i] = Arrays.binarySearch(values, columnValues[i]) >= 0;
+            }
+        }
+
+    }
+
+    private static final class Compiler {
+
+        final Map<String, Column> columns = new LinkedHashMap<String, Column>();
+        final int batchSize;
+        final boolean[] irregular;
+
+        Compiler(int batchSize) {
+            this.batchSize = batchSize;
+            this.irregular = new boolean[batchSize];
+        }
+
+        Node compile(Predicate predicate) {
+            Class<?> predicateClass = predicate.getClass();
+            if (predicateClass == AndPredicate.class) {
+                return compile(true, ((AndPredicate) predicate).predicates);
+            } else if (predicateClass == OrPredicate.class) {
+                return compile(false, ((OrPredicate) predicate).predicates);
+            } else if (predicateClass == EqualPredicate.class && !isNull(((EqualPredicate) predicate).value)
+                    || predicateClass == GreaterLessPredicate.class || predicateClass == BetweenPredicate.class
+                    || predicateClass == BoundedRangePredicate.class) {
+                AbstractPredicate rangePredicate = (AbstractPredicate) predicate;
+                return new RangeNode(rangePredicate, column(rangePredicate.attributeName), (RangePredicate) predicate);
+            } else if (predicateClass == InPredicate.class && !hasNulls(((InPredicate) predicate).values)) {
+                InPredicate inPredicate = (InPredicate) predicate;
+                return new InNode(inPredicate, column(inPredicate.attributeName));
+            }
+            return new GenericNode(predicate, irregular);
+        }
+
+        private Node compile(boolean conjunction, Predicate[] predicates) {
+            // evaluate the columnar children first, so the generic ones are
+            // evaluated only for the entries not decided by the columnar ones
+            List<Node> columnar = new ArrayList<Node>(predicates.length);
+            List<Node> generic = new ArrayList<Node>(predicates.length);
+            for (Predicate child : predicates) {
+                Node node = compile(child);
+                if (node instanceof GenericNode) {
+                    generic.add(node);
+                } else {
+                    columnar.add(node);
+                }
+            }
+            columnar.addAll(generic);
+            return new CompoundNode(conjunction, columnar.toArray(new Node[0]), batchSize);
+        }
+
+        private Column column(String attribute) {
+            Column column = columns.get(attribute);
+            if (column == null) {
+                column = new Column(attribute, batchSize);
+                columns.put(attribute, column);
+            }
+            return column;
+        }
+
+        private static boolean hasNulls(Comparable[] values) {
+            for (Comparable value : values) {
+                if (isNull(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+}
@@ -21,6 +21,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.BinaryInterface;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.BitmapResultSet;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.OrResultSet;
 import com.hazelcast.query.impl.QueryContext;
@@ -70,7 +71,16 @@ public final class OrPredicate
                 }
             }
         }
-        return indexedResults.isEmpty() ? null : new OrResultSet(indexedResults);
+        if (indexedResults.isEmpty()) {
+            return null;
+        }
+
+        // results of the same bitmap index are united bitwise
+        indexedResults = BitmapResultSet.or(indexedResults);
+        if (indexedResults.size() == 1 && indexedResults.get(0) instanceof BitmapResultSet) {
+            return indexedResults.get(0);
+        }
+        return new OrResultSet(indexedResults);
     }
 
     @Override
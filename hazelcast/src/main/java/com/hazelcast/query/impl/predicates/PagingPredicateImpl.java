@@ -22,7 +22,9 @@ import com.hazelcast.internal.serialization.BinaryInterface;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.internal.util.IterationType;
@@ -32,12 +34,15 @@ import java.io.IOException;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import static com.hazelcast.internal.serialization.impl.FactoryIdHelper.PREDICATE_DS_FACTORY_ID;
+import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
 
 /**
  * Implementaiton of {@link PagingPredicate}.
@@ -168,14 +173,19 @@ public class PagingPredicateImpl<K, V>
 
     /**
      * Used if inner predicate is instanceof {@link IndexAwarePredicate} for filtering.
+     * <p>
+     * If the inner predicate can't be answered by the indexes, but there is
+     * an ordered index matching the natural ordering of the results, the
+     * index is walked starting from the nearest anchor until the requested
+     * pages are filled up.
      *
      * @param queryContext
      * @return
      */
     @Override
     public Set<QueryableEntry<K, V>> filter(QueryContext queryContext) {
-        if (!(predicate instanceof IndexAwarePredicate)) {
-            return null;
+        if (!isInnerPredicateIndexed(queryContext)) {
+            return filterUsingOrderingIndex(queryContext);
         }
 
         Set<QueryableEntry<K, V>> set = ((IndexAwarePredicate<K, V>) predicate).filter(queryContext);
@@ -195,18 +205,78 @@ public class PagingPredicateImpl<K, V>
         return new LinkedHashSet<QueryableEntry<K, V>>(sortedSubList);
     }
 
+    @SuppressWarnings("unchecked")
+    private Set<QueryableEntry<K, V>> filterUsingOrderingIndex(QueryContext queryContext) {
+        InternalIndex index = matchOrderingIndex(queryContext);
+        if (index == null) {
+            return null;
+        }
+
+        Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry();
+        Map.Entry anchor = nearestAnchorEntry.getValue();
+        Comparable from = anchor == null ? null
+                : (Comparable) (iterationType == IterationType.VALUE ? anchor.getValue() : anchor.getKey());
+        Iterator<Set<QueryableEntry>> groups = index.getRecordGroups(from, true);
+        if (groups == null) {
+            return null;
+        }
+
+        Comparator<QueryableEntry> entryComparator = SortingUtil.newComparator(this);
+        long limit = pageSize * ((long) page - nearestAnchorEntry.getKey());
+        Set<QueryableEntry<K, V>> result = new LinkedHashSet<QueryableEntry<K, V>>();
+        List<QueryableEntry> group = new ArrayList<QueryableEntry>();
+        while (result.size() < limit && groups.hasNext()) {
+            // the entries having the same value are ordered by the tie-breaker
+            group.clear();
+            group.addAll(groups.next());
+            group.sort(entryComparator);
+            for (QueryableEntry entry : group) {
+                if (result.size() == limit) {
+                    break;
+                }
+                if (SortingUtil.compareAnchor(this, entry, nearestAnchorEntry) && apply(entry)) {
+                    result.add(entry);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Matches an ordered index having its ordering consistent with the natural
+     * ordering of the results, see {@link SortingUtil#compare}. Only the
+     * natural ordering can be served by the indexes, custom comparators are
+     * opaque to them.
+     *
+     * @return the matched index or {@code null} if there is no such index.
+     */
+    private InternalIndex matchOrderingIndex(QueryContext queryContext) {
+        if (comparator != null || iterationType == null) {
+            return null;
+        }
+
+        String attribute = iterationType == IterationType.VALUE ? THIS_ATTRIBUTE_NAME.value() : KEY_ATTRIBUTE_NAME.value();
+        Index index = queryContext.matchIndex(attribute, QueryContext.IndexMatchHint.PREFER_ORDERED);
+        if (!(index instanceof InternalIndex) || !index.isOrdered()) {
+            return null;
+        }
+        return (InternalIndex) index;
+    }
+
+    private boolean isInnerPredicateIndexed(QueryContext queryContext) {
+        return predicate instanceof IndexAwarePredicate && ((IndexAwarePredicate) predicate).isIndexed(queryContext);
+    }
 
     /**
      * Used if inner predicate is instanceof {@link IndexAwarePredicate} for checking if indexed.
+     * Also reports the predicate as indexed if the results may be ordered by
+     * an index.
      *
      * @param queryContext
      * @return
      */
     public boolean isIndexed(QueryContext queryContext) {
-        if (predicate instanceof IndexAwarePredicate) {
-            return ((IndexAwarePredicate) predicate).isIndexed(queryContext);
-        }
-        return false;
+        return isInnerPredicateIndexed(queryContext) || matchOrderingIndex(queryContext) != null;
     }
 
     /**
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryContext.IndexMatchHint;
+
+import static com.hazelcast.internal.util.collection.ArrayUtils.createCopy;
+
+/**
+ * Chooses the most selective indexed conjunct of every {@link AndPredicate}
+ * and keeps only it indexed. The rest of the indexed conjuncts are wrapped
+ * into {@link SkipIndexPredicate}, so they are evaluated as filters on the
+ * candidate entries produced by the chosen conjunct instead of materializing
+ * potentially large index results just to intersect them.
+ * <p>
+ * The selectivity is estimated using the statistics maintained by the
+ * indexes, see {@link InternalIndex#estimateRecordCount}. Conjuncts the
+ * selectivity can't be estimated for are left intact.
+ */
+public class SelectivityVisitor extends AbstractVisitor {
+
+    public static final long UNKNOWN = -1;
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        Predicate[] predicates = andPredicate.predicates;
+        long[] estimates = new long[predicates.length];
+        int estimated = 0;
+        int mostSelective = -1;
+        for (int i = 0; i < predicates.length; ++i) {
+            long estimate = estimateRecordCount(predicates[i], indexes);
+            estimates[i] = estimate;
+            if (estimate == UNKNOWN) {
+                continue;
+            }
+            ++estimated;
+            if (mostSelective == -1 || estimate < estimates[mostSelective]) {
+                mostSelective = i;
+            }
+        }
+
+        if (estimated < 2) {
+            return andPredicate;
+        }
+
+        Predicate[] target = createCopy(predicates);
+        for (int i = 0; i < target.length; ++i) {
+            if (i != mostSelective && estimates[i] != UNKNOWN) {
+                target[i] = new SkipIndexPredicate(predicates[i]);
+            }
+        }
+        return new AndPredicate(target);
+    }
+
+    /**
+     * Estimates the number of entries matching the given predicate using the
+     * index the predicate would be evaluated with.
+     *
+     * @return the estimated number of entries or {@link #UNKNOWN} if the
+     * predicate is not indexed or its selectivity can't be estimated.
+     */
+    public static long estimateRecordCount(Predicate predicate, Indexes indexes) {
+        if (predicate instanceof AndPredicate) {
+            return estimateRecordCount((AndPredicate) predicate, indexes);
+        } else if (predicate instanceof EqualPredicate) {
+            EqualPredicate equalPredicate = (EqualPredicate) predicate;
+            InternalIndex index = indexes.matchIndex(equalPredicate.attributeName, IndexMatchHint.PREFER_UNORDERED);
+            return index == null ? UNKNOWN : index.estimateRecordCount(equalPredicate.value);
+        } else if (predicate instanceof InPredicate) {
+            return estimateRecordCount((InPredicate) predicate, indexes);
+        } else if (predicate instanceof RangePredicate) {
+            RangePredicate rangePredicate = (RangePredicate) predicate;
+            InternalIndex index = indexes.matchIndex(rangePredicate.getAttribute(), IndexMatchHint.PREFER_ORDERED);
+            return index == null ? UNKNOWN : index.estimateRecordCount(rangePredicate.getFrom(),
+                    rangePredicate.isFromInclusive(), rangePredicate.getTo(), rangePredicate.isToInclusive());
+        } else if (predicate instanceof CompositeEqualPredicate) {
+            CompositeEqualPredicate compositePredicate = (CompositeEqualPredicate) predicate;
+            InternalIndex index = indexes.matchIndex(compositePredicate.indexName, IndexMatchHint.EXACT_NAME);
+            return index == null ? UNKNOWN : index.estimateRecordCount(compositePredicate.value);
+        } else if (predicate instanceof CompositeRangePredicate) {
+            CompositeRangePredicate compositePredicate = (CompositeRangePredicate) predicate;
+            InternalIndex index = indexes.matchIndex(compositePredicate.indexName, IndexMatchHint.EXACT_NAME);
+            return index == null ? UNKNOWN : index.estimateRecordCount(compositePredicate.from,
+                    compositePredicate.fromInclusive, compositePredicate.to, compositePredicate.toInclusive);
+        } else if (predicate instanceof OrPredicate) {
+            return estimateRecordCount((OrPredicate) predicate, indexes);
+        }
+        return UNKNOWN;
+    }
+
+    private static long estimateRecordCount(InPredicate predicate, Indexes indexes) {
+        InternalIndex index = indexes.matchIndex(predicate.attributeName, IndexMatchHint.PREFER_UNORDERED);
+        if (index == null) {
+            return UNKNOWN;
+        }
+
+        long estimate = 0;
+        for (Comparable value : predicate.values) {
+            estimate += index.estimateRecordCount(value);
+        }
+        return estimate;
+    }
+
+    private static long estimateRecordCount(AndPredicate predicate, Indexes indexes) {
+        // the conjunction matches at most the entries of its most selective indexed conjunct
+        long estimate = UNKNOWN;
+        for (Predicate conjunct : predicate.predicates) {
+            long conjunctEstimate = estimateRecordCount(conjunct, indexes);
+            if (conjunctEstimate != UNKNOWN && (estimate == UNKNOWN || conjunctEstimate < estimate)) {
+                estimate = conjunctEstimate;
+            }
+        }
+        return estimate;
+    }
+
+    private static long estimateRecordCount(OrPredicate predicate, Indexes indexes) {
+        // the disjunction is indexed only if all of its predicates are indexed
+        long estimate = 0;
+        for (Predicate disjunct : predicate.predicates) {
+            long disjunctEstimate = estimateRecordCount(disjunct, indexes);
+            if (disjunctEstimate == UNKNOWN) {
+                return UNKNOWN;
+            }
+            estimate += disjunctEstimate;
+        }
+        return estimate;
+    }
+
+}
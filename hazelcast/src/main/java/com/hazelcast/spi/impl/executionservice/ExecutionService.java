@@ -104,6 +104,16 @@ public interface ExecutionService {
      */
     String MAP_LOAD_ALL_KEYS_EXECUTOR = "hz:map-loadAllKeys";
 
+    /**
+     * Name of the executor that stores the entries of the write-behind
+     * queues when they are flushed in parallel. This is the executor you
+     * want to configure to bound the number of the threads which write
+     * to the database.
+     *
+     * @see com.hazelcast.spi.properties.GroupProperty#MAP_WRITE_BEHIND_FLUSH_PARALLELISM
+     */
+    String MAP_WRITE_BEHIND_EXECUTOR = "hz:map-write-behind";
+
     /**
      * @param name          for the executor service
      * @param poolSize      the maximum number of threads to allow in the pool
@@ -16,6 +16,7 @@
 
 package com.hazelcast.spi.impl.operationexecutor;
 
+import com.hazelcast.internal.networking.EventLoopHost;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.spi.impl.operationservice.LiveOperationsTracker;
 import com.hazelcast.spi.impl.operationservice.Operation;
@@ -50,6 +51,17 @@ public interface OperationExecutor extends Consumer<Packet>, LiveOperationsTrack
     // Will be replaced by metrics
     int getPriorityQueueSize();
 
+    /**
+     * Returns the number of the normal operations pending on the partition
+     * thread of the given partition.
+     *
+     * This method returns a best effort value.
+     *
+     * @param partitionId the id of the partition
+     * @return the number of normal pending operations.
+     */
+    int getPartitionQueueSize(int partitionId);
+
     /**
      * Returns the number of executed operations.
      */
@@ -192,6 +204,15 @@ public interface OperationExecutor extends Consumer<Packet>, LiveOperationsTrack
      */
     int getPartitionThreadId(int partitionId);
 
+    /**
+     * Returns the partition threads able to host the io event loops, see
+     * {@link com.hazelcast.spi.properties.GroupProperty#THREAD_PER_CORE_ENABLED}.
+     *
+     * @return the event loop hosts or {@code null} if the thread-per-core
+     * mode is disabled.
+     */
+    EventLoopHost[] getEventLoopHosts();
+
     /**
      * Starts this OperationExecutor.
      */
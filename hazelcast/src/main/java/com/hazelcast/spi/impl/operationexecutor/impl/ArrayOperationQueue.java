@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.networking.EventLoop;
+import com.hazelcast.internal.networking.EventLoopHost;
+import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.internal.util.concurrent.MPSCQueue;
+import com.hazelcast.internal.util.concurrent.ManyToOneConcurrentArrayQueue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+
+/**
+ * An {@link OperationQueue} backed by bounded lock-free array queues, so
+ * adding a task to it neither allocates nor takes a lock unlike the {@link
+ * OperationQueueImpl}, which allocates a linked node for every task and an
+ * additional trigger task for every priority task.
+ * <p>
+ * Once an array queue is full, the tasks overflow into an unbounded {@link
+ * MPSCQueue} until the array queue is drained, so adding a task never fails
+ * nor blocks and the FIFO ordering of the tasks is retained.
+ * <p>
+ * The queue supports a single consumer thread only, so it can't be shared by
+ * the {@link GenericOperationThread}s. If the queue is empty, the consumer
+ * thread idles using the given {@link IdleStrategy} or blocks if there is no
+ * idle strategy.
+ * <p>
+ * The consumer thread may also host an {@link EventLoop}. The event loop is
+ * processed once the queue is empty and periodically in between the tasks
+ * while the queue is not empty. If there is no idle strategy, the consumer
+ * thread blocks in the event loop instead of parking.
+ */
+public final class ArrayOperationQueue implements OperationQueue, EventLoopHost {
+
+    static final int DEFAULT_NORMAL_CAPACITY = 16384;
+    static final int DEFAULT_PRIORITY_CAPACITY = 1024;
+    // the number of the tasks taken in between processing the event loop
+    static final int EVENT_LOOP_INTERVAL = 16;
+
+    private final TaskQueue normalQueue;
+    private final TaskQueue priorityQueue;
+    private final IdleStrategy idleStrategy;
+
+    private Thread consumerThread;
+    private volatile boolean consumerBlocked;
+    private volatile EventLoop eventLoop;
+    // the event loop the consumer thread is blocked in
+    private volatile EventLoop blockingEventLoop;
+    private int takenSinceEventLoop;
+
+    public ArrayOperationQueue(IdleStrategy idleStrategy) {
+        this(DEFAULT_NORMAL_CAPACITY, DEFAULT_PRIORITY_CAPACITY, idleStrategy);
+    }
+
+    ArrayOperationQueue(int normalCapacity, int priorityCapacity, IdleStrategy idleStrategy) {
+        this.normalQueue = new TaskQueue(normalCapacity);
+        this.priorityQueue = new TaskQueue(priorityCapacity);
+        this.idleStrategy = idleStrategy;
+    }
+
+    /**
+     * Sets the consumer thread to wake up once a task is added while the
+     * thread is blocked. Should be called before the queue is published to
+     * the producers.
+     *
+     * @param consumerThread the consumer thread.
+     */
+    public void setConsumerThread(Thread consumerThread) {
+        this.consumerThread = checkNotNull(consumerThread, "consumerThread can't be null");
+    }
+
+    @Override
+    public Thread getHostThread() {
+        return consumerThread;
+    }
+
+    @Override
+    public void setEventLoop(EventLoop eventLoop) {
+        this.eventLoop = eventLoop;
+        // the consumer thread may be parked, so it wouldn't notice
+        LockSupport.unpark(consumerThread);
+    }
+
+    @Override
+    public void add(Object task, boolean priority) {
+        checkNotNull(task, "task can't be null");
+
+        if (priority) {
+            priorityQueue.offer(task);
+        } else {
+            normalQueue.offer(task);
+        }
+
+        // the volatile read is ordered after the volatile writes done by the
+        // offer, so either the consumer sees the task or we see it blocked
+        if (consumerBlocked) {
+            LockSupport.unpark(consumerThread);
+        } else {
+            EventLoop blockingEventLoop = this.blockingEventLoop;
+            if (blockingEventLoop != null) {
+                blockingEventLoop.wakeup();
+            }
+        }
+    }
+
+    @Override
+    public Object take(boolean priorityOnly) throws InterruptedException {
+        processEventLoopPeriodically();
+
+        for (long idleCount = 0; ; ++idleCount) {
+            Object task = priorityQueue.poll();
+            if (task == null && !priorityOnly) {
+                task = normalQueue.poll();
+            }
+            if (task != null) {
+                return task;
+            }
+
+            idle(idleCount, priorityOnly);
+        }
+    }
+
+    @Override
+    public int normalSize() {
+        return normalQueue.size();
+    }
+
+    @Override
+    public int prioritySize() {
+        return priorityQueue.size();
+    }
+
+    @Override
+    public int size() {
+        return normalQueue.size() + priorityQueue.size();
+    }
+
+    private void processEventLoopPeriodically() {
+        EventLoop eventLoop = this.eventLoop;
+        if (eventLoop != null && ++takenSinceEventLoop >= EVENT_LOOP_INTERVAL) {
+            takenSinceEventLoop = 0;
+            eventLoop.processNow();
+        }
+    }
+
+    private void idle(long idleCount, boolean priorityOnly) throws InterruptedException {
+        EventLoop eventLoop = this.eventLoop;
+        if (eventLoop != null) {
+            takenSinceEventLoop = 0;
+            if (!eventLoop.processNow()) {
+                idleInEventLoop(eventLoop, idleCount, priorityOnly);
+            }
+        } else if (idleStrategy != null) {
+            idleStrategy.idle(idleCount);
+        } else {
+            consumerBlocked = true;
+            try {
+                if (priorityQueue.isEmpty() && (priorityOnly || normalQueue.isEmpty())) {
+                    LockSupport.park(this);
+                }
+            } finally {
+                consumerBlocked = false;
+            }
+        }
+
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private void idleInEventLoop(EventLoop eventLoop, long idleCount, boolean priorityOnly) {
+        if (idleStrategy != null) {
+            idleStrategy.idle(idleCount);
+            return;
+        }
+
+        blockingEventLoop = eventLoop;
+        try {
+            if (priorityQueue.isEmpty() && (priorityOnly || normalQueue.isEmpty())) {
+                eventLoop.process();
+            }
+        } finally {
+            blockingEventLoop = null;
+        }
+    }
+
+    /**
+     * A bounded array queue overflowing into an unbounded linked queue.
+     * <p>
+     * Once a task overflows, the following tasks overflow too until the
+     * overflowed tasks are taken, the tasks in the array queue are always
+     * taken first. This way the FIFO ordering is retained.
+     */
+    private static final class TaskQueue {
+
+        private final ManyToOneConcurrentArrayQueue<Object> queue;
+        private final MPSCQueue<Object> overflowQueue = new MPSCQueue<>(null);
+        private final AtomicInteger overflowSize = new AtomicInteger();
+
+        TaskQueue(int capacity) {
+            this.queue = new ManyToOneConcurrentArrayQueue<>(capacity);
+        }
+
+        void offer(Object task) {
+            if (overflowSize.get() == 0 && queue.offer(task)) {
+                return;
+            }
+
+            overflowSize.incrementAndGet();
+            overflowQueue.offer(task);
+        }
+
+        Object poll() {
+            Object task = queue.poll();
+            if (task != null || queue.addedCount() != queue.removedCount()) {
+                // the tasks which have claimed a slot in the array queue, but
+                // are not visible yet, must be taken before the overflowed ones
+                return task;
+            }
+
+            if (overflowSize.get() == 0) {
+                return null;
+            }
+            task = overflowQueue.poll();
+            if (task != null) {
+                overflowSize.decrementAndGet();
+            }
+            return task;
+        }
+
+        boolean isEmpty() {
+            return queue.addedCount() == queue.removedCount() && overflowSize.get() == 0;
+        }
+
+        int size() {
+            return queue.size() + overflowSize.get();
+        }
+
+    }
+
+}
@@ -20,6 +20,7 @@ import com.hazelcast.instance.impl.NodeExtension;
 import com.hazelcast.internal.metrics.StaticMetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.networking.EventLoopHost;
 import com.hazelcast.internal.util.concurrent.MPSCQueue;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingService;
@@ -50,6 +51,7 @@ import static com.hazelcast.spi.properties.GroupProperty.GENERIC_OPERATION_THREA
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.PRIORITY_GENERIC_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.THREAD_PER_CORE_ENABLED;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadPoolName;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -79,6 +81,9 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public final class OperationExecutorImpl implements OperationExecutor, StaticMetricsProvider {
     private static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.partitionthread.idlestrategy", "block");
+    // "linked" for the MPSCQueue based queue, "array" for the ArrayOperationQueue
+    private static final HazelcastProperty QUEUE_TYPE
+            = new HazelcastProperty("hazelcast.operation.partitionthread.queue", "linked");
     private static final int TERMINATION_TIMEOUT_SECONDS = 3;
 
     private final ILogger logger;
@@ -97,6 +102,8 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     private final Address thisAddress;
     private final OperationRunner adHocOperationRunner;
     private final int priorityThreadCount;
+    // the queues of the partition threads hosting the io in the thread-per-core mode
+    private EventLoopHost[] eventLoopHosts;
 
     public OperationExecutorImpl(HazelcastProperties properties,
                                  LoggingService loggerService,
@@ -143,19 +150,35 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         int threadCount = properties.getInteger(PARTITION_OPERATION_THREAD_COUNT);
 
         IdleStrategy idleStrategy = getIdleStrategy(properties, IDLE_STRATEGY);
+        boolean threadPerCore = properties.getBoolean(THREAD_PER_CORE_ENABLED);
+        // only the array queue is able to host the io
+        boolean arrayQueue = threadPerCore || isArrayQueue(properties);
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
+        if (threadPerCore) {
+            eventLoopHosts = new EventLoopHost[threadCount];
+        }
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = createThreadPoolName(hzName, "partition-operation") + threadId;
-            // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
-            MPSCQueue<Object> normalQueue = new MPSCQueue<Object>(idleStrategy);
-
-            OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<Object>());
 
-            PartitionOperationThread partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
-                    nodeExtension, partitionOperationRunners, configClassLoader);
+            PartitionOperationThread partitionThread;
+            if (arrayQueue) {
+                ArrayOperationQueue operationQueue = new ArrayOperationQueue(idleStrategy);
+                partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
+                        nodeExtension, partitionOperationRunners, configClassLoader);
+                operationQueue.setConsumerThread(partitionThread);
+                if (threadPerCore) {
+                    eventLoopHosts[threadId] = operationQueue;
+                }
+            } else {
+                // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
+                MPSCQueue<Object> normalQueue = new MPSCQueue<Object>(idleStrategy);
+                OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<Object>());
+                partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
+                        nodeExtension, partitionOperationRunners, configClassLoader);
+                normalQueue.setConsumerThread(partitionThread);
+            }
 
             threads[threadId] = partitionThread;
-            normalQueue.setConsumerThread(partitionThread);
         }
 
         // we need to assign the PartitionOperationThreads to all OperationRunners they own
@@ -169,6 +192,22 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return threads;
     }
 
+    private static boolean isArrayQueue(HazelcastProperties properties) {
+        String queueType = properties.getString(QUEUE_TYPE);
+        if ("array".equals(queueType)) {
+            return true;
+        } else if ("linked".equals(queueType)) {
+            return false;
+        }
+        throw new IllegalStateException("Unrecognized " + QUEUE_TYPE.getName() + " value=" + queueType);
+    }
+
+    @Override
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "the hosts are meant to be shared with the networking")
+    public EventLoopHost[] getEventLoopHosts() {
+        return eventLoopHosts;
+    }
+
     static int getPartitionThreadId(int partitionId, int partitionThreadCount) {
         return partitionId % partitionThreadCount;
     }
@@ -291,6 +330,23 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return size;
     }
 
+    @Override
+    public int getPartitionQueueSize(int partitionId) {
+        return partitionThreads[getPartitionThreadId(partitionId, partitionThreads.length)].queue.normalSize();
+    }
+
+    /**
+     * @return the depth of the deepest partition thread queue.
+     */
+    @Probe
+    private int getMaxPartitionQueueSize() {
+        int max = 0;
+        for (PartitionOperationThread partitionThread : partitionThreads) {
+            max = Math.max(max, partitionThread.queue.normalSize());
+        }
+        return max;
+    }
+
     @Probe
     private int getGenericQueueSize() {
         return genericQueue.normalSize();
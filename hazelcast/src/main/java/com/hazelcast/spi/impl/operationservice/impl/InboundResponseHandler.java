@@ -32,6 +32,7 @@ import java.util.function.Consumer;
 
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_CONGESTED;
 import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.internal.nio.Packet.Type.OPERATION;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.BACKUP_ACK_RESPONSE;
@@ -85,6 +86,10 @@ public final class InboundResponseHandler implements Consumer<Packet> {
         long callId = Bits.readLong(bytes, OFFSET_CALL_ID, useBigEndian);
         Address sender = packet.getConn().getEndPoint();
         try {
+            if (packet.isFlagRaised(FLAG_OP_CONGESTED)) {
+                notifyCongested(callId);
+            }
+
             switch (typeId) {
                 case NORMAL_RESPONSE:
                     byte backupAcks = bytes[OFFSET_BACKUP_ACKS];
@@ -108,6 +113,14 @@ public final class InboundResponseHandler implements Consumer<Packet> {
         }
     }
 
+    private void notifyCongested(long callId) {
+        Invocation invocation = invocationRegistry.get(callId);
+        if (invocation != null) {
+            // read by the PartitionCredits once the invocation is deregistered
+            invocation.congested = true;
+        }
+    }
+
     public void notifyBackupComplete(long callId) {
         responsesBackup.inc();
 
@@ -148,6 +148,23 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
      * Shows whether this Invocation is targeting a remote member or not.
      */
     private boolean remote;
+    /**
+     * The partition of the credit taken by this invocation, or -1 if it holds no credit.
+     * See {@link PartitionCredits}.
+     */
+    int creditPartitionId = -1;
+    /**
+     * Shows whether the response was sent while the partition of the operation was congested.
+     */
+    volatile boolean congested;
+    /**
+     * The links of this invocation in the timing wheel of its {@link InvocationRegistry} stripe, the slot
+     * is -1 if it isn't linked. Guarded by the lock of the stripe.
+     */
+    Invocation timeoutPrev;
+    Invocation timeoutNext;
+    int timeoutSlot = -1;
+    long timeoutCheckMillis;
     /**
      * Shows the address of current target.
      * <p>
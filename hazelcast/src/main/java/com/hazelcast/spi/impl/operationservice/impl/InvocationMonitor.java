@@ -38,7 +38,6 @@ import com.hazelcast.spi.impl.servicemanager.ServiceManager;
 import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.internal.util.Clock;
 
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -283,14 +282,19 @@ public class InvocationMonitor implements Consumer<Packet>, StaticMetricsProvide
     }
 
     /**
-     * The MonitorTask iterates over all pending invocations and sees what needs to be done. Currently its tasks are:
-     * - getting rid of duplicates
+     * The MonitorTask checks the pending invocations whose timeout checks are due and sees what needs to be done.
+     * Currently its tasks are:
      * - checking for heartbeat timeout
      * - checking for backup timeout
      *
+     * The invocations which can't time out yet aren't visited, see {@link InvocationRegistry#checkTimeouts}.
+     *
      * In the future additional checks can be added here like checking if a retry is needed etc.
      */
     private final class MonitorInvocationsTask extends FixedRateMonitorTask {
+        private int backupTimeouts;
+        private int normalTimeouts;
+
         private MonitorInvocationsTask(long periodMillis) {
             super(periodMillis);
         }
@@ -298,37 +302,34 @@ public class InvocationMonitor implements Consumer<Packet>, StaticMetricsProvide
         @Override
         public void run0() {
             if (logger.isFinestEnabled()) {
-                logger.finest("Scanning all invocations");
+                logger.finest("Scanning due invocations");
             }
 
-            if (invocationRegistry.size() == 0) {
+            backupTimeouts = 0;
+            normalTimeouts = 0;
+            int invocationCount = invocationRegistry.checkTimeouts(Clock.currentTimeMillis(), this::checkTimeouts);
+            if (invocationCount == 0) {
                 return;
             }
 
-            int backupTimeouts = 0;
-            int normalTimeouts = 0;
-            int invocationCount = 0;
-
-            for (Entry<Long, Invocation> e : invocationRegistry.entrySet()) {
-                invocationCount++;
-                Invocation inv = e.getValue();
-                try {
-                    if (inv.detectAndHandleTimeout(invocationTimeoutMillis)) {
-                        normalTimeouts++;
-                    } else if (inv.detectAndHandleBackupTimeout(backupTimeoutMillis)) {
-                        backupTimeouts++;
-                    }
-                } catch (Throwable t) {
-                    inspectOutOfMemoryError(t);
-                    logger.severe("Failed to check invocation:" + inv, t);
-                }
-            }
-
             backupTimeoutsCount.inc(backupTimeouts);
             normalTimeoutsCount.inc(normalTimeouts);
             log(invocationCount, backupTimeouts, normalTimeouts);
         }
 
+        private void checkTimeouts(Invocation inv) {
+            try {
+                if (inv.detectAndHandleTimeout(invocationTimeoutMillis)) {
+                    normalTimeouts++;
+                } else if (inv.detectAndHandleBackupTimeout(backupTimeoutMillis)) {
+                    backupTimeouts++;
+                }
+            } catch (Throwable t) {
+                inspectOutOfMemoryError(t);
+                logger.severe("Failed to check invocation:" + inv, t);
+            }
+        }
+
         private void log(int invocationCount, int backupTimeouts, int invocationTimeouts) {
             Level logLevel = null;
             if (backupTimeouts > 0 || invocationTimeouts > 0) {
@@ -22,19 +22,24 @@ import com.hazelcast.core.MemberLeftException;
 import com.hazelcast.internal.metrics.StaticMetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.Clock;
 import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.internal.util.collection.Long2ObjectHashMap;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.sequence.CallIdSequence;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.deactivate;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_BACKUP_TIMEOUT_MILLIS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Responsible for the registration of all pending invocations.
@@ -45,41 +50,66 @@ import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallI
  * {@link com.hazelcast.spi.impl.operationservice.impl.responses.Response} comes in, the
  * appropriate invocation can be looked up.
  * <p>
- * Some ideas:
- * <ul>
- * <li>Use a ringbuffer to store all invocations instead of a CHM. The call ID can be used as sequence ID for this
- * ringbuffer. It can be that you run in slots that have not been released; if that happens, just keep increasing
- * the sequence (although you now get sequence-gaps).</li>
- * <li>Pre-allocate all invocations. Because the ringbuffer has a fixed capacity, pre-allocation should be easy. Also
- * the PartitionInvocation and TargetInvocation can be folded into Invocation.</li>
- * </ul>
+ * The invocations are stored in stripes selected by the call ID. Every stripe is an open addressing
+ * {@link Long2ObjectHashMap} guarded by the lock of the stripe, so the call IDs aren't boxed and no map
+ * node is allocated per invocation. Since the call IDs are sequential, the consecutive invocations
+ * end up in different stripes.
+ * <p>
+ * Every stripe also has a hashed timing wheel with a slot per {@link #TIMEOUT_TICK_MILLIS} which links the
+ * invocations by the time their timeouts need to be checked. An invocation can't time out before its call
+ * timeout or the backup timeout has passed, so it is scheduled for the first check only then and most of the
+ * invocations are deregistered before they are ever checked. The {@link InvocationMonitor} checks the
+ * invocations of the due slots only, see {@link #checkTimeouts(long, Consumer)}, instead of scanning all
+ * of them.
  */
 public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsProvider {
 
+    /**
+     * The resolution of the timeout checks. Once an invocation passed its first check without
+     * completing, it is checked every tick.
+     */
+    static final long TIMEOUT_TICK_MILLIS = SECONDS.toMillis(1);
+    /**
+     * The number of slots of the timing wheel, so it covers a bit more than 8 minutes. An invocation
+     * scheduled further away is visited once per lap of the wheel.
+     */
+    static final int WHEEL_SIZE = 512;
+
     private static final int CORE_SIZE_CHECK = 8;
     private static final int CORE_SIZE_FACTOR = 4;
     private static final int CONCURRENCY_LEVEL = 16;
 
-    private static final int INITIAL_CAPACITY = 1000;
-    private static final float LOAD_FACTOR = 0.75f;
+    private static final int STRIPE_INITIAL_CAPACITY = 64;
     private static final double HUNDRED_PERCENT = 100d;
 
-    @Probe(name = "invocations.pending", level = MANDATORY)
-    private final ConcurrentMap<Long, Invocation> invocations;
+    private final Stripe[] stripes;
+    private final int stripeMask;
     private final ILogger logger;
     private final CallIdSequence callIdSequence;
+    private final PartitionCredits partitionCredits;
+    private final long backupTimeoutMillis;
+    // the last tick checked by the InvocationMonitor, only accessed by its thread
+    private long lastCheckedTick;
 
     private volatile boolean alive = true;
 
-    public InvocationRegistry(ILogger logger, CallIdSequence callIdSequence) {
+    public InvocationRegistry(ILogger logger, CallIdSequence callIdSequence, PartitionCredits partitionCredits,
+                              HazelcastProperties properties) {
         this.logger = logger;
         this.callIdSequence = callIdSequence;
+        this.partitionCredits = partitionCredits;
+        this.backupTimeoutMillis = properties.getMillis(OPERATION_BACKUP_TIMEOUT_MILLIS);
+        this.lastCheckedTick = Clock.currentTimeMillis() / TIMEOUT_TICK_MILLIS;
 
         int coreSize = RuntimeAvailableProcessors.get();
         boolean reallyMultiCore = coreSize >= CORE_SIZE_CHECK;
         int concurrencyLevel = reallyMultiCore ? coreSize * CORE_SIZE_FACTOR : CONCURRENCY_LEVEL;
 
-        this.invocations = new ConcurrentHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
+        this.stripes = new Stripe[nextPowerOfTwo(concurrencyLevel)];
+        this.stripeMask = stripes.length - 1;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
     }
 
     @Override
@@ -87,6 +117,11 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
         registry.registerStaticMetrics(this, "operation");
     }
 
+    @Probe(name = "invocations.pending", level = MANDATORY)
+    private int pendingInvocations() {
+        return size();
+    }
+
     @Probe(name = "invocations.usedPercentage")
     private double invocationsUsedPercentage() {
         int maxConcurrentInvocations = callIdSequence.getMaxConcurrentInvocations();
@@ -94,7 +129,7 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
             return 0;
         }
 
-        return (HUNDRED_PERCENT * invocations.size()) / maxConcurrentInvocations;
+        return (HUNDRED_PERCENT * size()) / maxConcurrentInvocations;
     }
 
     @Probe(name = "invocations.lastCallId")
@@ -111,9 +146,15 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
     public boolean register(Invocation invocation) {
         final long callId;
         boolean force = invocation.op.isUrgent() || invocation.isRetryCandidate();
+        try {
+            partitionCredits.acquire(invocation, force);
+        } catch (HazelcastOverloadException e) {
+            throw new HazelcastOverloadException("Failed to start invocation due to overload: " + invocation, e);
+        }
         try {
             callId = force ? callIdSequence.forceNext() : callIdSequence.next();
         } catch (HazelcastOverloadException e) {
+            partitionCredits.release(invocation);
             throw new HazelcastOverloadException("Failed to start invocation due to overload: " + invocation, e);
         }
         try {
@@ -121,9 +162,10 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
             setCallId(invocation.op, callId);
         } catch (IllegalStateException e) {
             callIdSequence.complete();
+            partitionCredits.release(invocation);
             throw e;
         }
-        invocations.put(callId, invocation);
+        stripe(callId).put(callId, invocation, firstTimeoutCheckMillis(invocation));
         if (!alive) {
             invocation.notifyError(new HazelcastInstanceNotActiveException());
             return false;
@@ -131,6 +173,20 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
         return true;
     }
 
+    /**
+     * Returns the earliest time the invocation may time out, or -1 if it never times out.
+     */
+    private long firstTimeoutCheckMillis(Invocation invocation) {
+        if (invocation.skipTimeoutDetection()) {
+            return -1;
+        }
+
+        // the backup timeout only counts once the response is received
+        long callTimeoutMillis = invocation.op.getCallTimeout();
+        long delayMillis = callTimeoutMillis > 0 ? Math.min(callTimeoutMillis, backupTimeoutMillis) : backupTimeoutMillis;
+        return Clock.currentTimeMillis() + delayMillis;
+    }
+
     /**
      * Deregisters an invocation. If the associated operation is inactive, takes no action and returns {@code false}.
      * This ensures the idempotency of deregistration.
@@ -142,8 +198,10 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
         if (!deactivate(invocation.op)) {
             return false;
         }
-        invocations.remove(invocation.op.getCallId());
+        long callId = invocation.op.getCallId();
+        stripe(callId).remove(callId);
         callIdSequence.complete();
+        partitionCredits.release(invocation);
         return true;
     }
 
@@ -153,31 +211,77 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
      * @return the number of pending invocations
      */
     public int size() {
-        return invocations.size();
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
     }
 
+    /**
+     * Returns an iterator over a snapshot of the pending invocations.
+     */
     @Override
     public Iterator<Invocation> iterator() {
-        return invocations.values().iterator();
+        List<Invocation> invocations = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.copyTo(invocations);
+        }
+        return invocations.iterator();
     }
 
     /**
-     * Intention to expose the entry set is to mutate it.
+     * Gets the invocation for the given call ID.
      *
-     * @return set of invocations in this registry
+     * @param callId the call ID
+     * @return the Invocation for the given call ID, or {@code null} if no invocation was found.
      */
-    public Set<Map.Entry<Long, Invocation>> entrySet() {
-        return invocations.entrySet();
+    public Invocation get(long callId) {
+        return stripe(callId).get(callId);
     }
 
     /**
-     * Gets the invocation for the given call ID.
+     * Passes the invocations whose timeout checks are due to the checker. The invocations still
+     * registered after the check are checked again after a {@link #TIMEOUT_TICK_MILLIS}.
+     * <p>
+     * Only called by the {@link InvocationMonitor} thread.
      *
-     * @param callId the call ID
-     * @return the Invocation for the given call ID, or {@code null} if no invocation was found.
+     * @param nowMillis the current time
+     * @param checker   checks the timeouts of the invocation
+     * @return the number of the checked invocations
      */
-    public Invocation get(long callId) {
-        return invocations.get(callId);
+    int checkTimeouts(long nowMillis, Consumer<Invocation> checker) {
+        long nowTick = nowMillis / TIMEOUT_TICK_MILLIS;
+        // after a long pause a single lap visits all slots
+        long fromTick = Math.max(lastCheckedTick + 1, nowTick - WHEEL_SIZE + 1);
+        lastCheckedTick = nowTick;
+
+        List<Invocation> due = new ArrayList<>();
+        int checked = 0;
+        for (long tick = fromTick; tick <= nowTick; tick++) {
+            int slot = (int) (tick & (WHEEL_SIZE - 1));
+            for (Stripe stripe : stripes) {
+                stripe.drainSlot(slot, due);
+            }
+
+            for (Invocation invocation : due) {
+                if (invocation.timeoutCheckMillis <= nowMillis) {
+                    checked++;
+                    checker.accept(invocation);
+                    scheduleTimeoutCheck(invocation, (nowTick + 1) * TIMEOUT_TICK_MILLIS);
+                } else {
+                    // the check is due on one of the next laps of the wheel
+                    scheduleTimeoutCheck(invocation, invocation.timeoutCheckMillis);
+                }
+            }
+            due.clear();
+        }
+        return checked;
+    }
+
+    private void scheduleTimeoutCheck(Invocation invocation, long checkMillis) {
+        long callId = invocation.op.getCallId();
+        stripe(callId).reschedule(callId, invocation, checkMillis);
     }
 
     public void reset(Throwable cause) {
@@ -201,4 +305,101 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
             }
         }
     }
+
+    private Stripe stripe(long callId) {
+        return stripes[(int) (callId & stripeMask)];
+    }
+
+    /**
+     * The invocations of a stripe and their timing wheel.
+     * <p>
+     * A slot of the wheel is the head of a doubly linked list of the invocations, linked by their
+     * {@link Invocation#timeoutPrev} and {@link Invocation#timeoutNext} fields. So an invocation is
+     * unlinked in constant time when it is deregistered.
+     */
+    private static final class Stripe {
+        private final Long2ObjectHashMap<Invocation> invocations = new Long2ObjectHashMap<>(STRIPE_INITIAL_CAPACITY);
+        private final Invocation[] wheel = new Invocation[WHEEL_SIZE];
+
+        synchronized void put(long callId, Invocation invocation, long checkMillis) {
+            invocations.put(callId, invocation);
+            if (checkMillis >= 0) {
+                link(invocation, checkMillis);
+            }
+        }
+
+        synchronized Invocation get(long callId) {
+            return invocations.get(callId);
+        }
+
+        synchronized void remove(long callId) {
+            Invocation invocation = invocations.remove(callId);
+            if (invocation != null) {
+                unlink(invocation);
+            }
+        }
+
+        synchronized int size() {
+            return invocations.size();
+        }
+
+        synchronized void copyTo(List<Invocation> list) {
+            list.addAll(invocations.values());
+        }
+
+        synchronized void drainSlot(int slot, List<Invocation> drained) {
+            Invocation invocation = wheel[slot];
+            wheel[slot] = null;
+            while (invocation != null) {
+                Invocation next = invocation.timeoutNext;
+                invocation.timeoutPrev = null;
+                invocation.timeoutNext = null;
+                invocation.timeoutSlot = -1;
+                drained.add(invocation);
+                invocation = next;
+            }
+        }
+
+        synchronized void reschedule(long callId, Invocation invocation, long checkMillis) {
+            // skip if deregistered or already registered again under a new call ID in the meantime
+            if (invocations.get(callId) == invocation && invocation.timeoutSlot == -1) {
+                link(invocation, checkMillis);
+            }
+        }
+
+        private void link(Invocation invocation, long checkMillis) {
+            // rounded up, so the slot is never checked before the time has come
+            long tick = (checkMillis + TIMEOUT_TICK_MILLIS - 1) / TIMEOUT_TICK_MILLIS;
+            int slot = (int) (tick & (WHEEL_SIZE - 1));
+            Invocation head = wheel[slot];
+            invocation.timeoutCheckMillis = checkMillis;
+            invocation.timeoutSlot = slot;
+            invocation.timeoutPrev = null;
+            invocation.timeoutNext = head;
+            if (head != null) {
+                head.timeoutPrev = invocation;
+            }
+            wheel[slot] = invocation;
+        }
+
+        private void unlink(Invocation invocation) {
+            int slot = invocation.timeoutSlot;
+            if (slot == -1) {
+                return;
+            }
+            Invocation prev = invocation.timeoutPrev;
+            Invocation next = invocation.timeoutNext;
+            if (prev == null) {
+                wheel[slot] = next;
+            } else {
+                prev.timeoutNext = next;
+            }
+            if (next != null) {
+                next.timeoutPrev = prev;
+            }
+            invocation.timeoutPrev = null;
+            invocation.timeoutNext = null;
+            invocation.timeoutSlot = -1;
+        }
+    }
 }
@@ -121,6 +121,7 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
     final ILogger logger;
     final OperationBackupHandler backupHandler;
     final BackpressureRegulator backpressureRegulator;
+    final PartitionCredits partitionCredits;
     final OutboundResponseHandler outboundResponseHandler;
     final OutboundOperationHandler outboundOperationHandler;
     volatile Invocation.Context invocationContext;
@@ -147,12 +148,16 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         this.backpressureRegulator = new BackpressureRegulator(
                 node.getProperties(), node.getLogger(BackpressureRegulator.class));
 
+        this.partitionCredits = new PartitionCredits(node.getProperties(),
+                partitionId -> this.operationExecutor.getPartitionQueueSize(partitionId));
+
         this.outboundResponseHandler = new OutboundResponseHandler(thisAddress, serializationService,
-                node.getLogger(OutboundResponseHandler.class));
+                node.getLogger(OutboundResponseHandler.class), partitionCredits);
 
         this.invocationRegistry = new InvocationRegistry(
                 node.getLogger(OperationServiceImpl.class),
-                backpressureRegulator.newCallIdSequence(nodeEngine.getConcurrencyDetection()));
+                backpressureRegulator.newCallIdSequence(nodeEngine.getConcurrencyDetection()),
+                partitionCredits, node.getProperties());
 
         this.invocationMonitor = new InvocationMonitor(
                 nodeEngine, thisAddress, node.getProperties(), invocationRegistry,
@@ -240,6 +245,17 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         return operationExecutor;
     }
 
+    /**
+     * Checks if a partition request of a client can be processed, the member
+     * rejects it when the operation queue of the partition is too deep.
+     *
+     * @param partitionId the partition id of the request
+     * @throws com.hazelcast.core.HazelcastOverloadException if the partition is overloaded
+     */
+    public void admitClientRequest(int partitionId) {
+        partitionCredits.admitClientRequest(partitionId);
+    }
+
     @Override
     public int getResponseQueueSize() {
         return inboundResponseHandlerSupplier.responseQueueSize();
@@ -455,7 +471,8 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
     @Override
     public void provideStaticMetrics(MetricsRegistry registry) {
         registry.registerStaticMetrics(this, "operation");
-        registry.provideMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor);
+        registry.provideMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor,
+                partitionCredits);
     }
 
     public void start() {
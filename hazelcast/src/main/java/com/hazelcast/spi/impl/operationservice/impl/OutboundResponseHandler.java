@@ -36,6 +36,7 @@ import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.writeInt;
 import static com.hazelcast.internal.nio.Bits.writeIntB;
 import static com.hazelcast.internal.nio.Bits.writeLong;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_CONGESTED;
 import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
 import static com.hazelcast.internal.nio.Packet.Type.OPERATION;
@@ -67,36 +68,42 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     private final InternalSerializationService serializationService;
     private final boolean useBigEndian;
     private final ILogger logger;
+    private final PartitionCredits partitionCredits;
 
     OutboundResponseHandler(Address thisAddress,
                             InternalSerializationService serializationService,
-                            ILogger logger) {
+                            ILogger logger,
+                            PartitionCredits partitionCredits) {
         this.thisAddress = thisAddress;
         this.serializationService = serializationService;
         this.useBigEndian = serializationService.getByteOrder() == BIG_ENDIAN;
         this.logger = logger;
+        this.partitionCredits = partitionCredits;
     }
 
     @Override
     public void sendResponse(Operation operation, Object obj) {
         Address target = operation.getCallerAddress();
         EndpointManager endpointManager = operation.getConnection().getEndpointManager();
+        boolean congested = partitionCredits.isCongested(operation.getPartitionId());
         boolean send;
         if (obj == null) {
-            send = sendNormalResponse(endpointManager, target, operation.getCallId(), 0, operation.isUrgent(), null);
+            send = sendNormalResponse(endpointManager, target, operation.getCallId(), 0, operation.isUrgent(), null,
+                    congested);
         } else if (obj.getClass() == NormalResponse.class) {
             NormalResponse response = (NormalResponse) obj;
             send = sendNormalResponse(endpointManager, target, response.getCallId(),
-                    response.getBackupAcks(), response.isUrgent(), response.getValue());
+                    response.getBackupAcks(), response.isUrgent(), response.getValue(), congested);
         } else if (obj.getClass() == ErrorResponse.class || obj.getClass() == CallTimeoutResponse.class) {
-            send = send(endpointManager, target, (Response) obj);
+            send = send(endpointManager, target, (Response) obj, congested);
         } else if (obj instanceof Throwable) {
             send = send(endpointManager, target, new ErrorResponse((Throwable) obj,
-                    operation.getCallId(), operation.isUrgent()));
+                    operation.getCallId(), operation.isUrgent()), congested);
         } else {
             // most regular responses not wrapped in a NormalResponse. So we are now completely skipping the
             // NormalResponse instance
-            send = sendNormalResponse(endpointManager, target, operation.getCallId(), 0, operation.isUrgent(), obj);
+            send = sendNormalResponse(endpointManager, target, operation.getCallId(), 0, operation.isUrgent(), obj,
+                    congested);
         }
 
         if (!send) {
@@ -105,6 +112,10 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     }
 
     public boolean send(EndpointManager endpointManager, Address target, Response response) {
+        return send(endpointManager, target, response, false);
+    }
+
+    private boolean send(EndpointManager endpointManager, Address target, Response response, boolean congested) {
         checkNotNull(target, "Target is required!");
 
         if (thisAddress.equals(target)) {
@@ -114,15 +125,21 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         byte[] bytes = serializationService.toBytes(response);
 
         Packet packet = newResponsePacket(bytes, response.isUrgent());
+        if (congested) {
+            packet.raiseFlags(FLAG_OP_CONGESTED);
+        }
 
         return transmit(target, packet, endpointManager);
     }
 
     private boolean sendNormalResponse(EndpointManager endpointManager, Address target, long callId,
-                                       int backupAcks, boolean urgent, Object value) {
+                                       int backupAcks, boolean urgent, Object value, boolean congested) {
         checkTarget(target);
 
         Packet packet = toNormalResponsePacket(callId, (byte) backupAcks, urgent, value);
+        if (congested) {
+            packet.raiseFlags(FLAG_OP_CONGESTED);
+        }
 
         return transmit(target, packet, endpointManager);
     }
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.metrics.StaticMetricsProvider;
+import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationThread;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntUnaryOperator;
+
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_CREDITS_CLIENT_QUEUE_LIMIT;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_CREDITS_ENABLED;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_CREDITS_FAIL_FAST;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_CREDITS_QUEUE_THRESHOLD;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The credit based flow control of the partition invocations between the
+ * members.
+ * <p>
+ * Every remote partition invocation takes a credit of its partition when it is
+ * registered and returns it when it is deregistered. The number of credits of
+ * a partition is its window, it starts at the maximum number of concurrent
+ * invocations per partition. The credits are granted by the receiver: when the
+ * operation queue of the partition is deeper than the threshold while the
+ * response is sent, the response is marked with {@link com.hazelcast.internal.nio.Packet#FLAG_OP_CONGESTED}
+ * and the sender halves the window of the partition. Every other response
+ * grows the window by a credit again. So a slow member quickly throttles the
+ * members flooding it, while the other members and partitions aren't affected.
+ * <p>
+ * An invocation without a credit waits for one up to the backoff timeout, or
+ * fails immediately if fail fast is configured, with a {@link HazelcastOverloadException}.
+ * The urgent operations, the retries and the invocations made by the operation
+ * threads never wait, they always take a credit to not deadlock.
+ * <p>
+ * The clients don't hold credits, the member rejects the partition requests
+ * of the clients when the operation queue of the partition is deeper than the
+ * client limit, see {@link #admitClientRequest(int)}.
+ */
+class PartitionCredits implements StaticMetricsProvider {
+
+    static final int MIN_CREDITS = 1;
+
+    private static final int MAX_DELAY_MS = 500;
+    private static final IdleStrategy IDLER = new BackoffIdleStrategy(
+            0, 0, MILLISECONDS.toNanos(1), MILLISECONDS.toNanos(MAX_DELAY_MS));
+
+    private final boolean enabled;
+    private final int maxCredits;
+    private final int queueThreshold;
+    private final int clientQueueLimit;
+    private final boolean failFast;
+    private final long backoffTimeoutNanos;
+    private final IntUnaryOperator partitionQueueSize;
+    private final AtomicIntegerArray windows;
+    private final AtomicIntegerArray usedCredits;
+
+    @Probe
+    private final MwCounter creditStalls = newMwCounter();
+    @Probe
+    private final MwCounter creditRejections = newMwCounter();
+    @Probe
+    private final MwCounter clientRejections = newMwCounter();
+    @Probe
+    private final MwCounter congestedResponsesSent = newMwCounter();
+    @Probe
+    private final MwCounter congestedResponsesReceived = newMwCounter();
+
+    /**
+     * @param properties         the properties
+     * @param partitionQueueSize returns the depth of the operation queue of
+     *                           the given partition
+     */
+    PartitionCredits(HazelcastProperties properties, IntUnaryOperator partitionQueueSize) {
+        this.enabled = properties.getBoolean(BACKPRESSURE_CREDITS_ENABLED);
+        this.maxCredits = properties.getInteger(BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION);
+        this.queueThreshold = properties.getInteger(BACKPRESSURE_CREDITS_QUEUE_THRESHOLD);
+        this.clientQueueLimit = properties.getInteger(BACKPRESSURE_CREDITS_CLIENT_QUEUE_LIMIT);
+        this.failFast = properties.getBoolean(BACKPRESSURE_CREDITS_FAIL_FAST);
+        this.backoffTimeoutNanos = properties.getNanos(BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS);
+        this.partitionQueueSize = partitionQueueSize;
+
+        int partitionCount = enabled ? properties.getInteger(PARTITION_COUNT) : 0;
+        if (enabled && maxCredits < MIN_CREDITS) {
+            throw new IllegalArgumentException("Can't have '" + BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION
+                    + "' with a value smaller than " + MIN_CREDITS);
+        }
+        this.windows = new AtomicIntegerArray(partitionCount);
+        this.usedCredits = new AtomicIntegerArray(partitionCount);
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            windows.set(partitionId, maxCredits);
+        }
+    }
+
+    @Override
+    public void provideStaticMetrics(MetricsRegistry registry) {
+        registry.registerStaticMetrics(this, "operation.credits");
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes a credit for the invocation if it is a remote partition invocation.
+     *
+     * @param invocation the invocation being registered
+     * @param force      {@code true} if the invocation must not wait for a credit
+     * @throws HazelcastOverloadException if no credit is granted in time
+     */
+    void acquire(Invocation invocation, boolean force) {
+        int partitionId = invocation.op.getPartitionId();
+        if (!enabled || partitionId < 0 || !invocation.isRemote()) {
+            return;
+        }
+
+        acquire(partitionId, force || Thread.currentThread() instanceof OperationThread);
+        invocation.congested = false;
+        invocation.creditPartitionId = partitionId;
+    }
+
+    void acquire(int partitionId, boolean force) {
+        if (force) {
+            usedCredits.incrementAndGet(partitionId);
+        } else if (!tryAcquire(partitionId)) {
+            waitForCredit(partitionId);
+        }
+    }
+
+    private void waitForCredit(int partitionId) {
+        creditStalls.inc();
+        if (failFast) {
+            creditRejections.inc();
+            throw new HazelcastOverloadException("No credits left for partition " + partitionId
+                    + ", window = " + windows.get(partitionId));
+        }
+
+        long start = System.nanoTime();
+        for (long idleCount = 0; ; idleCount++) {
+            long elapsedNanos = System.nanoTime() - start;
+            if (elapsedNanos > backoffTimeoutNanos) {
+                creditRejections.inc();
+                throw new HazelcastOverloadException(String.format("Timed out waiting for a credit for partition %d."
+                                + " window = %d, backoffTimeout = %d msecs, elapsed:%d msecs",
+                        partitionId, windows.get(partitionId), NANOSECONDS.toMillis(backoffTimeoutNanos),
+                        NANOSECONDS.toMillis(elapsedNanos)));
+            }
+            IDLER.idle(idleCount);
+            if (tryAcquire(partitionId)) {
+                return;
+            }
+        }
+    }
+
+    private boolean tryAcquire(int partitionId) {
+        for (; ; ) {
+            int used = usedCredits.get(partitionId);
+            if (used >= windows.get(partitionId)) {
+                return false;
+            }
+            if (usedCredits.compareAndSet(partitionId, used, used + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the credit taken by the invocation, if any, and adjusts the
+     * window of its partition.
+     *
+     * @param invocation the invocation being deregistered
+     */
+    void release(Invocation invocation) {
+        int partitionId = invocation.creditPartitionId;
+        if (partitionId < 0) {
+            return;
+        }
+        invocation.creditPartitionId = -1;
+        release(partitionId, invocation.congested);
+    }
+
+    void release(int partitionId, boolean congested) {
+        usedCredits.decrementAndGet(partitionId);
+
+        if (congested) {
+            congestedResponsesReceived.inc();
+            for (; ; ) {
+                int window = windows.get(partitionId);
+                if (window == MIN_CREDITS
+                        || windows.compareAndSet(partitionId, window, Math.max(MIN_CREDITS, window / 2))) {
+                    return;
+                }
+            }
+        }
+
+        int window = windows.get(partitionId);
+        if (window < maxCredits) {
+            // a lost race only delays the growth until the next response
+            windows.compareAndSet(partitionId, window, window + 1);
+        }
+    }
+
+    /**
+     * Checks if the operation queue of the partition is congested while
+     * the response of a remote operation is sent.
+     *
+     * @param partitionId the partition id of the operation
+     * @return {@code true} if the response needs to stop granting credits
+     */
+    boolean isCongested(int partitionId) {
+        if (!enabled || partitionId < 0 || partitionQueueSize.applyAsInt(partitionId) <= queueThreshold) {
+            return false;
+        }
+        congestedResponsesSent.inc();
+        return true;
+    }
+
+    /**
+     * Checks if a partition request of a client can be processed.
+     *
+     * @param partitionId the partition id of the request
+     * @throws HazelcastOverloadException if the operation queue of the partition
+     *                                    is deeper than the client limit
+     */
+    void admitClientRequest(int partitionId) {
+        if (!enabled || partitionId < 0) {
+            return;
+        }
+        int queueSize = partitionQueueSize.applyAsInt(partitionId);
+        if (queueSize > clientQueueLimit) {
+            clientRejections.inc();
+            throw new HazelcastOverloadException("Partition " + partitionId + " is overloaded, queue size = " + queueSize);
+        }
+    }
+
+    int window(int partitionId) {
+        return windows.get(partitionId);
+    }
+
+    int usedCredits(int partitionId) {
+        return usedCredits.get(partitionId);
+    }
+}
@@ -284,6 +284,107 @@ public final class GroupProperty {
     public static final HazelcastProperty IO_WRITE_THROUGH_ENABLED
             = new HazelcastProperty("hazelcast.io.write.through", true);
 
+    /**
+     * Enables the pooling of the socket buffers. Every io thread pools the buffers
+     * of the connections it serves, the connections release their buffers once
+     * drained and acquire them back once there is some data to read or write. This
+     * reduces the memory used by many mostly idle connections, e.g. the client
+     * connections.
+     *
+     * The first write after a connection releases its send buffer isn't written
+     * through, see {@link #IO_WRITE_THROUGH_ENABLED}.
+     *
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty IO_BUFFER_POOL_ENABLED
+            = new HazelcastProperty("hazelcast.io.buffer.pool.enabled", false);
+
+    /**
+     * The transport of the member to member and the client connections. The
+     * default {@code nio} transport relies on the JDK selectors. Another
+     * transport, e.g. a native epoll one, is used if there is a
+     * {@link com.hazelcast.internal.networking.NetworkingProvider} of that name
+     * on the classpath and it is available on the current platform, otherwise
+     * the member falls back to the {@code nio} transport.
+     */
+    public static final HazelcastProperty IO_TRANSPORT
+            = new HazelcastProperty("hazelcast.io.transport", "nio");
+
+    /**
+     * Enables the compression of the large packets sent to the other members.
+     * The compression is used on a connection only if both members enable it,
+     * which they agree on when the connection is bound. Every member is able
+     * to read the compressed packets regardless of this setting.
+     *
+     * It trades cpu for bandwidth, so it pays off for the highly compressible
+     * values sent over slow links, e.g. between the racks or the data centers.
+     *
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty IO_COMPRESSION_ENABLED
+            = new HazelcastProperty("hazelcast.io.compression.enabled", false);
+
+    /**
+     * The size in bytes of the smallest packet compressed when the
+     * {@link #IO_COMPRESSION_ENABLED} is set. The smaller packets are sent as
+     * is since compressing them saves too little.
+     */
+    public static final HazelcastProperty IO_COMPRESSION_THRESHOLD
+            = new HazelcastProperty("hazelcast.io.compression.threshold", 8192);
+
+    /**
+     * Enables the gathering writes of the large packets sent to the other
+     * members. The payloads of the packets of 64KB and more aren't copied
+     * into the heap send buffer, they are written along with it by a single
+     * gathering write. The payloads are gathered only if the packets are
+     * written to the socket as they are encoded, i.e. no other handler, e.g.
+     * an encryption one, follows the packet encoder, and the send buffer
+     * isn't a direct one.
+     *
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty IO_GATHERING_WRITES_ENABLED
+            = new HazelcastProperty("hazelcast.io.gathering.writes.enabled", false);
+
+    /**
+     * Enables the batching of the operation and the response packets sent to
+     * the other members. The packets which piled up for a connection while
+     * the previous ones were written are sent as a single batch packet, which
+     * saves the per packet overhead when there are many small operations in
+     * flight. No packet is delayed to be batched.
+     *
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty IO_PACKET_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.io.packet.batching.enabled", false);
+
+    /**
+     * The maximum size in bytes of a batch packet, see
+     * {@link #IO_PACKET_BATCHING_ENABLED}. The larger packets aren't batched.
+     */
+    public static final HazelcastProperty IO_PACKET_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.io.packet.batch.size", 32768);
+
+    /**
+     * Enables the thread-per-core mode: there are no io threads of their own,
+     * instead every partition operation thread runs the io of a subset of the
+     * connections in between the partition operations. This way the packets
+     * are read, dispatched and executed without being handed off in between
+     * the io and the partition threads if the connection and the partition
+     * are served by the same thread.
+     *
+     * The number of the threads is controlled by the {@link #PARTITION_OPERATION_THREAD_COUNT},
+     * which must be at least 2, the {@link #IO_INPUT_THREAD_COUNT} and the
+     * {@link #IO_OUTPUT_THREAD_COUNT} are ignored.
+     *
+     * A long running partition operation delays the io of the connections served by its
+     * thread, so the mode is suitable only if the partition operations are short.
+     *
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty THREAD_PER_CORE_ENABLED
+            = new HazelcastProperty("hazelcast.thread.per.core.enabled", false);
+
     /**
      * Property needed for concurrency detection so that write through can be done correctly.
      * This property sets the window the concurrency detection will signalling
@@ -581,6 +682,22 @@ public final class GroupProperty {
     public static final HazelcastProperty MAP_EVICTION_BATCH_SIZE
             = new HazelcastProperty("hazelcast.map.eviction.batch.size", 1);
 
+    /**
+     * Enables the compact on-heap records of the maps. Compact records omit
+     * the hits and metadata fields, which saves memory per entry. They are
+     * only used by the maps which don't need those fields: the statistics
+     * are disabled, the metadata policy is {@link com.hazelcast.config.MetadataPolicy#OFF},
+     * the eviction policy isn't LFU or custom, and the merge policy isn't
+     * {@link com.hazelcast.spi.merge.HigherHitsMergePolicy}.
+     * <p>
+     * The entry views of such maps report {@code 0} for
+     * {@link com.hazelcast.core.EntryView#getHits()}.
+     * <p>
+     * Default: false
+     */
+    public static final HazelcastProperty MAP_COMPACT_RECORDS_ENABLED
+            = new HazelcastProperty("hazelcast.map.compact.records.enabled", false);
+
     /**
      * XML and system property for setting the hot restart required free space.
      * By default, hot restart requires at least 15% free HD space.
@@ -686,6 +803,30 @@ public final class GroupProperty {
     public static final HazelcastProperty MAP_WRITE_BEHIND_QUEUE_CAPACITY
             = new HazelcastProperty("hazelcast.map.write.behind.queue.capacity", 50000);
 
+    /**
+     * Number of the tasks which flush the write-behind queues of a map on a
+     * member, each of them storing the entries of a contiguous range of
+     * partitions. The tasks run on the {@code hz:map-write-behind} executor,
+     * its pool size bounds the number of the flushing threads of the member.
+     * <p>
+     * The default of 1 flushes all queues sequentially. A greater value
+     * requires a {@link com.hazelcast.map.MapStore} which can be called
+     * concurrently.
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_FLUSH_PARALLELISM
+            = new HazelcastProperty("hazelcast.map.write.behind.flush.parallelism", 1);
+
+    /**
+     * Target latency of a batch store call of the parallel write-behind flush.
+     * The batch size is halved when the batches take longer and grows back
+     * up to the configured {@link com.hazelcast.config.MapStoreConfig#getWriteBatchSize()}
+     * when they are faster than half of it.
+     * <p>
+     * Has no effect on the sequential flush, see {@link #MAP_WRITE_BEHIND_FLUSH_PARALLELISM}.
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_FLUSH_TARGET_BATCH_LATENCY_MILLIS
+            = new HazelcastProperty("hazelcast.map.write.behind.flush.target.batch.latency.millis", 500, MILLISECONDS);
+
     /**
      * Defines cache invalidation event batch sending is enabled or not.
      */
@@ -791,6 +932,53 @@ public final class GroupProperty {
     public static final HazelcastProperty BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION
             = new HazelcastProperty("hazelcast.backpressure.max.concurrent.invocations.per.partition", 100);
 
+    /**
+     * Enables the credit based flow control of the partition invocations.
+     * <p>
+     * Every member holds a window of credits per partition for the invocations
+     * it sends to the other members, it starts at
+     * {@link #BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION}. When the
+     * operation queue of a partition is deeper than
+     * {@link #BACKPRESSURE_CREDITS_QUEUE_THRESHOLD} on the receiving member, the
+     * window of the sender shrinks, so a fast member can't flood a slow one. The
+     * partition requests of the clients are rejected when the queue is deeper
+     * than {@link #BACKPRESSURE_CREDITS_CLIENT_QUEUE_LIMIT}.
+     * <p>
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty BACKPRESSURE_CREDITS_ENABLED
+            = new HazelcastProperty("hazelcast.backpressure.credits.enabled", false);
+
+    /**
+     * The depth of the operation queue of a partition above which the member
+     * stops granting the credits for the partition to the other members.
+     * <p>
+     * This property only has meaning when the credits are enabled.
+     */
+    public static final HazelcastProperty BACKPRESSURE_CREDITS_QUEUE_THRESHOLD
+            = new HazelcastProperty("hazelcast.backpressure.credits.queue.threshold", 1000);
+
+    /**
+     * The depth of the operation queue of a partition above which the member
+     * rejects the partition requests of the clients with a
+     * {@link com.hazelcast.core.HazelcastOverloadException}.
+     * <p>
+     * This property only has meaning when the credits are enabled.
+     */
+    public static final HazelcastProperty BACKPRESSURE_CREDITS_CLIENT_QUEUE_LIMIT
+            = new HazelcastProperty("hazelcast.backpressure.credits.client.queue.limit", 10000);
+
+    /**
+     * If an invocation runs out of the credits for a partition, it waits for
+     * a credit up to {@link #BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS} by default.
+     * If fail fast is enabled, it fails immediately with a
+     * {@link com.hazelcast.core.HazelcastOverloadException} instead.
+     * <p>
+     * This property only has meaning when the credits are enabled.
+     */
+    public static final HazelcastProperty BACKPRESSURE_CREDITS_FAIL_FAST
+            = new HazelcastProperty("hazelcast.backpressure.credits.failfast", false);
+
     /**
      * Run Query Evaluations for multiple partitions in parallel.
      * <p>
@@ -805,6 +993,19 @@ public final class GroupProperty {
     public static final HazelcastProperty QUERY_PREDICATE_PARALLEL_EVALUATION
             = new HazelcastProperty("hazelcast.query.predicate.parallel.evaluation", false);
 
+    /**
+     * Evaluate query predicates in a columnar fashion during the partition scans.
+     * <p>
+     * By default, the predicate is evaluated entry by entry. When enabled, the numeric attributes referenced by the
+     * equal, greater/less, between and in predicates are extracted for a batch of entries into primitive columns
+     * and these predicates are evaluated over the columns in tight loops. This speeds up the full scans over large
+     * numbers of entries, the rest of the predicates are still evaluated entry by entry.
+     * <p>
+     * The default is false.
+     */
+    public static final HazelcastProperty QUERY_COLUMNAR_SCAN
+            = new HazelcastProperty("hazelcast.query.columnar.scan", false);
+
     /**
      * Run aggregation accumulation for multiple entries in parallel.
      * <p>
@@ -835,6 +1036,17 @@ public final class GroupProperty {
     public static final HazelcastProperty QUERY_RESULT_SIZE_LIMIT
             = new HazelcastProperty("hazelcast.query.result.size.limit", -1);
 
+    /**
+     * Maximum total size in bytes of the query results cached by every member
+     * for a single map, see {@link com.hazelcast.config.MapConfig#setQueryResultCacheSize(int)}.
+     * <p>
+     * The size of a result is estimated from its serialized form. A single
+     * result larger than 1/8 of this value is never cached. The default is
+     * 32 MB.
+     */
+    public static final HazelcastProperty QUERY_RESULT_CACHE_MAX_SIZE_BYTES
+            = new HazelcastProperty("hazelcast.query.result.cache.max.size.bytes", 32 * 1024 * 1024);
+
     /**
      * Maximum value of local partitions to trigger local pre-check for {@link Predicates#alwaysTrue()} predicate query operations
      * on maps.
@@ -858,6 +1070,7 @@ public final class GroupProperty {
      * Valid Values:
      * <ul>
      * <li>RULES - for optimizations based on static rules</li>
+     * <li>COST - for optimizations based on static rules and index statistics</li>
      * <li>NONE - optimization are disabled</li>
      * </ul>
      * <p>
@@ -919,6 +1132,21 @@ public final class GroupProperty {
     public static final HazelcastProperty INDEX_COPY_BEHAVIOR
             = new HazelcastProperty("hazelcast.index.copy.behavior", IndexCopyBehavior.COPY_ON_READ.toString());
 
+    /**
+     * The number of entries indexed at once while populating the indexes of a
+     * partition, either on adding a new index or on receiving a partition
+     * during a migration.
+     * <p>
+     * The partitions are populated chunk by chunk on the partition threads,
+     * interleaving with the rest of the partition operations. The indexes are
+     * not used by the queries until their population completes, the queries
+     * fall back to the full scans in the meantime.
+     * <p>
+     * The default is 1000.
+     */
+    public static final HazelcastProperty INDEX_POPULATION_CHUNK_SIZE
+            = new HazelcastProperty("hazelcast.index.population.chunk.size", 1000);
+
     /**
      * Forces the JCache provider, which can have values client or server, to force the provider type.
      * If not provided, the provider will be client or server, whichever is found on the classpath first respectively.
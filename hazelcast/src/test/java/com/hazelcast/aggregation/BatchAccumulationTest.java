@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.aggregation.impl.AbstractAggregator;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BatchAccumulationTest {
+
+    private static final int ENTRY_COUNT = 1000;
+    // not a divisor of the entry count to have a partially filled batch
+    private static final int BATCH_SIZE = 128;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(ss).build();
+
+    @Test
+    public void testSums() {
+        assertBatchAccumulation(Aggregators.longSum("longValue"));
+        assertBatchAccumulation(Aggregators.integerSum("intValue"));
+        assertBatchAccumulation(Aggregators.doubleSum("doubleValue"));
+        assertBatchAccumulation(Aggregators.fixedPointSum("longValue"));
+        assertBatchAccumulation(Aggregators.floatingPointSum("doubleValue"));
+    }
+
+    @Test
+    public void testAverages() {
+        assertBatchAccumulation(Aggregators.longAvg("longValue"));
+        assertBatchAccumulation(Aggregators.integerAvg("intValue"));
+        assertBatchAccumulation(Aggregators.doubleAvg("doubleValue"));
+        assertBatchAccumulation(Aggregators.numberAvg("numberValue"));
+    }
+
+    @Test
+    public void testCounts() {
+        assertBatchAccumulation(Aggregators.count());
+        assertBatchAccumulation(Aggregators.count("longValue"));
+        assertBatchAccumulation(Aggregators.count("longs[any]"));
+    }
+
+    @Test
+    public void testMinMax() {
+        assertBatchAccumulation(Aggregators.longMin("longValue"));
+        assertBatchAccumulation(Aggregators.longMax("longValue"));
+        assertBatchAccumulation(Aggregators.comparableMax("numberValue"));
+    }
+
+    @Test
+    public void testMixedValueTypes() {
+        // integers and longs are mixed in the number values
+        assertBatchAccumulation(Aggregators.longSum("numberValue"));
+        assertBatchAccumulation(Aggregators.doubleSum("numberValue"));
+        assertBatchAccumulation(Aggregators.longAvg("numberValue"));
+    }
+
+    @Test
+    public void testMultiValuedAttribute() {
+        assertBatchAccumulation(Aggregators.longSum("longs[any]"));
+        assertBatchAccumulation(Aggregators.longAvg("longs[any]"));
+        assertBatchAccumulation(Aggregators.longMax("longs[any]"));
+    }
+
+    @Test
+    public void testValuesWithoutAttributePath() {
+        assertBatchAccumulation(Aggregators.distinct());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertBatchAccumulation(Aggregator aggregator) {
+        QueryableEntry[] entries = new QueryableEntry[ENTRY_COUNT];
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            entries[i] = new QueryEntry(ss, ss.toData(i), new Item(i), extractors);
+        }
+
+        Aggregator expected = clone(aggregator);
+        for (QueryableEntry entry : entries) {
+            expected.accumulate(entry);
+        }
+
+        AbstractAggregator actual = (AbstractAggregator) clone(aggregator);
+        Object[] values = new Object[BATCH_SIZE];
+        for (int from = 0; from < ENTRY_COUNT; from += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, ENTRY_COUNT - from);
+            actual.accumulateBatch(Arrays.copyOfRange(entries, from, from + size), size, values);
+        }
+
+        assertEquals(expected.aggregate(), actual.aggregate());
+    }
+
+    private Aggregator clone(Aggregator aggregator) {
+        return ss.toObject(ss.toData(aggregator));
+    }
+
+    public static class Item {
+
+        private final int intValue;
+        private final long longValue;
+        private final double doubleValue;
+        private final Number numberValue;
+        private final long[] longs;
+
+        Item(int i) {
+            this.intValue = i;
+            this.longValue = i * 3L;
+            this.doubleValue = i / 7.0;
+            this.numberValue = i % 2 == 0 ? (Number) i : (Number) (long) i;
+            this.longs = new long[i % 3];
+            Arrays.fill(longs, i);
+        }
+
+        public int getIntValue() {
+            return intValue;
+        }
+
+        public long getLongValue() {
+            return longValue;
+        }
+
+        public double getDoubleValue() {
+            return doubleValue;
+        }
+
+        public Number getNumberValue() {
+            return numberValue;
+        }
+
+        public long[] getLongs() {
+            return longs;
+        }
+
+    }
+
+}
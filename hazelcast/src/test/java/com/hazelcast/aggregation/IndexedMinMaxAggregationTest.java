@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastSerialParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(HazelcastSerialParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class IndexedMinMaxAggregationTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private static final AtomicInteger VALUE_READS = new AtomicInteger();
+
+    @Parameter
+    public InMemoryFormat inMemoryFormat;
+
+    @Parameters(name = "format:{0}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{{InMemoryFormat.OBJECT}, {InMemoryFormat.BINARY}});
+    }
+
+    private IMap<Integer, Item> map;
+
+    @Before
+    public void before() {
+        Config config = getConfig();
+        config.getMapConfig("map").setInMemoryFormat(inMemoryFormat);
+        map = createHazelcastInstance(config).getMap("map");
+        map.addIndex(IndexType.SORTED, "value");
+        map.addIndex(IndexType.SORTED, "values[any]");
+        map.addIndex(IndexType.HASH, "hashed");
+
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            // every 10th item has no value
+            map.put(i, new Item(i % 10 == 0 ? null : i));
+        }
+    }
+
+    @Test
+    public void testMinMax() {
+        assertEquals(Integer.valueOf(1), map.aggregate(Aggregators.integerMin("value")));
+        assertEquals(Integer.valueOf(ENTRY_COUNT - 1), map.aggregate(Aggregators.integerMax("value")));
+        assertEquals(Integer.valueOf(1), map.aggregate(Aggregators.comparableMin("this.value")));
+        assertEquals(Integer.valueOf(ENTRY_COUNT - 1), map.aggregate(Aggregators.comparableMax("this.value")));
+    }
+
+    @Test
+    public void testMinMax_doesNotScanEntries() {
+        VALUE_READS.set(0);
+        assertEquals(Integer.valueOf(ENTRY_COUNT - 1), map.aggregate(Aggregators.integerMax("value")));
+        assertTrue("value reads: " + VALUE_READS.get(), VALUE_READS.get() < ENTRY_COUNT / 10);
+    }
+
+    @Test
+    public void testMinMax_multiValuedAttribute() {
+        assertEquals(Integer.valueOf(0), map.aggregate(Aggregators.integerMin("values[any]")));
+        assertEquals(Integer.valueOf(ENTRY_COUNT), map.aggregate(Aggregators.integerMax("values[any]")));
+    }
+
+    @Test
+    public void testMinMax_whenUnorderedIndex() {
+        assertEquals(Integer.valueOf(1), map.aggregate(Aggregators.integerMin("hashed")));
+        assertEquals(Integer.valueOf(ENTRY_COUNT - 1), map.aggregate(Aggregators.integerMax("hashed")));
+    }
+
+    @Test
+    public void testMinMax_withPredicate() {
+        assertEquals(Integer.valueOf(505), map.aggregate(Aggregators.integerMax("value"), Predicates.lessEqual("value", 505)));
+    }
+
+    @Test
+    public void testMinMax_afterUpdates() {
+        map.remove(ENTRY_COUNT - 1);
+        map.put(1, new Item(null));
+        map.put(2, new Item(-1));
+
+        assertEquals(Integer.valueOf(-1), map.aggregate(Aggregators.integerMin("value")));
+        assertEquals(Integer.valueOf(ENTRY_COUNT - 2), map.aggregate(Aggregators.integerMax("value")));
+    }
+
+    @Test
+    public void testMinMax_whenEmpty() {
+        map.clear();
+
+        assertNull(map.aggregate(Aggregators.integerMin("value")));
+        assertNull(map.aggregate(Aggregators.integerMax("value")));
+    }
+
+    @Test
+    public void testCount_doesNotScanEntries() {
+        VALUE_READS.set(0);
+        assertEquals(Long.valueOf(ENTRY_COUNT), map.aggregate(Aggregators.count()));
+        assertTrue("value reads: " + VALUE_READS.get(), VALUE_READS.get() < ENTRY_COUNT / 10);
+
+        map.remove(0);
+        assertEquals(Long.valueOf(ENTRY_COUNT - 1), map.aggregate(Aggregators.count()));
+    }
+
+    @Test
+    public void testCount_withIndexedPredicate() {
+        // every 10th item has no value
+        assertEquals(Long.valueOf(455), map.aggregate(Aggregators.count(), Predicates.lessEqual("value", 505)));
+    }
+
+    public static class Item implements Serializable {
+
+        private final Integer value;
+
+        Item(Integer value) {
+            this.value = value;
+        }
+
+        public Integer getValue() {
+            VALUE_READS.incrementAndGet();
+            return value;
+        }
+
+        public Integer getHashed() {
+            return value;
+        }
+
+        public int[] getValues() {
+            return value == null ? new int[0] : new int[]{value - 1, value, value + 1};
+        }
+
+    }
+
+}
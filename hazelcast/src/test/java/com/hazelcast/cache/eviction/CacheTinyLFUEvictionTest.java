@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.eviction;
+
+import com.hazelcast.cache.ICache;
+import com.hazelcast.cache.impl.HazelcastServerCachingProvider;
+import com.hazelcast.config.CacheConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import static com.hazelcast.cache.impl.maxsize.impl.EntryCountCacheEvictionChecker.calculateMaxPartitionSize;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CacheTinyLFUEvictionTest extends HazelcastTestSupport {
+
+    private static final int MAX_SIZE = 100;
+    private static final int HOT_KEY = -1;
+    private static final int HOT_KEY_READS = 20;
+    private static final int SCAN_SIZE = 10 * MAX_SIZE;
+
+    @Test
+    public void testFrequentlyReadKey_survivesScanOfOneHitKeys() {
+        Config config = getConfig();
+        config.setProperty(PARTITION_COUNT.getName(), "1");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        CacheManager cacheManager = HazelcastServerCachingProvider.createCachingProvider(instance).getCacheManager();
+        CacheConfig<Integer, Integer> cacheConfig = new CacheConfig<Integer, Integer>()
+                .setEvictionConfig(new EvictionConfig()
+                        .setSize(MAX_SIZE)
+                        .setMaximumSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                        .setEvictionPolicy(EvictionPolicy.TINY_LFU));
+        Cache<Integer, Integer> cache = cacheManager.createCache(randomName(), cacheConfig);
+        int maxPartitionSize = calculateMaxPartitionSize(MAX_SIZE, 1);
+
+        // fill the cache up, so the frequency sketch is already sized for it
+        for (int i = 0; i < 2 * maxPartitionSize; i++) {
+            cache.put(i, i);
+        }
+        cache.put(HOT_KEY, HOT_KEY);
+        for (int i = 0; i < HOT_KEY_READS; i++) {
+            assertEquals(HOT_KEY, (int) cache.get(HOT_KEY));
+        }
+
+        // every key of the scan is read once
+        for (int i = 2 * maxPartitionSize; i < 2 * maxPartitionSize + SCAN_SIZE; i++) {
+            cache.put(i, i);
+            cache.get(i);
+        }
+
+        int size = cache.unwrap(ICache.class).size();
+        assertTrue("cache size: " + size, size < 2 * maxPartitionSize);
+        assertTrue("the frequently read key was evicted", cache.containsKey(HOT_KEY));
+    }
+}
@@ -217,7 +217,7 @@ public class ClientDisconnectTest extends HazelcastTestSupport {
         assertTrueEventually(new AssertTask() {
             @Override
             public void run() {
-                assertFalse(invocationRegistry.entrySet().isEmpty());
+                assertTrue(invocationRegistry.size() > 0);
             }
         });
 
@@ -238,7 +238,7 @@ public class ClientDisconnectTest extends HazelcastTestSupport {
         assertTrueEventually(new AssertTask() {
             @Override
             public void run() {
-                assertTrue(invocationRegistry.entrySet().isEmpty());
+                assertEquals(0, invocationRegistry.size());
             }
         });
 
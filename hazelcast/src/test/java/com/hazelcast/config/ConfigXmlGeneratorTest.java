@@ -1110,6 +1110,7 @@ public class ConfigXmlGeneratorTest {
                 .setCacheDeserializedValues(CacheDeserializedValues.ALWAYS)
                 .setStatisticsEnabled(true)
                 .setReadBackupData(true)
+                .setQueryResultCacheSize(50)
                 .setBackupCount(2)
                 .setAsyncBackupCount(3)
                 .setMapStoreConfig(mapStoreConfig)
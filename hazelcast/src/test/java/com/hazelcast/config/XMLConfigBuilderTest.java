@@ -2253,6 +2253,7 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
                 + "        <eviction-policy>RANDOM</eviction-policy>"
                 + "        <max-size policy=\"PER_NODE\">42</max-size>"
                 + "        <read-backup-data>true</read-backup-data>"
+                + "        <query-result-cache-size>100</query-result-cache-size>"
                 + "        <merkle-tree enabled=\"true\">\n"
                 + "            <depth>20</depth>\n"
                 + "          </merkle-tree>"
@@ -2323,6 +2324,7 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
         assertEquals(MaxSizeConfig.MaxSizePolicy.PER_NODE, mapConfig.getMaxSizeConfig().getMaxSizePolicy());
         assertEquals(42, mapConfig.getMaxSizeConfig().getSize());
         assertTrue(mapConfig.isReadBackupData());
+        assertEquals(100, mapConfig.getQueryResultCacheSize());
         assertEquals(1, mapConfig.getIndexConfigs().size());
         assertEquals("age", mapConfig.getIndexConfigs().get(0).getAttributes().get(0));
         assertTrue(mapConfig.getIndexConfigs().get(0).getType() == IndexType.SORTED);
@@ -2281,6 +2281,7 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
                 + "        policy: PER_NODE\n"
                 + "        max-size: 42\n"
                 + "      read-backup-data: true\n"
+                + "      query-result-cache-size: 100\n"
                 + "      merkle-tree:\n"
                 + "        enabled: true\n"
                 + "        depth: 20\n"
@@ -2346,6 +2347,7 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
         assertEquals(MaxSizeConfig.MaxSizePolicy.PER_NODE, mapConfig.getMaxSizeConfig().getMaxSizePolicy());
         assertEquals(42, mapConfig.getMaxSizeConfig().getSize());
         assertTrue(mapConfig.isReadBackupData());
+        assertEquals(100, mapConfig.getQueryResultCacheSize());
         assertEquals(1, mapConfig.getIndexConfigs().size());
         assertEquals("age", mapConfig.getIndexConfigs().get(0).getAttributes().get(0));
         assertTrue(mapConfig.getIndexConfigs().get(0).getType() == IndexType.SORTED);
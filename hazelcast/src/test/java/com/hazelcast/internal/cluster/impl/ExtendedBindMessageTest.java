@@ -66,6 +66,46 @@ public class ExtendedBindMessageTest {
         assertTrue(deserialized.isReply());
     }
 
+    @Test
+    public void testSerialization_withPacketCompression() throws Exception {
+        bindMessage = new ExtendedBindMessage(ExtendedBindMessage.PACKET_COMPRESSION_SCHEMA_VERSION, localAddresses(),
+                targetAddress, false, true);
+        Data serialized = serializationService.toData(bindMessage);
+        ExtendedBindMessage deserialized = serializationService.toObject(serialized);
+        assertEquals(ExtendedBindMessage.PACKET_COMPRESSION_SCHEMA_VERSION, deserialized.getSchemaVersion());
+        assertEquals(localAddresses(), deserialized.getLocalAddresses());
+        assertFalse(deserialized.isReply());
+        assertTrue(deserialized.isPacketCompression());
+    }
+
+    @Test
+    public void testSerialization_whenOldSchemaVersion_thenNoPacketCompression() throws Exception {
+        bindMessage = new ExtendedBindMessage((byte) 1, localAddresses(), targetAddress, true, true);
+        Data serialized = serializationService.toData(bindMessage);
+        ExtendedBindMessage deserialized = serializationService.toObject(serialized);
+        assertFalse(deserialized.isPacketCompression());
+    }
+
+    @Test
+    public void testSerialization_withCompactInvalidation() throws Exception {
+        bindMessage = new ExtendedBindMessage(ExtendedBindMessage.COMPACT_INVALIDATION_SCHEMA_VERSION, localAddresses(),
+                targetAddress, false, true);
+        Data serialized = serializationService.toData(bindMessage);
+        ExtendedBindMessage deserialized = serializationService.toObject(serialized);
+        assertEquals(ExtendedBindMessage.COMPACT_INVALIDATION_SCHEMA_VERSION, deserialized.getSchemaVersion());
+        assertTrue(deserialized.isCompactInvalidationAware());
+        assertTrue(deserialized.isPacketCompression());
+    }
+
+    @Test
+    public void testSerialization_whenPacketCompressionSchemaVersion_thenNoCompactInvalidation() throws Exception {
+        bindMessage = new ExtendedBindMessage(ExtendedBindMessage.PACKET_COMPRESSION_SCHEMA_VERSION, localAddresses(),
+                targetAddress, false, true);
+        Data serialized = serializationService.toData(bindMessage);
+        ExtendedBindMessage deserialized = serializationService.toObject(serialized);
+        assertFalse(deserialized.isCompactInvalidationAware());
+    }
+
     @Test
     public void testSerialization_whenBindMessageEmpty() {
         bindMessage = new ExtendedBindMessage();
@@ -21,6 +21,7 @@ import com.hazelcast.config.Config;
 import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizeConfig;
 import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.cp.CPSubsystemConfig;
 import com.hazelcast.spi.impl.NodeEngine;
@@ -82,13 +83,27 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
     }
 
     /**
-     * Not supported in open source version, so test is expected to throw exception.
+     * Native memory is not enabled, so test is expected to throw exception.
      */
     @Test(expected = IllegalArgumentException.class)
     public void checkMapConfig_NATIVE() {
         checkMapConfig(getMapConfig(NATIVE), nativeMemoryConfig, splitBrainMergePolicyProvider, properties);
     }
 
+    @Test
+    public void checkMapConfig_NATIVE_withNativeMemoryEnabled() {
+        nativeMemoryConfig.setEnabled(true);
+        checkMapConfig(getMapConfig(NATIVE), nativeMemoryConfig, splitBrainMergePolicyProvider, properties);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void checkMapConfig_NATIVE_withUnsupportedMaxSizePolicy() {
+        nativeMemoryConfig.setEnabled(true);
+        MapConfig mapConfig = getMapConfig(NATIVE);
+        mapConfig.getMaxSizeConfig().setMaxSizePolicy(MaxSizeConfig.MaxSizePolicy.USED_HEAP_SIZE);
+        checkMapConfig(mapConfig, nativeMemoryConfig, splitBrainMergePolicyProvider, properties);
+    }
+
     private MapConfig getMapConfig(InMemoryFormat inMemoryFormat) {
         return new MapConfig()
                 .setInMemoryFormat(inMemoryFormat);
@@ -117,31 +132,26 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
     }
 
     @Test
-    public void checkNearCacheNativeMemoryConfig_shouldNotNeedNativeMemoryConfig_BINARY_onOS() {
-        checkNearCacheNativeMemoryConfig(BINARY, null, false);
-    }
-
-    @Test
-    public void checkNearCacheNativeMemoryConfig_shouldNotNeedNativeMemoryConfig_BINARY_onEE() {
-        checkNearCacheNativeMemoryConfig(BINARY, null, true);
-    }
-
-    @Test
-    public void checkNearCacheNativeMemoryConfig_shouldNotThrowExceptionWithoutNativeMemoryConfig_NATIVE_onOS() {
-        checkNearCacheNativeMemoryConfig(NATIVE, null, false);
+    public void checkNearCacheNativeMemoryConfig_shouldNotNeedNativeMemoryConfig_BINARY() {
+        checkNearCacheNativeMemoryConfig(BINARY, null);
     }
 
     @Test
-    public void checkNearCacheNativeMemoryConfig_shouldNotThrowExceptionWithNativeMemoryConfig_NATIVE_onEE() {
+    public void checkNearCacheNativeMemoryConfig_shouldNotThrowExceptionWithNativeMemoryConfig_NATIVE() {
         NativeMemoryConfig nativeMemoryConfig = new NativeMemoryConfig()
                 .setEnabled(true);
 
-        checkNearCacheNativeMemoryConfig(NATIVE, nativeMemoryConfig, true);
+        checkNearCacheNativeMemoryConfig(NATIVE, nativeMemoryConfig);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void checkNearCacheNativeMemoryConfig_shouldThrowExceptionWithoutNativeMemoryConfig_NATIVE() {
+        checkNearCacheNativeMemoryConfig(NATIVE, null);
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void checkNearCacheNativeMemoryConfig_shouldThrowExceptionWithoutNativeMemoryConfig_NATIVE_onEE() {
-        checkNearCacheNativeMemoryConfig(NATIVE, null, true);
+    public void checkNearCacheNativeMemoryConfig_shouldThrowExceptionWithDisabledNativeMemoryConfig_NATIVE() {
+        checkNearCacheNativeMemoryConfig(NATIVE, new NativeMemoryConfig());
     }
 
     @Test(expected = IllegalArgumentException.class)
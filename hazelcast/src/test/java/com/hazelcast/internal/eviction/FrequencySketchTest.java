@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.eviction.FrequencySketch.MAX_FREQUENCY;
+import static com.hazelcast.internal.eviction.FrequencySketch.MIN_CAPACITY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class FrequencySketchTest {
+
+    @Test
+    public void testFrequency_whenNotIncremented() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+
+        assertEquals(0, sketch.frequency("key"));
+    }
+
+    @Test
+    public void testIncrement() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("key");
+        }
+
+        assertEquals(5, sketch.frequency("key"));
+    }
+
+    @Test
+    public void testIncrement_saturatesAtMaxFrequency() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+
+        for (int i = 0; i < 2 * MAX_FREQUENCY; i++) {
+            sketch.increment("key");
+        }
+
+        assertEquals(MAX_FREQUENCY, sketch.frequency("key"));
+    }
+
+    @Test
+    public void testIncrement_agesFrequencies() {
+        FrequencySketch sketch = new FrequencySketch(MIN_CAPACITY);
+        for (int i = 0; i < MAX_FREQUENCY; i++) {
+            sketch.increment("hot");
+        }
+
+        // the other keys fill the sample, which halves the counters
+        for (int i = 0; i < 10 * MIN_CAPACITY; i++) {
+            sketch.increment(i);
+        }
+
+        assertTrue(sketch.frequency("hot") < MAX_FREQUENCY);
+    }
+
+    @Test
+    public void testEnsureCapacity() {
+        FrequencySketch sketch = new FrequencySketch();
+        assertEquals(MIN_CAPACITY, sketch.capacity());
+
+        sketch.ensureCapacity(1000);
+        assertEquals(1024, sketch.capacity());
+
+        // never shrinks
+        sketch.ensureCapacity(10);
+        assertEquals(1024, sketch.capacity());
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.invalidation;
+
+import com.hazelcast.internal.nearcache.NearCache;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.hazelcast.internal.util.UuidUtil.newUnsecureUUID;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BatchNearCacheInvalidationTest extends HazelcastTestSupport {
+
+    private static final String NAME = "map";
+
+    private final UUID sourceUuid = newUnsecureUUID();
+    private final UUID partitionUuid1 = newUnsecureUUID();
+    private final UUID partitionUuid2 = newUnsecureUUID();
+    private InternalSerializationService serializationService;
+
+    @Before
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+    }
+
+    @Test
+    public void compact_keepsLatestInvalidationOfKey() {
+        List<Invalidation> invalidations = asList(
+                invalidation("a", partitionUuid1, 1),
+                invalidation("a", partitionUuid1, 2),
+                invalidation("b", partitionUuid1, 3),
+                invalidation("a", partitionUuid1, 4));
+
+        List<Invalidation> compacted = BatchInvalidator.compact(invalidations);
+
+        assertEquals(2, compacted.size());
+        // the first invalidation of the partition takes the lowest sequence
+        assertInvalidation(compacted.get(0), "b", partitionUuid1, 1);
+        assertInvalidation(compacted.get(1), "a", partitionUuid1, 4);
+    }
+
+    @Test
+    public void compact_groupsInvalidationsByPartition() {
+        List<Invalidation> invalidations = asList(
+                invalidation("a", partitionUuid1, 5),
+                invalidation("b", partitionUuid2, 7),
+                invalidation("c", partitionUuid1, 6),
+                invalidation("b", partitionUuid2, 8));
+
+        List<Invalidation> compacted = BatchInvalidator.compact(invalidations);
+
+        assertEquals(3, compacted.size());
+        int first = compacted.get(0).getPartitionUuid().equals(partitionUuid1) ? 0 : 1;
+        int second = 1 - first;
+        assertInvalidation(compacted.get(2 * first), "a", partitionUuid1, 5);
+        assertInvalidation(compacted.get(2 * first + 1), "c", partitionUuid1, 6);
+        assertInvalidation(compacted.get(2 * second), "b", partitionUuid2, 7);
+    }
+
+    @Test
+    public void serialization() {
+        List<Invalidation> invalidations = serializedInvalidations();
+
+        assertSerialization(invalidations, new BatchNearCacheInvalidation(NAME, invalidations));
+    }
+
+    @Test
+    public void serialization_compact() {
+        List<Invalidation> invalidations = serializedInvalidations();
+
+        assertSerialization(invalidations, new CompactBatchNearCacheInvalidation(NAME, invalidations));
+    }
+
+    private List<Invalidation> serializedInvalidations() {
+        List<Invalidation> invalidations = new ArrayList<>();
+        invalidations.add(invalidation("a", partitionUuid1, 1));
+        invalidations.add(invalidation("b", partitionUuid1, 3));
+        invalidations.add(new SingleNearCacheInvalidation(serializationService.toData("c"), NAME,
+                null, partitionUuid1, 4));
+        invalidations.add(invalidation("d", partitionUuid2, 100));
+        invalidations.add(invalidation("e", partitionUuid2, 2));
+        return invalidations;
+    }
+
+    private void assertSerialization(List<Invalidation> invalidations, BatchNearCacheInvalidation batch) {
+        BatchNearCacheInvalidation copy = serializationService.toObject(serializationService.toData(batch));
+
+        assertEquals(batch.getClass(), copy.getClass());
+        assertEquals(NAME, copy.getName());
+        List<Invalidation> copies = copy.getInvalidations();
+        assertEquals(invalidations.size(), copies.size());
+        for (int i = 0; i < invalidations.size(); i++) {
+            Invalidation expected = invalidations.get(i);
+            Invalidation actual = copies.get(i);
+            assertEquals(NAME, actual.getName());
+            assertEquals(expected.getKey(), actual.getKey());
+            assertEquals(expected.getSourceUuid(), actual.getSourceUuid());
+            assertEquals(expected.getPartitionUuid(), actual.getPartitionUuid());
+            assertEquals(expected.getSequence(), actual.getSequence());
+        }
+    }
+
+    @Test
+    public void repairingHandler_doesNotCountSuppressedSequencesAsMissed() {
+        RepairingHandler repairingHandler = newRepairingHandler();
+        List<Invalidation> invalidations = asList(
+                invalidation("a", partitionUuid1, 1),
+                invalidation("a", partitionUuid1, 2),
+                invalidation("b", partitionUuid1, 3),
+                invalidation("a", partitionUuid1, 4));
+
+        repairingHandler.handle(new CompactBatchNearCacheInvalidation(NAME, BatchInvalidator.compact(invalidations)));
+
+        MetaDataContainer metaData = repairingHandler.getMetaDataContainer(0);
+        assertEquals(4, metaData.getSequence());
+        assertEquals(0, metaData.getMissedSequenceCount());
+    }
+
+    @Test
+    public void repairingHandler_countsMissedSequencesBeforeBatch() {
+        RepairingHandler repairingHandler = newRepairingHandler();
+        List<Invalidation> invalidations = asList(
+                invalidation("a", partitionUuid1, 3),
+                invalidation("a", partitionUuid1, 4));
+
+        repairingHandler.handle(new CompactBatchNearCacheInvalidation(NAME, BatchInvalidator.compact(invalidations)));
+
+        MetaDataContainer metaData = repairingHandler.getMetaDataContainer(0);
+        assertEquals(4, metaData.getSequence());
+        assertEquals(2, metaData.getMissedSequenceCount());
+    }
+
+    private RepairingHandler newRepairingHandler() {
+        MinimalPartitionService partitionService = mock(MinimalPartitionService.class);
+        when(partitionService.getPartitionCount()).thenReturn(1);
+        when(partitionService.getPartitionId(any(Data.class))).thenReturn(0);
+        NearCache nearCache = mock(NearCache.class);
+        when(nearCache.isSerializeKeys()).thenReturn(true);
+        return new RepairingHandler(Logger.getLogger(getClass()), newUnsecureUUID(), NAME, nearCache,
+                serializationService, partitionService);
+    }
+
+    private Invalidation invalidation(String key, UUID partitionUuid, long sequence) {
+        return new SingleNearCacheInvalidation(serializationService.toData(key), NAME, sourceUuid, partitionUuid, sequence);
+    }
+
+    private void assertInvalidation(Invalidation invalidation, String key, UUID partitionUuid, long sequence) {
+        assertEquals(serializationService.toData(key), invalidation.getKey());
+        assertEquals(partitionUuid, invalidation.getPartitionUuid());
+        assertEquals(sequence, invalidation.getSequence());
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.preloader;
+
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.hazelcast.internal.nio.IOUtil.delete;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anySet;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NearCachePreloaderTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 10000;
+
+    private final Set<Object> loadedKeys = ConcurrentHashMap.newKeySet();
+
+    private File directory;
+    private File storeFile;
+    private NearCacheStatsImpl nearCacheStats;
+    private SerializationService serializationService;
+    private NearCachePreloader<Integer> preloader;
+    private DataStructureAdapter<Object, ?> adapter;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        String nearCacheName = randomName();
+        directory = new File(randomName());
+        assertTrue(directory.mkdirs());
+        storeFile = new File(directory, "nearCache-" + nearCacheName + ".store");
+
+        NearCachePreloaderConfig preloaderConfig = new NearCachePreloaderConfig()
+                .setEnabled(true)
+                .setDirectory(directory.getAbsolutePath());
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        nearCacheStats = new NearCacheStatsImpl();
+        preloader = new NearCachePreloader<>(nearCacheName, preloaderConfig, nearCacheStats, serializationService);
+
+        adapter = mock(DataStructureAdapter.class);
+        doAnswer(invocation -> {
+            loadedKeys.addAll((Set<Object>) invocation.getArguments()[0]);
+            return null;
+        }).when(adapter).getAll(anySet());
+    }
+
+    @After
+    public void tearDown() {
+        preloader.destroy();
+        delete(directory);
+    }
+
+    @Test
+    public void testStoreAndLoadKeys() {
+        preloader.storeKeys(keys(0, KEY_COUNT).iterator());
+        preloader.loadKeys(adapter);
+
+        assertTrue(storeFile.exists());
+        assertEquals(KEY_COUNT, nearCacheStats.getLastPersistenceKeyCount());
+        assertEquals(KEY_COUNT, loadedKeys.size());
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertTrue(loadedKeys.contains(i));
+        }
+        assertEquals(KEY_COUNT, nearCacheStats.getLastPreloadKeyCount());
+        assertEquals(KEY_COUNT, nearCacheStats.getLastPreloadLoadedKeyCount());
+        assertTrue(nearCacheStats.getLastPreloadTime() > 0);
+    }
+
+    @Test
+    public void testStoreKeys_whenKeysAreUnchanged_thenFileIsNotWritten() {
+        preloader.storeKeys(keys(0, KEY_COUNT).iterator());
+        long lastModified = storeFile.lastModified();
+        long length = storeFile.length();
+
+        preloader.storeKeys(keys(0, KEY_COUNT).iterator());
+
+        assertEquals(lastModified, storeFile.lastModified());
+        assertEquals(length, storeFile.length());
+        assertEquals(KEY_COUNT, nearCacheStats.getLastPersistenceKeyCount());
+    }
+
+    @Test
+    public void testStoreKeys_whenFewKeysAreChanged_thenChangedSegmentsAreAppended() {
+        preloader.storeKeys(keys(0, KEY_COUNT).iterator());
+        long length = storeFile.length();
+
+        List<Integer> keys = keys(0, KEY_COUNT);
+        keys.set(0, KEY_COUNT);
+        preloader.storeKeys(keys.iterator());
+
+        assertTrue(storeFile.length() > length);
+        assertTrue(storeFile.length() < 2 * length);
+
+        preloader.loadKeys(adapter);
+        assertEquals(KEY_COUNT, loadedKeys.size());
+        assertTrue(loadedKeys.contains(KEY_COUNT));
+        assertFalse(loadedKeys.contains(0));
+    }
+
+    @Test
+    public void testStoreKeys_whenFileIsFragmented_thenFileIsRewritten() {
+        preloader.storeKeys(keys(0, KEY_COUNT).iterator());
+        long length = storeFile.length();
+
+        // the first change of all keys is appended, the second one exceeds the fragmentation limit
+        preloader.storeKeys(keys(KEY_COUNT, 2 * KEY_COUNT).iterator());
+        assertTrue(storeFile.length() > length);
+        preloader.storeKeys(keys(0, KEY_COUNT).iterator());
+
+        assertEquals(length, storeFile.length());
+
+        preloader.loadKeys(adapter);
+        assertEquals(KEY_COUNT, loadedKeys.size());
+        assertTrue(loadedKeys.contains(0));
+    }
+
+    @Test
+    public void testStoreKeys_whenNoKeys_thenFileIsDeleted() {
+        preloader.storeKeys(keys(0, KEY_COUNT).iterator());
+
+        preloader.storeKeys(keys(0, 0).iterator());
+
+        assertFalse(storeFile.exists());
+        assertEquals(0, nearCacheStats.getLastPersistenceWrittenBytes());
+    }
+
+    @Test
+    public void testStoreKeys_doesNotLeaveTemporaryFiles() {
+        preloader.storeKeys(keys(0, KEY_COUNT).iterator());
+        List<Integer> keys = keys(0, KEY_COUNT);
+        keys.set(0, KEY_COUNT);
+        preloader.storeKeys(keys.iterator());
+
+        File[] files = directory.listFiles((dir, name) -> name.endsWith("~"));
+        assertNotNull(files);
+        assertEquals(0, files.length);
+    }
+
+    @Test
+    public void testLoadKeys_whenFileOfPreviousFormat_thenKeysAreLoaded() throws Exception {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(storeFile))) {
+            // the magic bytes and the ordinal of the format with the length-prefixed keys
+            out.writeInt(0xEA3CAC4E);
+            out.writeInt(0);
+            for (int key : keys(0, KEY_COUNT)) {
+                byte[] payload = serializationService.toData(key).toByteArray();
+                out.writeInt(payload.length);
+                out.write(payload);
+            }
+        }
+
+        preloader.loadKeys(adapter);
+
+        assertEquals(KEY_COUNT, loadedKeys.size());
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertTrue(loadedKeys.contains(i));
+        }
+        assertEquals(-1, nearCacheStats.getLastPreloadKeyCount());
+        assertEquals(KEY_COUNT, nearCacheStats.getLastPreloadLoadedKeyCount());
+    }
+
+    @Test
+    public void testLoadKeys_whenSegmentTableIsCorrupt_thenNothingIsLoadedAndFileIsRewritten() throws Exception {
+        preloader.storeKeys(keys(0, KEY_COUNT).iterator());
+        long length = storeFile.length();
+        try (RandomAccessFile file = new RandomAccessFile(storeFile, "rw")) {
+            // a byte of the first segment entry, the table checksum doesn't match anymore
+            file.seek(16);
+            int corrupted = file.readByte() ^ 0xFF;
+            file.seek(16);
+            file.writeByte(corrupted);
+        }
+
+        preloader.loadKeys(adapter);
+        assertEquals(0, loadedKeys.size());
+
+        // the corrupt table can't be updated in place, so the file is rewritten
+        preloader.storeKeys(keys(0, KEY_COUNT).iterator());
+        assertEquals(length, storeFile.length());
+
+        preloader.loadKeys(adapter);
+        assertEquals(KEY_COUNT, loadedKeys.size());
+    }
+
+    private static List<Integer> keys(int from, int to) {
+        List<Integer> keys = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            keys.add(i);
+        }
+        return keys;
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.nearcache.impl.store;
 
+import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
@@ -30,11 +31,15 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static com.hazelcast.config.EvictionConfig.MaxSizePolicy.ENTRY_COUNT;
+import static com.hazelcast.config.EvictionPolicy.TINY_LFU;
 import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
 import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -99,6 +104,41 @@ public class AbstractNearCacheRecordStoreTest {
         assertEquals(1, store.getNearCacheStats().getOwnedEntryCount());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAdmission_withTinyLFU() {
+        NearCacheConfig config = new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.OBJECT)
+                .setSerializeKeys(false)
+                .setEvictionConfig(new EvictionConfig()
+                        .setEvictionPolicy(TINY_LFU)
+                        .setMaximumSizePolicy(ENTRY_COUNT)
+                        .setSize(1));
+        AbstractNearCacheRecordStore tinyLFUStore = new NearCacheObjectRecordStore("tinyLFU", config, serializationService,
+                getClass().getClassLoader());
+        tinyLFUStore.initialize();
+        try {
+            // the first key is admitted into the empty store
+            assertTrue(tinyLFUStore.admit(KEY));
+            tinyLFUStore.put(KEY, null, VALUE1, null);
+            for (int i = 0; i < 3; i++) {
+                tinyLFUStore.get(KEY);
+            }
+
+            // a cold key doesn't replace the hot one
+            tinyLFUStore.get(VALUE2);
+            assertFalse(tinyLFUStore.admit(VALUE2));
+
+            // a key which became hotter does
+            for (int i = 0; i < 3; i++) {
+                tinyLFUStore.get(VALUE2);
+            }
+            assertTrue(tinyLFUStore.admit(VALUE2));
+        } finally {
+            tinyLFUStore.destroy();
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private void assertRecordState(long recordState) {
         assertEquals(recordState, store.getRecord(KEY).getRecordState());
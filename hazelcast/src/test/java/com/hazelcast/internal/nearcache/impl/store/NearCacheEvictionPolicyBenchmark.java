@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.hazelcast.config.EvictionConfig.MaxSizePolicy.ENTRY_COUNT;
+
+/**
+ * Replays an access trace against a Near Cache with the {@code LRU},
+ * {@code LFU} and {@code TINY_LFU} eviction policies. The hit ratio is
+ * reported by the {@code hits} and {@code misses} counters, the throughput by
+ * the benchmark score.
+ * <p>
+ * The trace is read from the file given by the {@value #TRACE_FILE_PROPERTY}
+ * system property, one integer key per line. Without it a synthetic trace is
+ * used: skewed accesses of a hot set, mixed with scans of keys which are
+ * accessed only once.
+ * <p>
+ * Run {@link #main(String[])} with {@code hitRatio} as the argument to print
+ * only the hit ratios of a single replay of the trace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@SuppressWarnings("unused")
+public class NearCacheEvictionPolicyBenchmark {
+
+    static final String TRACE_FILE_PROPERTY = "hazelcast.nearcache.benchmark.trace";
+
+    private static final int CACHE_SIZE = 10_000;
+    private static final int TRACE_LENGTH = 2_000_000;
+    private static final int HOT_KEY_COUNT = 100_000;
+    private static final int SCAN_LENGTH = 20_000;
+    private static final double SCAN_PROBABILITY = 0.0005;
+    private static final double SKEW = 4;
+    private static final int WARMUP_ITERATIONS_COUNT = 5;
+    private static final int MEASUREMENT_ITERATIONS_COUNT = 10;
+
+    @Param({"LRU", "LFU", "TINY_LFU"})
+    public EvictionPolicy evictionPolicy;
+
+    private final SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private NearCacheObjectRecordStore<Integer, Integer> store;
+    private int[] trace;
+    private int position;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HitCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        trace = loadTrace();
+        store = newStore(evictionPolicy, serializationService);
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.destroy();
+    }
+
+    @Benchmark
+    public Integer replay(HitCounters counters) {
+        int key = trace[position];
+        position = position + 1 == trace.length ? 0 : position + 1;
+        Integer value = access(store, key);
+        if (value != null) {
+            counters.hits++;
+        } else {
+            counters.misses++;
+        }
+        return value;
+    }
+
+    /**
+     * Does what a Near Cached proxy does on a read: a miss is loaded and
+     * put into the Near Cache if the eviction policy admits it.
+     *
+     * @return the value if it was a hit, {@code null} otherwise
+     */
+    private static Integer access(NearCacheObjectRecordStore<Integer, Integer> store, int key) {
+        Integer value = store.get(key);
+        if (value == null && store.admit(key)) {
+            store.doEviction(false);
+            store.put(key, null, key, null);
+        }
+        return value;
+    }
+
+    private static NearCacheObjectRecordStore<Integer, Integer> newStore(EvictionPolicy evictionPolicy,
+                                                                         SerializationService serializationService) {
+        NearCacheConfig config = new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.OBJECT)
+                .setSerializeKeys(false)
+                .setEvictionConfig(new EvictionConfig()
+                        .setEvictionPolicy(evictionPolicy)
+                        .setMaximumSizePolicy(ENTRY_COUNT)
+                        .setSize(CACHE_SIZE));
+        NearCacheObjectRecordStore<Integer, Integer> store = new NearCacheObjectRecordStore<>("benchmark", config,
+                serializationService, NearCacheEvictionPolicyBenchmark.class.getClassLoader());
+        store.initialize();
+        return store;
+    }
+
+    private static int[] loadTrace() throws IOException {
+        String traceFile = System.getProperty(TRACE_FILE_PROPERTY);
+        if (traceFile != null) {
+            try (Stream<String> lines = Files.lines(Paths.get(traceFile))) {
+                return lines.map(String::trim)
+                        .filter(line -> !line.isEmpty())
+                        .mapToInt(Integer::parseInt)
+                        .toArray();
+            }
+        }
+        return syntheticTrace();
+    }
+
+    private static int[] syntheticTrace() {
+        Random random = new Random(42);
+        int[] trace = new int[TRACE_LENGTH];
+        int scanKey = HOT_KEY_COUNT;
+        int scanRemaining = 0;
+        for (int i = 0; i < trace.length; i++) {
+            if (scanRemaining == 0 && random.nextDouble() < SCAN_PROBABILITY) {
+                scanRemaining = SCAN_LENGTH;
+            }
+            if (scanRemaining > 0) {
+                scanRemaining--;
+                trace[i] = scanKey++;
+            } else {
+                trace[i] = (int) (Math.pow(random.nextDouble(), SKEW) * HOT_KEY_COUNT);
+            }
+        }
+        return trace;
+    }
+
+    private static void printHitRatios() throws IOException {
+        SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        int[] trace = loadTrace();
+        for (EvictionPolicy evictionPolicy : new EvictionPolicy[]{EvictionPolicy.LRU, EvictionPolicy.LFU,
+                EvictionPolicy.TINY_LFU}) {
+            NearCacheObjectRecordStore<Integer, Integer> store = newStore(evictionPolicy, serializationService);
+            long hits = 0;
+            for (int key : trace) {
+                if (access(store, key) != null) {
+                    hits++;
+                }
+            }
+            store.destroy();
+            System.out.printf("%-8s hit ratio: %.2f%%%n", evictionPolicy, 100d * hits / trace.length);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        if (args.length > 0 && "hitRatio".equals(args[0])) {
+            printHitRatios();
+            return;
+        }
+
+        Options opt = new OptionsBuilder()
+                .include(NearCacheEvictionPolicyBenchmark.class.getSimpleName())
+                .warmupIterations(WARMUP_ITERATIONS_COUNT)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+                .measurementTime(TimeValue.seconds(1))
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.config.EvictionConfig.MaxSizePolicy.ENTRY_COUNT;
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+
+/**
+ * Compares the on-heap {@code BINARY} Near Cache with the off-heap
+ * {@code NATIVE} one. The benchmark measures the latency of the reads of a
+ * full Near Cache.
+ * <p>
+ * Run {@link #main(String[])} with {@code footprint} as the argument to
+ * print the heap used by a full Near Cache of each in-memory-format, and the
+ * GC time and count of a churn of updates against it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@SuppressWarnings("unused")
+public class NearCacheNativeMemoryBenchmark {
+
+    private static final int ENTRY_COUNT_TO_STORE = 1_000_000;
+    private static final int VALUE_SIZE = 100;
+    private static final int NATIVE_MEMORY_SIZE_IN_MEGABYTES = 1024;
+    private static final int CHURN_COUNT = 5_000_000;
+    private static final int WARMUP_ITERATIONS_COUNT = 5;
+    private static final int MEASUREMENT_ITERATIONS_COUNT = 10;
+
+    @Param({"BINARY", "NATIVE"})
+    public InMemoryFormat inMemoryFormat;
+
+    private final SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private StandardMemoryManager memoryManager;
+    private NearCacheRecordStore<Integer, byte[]> store;
+
+    @Setup
+    public void setup() {
+        memoryManager = new StandardMemoryManager(MEGABYTES.toBytes(NATIVE_MEMORY_SIZE_IN_MEGABYTES));
+        store = newStore(inMemoryFormat, serializationService, memoryManager);
+        fill(store);
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.destroy();
+        memoryManager.dispose();
+    }
+
+    @Benchmark
+    public byte[] get() {
+        return store.get(ThreadLocalRandom.current().nextInt(ENTRY_COUNT_TO_STORE));
+    }
+
+    private static NearCacheRecordStore<Integer, byte[]> newStore(InMemoryFormat inMemoryFormat,
+                                                                  SerializationService serializationService,
+                                                                  StandardMemoryManager memoryManager) {
+        NearCacheConfig config = new NearCacheConfig("benchmark")
+                .setInMemoryFormat(inMemoryFormat)
+                .setEvictionConfig(new EvictionConfig()
+                        .setEvictionPolicy(EvictionPolicy.LRU)
+                        .setMaximumSizePolicy(ENTRY_COUNT)
+                        .setSize(ENTRY_COUNT_TO_STORE));
+        ClassLoader classLoader = NearCacheNativeMemoryBenchmark.class.getClassLoader();
+        NearCacheRecordStore<Integer, byte[]> store = inMemoryFormat == InMemoryFormat.NATIVE
+                ? new NearCacheNativeRecordStore<>("benchmark", config, serializationService, classLoader, memoryManager)
+                : new NearCacheDataRecordStore<>("benchmark", config, serializationService, classLoader);
+        store.initialize();
+        return store;
+    }
+
+    private static void fill(NearCacheRecordStore<Integer, byte[]> store) {
+        byte[] value = new byte[VALUE_SIZE];
+        for (int i = 0; i < ENTRY_COUNT_TO_STORE; i++) {
+            store.put(i, null, value, null);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long[] gcTimeAndCount() {
+        long time = 0;
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(gc.getCollectionTime(), 0);
+            count += Math.max(gc.getCollectionCount(), 0);
+        }
+        return new long[]{time, count};
+    }
+
+    private static void printFootprint() {
+        SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        for (InMemoryFormat inMemoryFormat : new InMemoryFormat[]{InMemoryFormat.BINARY, InMemoryFormat.NATIVE}) {
+            StandardMemoryManager memoryManager = new StandardMemoryManager(
+                    MEGABYTES.toBytes(NATIVE_MEMORY_SIZE_IN_MEGABYTES));
+            long heapBefore = usedHeap();
+            NearCacheRecordStore<Integer, byte[]> store = newStore(inMemoryFormat, serializationService, memoryManager);
+            fill(store);
+            long heapAfter = usedHeap();
+
+            // overwrites random entries, the replaced records become garbage on the heap only with BINARY
+            byte[] value = new byte[VALUE_SIZE];
+            long[] gcBefore = gcTimeAndCount();
+            for (int i = 0; i < CHURN_COUNT; i++) {
+                store.put(ThreadLocalRandom.current().nextInt(ENTRY_COUNT_TO_STORE), null, value, null);
+            }
+            long[] gcAfter = gcTimeAndCount();
+
+            System.out.printf("%-6s heap: %,d MB, native: %,d MB, GC time: %,d ms, GC count: %,d%n", inMemoryFormat,
+                    (heapAfter - heapBefore) >> 20,
+                    memoryManager.getUsedMemory() >> 20,
+                    gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+            store.destroy();
+            memoryManager.dispose();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        if (args.length > 0 && "footprint".equals(args[0])) {
+            printFootprint();
+            return;
+        }
+
+        Options opt = new OptionsBuilder()
+                .include(NearCacheNativeMemoryBenchmark.class.getSimpleName())
+                .warmupIterations(WARMUP_ITERATIONS_COUNT)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+                .measurementTime(TimeValue.seconds(1))
+                .jvmArgsAppend("-verbose:gc")
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
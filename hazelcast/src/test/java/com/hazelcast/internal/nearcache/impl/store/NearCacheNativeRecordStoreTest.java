@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.monitor.NearCacheStats;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.config.EvictionConfig.MaxSizePolicy.ENTRY_COUNT;
+import static com.hazelcast.internal.nearcache.NearCache.CACHED_AS_NULL;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NearCacheNativeRecordStoreTest {
+
+    private static final int KEY_COUNT = 1000;
+
+    private StandardMemoryManager memoryManager;
+    private SerializationService serializationService;
+    private NearCacheNativeRecordStore<Integer, Object> store;
+
+    @Before
+    public void setUp() {
+        memoryManager = new StandardMemoryManager(MEGABYTES.toBytes(16));
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        store = newStore(EvictionPolicy.LRU, Integer.MAX_VALUE);
+    }
+
+    @After
+    public void tearDown() {
+        store.destroy();
+        memoryManager.dispose();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        for (int i = 0; i < KEY_COUNT; i++) {
+            store.put(i, null, "value-" + i, null);
+        }
+
+        assertEquals(KEY_COUNT, store.size());
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertEquals("value-" + i, store.get(i));
+        }
+        NearCacheStats stats = store.getNearCacheStats();
+        assertEquals(KEY_COUNT, stats.getOwnedEntryCount());
+        assertEquals(KEY_COUNT, stats.getHits());
+        assertTrue(stats.getOwnedEntryMemoryCost() > 0);
+    }
+
+    @Test
+    public void testPut_replacesValue() {
+        store.put(1, null, "value-1", null);
+        store.put(1, null, "value-2", null);
+
+        assertEquals(1, store.size());
+        assertEquals(1, store.getNearCacheStats().getOwnedEntryCount());
+        assertEquals("value-2", store.get(1));
+    }
+
+    @Test
+    public void testPut_nullValue_isCachedAsNull() {
+        store.put(1, null, null, null);
+
+        assertEquals(CACHED_AS_NULL, store.get(1));
+    }
+
+    @Test
+    public void testGet_whenMissing() {
+        assertNull(store.get(1));
+        assertEquals(1, store.getNearCacheStats().getMisses());
+    }
+
+    @Test
+    public void testInvalidate_freesMemory() {
+        long emptyMemory = store.getUsedMemory();
+        store.put(1, null, "value-1", null);
+        assertTrue(store.getUsedMemory() > emptyMemory);
+
+        store.invalidate(1);
+
+        assertNull(store.get(1));
+        assertEquals(0, store.size());
+        assertEquals(emptyMemory, store.getUsedMemory());
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryCount());
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryMemoryCost());
+    }
+
+    @Test
+    public void testClear() {
+        for (int i = 0; i < KEY_COUNT; i++) {
+            store.put(i, null, "value-" + i, null);
+        }
+
+        store.clear();
+
+        assertEquals(0, store.size());
+        assertNull(store.get(1));
+        assertEquals(KEY_COUNT, store.getNearCacheStats().getInvalidations());
+    }
+
+    @Test
+    public void testReserveAndPublish() {
+        long reservationId = store.tryReserveForUpdate(1, null);
+        assertNotEquals(NOT_RESERVED, reservationId);
+        // a reserved record is not readable
+        assertNull(store.get(1));
+        assertEquals(NOT_RESERVED, store.tryReserveForUpdate(1, null));
+
+        assertEquals("value-1", store.tryPublishReserved(1, "value-1", reservationId, true));
+
+        NearCacheRecord record = store.getRecord(1);
+        assertEquals(READ_PERMITTED, record.getRecordState());
+        assertEquals("value-1", store.get(1));
+        assertEquals(1, store.getNearCacheStats().getOwnedEntryCount());
+    }
+
+    @Test
+    public void testPublish_withStaleReservation() {
+        long reservationId = store.tryReserveForUpdate(1, null);
+        store.invalidate(1);
+        store.put(1, null, "value-2", null);
+
+        assertEquals("value-2", store.tryPublishReserved(1, "value-1", reservationId, true));
+        assertEquals("value-2", store.get(1));
+    }
+
+    @Test
+    public void testEviction() {
+        store.destroy();
+        store = newStore(EvictionPolicy.LRU, 100);
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            store.doEviction(false);
+            store.put(i, null, "value-" + i, null);
+        }
+
+        assertTrue(store.size() <= 100);
+        assertEquals(KEY_COUNT - store.size(), store.getNearCacheStats().getEvictions());
+    }
+
+    @Test
+    public void testDestroy_releasesNativeMemory() {
+        long usedMemory = memoryManager.getUsedMemory();
+        NearCacheNativeRecordStore<Integer, Object> other = newStore(EvictionPolicy.LRU, Integer.MAX_VALUE);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            other.put(i, null, "value-" + i, null);
+        }
+
+        other.destroy();
+
+        assertEquals(usedMemory, memoryManager.getUsedMemory());
+    }
+
+    private NearCacheNativeRecordStore<Integer, Object> newStore(EvictionPolicy evictionPolicy, int size) {
+        NearCacheConfig config = new NearCacheConfig("native")
+                .setInMemoryFormat(InMemoryFormat.NATIVE)
+                .setEvictionConfig(new EvictionConfig()
+                        .setEvictionPolicy(evictionPolicy)
+                        .setMaximumSizePolicy(ENTRY_COUNT)
+                        .setSize(size));
+        NearCacheNativeRecordStore<Integer, Object> store = new NearCacheNativeRecordStore<>("native", config,
+                serializationService, getClass().getClassLoader(), memoryManager);
+        store.initialize();
+        return store;
+    }
+}
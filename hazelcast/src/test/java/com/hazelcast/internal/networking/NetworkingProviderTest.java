@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.EndpointQualifier;
+import com.hazelcast.internal.networking.nio.NioNetworking;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.nio.channels.SocketChannel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class NetworkingProviderTest extends HazelcastTestSupport {
+
+    @After
+    public void cleanUp() {
+        Hazelcast.shutdownAll();
+    }
+
+    @Test
+    public void whenTransportProvided_thenUsed() {
+        HazelcastInstance first = Hazelcast.newHazelcastInstance(getConfig(TestNetworkingProvider.TRANSPORT));
+        HazelcastInstance second = Hazelcast.newHazelcastInstance(getConfig(TestNetworkingProvider.TRANSPORT));
+        assertClusterSizeEventually(2, first, second);
+
+        IMap<Integer, Integer> map = first.getMap("map");
+        for (int i = 0; i < 100; i++) {
+            map.set(i, i);
+        }
+        assertEquals(100, second.getMap("map").size());
+
+        TestNetworking networking = (TestNetworking) getNode(first).getNetworkingService().getNetworking();
+        assertTrue(networking.registeredChannels > 0);
+    }
+
+    @Test
+    public void whenTransportNotFound_thenNioUsed() {
+        HazelcastInstance instance = Hazelcast.newHazelcastInstance(getConfig("unknown"));
+
+        assertTrue(getNode(instance).getNetworkingService().getNetworking() instanceof NioNetworking);
+    }
+
+    @Test
+    public void whenTransportNotAvailable_thenNioUsed() {
+        HazelcastInstance instance = Hazelcast.newHazelcastInstance(getConfig(UnavailableNetworkingProvider.TRANSPORT));
+
+        assertTrue(getNode(instance).getNetworkingService().getNetworking() instanceof NioNetworking);
+    }
+
+    private static Config getConfig(String transport) {
+        Config config = new Config();
+        config.setProperty(GroupProperty.IO_TRANSPORT.getName(), transport);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getTcpIpConfig().addMember("127.0.0.1").setEnabled(true);
+        join.getMulticastConfig().setEnabled(false);
+        return config;
+    }
+
+    public static class TestNetworkingProvider implements NetworkingProvider {
+
+        static final String TRANSPORT = "test";
+
+        @Override
+        public String transport() {
+            return TRANSPORT;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public Networking newNetworking(NioNetworking.Context ctx) {
+            return new TestNetworking(new NioNetworking(ctx));
+        }
+    }
+
+    public static class UnavailableNetworkingProvider implements NetworkingProvider {
+
+        static final String TRANSPORT = "unavailable";
+
+        @Override
+        public String transport() {
+            return TRANSPORT;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return false;
+        }
+
+        @Override
+        public Networking newNetworking(NioNetworking.Context ctx) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    static class TestNetworking implements Networking {
+
+        private final Networking delegate;
+        private volatile int registeredChannels;
+
+        TestNetworking(Networking delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Channel register(EndpointQualifier endpointQualifier,
+                                ChannelInitializerProvider channelInitializerProvider,
+                                SocketChannel socketChannel,
+                                boolean clientMode) throws IOException {
+            registeredChannels++;
+            return delegate.register(endpointQualifier, channelInitializerProvider, socketChannel, clientMode);
+        }
+
+        @Override
+        public void restart() {
+            delegate.restart();
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class BufferPoolIntegrationTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+    // larger than the socket buffers to make the values span many reads and writes
+    private static final int VALUE_SIZE = 1024 * 1024;
+
+    @After
+    public void cleanUp() {
+        HazelcastClient.shutdownAll();
+        Hazelcast.shutdownAll();
+    }
+
+    @Test
+    public void testMembersAndClient() {
+        HazelcastInstance first = Hazelcast.newHazelcastInstance(getConfig());
+        HazelcastInstance second = Hazelcast.newHazelcastInstance(getConfig());
+        assertClusterSizeEventually(2, first, second);
+        HazelcastInstance client = HazelcastClient.newHazelcastClient();
+
+        IMap<Integer, byte[]> map = client.getMap("map");
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            map.set(i, value(i, i % 10 == 0 ? VALUE_SIZE : 1));
+        }
+        IMap<Integer, byte[]> memberMap = second.getMap("map");
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            assertArrayEquals(value(i, i % 10 == 0 ? VALUE_SIZE : 1), memberMap.get(i));
+        }
+        assertEquals(ENTRY_COUNT, map.size());
+
+        assertBuffersPooled(first);
+        assertBuffersPooled(second);
+    }
+
+    private static void assertBuffersPooled(HazelcastInstance instance) {
+        NioNetworking networking = (NioNetworking) getNode(instance).getNetworkingService().getNetworking();
+        assertTrueEventually(() -> {
+            long pooledBytes = 0;
+            for (NioThread thread : networking.getInputThreads()) {
+                assertNotNull(thread.bufferPool());
+                pooledBytes += thread.bufferPool().pooledBytes();
+            }
+            for (NioThread thread : networking.getOutputThreads()) {
+                assertNotNull(thread.bufferPool());
+                pooledBytes += thread.bufferPool().pooledBytes();
+            }
+            // the drained buffers are released once the connections are idle
+            assertTrue(pooledBytes > 0);
+        });
+    }
+
+    private static byte[] value(int seed, int size) {
+        byte[] value = new byte[size];
+        for (int i = 0; i < size; i++) {
+            value[i] = (byte) (seed + i);
+        }
+        return value;
+    }
+
+    @Override
+    protected Config getConfig() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.IO_BUFFER_POOL_ENABLED.getName(), "true");
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getTcpIpConfig().addMember("127.0.0.1").setEnabled(true);
+        join.getMulticastConfig().setEnabled(false);
+        return config;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.hazelcast.internal.networking.nio.BufferPool.MAX_BUFFER_SIZE;
+import static com.hazelcast.internal.networking.nio.BufferPool.MIN_BUFFER_SIZE;
+import static com.hazelcast.internal.networking.nio.BufferPool.SLAB_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BufferPoolTest {
+
+    private final BufferPool pool = new BufferPool();
+
+    @Test
+    public void testIsPoolable() {
+        assertTrue(BufferPool.isPoolable(ByteBuffer.allocate(MIN_BUFFER_SIZE)));
+        assertTrue(BufferPool.isPoolable(ByteBuffer.allocateDirect(MAX_BUFFER_SIZE)));
+        assertFalse(BufferPool.isPoolable(ByteBuffer.allocate(MIN_BUFFER_SIZE / 2)));
+        assertFalse(BufferPool.isPoolable(ByteBuffer.allocate(MAX_BUFFER_SIZE * 2)));
+        assertFalse(BufferPool.isPoolable(ByteBuffer.allocate(MIN_BUFFER_SIZE + 1)));
+        assertFalse(BufferPool.isPoolable(ByteBuffer.allocate(MIN_BUFFER_SIZE).asReadOnlyBuffer()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAcquire_whenUnsupportedSize() {
+        pool.acquire(MIN_BUFFER_SIZE + 1, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRelease_whenUnpoolable() {
+        pool.release(ByteBuffer.allocate(MIN_BUFFER_SIZE + 1));
+    }
+
+    @Test
+    public void testAcquire_heap() {
+        ByteBuffer buffer = pool.acquire(MIN_BUFFER_SIZE, false);
+
+        assertFalse(buffer.isDirect());
+        assertEquals(MIN_BUFFER_SIZE, buffer.capacity());
+        assertEquals(MIN_BUFFER_SIZE, pool.allocatedBytes());
+        assertEquals(0, pool.pooledBytes());
+    }
+
+    @Test
+    public void testAcquire_direct_slicesSlab() {
+        int size = SLAB_SIZE / 4;
+        ByteBuffer first = pool.acquire(size, true);
+
+        assertTrue(first.isDirect());
+        assertEquals(size, first.capacity());
+        assertEquals(0, first.position());
+        assertEquals(size, first.limit());
+        assertEquals(SLAB_SIZE, pool.allocatedBytes());
+        assertEquals(SLAB_SIZE - size, pool.pooledBytes());
+
+        // the rest of the buffers come from the same slab
+        ByteBuffer[] buffers = new ByteBuffer[3];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = pool.acquire(size, true);
+            assertEquals(size, buffers[i].capacity());
+        }
+        assertEquals(SLAB_SIZE, pool.allocatedBytes());
+        assertEquals(0, pool.pooledBytes());
+
+        // the slices don't overlap
+        first.putInt(0, 1);
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i].putInt(0, i + 2);
+        }
+        assertEquals(1, first.getInt(0));
+        for (int i = 0; i < buffers.length; i++) {
+            assertEquals(i + 2, buffers[i].getInt(0));
+        }
+
+        pool.acquire(size, true);
+        assertEquals(2 * SLAB_SIZE, pool.allocatedBytes());
+    }
+
+    @Test
+    public void testRelease_reusesBuffer() {
+        ByteBuffer buffer = pool.acquire(MIN_BUFFER_SIZE, false);
+        buffer.putInt(1).order(ByteOrder.LITTLE_ENDIAN);
+
+        pool.release(buffer);
+        assertEquals(MIN_BUFFER_SIZE, pool.pooledBytes());
+
+        ByteBuffer acquired = pool.acquire(MIN_BUFFER_SIZE, false);
+        assertSame(buffer, acquired);
+        assertEquals(0, acquired.position());
+        assertEquals(MIN_BUFFER_SIZE, acquired.limit());
+        assertEquals(ByteOrder.BIG_ENDIAN, acquired.order());
+        assertEquals(MIN_BUFFER_SIZE, pool.allocatedBytes());
+        assertEquals(0, pool.pooledBytes());
+    }
+
+    @Test
+    public void testRelease_keepsSizeClassesApart() {
+        ByteBuffer small = ByteBuffer.allocate(MIN_BUFFER_SIZE);
+        ByteBuffer large = ByteBuffer.allocate(MIN_BUFFER_SIZE * 2);
+        ByteBuffer direct = ByteBuffer.allocateDirect(MIN_BUFFER_SIZE);
+        pool.release(small);
+        pool.release(large);
+        pool.release(direct);
+
+        assertSame(large, pool.acquire(MIN_BUFFER_SIZE * 2, false));
+        assertSame(direct, pool.acquire(MIN_BUFFER_SIZE, true));
+        assertSame(small, pool.acquire(MIN_BUFFER_SIZE, false));
+    }
+
+    @Test
+    public void testRelease_whenPoolFull_thenBufferDropped() {
+        BufferPool pool = new BufferPool(MIN_BUFFER_SIZE);
+        ByteBuffer first = ByteBuffer.allocate(MIN_BUFFER_SIZE);
+        ByteBuffer second = ByteBuffer.allocate(MIN_BUFFER_SIZE);
+
+        pool.release(first);
+        pool.release(second);
+        assertEquals(MIN_BUFFER_SIZE, pool.pooledBytes());
+
+        assertSame(first, pool.acquire(MIN_BUFFER_SIZE, false));
+        assertNotSame(second, pool.acquire(MIN_BUFFER_SIZE, false));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.partition.PartitionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link IMap#get} latency and throughput of the keys owned by
+ * a remote member with the default layout, where the packets are handed
+ * off from the io threads to the partition threads, and with the
+ * thread-per-core layout, where the partition threads host the io.
+ * <p>
+ * The sample time mode reports the latency percentiles, including the p99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+@SuppressWarnings("unused")
+public class ThreadPerCoreBenchmark {
+
+    private static final int KEY_COUNT = 10000;
+    private static final int WARMUP_ITERATIONS_COUNT = 5;
+    private static final int MEASUREMENT_ITERATIONS_COUNT = 10;
+
+    @Param({"false", "true"})
+    public String threadPerCore;
+
+    private HazelcastInstance local;
+    private HazelcastInstance remote;
+    private IMap<Integer, Integer> map;
+    private int[] remoteKeys;
+
+    @Setup
+    public void setup() {
+        local = Hazelcast.newHazelcastInstance(newConfig());
+        remote = Hazelcast.newHazelcastInstance(newConfig());
+
+        map = local.getMap("map");
+        PartitionService partitionService = local.getPartitionService();
+        remoteKeys = new int[KEY_COUNT];
+        for (int key = 0, count = 0; count < KEY_COUNT; ++key) {
+            if (!partitionService.getPartition(key).getOwner().localMember()) {
+                map.set(key, key);
+                remoteKeys[count++] = key;
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        remote.shutdown();
+        local.shutdown();
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.get(remoteKeys[ThreadLocalRandom.current().nextInt(KEY_COUNT)]);
+    }
+
+    private Config newConfig() {
+        Config config = new Config();
+        config.setProperty("hazelcast.thread.per.core.enabled", threadPerCore);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().addMember("127.0.0.1").setEnabled(true);
+        return config;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ThreadPerCoreBenchmark.class.getSimpleName())
+                .warmupIterations(WARMUP_ITERATIONS_COUNT)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+                .measurementTime(TimeValue.seconds(1))
+                .verbosity(VerboseMode.NORMAL)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class ThreadPerCoreIntegrationTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_THREAD_COUNT = 3;
+    private static final int ENTRY_COUNT = 1000;
+
+    @After
+    public void cleanUp() {
+        HazelcastClient.shutdownAll();
+        Hazelcast.shutdownAll();
+    }
+
+    @Test
+    public void testMembers() {
+        HazelcastInstance first = Hazelcast.newHazelcastInstance(getConfig());
+        HazelcastInstance second = Hazelcast.newHazelcastInstance(getConfig());
+        assertClusterSizeEventually(2, first, second);
+
+        assertHostedThreads(first);
+        assertHostedThreads(second);
+
+        IMap<Integer, Integer> map = first.getMap("map");
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            map.set(i, i);
+        }
+        IMap<Integer, Integer> otherMap = second.getMap("map");
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            assertEquals(i, (int) otherMap.get(i));
+        }
+        assertEquals(ENTRY_COUNT, otherMap.size());
+    }
+
+    @Test
+    public void testClient() {
+        Hazelcast.newHazelcastInstance(getConfig());
+        HazelcastInstance client = HazelcastClient.newHazelcastClient();
+
+        IMap<Integer, Integer> map = client.getMap("map");
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            map.set(i, i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            assertEquals(i, (int) map.get(i));
+        }
+    }
+
+    private static void assertHostedThreads(HazelcastInstance instance) {
+        NioNetworking networking = (NioNetworking) getNode(instance).getNetworkingService().getNetworking();
+        NioThread[] threads = networking.getInputThreads();
+
+        assertEquals(PARTITION_THREAD_COUNT, threads.length);
+        assertSame(threads, networking.getOutputThreads());
+        for (NioThread thread : threads) {
+            assertFalse(thread.isAlive());
+        }
+    }
+
+    @Override
+    protected Config getConfig() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.THREAD_PER_CORE_ENABLED.getName(), "true");
+        config.setProperty(GroupProperty.PARTITION_OPERATION_THREAD_COUNT.getName(), String.valueOf(PARTITION_THREAD_COUNT));
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getTcpIpConfig().addMember("127.0.0.1").setEnabled(true);
+        join.getMulticastConfig().setEnabled(false);
+        return config;
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketCompressionTest {
+
+    private final PacketCompression compression = new PacketCompression();
+
+    @Test
+    public void whenCompressible_thenRoundTrips() throws Exception {
+        byte[] payload = new byte[100000];
+        Arrays.fill(payload, (byte) 'a');
+        Packet packet = new Packet(payload, 12)
+                .setPacketType(Packet.Type.OPERATION)
+                .raiseFlags(FLAG_URGENT | FLAG_OP_RESPONSE);
+
+        Packet compressed = compression.compress(packet);
+
+        assertTrue(compressed.isFlagRaised(FLAG_COMPRESSED));
+        assertTrue(compressed.totalSize() < packet.totalSize());
+        assertEquals(12, compressed.getPartitionId());
+
+        // reused for the next packets
+        for (int i = 0; i < 3; i++) {
+            Packet decompressed = compression.decompress(compressed);
+            assertFalse(decompressed.isFlagRaised(FLAG_COMPRESSED));
+            assertEquals(packet, decompressed);
+        }
+    }
+
+    @Test
+    public void whenIncompressible_thenNotCompressed() {
+        byte[] payload = new byte[10000];
+        new Random(1).nextBytes(payload);
+
+        assertNull(compression.compress(new Packet(payload)));
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void whenTruncated_thenFails() throws Exception {
+        byte[] payload = new byte[100000];
+        Packet compressed = compression.compress(new Packet(payload));
+        byte[] truncated = Arrays.copyOf(compressed.toByteArray(), compressed.totalSize() / 2);
+
+        compression.decompress(new Packet(truncated).resetFlagsTo(compressed.getFlags()));
+    }
+}
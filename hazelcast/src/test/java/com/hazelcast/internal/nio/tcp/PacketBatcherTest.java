@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio.tcp;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketBatcherTest extends HazelcastTestSupport {
+
+    private InternalSerializationService serializationService;
+    private TcpIpConnection connection;
+    private PacketEncoderTest.PacketSupplier src;
+    private PacketBatcher batcher;
+
+    @Before
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        connection = mock(TcpIpConnection.class);
+        when(connection.isPacketBatching()).thenReturn(true);
+        src = new PacketEncoderTest.PacketSupplier();
+        batcher = new PacketBatcher(connection, 1000);
+        batcher.src(src);
+    }
+
+    @Test
+    public void whenOperationsQueued_thenBatched() {
+        Packet operation = operation("foo", 1);
+        Packet response = operation("bar", -1).raiseFlags(FLAG_OP_RESPONSE);
+        Packet other = operation("baz", 2);
+        src.queue.addAll(asList(operation, response, other));
+
+        Packet batch = batcher.get();
+
+        assertEquals(Packet.Type.BATCH, batch.getPacketType());
+        assertEquals(asList(operation, response, other), unbatch(batch));
+        assertNull(batcher.get());
+    }
+
+    @Test
+    public void whenSingleOperation_thenNotBatched() {
+        Packet operation = operation("foo", 1);
+        src.queue.add(operation);
+
+        assertSame(operation, batcher.get());
+        assertNull(batcher.get());
+    }
+
+    @Test
+    public void whenNotBatchable_thenOrderPreserved() {
+        Packet first = operation("foo", 1);
+        Packet second = operation("bar", 2);
+        Packet urgent = operation("baz", 3).raiseFlags(FLAG_URGENT);
+        Packet event = new Packet(serializationService.toBytes("event")).setPacketType(Packet.Type.EVENT);
+        Packet last = operation("qux", 4);
+        src.queue.addAll(asList(first, second, urgent, event, last));
+
+        assertEquals(asList(first, second), unbatch(batcher.get()));
+        assertSame(urgent, batcher.get());
+        assertSame(event, batcher.get());
+        assertSame(last, batcher.get());
+        assertNull(batcher.get());
+    }
+
+    @Test
+    public void whenBatchFull_thenNextBatchStarted() {
+        List<Packet> packets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            packets.add(operation(new byte[200], i));
+        }
+        src.queue.addAll(packets);
+
+        List<Packet> unbatched = new ArrayList<>();
+        for (Packet packet = batcher.get(); packet != null; packet = batcher.get()) {
+            if (packet.getPacketType() == Packet.Type.BATCH) {
+                assertTrue(packet.totalSize() <= 1000);
+                unbatched.addAll(unbatch(packet));
+            } else {
+                unbatched.add(packet);
+            }
+        }
+        assertEquals(packets, unbatched);
+    }
+
+    @Test
+    public void whenRemoteNotBatchPacketAware_thenNotBatched() {
+        when(connection.isPacketBatching()).thenReturn(false);
+        Packet first = operation("foo", 1);
+        Packet second = operation("bar", 2);
+        src.queue.addAll(asList(first, second));
+
+        assertSame(first, batcher.get());
+        assertSame(second, batcher.get());
+    }
+
+    private Packet operation(Object value, int partitionId) {
+        return new Packet(serializationService.toBytes(value), partitionId).setPacketType(Packet.Type.OPERATION);
+    }
+
+    private static List<Packet> unbatch(Packet batch) {
+        List<Packet> packets = new ArrayList<>();
+        PacketBatcher.unbatch(batch, packets::add);
+        return packets;
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.internal.nio.tcp;
 
 import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.internal.nio.Packet;
@@ -37,7 +38,11 @@ import java.util.function.Supplier;
 
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -90,6 +95,216 @@ public class PacketEncoderTest extends HazelcastTestSupport {
         assertEquals(DIRTY, result);
     }
 
+    @Test
+    public void whenLargePackets_thenPayloadsGathered() {
+        Packet small = new Packet(serializationService.toBytes("foobar"));
+        Packet large = new Packet(serializationService.toBytes(new byte[PacketEncoder.GATHERING_THRESHOLD]));
+        Packet otherLarge = new Packet(serializationService.toBytes(new byte[3 * PacketEncoder.GATHERING_THRESHOLD]));
+        ByteBuffer dst = ByteBuffer.allocate(1000);
+        dst.flip();
+
+        PacketSupplier src = new PacketSupplier();
+        src.queue.add(small);
+        src.queue.add(large);
+        src.queue.add(small);
+        src.queue.add(otherLarge);
+        src.queue.add(small);
+
+        encoder = new PacketEncoder(true);
+        encoder.setLastHandler(true);
+        encoder.dst(dst);
+        encoder.src(src);
+
+        assertEquals(DIRTY, encoder.onWrite());
+        // the small packet with the header, the payload, the small packet
+        // with the other header, the other payload and the last small packet
+        assertEquals(5, encoder.gatheredCount());
+        assertSame(large.toByteArray(), encoder.gatheredBuffers()[1].array());
+        assertSame(otherLarge.toByteArray(), encoder.gatheredBuffers()[3].array());
+        assertFalse(dst.hasRemaining());
+
+        ByteBuffer written = writeAll(encoder, dst);
+        PacketIOHelper reader = new PacketIOHelper();
+        assertEquals(small, reader.readFrom(written));
+        assertEquals(large, reader.readFrom(written));
+        assertEquals(small, reader.readFrom(written));
+        assertEquals(otherLarge, reader.readFrom(written));
+        assertEquals(small, reader.readFrom(written));
+        assertFalse(written.hasRemaining());
+    }
+
+    @Test
+    public void whenDirectDst_thenPayloadsCopied() {
+        Packet large = new Packet(serializationService.toBytes(new byte[PacketEncoder.GATHERING_THRESHOLD]));
+        ByteBuffer dst = ByteBuffer.allocateDirect(1000);
+        dst.flip();
+
+        PacketSupplier src = new PacketSupplier();
+        src.queue.add(large);
+
+        encoder = new PacketEncoder(true);
+        encoder.setLastHandler(true);
+        encoder.dst(dst);
+        encoder.src(src);
+
+        assertEquals(DIRTY, encoder.onWrite());
+        assertEquals(0, encoder.gatheredCount());
+        assertEquals(1000, dst.remaining());
+
+        ByteBuffer written = writeAll(encoder, dst);
+        assertEquals(large, new PacketIOHelper().readFrom(written));
+    }
+
+    @Test
+    public void whenGatheringDisabled_thenPayloadsCopied() {
+        Packet large = new Packet(serializationService.toBytes(new byte[PacketEncoder.GATHERING_THRESHOLD]));
+        ByteBuffer dst = ByteBuffer.allocate(1000);
+        dst.flip();
+
+        PacketSupplier src = new PacketSupplier();
+        src.queue.add(large);
+
+        encoder.setLastHandler(true);
+        encoder.dst(dst);
+        encoder.src(src);
+
+        assertEquals(DIRTY, encoder.onWrite());
+        assertEquals(0, encoder.gatheredCount());
+        assertEquals(1000, dst.remaining());
+
+        ByteBuffer written = writeAll(encoder, dst);
+        assertEquals(large, new PacketIOHelper().readFrom(written));
+    }
+
+    @Test
+    public void whenHandlerAfterEncoder_thenPayloadsCopied() {
+        Packet small = new Packet(serializationService.toBytes("foobar"));
+        Packet large = new Packet(serializationService.toBytes(new byte[3 * PacketEncoder.GATHERING_THRESHOLD]));
+        ByteBuffer dst = ByteBuffer.allocate(1000);
+        dst.flip();
+
+        PacketSupplier src = new PacketSupplier();
+        src.queue.add(small);
+        src.queue.add(large);
+        src.queue.add(small);
+
+        encoder = new PacketEncoder(true);
+        encoder.setLastHandler(false);
+        encoder.dst(dst);
+        encoder.src(src);
+        CopyingHandler next = new CopyingHandler(dst);
+
+        ByteBuffer written = ByteBuffer.allocate(1 << 20);
+        HandlerStatus encoderStatus;
+        HandlerStatus nextStatus;
+        do {
+            encoderStatus = encoder.onWrite();
+            assertEquals(0, encoder.gatheredCount());
+            nextStatus = next.onWrite();
+            written.put(next.dst());
+        } while (encoderStatus != CLEAN || nextStatus != CLEAN);
+        written.flip();
+
+        PacketIOHelper reader = new PacketIOHelper();
+        assertEquals(small, reader.readFrom(written));
+        assertEquals(large, reader.readFrom(written));
+        assertEquals(small, reader.readFrom(written));
+        assertFalse(written.hasRemaining());
+    }
+
+    @Test
+    public void whenHandlerAddedAfterGathering_thenGatheredBuffersCopied() {
+        Packet small = new Packet(serializationService.toBytes("foobar"));
+        Packet large = new Packet(serializationService.toBytes(new byte[PacketEncoder.GATHERING_THRESHOLD]));
+        ByteBuffer dst = ByteBuffer.allocate(1000);
+        dst.flip();
+
+        PacketSupplier src = new PacketSupplier();
+        src.queue.add(small);
+        src.queue.add(large);
+        src.queue.add(small);
+
+        encoder = new PacketEncoder(true);
+        encoder.setLastHandler(true);
+        encoder.dst(dst);
+        encoder.src(src);
+
+        assertEquals(DIRTY, encoder.onWrite());
+        assertEquals(3, encoder.gatheredCount());
+        // a part of the first gathered buffer is written before the pipeline changes
+        encoder.gatheredBuffers()[0].get();
+        encoder.setLastHandler(false);
+
+        ByteBuffer written = writeAll(encoder, dst);
+        assertEquals(0, encoder.gatheredCount());
+        // the first byte was written before the pipeline changed
+        ByteBuffer expected = ByteBuffer.allocate(written.capacity());
+        PacketIOHelper writer = new PacketIOHelper();
+        writer.writeTo(small, expected);
+        writer.writeTo(large, expected);
+        writer.writeTo(small, expected);
+        expected.flip().position(1);
+        assertEquals(expected, written);
+    }
+
+    /**
+     * Writes the output of the encoder the way the outbound pipeline does
+     * until the encoder is clean.
+     */
+    private static ByteBuffer writeAll(PacketEncoder encoder, ByteBuffer dst) {
+        ByteBuffer written = ByteBuffer.allocate(1 << 20);
+        HandlerStatus status;
+        do {
+            int count = encoder.gatheredCount();
+            if (count > 0) {
+                int bytes = 0;
+                for (int i = encoder.gatheredOffset(); i < encoder.gatheredOffset() + count; i++) {
+                    bytes += encoder.gatheredBuffers()[i].remaining();
+                    written.put(encoder.gatheredBuffers()[i]);
+                }
+                // a single write is limited to the capacity of the dst
+                assertTrue(bytes <= dst.capacity());
+            } else {
+                written.put(dst);
+            }
+            status = encoder.onWrite();
+        } while (status != CLEAN || dst.hasRemaining());
+        written.flip();
+        return written;
+    }
+
+    /**
+     * Copies its src to its dst the way an encryption handler would
+     * transform it.
+     */
+    private static class CopyingHandler extends OutboundHandler<ByteBuffer, ByteBuffer> {
+
+        CopyingHandler(ByteBuffer src) {
+            src(src);
+            ByteBuffer dst = ByteBuffer.allocate(700);
+            dst.flip();
+            dst(dst);
+        }
+
+        @Override
+        public HandlerStatus onWrite() {
+            compactOrClear(dst);
+            try {
+                if (src.remaining() > dst.remaining()) {
+                    ByteBuffer part = src.duplicate();
+                    part.limit(part.position() + dst.remaining());
+                    dst.put(part);
+                    src.position(part.position());
+                } else {
+                    dst.put(src);
+                }
+                return src.hasRemaining() ? DIRTY : CLEAN;
+            } finally {
+                dst.flip();
+            }
+        }
+    }
+
     static class PacketSupplier implements Supplier<Packet> {
         Queue<Packet> queue = new LinkedBlockingQueue<Packet>();
 
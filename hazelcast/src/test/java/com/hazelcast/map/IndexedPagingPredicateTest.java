@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class IndexedPagingPredicateTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 500;
+    private static final int PAGE_SIZE = 7;
+
+    private IMap<Integer, Integer> indexedMap;
+    private IMap<Integer, Integer> plainMap;
+
+    @Before
+    public void before() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance = factory.newHazelcastInstance(getConfig());
+        factory.newHazelcastInstance(getConfig());
+
+        indexedMap = instance.getMap("indexed");
+        indexedMap.addIndex(IndexType.SORTED, "__key");
+        indexedMap.addIndex(IndexType.SORTED, "this");
+        plainMap = instance.getMap("plain");
+
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            // plenty of duplicate values to exercise the tie-breaking
+            indexedMap.put(i, i % 37);
+            plainMap.put(i, i % 37);
+        }
+    }
+
+    @Test
+    public void testKeyPaging() {
+        List<Object> expected = pageThrough(plainMap, null, Kind.KEYS);
+        assertEquals(ENTRY_COUNT, expected.size());
+        assertEquals(expected, pageThrough(indexedMap, null, Kind.KEYS));
+        assertTrue(indexedMap.getLocalMapStats().getIndexedQueryCount() > 0);
+    }
+
+    @Test
+    public void testValuePaging() {
+        List<Object> expected = pageThrough(plainMap, null, Kind.VALUES);
+        assertEquals(ENTRY_COUNT, expected.size());
+        assertEquals(expected, pageThrough(indexedMap, null, Kind.VALUES));
+    }
+
+    @Test
+    public void testEntryPaging() {
+        List<Object> expected = pageThrough(plainMap, null, Kind.ENTRIES);
+        assertEquals(ENTRY_COUNT, expected.size());
+        assertEquals(expected, pageThrough(indexedMap, null, Kind.ENTRIES));
+    }
+
+    @Test
+    public void testPaging_withNonIndexedInnerPredicate() {
+        Predicate<Integer, Integer> predicate = new RemainderPredicate();
+        assertEquals(pageThrough(plainMap, predicate, Kind.KEYS), pageThrough(indexedMap, predicate, Kind.KEYS));
+        assertEquals(pageThrough(plainMap, predicate, Kind.VALUES), pageThrough(indexedMap, predicate, Kind.VALUES));
+    }
+
+    @Test
+    public void testPaging_jumpingOverPages() {
+        PagingPredicate<Integer, Integer> expected = Predicates.pagingPredicate(PAGE_SIZE);
+        PagingPredicate<Integer, Integer> actual = Predicates.pagingPredicate(PAGE_SIZE);
+        expected.setPage(20);
+        actual.setPage(20);
+        assertEquals(new ArrayList<Object>(plainMap.values(expected)), new ArrayList<Object>(indexedMap.values(actual)));
+    }
+
+    @Test
+    public void testPaging_afterUpdates() {
+        for (int i = 0; i < ENTRY_COUNT; i += 3) {
+            indexedMap.remove(i);
+            plainMap.remove(i);
+        }
+        indexedMap.put(-1, 1000);
+        plainMap.put(-1, 1000);
+
+        assertEquals(pageThrough(plainMap, null, Kind.KEYS), pageThrough(indexedMap, null, Kind.KEYS));
+        assertEquals(pageThrough(plainMap, null, Kind.VALUES), pageThrough(indexedMap, null, Kind.VALUES));
+    }
+
+    private static List<Object> pageThrough(IMap<Integer, Integer> map, Predicate<Integer, Integer> predicate, Kind kind) {
+        PagingPredicate<Integer, Integer> pagingPredicate = predicate == null
+                ? Predicates.pagingPredicate(PAGE_SIZE) : Predicates.pagingPredicate(predicate, PAGE_SIZE);
+
+        List<Object> result = new ArrayList<Object>();
+        while (true) {
+            Collection<?> page = kind.query(map, pagingPredicate);
+            if (page.isEmpty()) {
+                return result;
+            }
+            result.addAll(page);
+            pagingPredicate.nextPage();
+        }
+    }
+
+    private static class RemainderPredicate implements Predicate<Integer, Integer> {
+
+        @Override
+        public boolean apply(Map.Entry<Integer, Integer> mapEntry) {
+            return mapEntry.getValue() % 3 == 1;
+        }
+
+    }
+
+    private enum Kind {
+        KEYS {
+            @Override
+            Collection<?> query(IMap<Integer, Integer> map, PagingPredicate<Integer, Integer> predicate) {
+                return map.keySet(predicate);
+            }
+        },
+        VALUES {
+            @Override
+            Collection<?> query(IMap<Integer, Integer> map, PagingPredicate<Integer, Integer> predicate) {
+                return map.values(predicate);
+            }
+        },
+        ENTRIES {
+            @Override
+            Collection<?> query(IMap<Integer, Integer> map, PagingPredicate<Integer, Integer> predicate) {
+                return map.entrySet(predicate);
+            }
+        };
+
+        abstract Collection<?> query(IMap<Integer, Integer> map, PagingPredicate<Integer, Integer> predicate);
+    }
+
+}
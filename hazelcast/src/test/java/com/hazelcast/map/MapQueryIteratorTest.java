@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.map;
+
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.monitor.LocalIndexStats;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.predicates.PagingPredicateImpl;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapQueryIteratorTest extends HazelcastTestSupport {
+
+    private HazelcastInstance instance;
+    private IMap<Integer, Integer> proxy;
+
+    @Before
+    public void init() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        this.instance = factory.newHazelcastInstance();
+        factory.newHazelcastInstance();
+        this.proxy = instance.<Integer, Integer>getMap(randomMapName());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_next_Throws_Exception_On_EmptyMap() {
+        proxy.iterator(10, new GetValueProjection(), Predicates.alwaysTrue()).next();
+    }
+
+    @Test
+    public void test_HasNext_Returns_False_On_EmptyMap() {
+        assertFalse(proxy.iterator(10, new GetValueProjection(), Predicates.alwaysTrue()).hasNext());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_null_projection_throws_exception() {
+        proxy.iterator(10, null, Predicates.alwaysTrue());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_null_predicate_throws_exception() {
+        proxy.iterator(10, new GetValueProjection(), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_paging_predicate_throws_exception() {
+        proxy.iterator(10, new GetValueProjection(), new PagingPredicateImpl<>(10));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_remove_Throws_Exception() {
+        proxy.iterator(10, new GetValueProjection(), Predicates.alwaysTrue()).remove();
+    }
+
+    @Test
+    public void test_iterates_all_partitions() {
+        int count = 1000;
+        fillMap(count);
+
+        Set<Integer> values = collectAll(proxy.iterator(7, new GetValueProjection(), Predicates.alwaysTrue()));
+
+        assertEquals(count, values.size());
+        for (int i = 0; i < count; i++) {
+            assertTrue(values.contains(i));
+        }
+    }
+
+    @Test
+    public void test_with_predicate() {
+        int count = 1000;
+        fillMap(count);
+
+        Set<Integer> values = collectAll(proxy.iterator(7, new GetValueProjection(), Predicates.lessThan("this", 100)));
+
+        assertEquals(100, values.size());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(values.contains(i));
+        }
+    }
+
+    @Test
+    public void test_with_selective_indexed_predicate() {
+        int count = 1000;
+        fillMap(count);
+        proxy.addIndex(IndexType.HASH, "this");
+        waitClusterForSafeState(instance);
+
+        Set<Integer> values = collectAll(proxy.iterator(7, new GetValueProjection(),
+                Predicates.in("this", 1, 10, 100, 500, 999)));
+
+        assertEquals(new HashSet<>(asList(1, 10, 100, 500, 999)), values);
+        // all the partitions of the member are answered by a single index query
+        long queryCount = 0;
+        for (LocalIndexStats indexStats : proxy.getLocalMapStats().getIndexStats().values()) {
+            queryCount += indexStats.getQueryCount();
+        }
+        assertEquals(1, queryCount);
+    }
+
+    @Test
+    public void test_with_nonselective_indexed_predicate() {
+        int count = 1000;
+        fillMap(count);
+        proxy.addIndex(IndexType.SORTED, "this");
+
+        Set<Integer> values = collectAll(proxy.iterator(7, new GetValueProjection(), Predicates.greaterEqual("this", 100)));
+
+        assertEquals(900, values.size());
+        for (int i = 100; i < count; i++) {
+            assertTrue(values.contains(i));
+        }
+    }
+
+    private void fillMap(int count) {
+        for (int i = 0; i < count; i++) {
+            proxy.put(i, i);
+        }
+    }
+
+    private static Set<Integer> collectAll(Iterator<Integer> iterator) {
+        Set<Integer> values = new HashSet<>();
+        while (iterator.hasNext()) {
+            Integer value = iterator.next();
+            assertEquals("duplicate value " + value, true, values.add(value));
+        }
+        return values;
+    }
+
+    private static class GetValueProjection implements Projection<Map.Entry<Integer, Integer>, Integer> {
+        @Override
+        public Integer transform(Map.Entry<Integer, Integer> input) {
+            return input.getValue();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizeConfig;
+import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
+import static com.hazelcast.config.MaxSizeConfig.MaxSizePolicy.USED_NATIVE_MEMORY_SIZE;
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeMapTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void testBasicOperations() {
+        String mapName = randomMapName();
+        HazelcastInstance instance = createHazelcastInstance(newNativeConfig(mapName));
+        IMap<Integer, String> map = instance.getMap(mapName);
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value-" + i);
+        }
+        map.put(0, "updated");
+        map.remove(1);
+
+        assertEquals(ENTRY_COUNT - 1, map.size());
+        assertEquals("updated", map.get(0));
+        assertNull(map.get(1));
+        assertEquals("value-2", map.get(2));
+        assertEquals(ENTRY_COUNT - 1, map.keySet().size());
+        assertEquals(1, map.values(Predicates.equal("this", "value-42")).size());
+    }
+
+    @Test
+    public void testBackupsSurviveMemberShutdown() {
+        String mapName = randomMapName();
+        Config config = newNativeConfig(mapName);
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+
+        IMap<Integer, Integer> map = instance1.getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        instance1.shutdown();
+
+        IMap<Integer, Integer> survivingMap = instance2.getMap(mapName);
+        assertEquals(ENTRY_COUNT, survivingMap.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) survivingMap.get(i));
+        }
+    }
+
+    @Test
+    public void testEviction_withUsedNativeMemorySizePolicy() {
+        String mapName = randomMapName();
+        Config config = newNativeConfig(mapName);
+        config.getMapConfig(mapName)
+                .setEvictionPolicy(EvictionPolicy.LRU)
+                .setMaxSizeConfig(new MaxSizeConfig(1, USED_NATIVE_MEMORY_SIZE));
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, byte[]> map = instance.getMap(mapName);
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, new byte[4096]);
+        }
+
+        assertTrue("Expected eviction, map size: " + map.size(), map.size() < ENTRY_COUNT);
+    }
+
+    private Config newNativeConfig(String mapName) {
+        Config config = smallInstanceConfig();
+        config.setNativeMemoryConfig(new NativeMemoryConfig()
+                .setEnabled(true)
+                .setSize(new MemorySize(64, MEGABYTES)));
+        config.addMapConfig(new MapConfig(mapName).setInMemoryFormat(NATIVE));
+        return config;
+    }
+}
@@ -28,6 +28,7 @@ import static com.hazelcast.map.impl.MapKeyLoader.Role.NONE;
 import static com.hazelcast.map.impl.MapKeyLoader.Role.RECEIVER;
 import static com.hazelcast.map.impl.MapKeyLoader.Role.SENDER;
 import static com.hazelcast.map.impl.MapKeyLoader.Role.SENDER_BACKUP;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -122,4 +123,22 @@ public class MapKeyLoaderUtilTest {
 
         assertEquals(NONE, role);
     }
+
+    @Test
+    public void assignShards_roundRobin() {
+        int[][] shardsPerMember = MapKeyLoaderUtil.assignShards(8, 3);
+
+        assertArrayEquals(new int[]{0, 3, 6}, shardsPerMember[0]);
+        assertArrayEquals(new int[]{1, 4, 7}, shardsPerMember[1]);
+        assertArrayEquals(new int[]{2, 5}, shardsPerMember[2]);
+    }
+
+    @Test
+    public void assignShards_whenFewerShardsThanMembers() {
+        int[][] shardsPerMember = MapKeyLoaderUtil.assignShards(1, 3);
+
+        assertArrayEquals(new int[]{0}, shardsPerMember[0]);
+        assertEquals(0, shardsPerMember[1].length);
+        assertEquals(0, shardsPerMember[2].length);
+    }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PartitionIndexPopulatorTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 5000;
+
+    @Test
+    public void testAddIndex() {
+        IMap<Integer, Integer> map = createHazelcastInstance(newConfig()).getMap("map");
+        populate(map, 0, ENTRY_COUNT);
+
+        map.addIndex(IndexType.SORTED, "this");
+        // the results are correct regardless of the population progress
+        assertEquals(keys(0, 100), map.keySet(Predicates.lessThan("this", 100)));
+
+        assertIndexPopulated(map);
+        long indexedQueryCount = map.getLocalMapStats().getIndexedQueryCount();
+        assertEquals(keys(0, 100), map.keySet(Predicates.lessThan("this", 100)));
+        assertEquals(indexedQueryCount + 1, map.getLocalMapStats().getIndexedQueryCount());
+    }
+
+    @Test
+    public void testAddIndex_withConcurrentMutations() throws Exception {
+        HazelcastInstance instance = createHazelcastInstance(newConfig());
+        IMap<Integer, Integer> map = instance.getMap("map");
+        populate(map, 0, ENTRY_COUNT);
+
+        Future future = spawn(() -> {
+            for (int i = 0; i < ENTRY_COUNT; i += 2) {
+                map.remove(i);
+                map.set(ENTRY_COUNT + i, ENTRY_COUNT + i);
+            }
+        });
+        map.addIndex(IndexType.HASH, "this");
+        future.get();
+
+        assertIndexPopulated(map);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 1; i < ENTRY_COUNT; i += 2) {
+            expected.add(i);
+            expected.add(ENTRY_COUNT + i - 1);
+        }
+        Predicate<Integer, Integer> predicate = Predicates.in("this", expected.toArray(new Integer[0]));
+        assertEquals(expected, map.keySet(predicate));
+        assertEquals(ENTRY_COUNT / 2, map.keySet(Predicates.greaterEqual("this", ENTRY_COUNT)).size());
+    }
+
+    @Test
+    public void testAddIndex_skipsExpiredEntriesWithoutEvictingThem() {
+        Config config = newConfig();
+        // keep the background expiration away from the expired entries
+        config.setProperty(MapClearExpiredRecordsTask.PROP_TASK_PERIOD_SECONDS, String.valueOf(Integer.MAX_VALUE));
+        IMap<Integer, Integer> map = createHazelcastInstance(config).getMap("map");
+        AtomicInteger expiredCount = new AtomicInteger();
+        map.addEntryListener((EntryExpiredListener<Integer, Integer>) event -> expiredCount.incrementAndGet(), false);
+        for (int i = 0; i < 100; ++i) {
+            map.set(i, i, 1, TimeUnit.SECONDS);
+        }
+        populate(map, 100, 200);
+        sleepSeconds(2);
+
+        map.addIndex(IndexType.SORTED, "this");
+
+        assertIndexPopulated(map);
+        assertTrueAllTheTime(() -> assertEquals(0, expiredCount.get()), 1);
+        assertEquals(keys(100, 200), map.keySet(Predicates.lessThan("this", 200)));
+    }
+
+    @Test
+    public void testMigration() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance first = factory.newHazelcastInstance(newConfig());
+        IMap<Integer, Integer> map = first.getMap("map");
+        map.addIndex(IndexType.SORTED, "this");
+        populate(map, 0, ENTRY_COUNT);
+
+        HazelcastInstance second = factory.newHazelcastInstance(newConfig());
+        waitAllForSafeState(first, second);
+
+        assertIndexPopulated(map);
+        assertIndexPopulated(second.getMap("map"));
+        assertEquals(keys(100, 300), map.keySet(Predicates.between("this", 100, 299)));
+        assertTrue(map.getLocalMapStats().getIndexedQueryCount() > 0);
+    }
+
+    private static Config newConfig() {
+        Config config = new Config();
+        // few partitions and small chunks to have many chunks per partition
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "3");
+        config.setProperty(GroupProperty.INDEX_POPULATION_CHUNK_SIZE.getName(), "10");
+        return config;
+    }
+
+    private static void populate(IMap<Integer, Integer> map, int from, int to) {
+        for (int i = from; i < to; ++i) {
+            map.set(i, i);
+        }
+    }
+
+    private static void assertIndexPopulated(IMap<Integer, Integer> map) {
+        assertTrueEventually(() -> {
+            assertEquals(0, map.getLocalMapStats().getPendingIndexPopulationCount());
+            assertEquals(0, map.getLocalMapStats().getPendingIndexPopulationEntryCount());
+        });
+    }
+
+    private static Set<Integer> keys(int from, int to) {
+        Set<Integer> keys = new HashSet<>();
+        for (int i = from; i < to; ++i) {
+            keys.add(i);
+        }
+        return keys;
+    }
+
+}
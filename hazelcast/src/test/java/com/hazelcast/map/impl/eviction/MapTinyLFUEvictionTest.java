@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.eviction;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.config.MaxSizeConfig.MaxSizePolicy.PER_PARTITION;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapTinyLFUEvictionTest extends HazelcastTestSupport {
+
+    private static final int MAX_SIZE = 100;
+    private static final int HOT_KEY = -1;
+    private static final int HOT_KEY_READS = 20;
+    private static final int SCAN_SIZE = 10 * MAX_SIZE;
+
+    @Test
+    public void testFrequentlyReadKey_survivesScanOfOneHitKeys() {
+        String mapName = randomMapName();
+        Config config = getConfig();
+        config.setProperty(PARTITION_COUNT.getName(), "1");
+        config.getMapConfig(mapName)
+                .setEvictionPolicy(EvictionPolicy.TINY_LFU)
+                .getMaxSizeConfig()
+                .setMaxSizePolicy(PER_PARTITION).setSize(MAX_SIZE);
+        IMap<Integer, Integer> map = createHazelcastInstance(config).getMap(mapName);
+
+        // fill the map up, so the frequency sketch is already sized for it
+        for (int i = 0; i < 2 * MAX_SIZE; i++) {
+            map.put(i, i);
+        }
+        map.put(HOT_KEY, HOT_KEY);
+        for (int i = 0; i < HOT_KEY_READS; i++) {
+            assertEquals(HOT_KEY, (int) map.get(HOT_KEY));
+        }
+
+        // every key of the scan is read once
+        for (int i = 2 * MAX_SIZE; i < 2 * MAX_SIZE + SCAN_SIZE; i++) {
+            map.put(i, i);
+            map.get(i);
+        }
+
+        assertTrue("map size: " + map.size(), map.size() < 2 * MAX_SIZE);
+        assertTrue("the frequently read key was evicted", map.containsKey(HOT_KEY));
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.ShardedMapLoader;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ShardedMapLoaderTest extends HazelcastTestSupport {
+
+    private static final int SHARD_COUNT = 8;
+    private static final int ENTRY_COUNT = 1000;
+
+    private TestShardedMapLoader loader;
+    private IMap<Integer, Integer> map;
+
+    @Before
+    public void setUp() {
+        loader = new TestShardedMapLoader();
+        String mapName = randomMapName();
+        Config config = getConfig();
+        config.getMapConfig(mapName)
+              .setMapStoreConfig(new MapStoreConfig().setImplementation(loader));
+
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        map = instances[0].getMap(mapName);
+    }
+
+    @Test
+    public void testInitialLoad_loadsShards() {
+        assertEquals(ENTRY_COUNT, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+        assertEquals(SHARD_COUNT, loader.loadedShards.get());
+        assertEquals(0, loader.loadAllKeysCalls.get());
+    }
+
+    @Test
+    public void testLoadAll_replacingExistingValues_loadsShards() {
+        map.size();
+        map.put(1, -1);
+
+        map.loadAll(true);
+
+        assertEquals(ENTRY_COUNT, map.size());
+        assertEquals(1, (int) map.get(1));
+        assertEquals(2 * SHARD_COUNT, loader.loadedShards.get());
+        assertEquals(0, loader.loadAllKeysCalls.get());
+    }
+
+    @Test
+    public void testLoadAll_keepingExistingValues_loadsKeys() {
+        map.size();
+        map.put(1, -1);
+
+        map.loadAll(false);
+
+        assertEquals(ENTRY_COUNT, map.size());
+        assertEquals(-1, (int) map.get(1));
+        assertEquals(SHARD_COUNT, loader.loadedShards.get());
+        assertEquals(1, loader.loadAllKeysCalls.get());
+    }
+
+    private static class TestShardedMapLoader implements ShardedMapLoader<Integer, Integer> {
+
+        private final AtomicInteger loadedShards = new AtomicInteger();
+        private final AtomicInteger loadAllKeysCalls = new AtomicInteger();
+
+        @Override
+        public int getShardCount() {
+            return SHARD_COUNT;
+        }
+
+        @Override
+        public Iterable<Map.Entry<Integer, Integer>> loadShard(int shard) {
+            loadedShards.incrementAndGet();
+            List<Map.Entry<Integer, Integer>> entries = new ArrayList<>();
+            for (int i = shard; i < ENTRY_COUNT; i += SHARD_COUNT) {
+                entries.add(new SimpleEntry<>(i, i));
+            }
+            return entries;
+        }
+
+        @Override
+        public Integer load(Integer key) {
+            return key < ENTRY_COUNT ? key : null;
+        }
+
+        @Override
+        public Map<Integer, Integer> loadAll(Collection<Integer> keys) {
+            Map<Integer, Integer> entries = new HashMap<>();
+            for (Integer key : keys) {
+                Integer value = load(key);
+                if (value != null) {
+                    entries.put(key, value);
+                }
+            }
+            return entries;
+        }
+
+        @Override
+        public Iterable<Integer> loadAllKeys() {
+            loadAllKeysCalls.incrementAndGet();
+            List<Integer> keys = new ArrayList<>(ENTRY_COUNT);
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                keys.add(i);
+            }
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AdaptiveWriteBatchSizeTest {
+
+    private static final long TARGET_LATENCY_NANOS = MILLISECONDS.toNanos(100);
+
+    private AdaptiveWriteBatchSize batchSize = new AdaptiveWriteBatchSize(100, TARGET_LATENCY_NANOS);
+
+    @Test
+    public void testInitialBatchSize_isConfiguredBatchSize() {
+        assertEquals(100, batchSize.get());
+    }
+
+    @Test
+    public void testUpdate_whenSlow_thenBatchSizeIsHalved() {
+        // 10 batches taking 200 ms each
+        batchSize.update(1000, 100, 10 * MILLISECONDS.toNanos(200));
+
+        assertEquals(50, batchSize.get());
+    }
+
+    @Test
+    public void testUpdate_whenFast_thenBatchSizeGrowsUpToConfiguredBatchSize() {
+        batchSize.update(1000, 100, 10 * MILLISECONDS.toNanos(200));
+        batchSize.update(1000, 50, 20 * MILLISECONDS.toNanos(200));
+        assertEquals(25, batchSize.get());
+
+        batchSize.update(1000, 25, 40 * MILLISECONDS.toNanos(10));
+        assertEquals(35, batchSize.get());
+
+        for (int i = 0; i < 10; i++) {
+            int usedSize = batchSize.get();
+            batchSize.update(1000, usedSize, MILLISECONDS.toNanos(10));
+        }
+        assertEquals(100, batchSize.get());
+    }
+
+    @Test
+    public void testUpdate_whenBatchIsNotFull_thenBatchSizeDoesNotGrow() {
+        batchSize.update(1000, 100, 10 * MILLISECONDS.toNanos(200));
+
+        batchSize.update(10, 50, MILLISECONDS.toNanos(1));
+
+        assertEquals(50, batchSize.get());
+    }
+
+    @Test
+    public void testUpdate_neverShrinksBelowOne() {
+        for (int i = 0; i < 10; i++) {
+            batchSize.update(1000, batchSize.get(), MILLISECONDS.toNanos(100_000));
+        }
+
+        assertEquals(1, batchSize.get());
+    }
+}
@@ -53,6 +53,8 @@ public class TestMapUsingMapStoreBuilder<K, V> {
 
     private long writeBehindQueueCapacity;
 
+    private int flushParallelism;
+
     private TestHazelcastInstanceFactory instanceFactory;
 
     private TestMapUsingMapStoreBuilder() {
@@ -144,6 +146,11 @@ public class TestMapUsingMapStoreBuilder<K, V> {
         return this;
     }
 
+    public TestMapUsingMapStoreBuilder<K, V> withFlushParallelism(int flushParallelism) {
+        this.flushParallelism = flushParallelism;
+        return this;
+    }
+
     public IMap<K, V> build() {
         if (backupCount != 0 && backupCount > nodeCount - 1) {
             throw new IllegalArgumentException("backupCount > nodeCount - 1");
@@ -165,6 +172,10 @@ public class TestMapUsingMapStoreBuilder<K, V> {
             config.setProperty(GroupProperty.MAP_WRITE_BEHIND_QUEUE_CAPACITY.getName(), String.valueOf(writeBehindQueueCapacity));
         }
 
+        if (flushParallelism > 0) {
+            config.setProperty(GroupProperty.MAP_WRITE_BEHIND_FLUSH_PARALLELISM.getName(), String.valueOf(flushParallelism));
+        }
+
         config.setProperty(GroupProperty.PARTITION_COUNT.getName(), String.valueOf(partitionCount));
         if (backupDelaySeconds > 0) {
             config.setProperty(GroupProperty.MAP_REPLICA_SCHEDULED_TASK_DELAY_SECONDS.getName(), String.valueOf(backupDelaySeconds));
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.ExecutorConfig;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.MapStoreAdapter;
+import com.hazelcast.monitor.impl.LocalMapStatsImpl;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_WRITE_BEHIND_EXECUTOR;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_WRITE_BEHIND_FLUSH_PARALLELISM;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_WRITE_BEHIND_FLUSH_TARGET_BATCH_LATENCY_MILLIS;
+import static java.util.Collections.max;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class WriteBehindParallelFlushTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+    private static final int WRITE_BATCH_SIZE = 10;
+    private static final int SLOW_STORE_WRITE_BATCH_SIZE = 100;
+
+    @Test
+    public void testParallelFlush_storesAndDeletesAllEntries() {
+        MapStoreWithCounter<Integer, Integer> mapStore = new MapStoreWithCounter<Integer, Integer>();
+        IMap<Integer, Integer> map = TestMapUsingMapStoreBuilder.<Integer, Integer>create()
+                .withMapStore(mapStore)
+                .withNodeCount(1)
+                .withNodeFactory(createHazelcastInstanceFactory(1))
+                .withWriteDelaySeconds(1)
+                .withWriteBatchSize(WRITE_BATCH_SIZE)
+                .withFlushParallelism(4)
+                .build();
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, mapStore.size()));
+
+        for (int i = 0; i < ENTRY_COUNT / 2; i++) {
+            map.remove(i);
+        }
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT / 2, mapStore.size()));
+        for (int i = ENTRY_COUNT / 2; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) mapStore.store.get(i));
+        }
+
+        for (int batchSize : mapStore.getBatchOpCountMap().values()) {
+            assertTrue(batchSize <= WRITE_BATCH_SIZE);
+        }
+        assertTrueEventually(() -> {
+            LocalMapStatsImpl stats = (LocalMapStatsImpl) map.getLocalMapStats();
+            assertEquals(0, stats.getDirtyEntryCount());
+            assertEquals(0, stats.getWriteBehindQueueLag());
+        });
+    }
+
+    @Test
+    public void testParallelFlush_storesRangesConcurrentlyWithAdaptedBatchSize() {
+        // every batch takes longer than the target latency, so each flushed range halves the batch size
+        SlowMapStore mapStore = new SlowMapStore(50);
+        String mapName = randomMapName();
+        Config config = getConfig()
+                .setProperty(MAP_WRITE_BEHIND_FLUSH_PARALLELISM.getName(), "4")
+                .setProperty(MAP_WRITE_BEHIND_FLUSH_TARGET_BATCH_LATENCY_MILLIS.getName(), "10")
+                .addExecutorConfig(new ExecutorConfig(MAP_WRITE_BEHIND_EXECUTOR).setPoolSize(4));
+        config.getMapConfig(mapName)
+              .setMapStoreConfig(new MapStoreConfig()
+                      .setImplementation(mapStore)
+                      .setWriteDelaySeconds(1)
+                      .setWriteBatchSize(SLOW_STORE_WRITE_BATCH_SIZE));
+        IMap<Integer, Integer> map = createHazelcastInstance(config).getMap(mapName);
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, mapStore.store.size()));
+        assertTrue(max(mapStore.batchSizes) <= SLOW_STORE_WRITE_BATCH_SIZE);
+
+        mapStore.batchSizes.clear();
+        for (int i = ENTRY_COUNT; i < 2 * ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        assertTrueEventually(() -> assertEquals(2 * ENTRY_COUNT, mapStore.store.size()));
+        assertTrue("Batch sizes: " + mapStore.batchSizes, max(mapStore.batchSizes) <= SLOW_STORE_WRITE_BATCH_SIZE / 2);
+
+        assertTrue("Max concurrent storeAll callers: " + mapStore.maxConcurrentCallers,
+                mapStore.maxConcurrentCallers.get() > 1);
+        assertTrue("Caller threads: " + mapStore.callerThreads, mapStore.callerThreads.size() > 1);
+        for (String threadName : mapStore.callerThreads) {
+            assertTrue(threadName, threadName.contains(MAP_WRITE_BEHIND_EXECUTOR.substring("hz:".length())));
+        }
+    }
+
+    @Test
+    public void testParallelFlush_preservesStoreOrderOfKey() {
+        MapStoreWithCounter<Integer, Integer> mapStore = new MapStoreWithCounter<Integer, Integer>();
+        IMap<Integer, Integer> map = TestMapUsingMapStoreBuilder.<Integer, Integer>create()
+                .withMapStore(mapStore)
+                .withNodeCount(1)
+                .withNodeFactory(createHazelcastInstanceFactory(1))
+                .withWriteDelaySeconds(1)
+                .withWriteCoalescing(false)
+                .withFlushParallelism(4)
+                .build();
+
+        for (int value = 0; value < 100; value++) {
+            for (int key = 0; key < 10; key++) {
+                map.put(key, value);
+            }
+        }
+
+        assertTrueEventually(() -> {
+            assertEquals(10, mapStore.size());
+            for (int key = 0; key < 10; key++) {
+                assertEquals(99, (int) mapStore.store.get(key));
+            }
+        });
+    }
+
+    private static class SlowMapStore extends MapStoreAdapter<Integer, Integer> {
+
+        private final Map<Integer, Integer> store = new ConcurrentHashMap<>();
+        private final Queue<Integer> batchSizes = new ConcurrentLinkedQueue<>();
+        private final Set<String> callerThreads = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger concurrentCallers = new AtomicInteger();
+        private final AtomicInteger maxConcurrentCallers = new AtomicInteger();
+        private final int storeAllMillis;
+
+        SlowMapStore(int storeAllMillis) {
+            this.storeAllMillis = storeAllMillis;
+        }
+
+        @Override
+        public void store(Integer key, Integer value) {
+            storeAll(Collections.singletonMap(key, value));
+        }
+
+        @Override
+        public void storeAll(Map<Integer, Integer> map) {
+            int callers = concurrentCallers.incrementAndGet();
+            try {
+                maxConcurrentCallers.accumulateAndGet(callers, Math::max);
+                callerThreads.add(Thread.currentThread().getName());
+                batchSizes.add(map.size());
+                sleepMillis(storeAllMillis);
+                store.putAll(map);
+            } finally {
+                concurrentCallers.decrementAndGet();
+            }
+        }
+    }
+}
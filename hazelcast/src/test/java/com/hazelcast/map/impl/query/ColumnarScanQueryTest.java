@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+@Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarScanQueryTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 5000;
+
+    @Parameterized.Parameters(name = "format:{0}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{{InMemoryFormat.OBJECT}, {InMemoryFormat.BINARY}});
+    }
+
+    @Parameterized.Parameter
+    public InMemoryFormat inMemoryFormat;
+
+    private IMap<Integer, Record> map;
+
+    @Before
+    public void before() {
+        Config config = getConfig();
+        config.setProperty(GroupProperty.QUERY_COLUMNAR_SCAN.getName(), "true");
+        config.getMapConfig("map").setInMemoryFormat(inMemoryFormat);
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        map = instance.getMap("map");
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            map.put(i, record(i));
+        }
+    }
+
+    @Test
+    public void testSinglePredicates() {
+        assertPredicate(equal("age", 10), r -> r.age == 10);
+        assertPredicate(notEqual("age", 10), r -> r.age != 10);
+        assertPredicate(greaterThan("age", 45), r -> r.age > 45);
+        assertPredicate(lessEqual("score", 12.5), r -> r.score != null && r.score <= 12.5);
+        assertPredicate(between("score", 100, 200), r -> r.score != null && r.score >= 100 && r.score <= 200);
+        assertPredicate(in("age", 1, 2, 3), r -> r.age >= 1 && r.age <= 3);
+        assertPredicate(equal("score", null), r -> r.score == null);
+        assertPredicate(equal("name", "name3"), r -> r.name.equals("name3"));
+    }
+
+    @Test
+    public void testCompoundPredicates() {
+        assertPredicate(and(equal("age", 10), greaterThan("score", 250)),
+                r -> r.age == 10 && r.score != null && r.score > 250);
+        assertPredicate(or(in("age", 5L, 6L), lessEqual("score", 3)),
+                r -> r.age == 5 || r.age == 6 || r.score != null && r.score <= 3);
+        assertPredicate(and(equal("name", "name1"), between("age", 10, 20)),
+                r -> r.name.equals("name1") && r.age >= 10 && r.age <= 20);
+    }
+
+    @Test
+    public void testKeysAndValues() {
+        Set<Integer> expected = expectedKeys(r -> r.age > 47);
+        assertEquals(expected, map.keySet(greaterThan("age", 47)));
+        assertEquals(expected.size(), map.values(greaterThan("age", 47)).size());
+    }
+
+    private void assertPredicate(Predicate<Integer, Record> predicate, java.util.function.Predicate<Record> expected) {
+        Set<Integer> actual = new HashSet<Integer>();
+        for (Map.Entry<Integer, Record> entry : map.entrySet(predicate)) {
+            actual.add(entry.getKey());
+        }
+        assertEquals(predicate.toString(), expectedKeys(expected), actual);
+    }
+
+    private Set<Integer> expectedKeys(java.util.function.Predicate<Record> predicate) {
+        Set<Integer> expected = new HashSet<Integer>();
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            if (predicate.test(record(i))) {
+                expected.add(i);
+            }
+        }
+        return expected;
+    }
+
+    private static Record record(int i) {
+        // every 100th record has no score to exercise the per-entry fallback
+        Double score = i % 100 == 0 ? null : i / 10.0;
+        return new Record(i % 50, score, "name" + i % 7);
+    }
+
+    public static class Record implements Serializable {
+
+        private final int age;
+        private final Double score;
+        private final String name;
+
+        Record(int age, Double score, String name) {
+            this.age = age;
+            this.score = score;
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public Double getScore() {
+            return score;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+    }
+
+}
@@ -237,6 +237,8 @@ public class IndexCreateTest extends HazelcastTestSupport {
 
         if (config.getType() == IndexType.SORTED) {
             res.append("sorted");
+        } else if (config.getType() == IndexType.BITMAP) {
+            res.append("bitmap");
         } else {
             res.append("hash");
         }
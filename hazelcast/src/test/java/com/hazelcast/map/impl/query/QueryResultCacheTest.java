@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.monitor.LocalMapStats;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class QueryResultCacheTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+
+    private HazelcastInstance instance;
+    private IMap<Integer, Integer> map;
+
+    @Before
+    public void before() {
+        Config config = getConfig();
+        config.getMapConfig("cached").setQueryResultCacheSize(2);
+        config.getMapConfig("expiring").setQueryResultCacheSize(2).setTimeToLiveSeconds(1000);
+        instance = createHazelcastInstance(config);
+        map = instance.getMap("cached");
+
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            map.put(i, i);
+        }
+    }
+
+    @Test
+    public void testRepeatedQueriesAreServedFromCache() {
+        Predicate<Integer, Integer> predicate = Predicates.lessThan("this", 10);
+
+        assertEquals(keys(0, 10), map.keySet(predicate));
+        assertStats(map, 0, 1);
+        assertEquals(keys(0, 10), map.keySet(predicate));
+        assertEquals(keys(0, 10), map.keySet(predicate));
+        assertStats(map, 2, 1);
+
+        // different result types are cached separately
+        assertEquals(10, map.values(predicate).size());
+        assertStats(map, 2, 2);
+    }
+
+    @Test
+    public void testMutationsInvalidateResults() {
+        Predicate<Integer, Integer> predicate = Predicates.lessThan("this", 10);
+        assertEquals(keys(0, 10), map.keySet(predicate));
+
+        map.put(100, 5);
+        Set<Integer> expected = keys(0, 10);
+        expected.add(100);
+        assertEquals(expected, map.keySet(predicate));
+
+        map.remove(100);
+        assertEquals(keys(0, 10), map.keySet(predicate));
+
+        map.set(3, 42);
+        expected = keys(0, 10);
+        expected.remove(3);
+        assertEquals(expected, map.keySet(predicate));
+
+        map.evict(4);
+        expected.remove(4);
+        assertEquals(expected, map.keySet(predicate));
+
+        map.clear();
+        assertEquals(0, map.keySet(predicate).size());
+        assertStats(map, 0, 6);
+    }
+
+    @Test
+    public void testAggregationsAreCached() {
+        assertEquals(Long.valueOf(ENTRY_COUNT), map.aggregate(Aggregators.count()));
+        assertEquals(Long.valueOf(ENTRY_COUNT), map.aggregate(Aggregators.count()));
+        assertStats(map, 1, 1);
+
+        map.put(-1, -1);
+        assertEquals(Long.valueOf(ENTRY_COUNT + 1), map.aggregate(Aggregators.count()));
+        assertStats(map, 1, 2);
+    }
+
+    @Test
+    public void testIndexedQueriesAreInvalidated() {
+        map.addIndex(IndexType.SORTED, "this");
+        Predicate<Integer, Integer> predicate = Predicates.greaterEqual("this", 90);
+        assertEquals(keys(90, 100), map.keySet(predicate));
+
+        map.put(90, 0);
+        assertEquals(keys(91, 100), map.keySet(predicate));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResultsAreEvicted() {
+        Predicate<Integer, Integer> first = Predicates.lessThan("this", 10);
+        Predicate<Integer, Integer> second = Predicates.lessThan("this", 20);
+        Predicate<Integer, Integer> third = Predicates.lessThan("this", 30);
+
+        map.keySet(first);
+        map.keySet(second);
+        map.keySet(first);
+        assertStats(map, 1, 2);
+
+        // the capacity is 2, so the second result is evicted
+        map.keySet(third);
+        map.keySet(first);
+        assertStats(map, 2, 3);
+        map.keySet(second);
+        assertStats(map, 2, 4);
+    }
+
+    @Test
+    public void testLargeResultsAreNotCached() {
+        Config config = getConfig();
+        config.setProperty(GroupProperty.QUERY_RESULT_CACHE_MAX_SIZE_BYTES.getName(), "16384");
+        config.getMapConfig("cached").setQueryResultCacheSize(2);
+        IMap<Integer, Integer> boundedMap = createHazelcastInstance(config).getMap("cached");
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            boundedMap.put(i, i);
+        }
+        Predicate<Integer, Integer> small = Predicates.lessThan("this", 2);
+        Predicate<Integer, Integer> large = Predicates.lessThan("this", ENTRY_COUNT);
+
+        assertEquals(keys(0, ENTRY_COUNT), boundedMap.keySet(large));
+        assertEquals(keys(0, ENTRY_COUNT), boundedMap.keySet(large));
+        assertStats(boundedMap, 0, 2);
+
+        assertEquals(keys(0, 2), boundedMap.keySet(small));
+        assertEquals(keys(0, 2), boundedMap.keySet(small));
+        assertStats(boundedMap, 1, 3);
+    }
+
+    @Test
+    public void testNonSerializablePredicatesBypassCache() {
+        Predicate<Integer, Integer> predicate = new NonSerializablePredicate();
+        assertEquals(keys(0, 10), map.keySet(predicate));
+        assertEquals(keys(0, 10), map.keySet(predicate));
+        assertStats(map, 0, 0);
+    }
+
+    @Test
+    public void testExpiringMapsAreNotCached() {
+        IMap<Integer, Integer> expiringMap = instance.getMap("expiring");
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            expiringMap.put(i, i);
+        }
+        Predicate<Integer, Integer> predicate = Predicates.lessThan("this", 10);
+
+        assertEquals(keys(0, 10), expiringMap.keySet(predicate));
+        assertEquals(keys(0, 10), expiringMap.keySet(predicate));
+        assertStats(expiringMap, 0, 2);
+    }
+
+    @Test
+    public void testEntriesWithCustomExpirationDisableCaching() {
+        Predicate<Integer, Integer> predicate = Predicates.lessThan("this", 10);
+        map.put(ENTRY_COUNT, ENTRY_COUNT, 1, TimeUnit.HOURS);
+
+        map.keySet(predicate);
+        map.keySet(predicate);
+        assertStats(map, 0, 2);
+    }
+
+    @Test
+    public void testCacheIsDisabledByDefault() {
+        IMap<Integer, Integer> plainMap = instance.getMap("plain");
+        plainMap.put(1, 1);
+        plainMap.keySet(Predicates.lessThan("this", 10));
+        plainMap.keySet(Predicates.lessThan("this", 10));
+        assertStats(plainMap, 0, 0);
+    }
+
+    private static class NonSerializablePredicate implements Predicate<Integer, Integer> {
+
+        private final Object nonSerializableField = new Object();
+
+        @Override
+        public boolean apply(Map.Entry<Integer, Integer> mapEntry) {
+            return nonSerializableField != null && mapEntry.getValue() < 10;
+        }
+
+    }
+
+    private static void assertStats(IMap<Integer, Integer> map, long hits, long misses) {
+        LocalMapStats stats = map.getLocalMapStats();
+        assertEquals("hits", hits, stats.getQueryResultCacheHits());
+        assertEquals("misses", misses, stats.getQueryResultCacheMisses());
+    }
+
+    private static Set<Integer> keys(int from, int to) {
+        Set<Integer> keys = new HashSet<Integer>();
+        for (int i = from; i < to; ++i) {
+            keys.add(i);
+        }
+        return keys;
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MetadataPolicy;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.PartitioningStrategy;
+import com.hazelcast.partition.strategy.DefaultPartitioningStrategy;
+import com.hazelcast.spi.merge.HigherHitsMergePolicy;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.map.impl.record.Records.canUseCompactRecords;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactRecordFactoryTest extends HazelcastTestSupport {
+
+    private SerializationService serializationService;
+    private PartitioningStrategy partitioningStrategy;
+    private Data key;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        partitioningStrategy = new DefaultPartitioningStrategy();
+        key = serializationService.toData("key");
+    }
+
+    @Test
+    public void testCanUseCompactRecords() {
+        assertTrue(canUseCompactRecords(newCompactMapConfig()));
+        assertTrue(canUseCompactRecords(newCompactMapConfig().setEvictionPolicy(EvictionPolicy.LRU)));
+    }
+
+    @Test
+    public void testCanUseCompactRecords_withDefaultConfig() {
+        assertFalse(canUseCompactRecords(new MapConfig()));
+    }
+
+    @Test
+    public void testCanUseCompactRecords_whenStatisticsEnabled() {
+        assertFalse(canUseCompactRecords(newCompactMapConfig().setStatisticsEnabled(true)));
+    }
+
+    @Test
+    public void testCanUseCompactRecords_whenLFUEviction() {
+        assertFalse(canUseCompactRecords(newCompactMapConfig().setEvictionPolicy(EvictionPolicy.LFU)));
+    }
+
+    @Test
+    public void testCanUseCompactRecords_whenHigherHitsMergePolicy() {
+        MapConfig mapConfig = newCompactMapConfig();
+        mapConfig.getMergePolicyConfig().setPolicy(HigherHitsMergePolicy.class.getSimpleName());
+
+        assertFalse(canUseCompactRecords(mapConfig));
+    }
+
+    @Test
+    public void testNewRecord_withCacheDeserializedValuesIsNEVER() {
+        MapConfig mapConfig = newCompactMapConfig().setCacheDeserializedValues(CacheDeserializedValues.NEVER);
+        Record<Data> record = new CompactDataRecordFactory(mapConfig, serializationService, partitioningStrategy)
+                .newRecord(key, "value");
+
+        assertInstanceOf(CompactDataRecord.class, record);
+        assertEquals(key, record.getKey());
+        assertEquals("value", serializationService.toObject(record.getValue()));
+    }
+
+    @Test
+    public void testNewRecord_withCacheDeserializedValuesIsALWAYS() {
+        MapConfig mapConfig = newCompactMapConfig().setCacheDeserializedValues(CacheDeserializedValues.ALWAYS);
+        Record<Data> record = new CompactDataRecordFactory(mapConfig, serializationService, partitioningStrategy)
+                .newRecord(key, "value");
+
+        assertInstanceOf(CompactCachedDataRecord.class, record);
+    }
+
+    @Test
+    public void testNewRecord_withObjectFactory() {
+        Record<Object> record = new CompactObjectRecordFactory(serializationService).newRecord(key, "value");
+
+        assertInstanceOf(CompactObjectRecord.class, record);
+        assertEquals("value", record.getValue());
+    }
+
+    @Test
+    public void testHitsAndMetadataAreNotKept() {
+        Record<Data> record = new CompactDataRecordFactory(newCompactMapConfig(), serializationService, partitioningStrategy)
+                .newRecord(key, "value");
+
+        record.onAccess(1000L);
+        record.setHits(10);
+
+        assertEquals(0, record.getHits());
+        assertEquals(1000L, record.getLastAccessTime());
+        assertNull(record.getMetadata());
+    }
+
+    @Test
+    public void testCost_isSmallerThanFullRecord() {
+        MapConfig mapConfig = newCompactMapConfig().setCacheDeserializedValues(CacheDeserializedValues.NEVER);
+        Record<Data> compactRecord = new CompactDataRecordFactory(mapConfig, serializationService, partitioningStrategy)
+                .newRecord(key, "value");
+        Record<Data> fullRecord = new DataRecordFactory(mapConfig, serializationService, partitioningStrategy)
+                .newRecord(key, "value");
+
+        assertTrue(compactRecord.getCost() < fullRecord.getCost());
+    }
+
+    @Test
+    public void testSetValue_withData() {
+        CompactDataRecordFactory factory
+                = new CompactDataRecordFactory(newCompactMapConfig(), serializationService, partitioningStrategy);
+        Record<Data> record = factory.newRecord(key, "value");
+        Data newValue = serializationService.toData("newValue");
+
+        factory.setValue(record, newValue);
+
+        assertEquals(newValue, record.getValue());
+        assertNull(record.getCachedValueUnsafe());
+    }
+
+    @Test
+    public void testMap_usesFullRecords_byDefault() {
+        String mapName = randomMapName();
+        Config config = new Config().addMapConfig(newCompactMapConfig().setName(mapName));
+        IMap<String, String> map = createHazelcastInstance(config).getMap(mapName);
+        map.put("key", "value");
+        map.get("key");
+
+        assertTrue(map.getEntryView("key").getHits() > 0);
+    }
+
+    @Test
+    public void testMap_usesCompactRecords_whenEnabled() {
+        String mapName = randomMapName();
+        Config config = new Config().addMapConfig(newCompactMapConfig().setName(mapName))
+                .setProperty(GroupProperty.MAP_COMPACT_RECORDS_ENABLED.getName(), "true");
+        IMap<String, String> map = createHazelcastInstance(config).getMap(mapName);
+        map.put("key", "value");
+        map.get("key");
+
+        assertEquals(0, map.getEntryView("key").getHits());
+    }
+
+    private static MapConfig newCompactMapConfig() {
+        return new MapConfig()
+                .setStatisticsEnabled(false)
+                .setMetadataPolicy(MetadataPolicy.OFF);
+    }
+}
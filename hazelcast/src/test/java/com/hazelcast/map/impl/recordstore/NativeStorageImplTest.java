@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeStorageImplTest {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private StandardMemoryManager memoryManager;
+    private SerializationService serializationService;
+    private NativeRecordFactory recordFactory;
+    private NativeStorageImpl storage;
+
+    @Before
+    public void setUp() {
+        memoryManager = new StandardMemoryManager(MEGABYTES.toBytes(16));
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        recordFactory = new NativeRecordFactory(memoryManager, serializationService, null);
+        storage = new NativeStorageImpl(recordFactory, serializationService);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+        memoryManager.dispose();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, "value-" + i);
+        }
+
+        assertEquals(ENTRY_COUNT, storage.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Record record = storage.get(toData(i));
+            assertEquals("value-" + i, serializationService.toObject(record.getValue()));
+            assertEquals(toData(i), record.getKey());
+        }
+    }
+
+    @Test
+    public void testPut_replacesExistingRecord() {
+        put(1, "value-1");
+        put(1, "value-2");
+        storage.disposeDeferredBlocks();
+
+        assertEquals(1, storage.size());
+        assertEquals("value-2", serializationService.toObject(storage.get(toData(1)).getValue()));
+    }
+
+    @Test
+    public void testUpdateRecordValue() {
+        Record record = put(1, "value-1");
+        storage.updateRecordValue(toData(1), record, "value-2");
+        storage.disposeDeferredBlocks();
+
+        assertEquals("value-2", serializationService.toObject(storage.get(toData(1)).getValue()));
+        assertEquals(storage.get(toData(1)).getCost() + 16, storage.getEntryCostEstimator().getEstimate());
+    }
+
+    @Test
+    public void testRemoveRecord() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            storage.removeRecord(storage.get(toData(i)));
+        }
+        storage.disposeDeferredBlocks();
+
+        assertEquals(ENTRY_COUNT / 2, storage.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i % 2 != 0, storage.containsKey(toData(i)));
+        }
+    }
+
+    @Test
+    public void testMutationTolerantIterator_allowsRemoval() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, i);
+        }
+
+        Set<Data> seen = new HashSet<>();
+        Iterator<Record> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            seen.add(record.getKey());
+            storage.removeRecord(record);
+        }
+        storage.disposeDeferredBlocks();
+
+        assertEquals(ENTRY_COUNT, seen.size());
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    public void testFetchKeys_returnsAllKeysInChunks() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, i);
+        }
+
+        Set<Data> keys = new HashSet<>();
+        int tableIndex = Integer.MAX_VALUE;
+        while (tableIndex >= 0) {
+            MapKeysWithCursor chunk = storage.fetchKeys(tableIndex, 100);
+            keys.addAll(chunk.getBatch());
+            tableIndex = chunk.getNextTableIndexToReadFrom();
+        }
+
+        assertEquals(ENTRY_COUNT, keys.size());
+    }
+
+    @Test
+    public void testGet_whenMissing() {
+        assertNull(storage.get(toData(1)));
+        assertFalse(storage.containsKey(toData(1)));
+    }
+
+    @Test
+    public void testDisposeDeferredBlocks_freesRecordsNotStored() {
+        long usedBefore = memoryManager.getUsedMemory();
+        recordFactory.newRecord(toData(1), "value");
+        storage.disposeDeferredBlocks();
+
+        assertEquals(usedBefore, memoryManager.getUsedMemory());
+    }
+
+    @Test
+    public void testClear_releasesAllRecords() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, "value-" + i);
+        }
+        storage.clear(false);
+        storage.disposeDeferredBlocks();
+
+        assertEquals(0, storage.size());
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertNull(storage.get(toData(i)));
+        }
+    }
+
+    @Test
+    public void testDestroy_releasesAllMemory() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, "value-" + i);
+        }
+        storage.destroy(false);
+
+        assertEquals(0, memoryManager.getUsedMemory());
+    }
+
+    private Record put(Object key, Object value) {
+        Data keyData = toData(key);
+        Record record = recordFactory.newRecord(keyData, value);
+        storage.put(keyData, record);
+        return record;
+    }
+
+    private Data toData(Object o) {
+        return serializationService.toData(o);
+    }
+}
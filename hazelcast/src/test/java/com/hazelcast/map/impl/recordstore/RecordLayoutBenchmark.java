@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MetadataPolicy;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.record.CompactDataRecordFactory;
+import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordFactory;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.strategy.DefaultPartitioningStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the full records created by {@link DataRecordFactory} with the
+ * compact ones created by {@link CompactDataRecordFactory}: put/get
+ * throughput on a pre-filled storage, plus the estimated and the measured
+ * heap bytes per entry which are printed at the end of each trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class RecordLayoutBenchmark {
+
+    private static final int ENTRY_COUNT = 1000000;
+    private static final int HUGE_PRIME = 982455757;
+
+    @Param({"full", "compact"})
+    private String layout;
+
+    private SerializationService serializationService;
+    private RecordFactory<Data> recordFactory;
+    private StorageImpl<Record> storage;
+    private Data[] keys;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        MapConfig mapConfig = new MapConfig()
+                .setMetadataPolicy(MetadataPolicy.OFF)
+                .setCacheDeserializedValues(CacheDeserializedValues.NEVER);
+        DefaultPartitioningStrategy partitioningStrategy = new DefaultPartitioningStrategy();
+        recordFactory = "compact".equals(layout)
+                ? new CompactDataRecordFactory(mapConfig, serializationService, partitioningStrategy)
+                : new DataRecordFactory(mapConfig, serializationService, partitioningStrategy);
+
+        keys = new Data[ENTRY_COUNT];
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            keys[i] = serializationService.toData(i);
+        }
+
+        long usedHeapBefore = usedHeap();
+        storage = new StorageImpl(recordFactory, InMemoryFormat.BINARY, serializationService);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            storage.put(keys[i], recordFactory.newRecord(keys[i], i));
+        }
+        long usedHeapAfter = usedHeap();
+
+        System.out.println();
+        System.out.println("Layout: " + layout);
+        System.out.println("Estimated bytes per entry: " + storage.getEntryCostEstimator().getEstimate() / ENTRY_COUNT);
+        System.out.println("Measured bytes per entry: " + (usedHeapAfter - usedHeapBefore) / ENTRY_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        storage.destroy(false);
+    }
+
+    @Benchmark
+    public Record get() {
+        return storage.get(nextKey());
+    }
+
+    @Benchmark
+    public void put() {
+        Data key = nextKey();
+        storage.put(key, recordFactory.newRecord(key, index));
+    }
+
+    private Data nextKey() {
+        index = (index + HUGE_PRIME) % ENTRY_COUNT;
+        if (index < 0) {
+            index += ENTRY_COUNT;
+        }
+        return keys[index];
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RecordLayoutBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
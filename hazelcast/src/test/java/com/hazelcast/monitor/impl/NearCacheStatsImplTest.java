@@ -111,6 +111,22 @@ public class NearCacheStatsImplTest extends HazelcastTestSupport {
         assertContains(lastPersistenceFailure, "expected exception");
     }
 
+    @Test
+    public void testSerialization_withPreload() {
+        nearCacheStats.startPreload(1000);
+        nearCacheStats.addPreloadedKeys(100);
+        nearCacheStats.addPreloadedKeys(150);
+        nearCacheStats.finishPreload(42);
+
+        NearCacheStatsImpl deserialized = serializeAndDeserializeNearCacheStats(nearCacheStats);
+
+        assertTrue(deserialized.getLastPreloadTime() > 0);
+        assertEquals(42, deserialized.getLastPreloadDuration());
+        assertEquals(1000, deserialized.getLastPreloadKeyCount());
+        assertEquals(250, deserialized.getLastPreloadLoadedKeyCount());
+        assertContains(deserialized.toString(), "lastPreloadLoadedKeyCount=250");
+    }
+
     @Test
     public void testGetRatio_NaN() {
         NearCacheStatsImpl nearCacheStats = new NearCacheStatsImpl();
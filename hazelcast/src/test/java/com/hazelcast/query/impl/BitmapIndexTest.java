@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.IndexType;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.monitor.impl.IndexOperationStats;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastSerialParametersRunnerFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(HazelcastSerialParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BitmapIndexTest {
+
+    private static final int ENTRY_COUNT = 100;
+
+    @Parameter(0)
+    public IndexCopyBehavior copyBehavior;
+
+    @Parameters(name = "copyBehavior: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{
+                {IndexCopyBehavior.COPY_ON_READ},
+                {IndexCopyBehavior.COPY_ON_WRITE},
+                {IndexCopyBehavior.NEVER},
+        });
+    }
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(ss).build();
+
+    private Indexes indexes;
+    private Index colorIndex;
+    private Index tagsIndex;
+
+    @Before
+    public void before() {
+        indexes = Indexes.newBuilder(ss, copyBehavior).extractors(extractors).indexProvider(new DefaultIndexProvider())
+                .usesCachedQueryableEntries(true).statsEnabled(true).global(true).build();
+        colorIndex = indexes.addOrGetIndex(IndexUtils.createTestIndexConfig(IndexType.BITMAP, "color"), null);
+        tagsIndex = indexes.addOrGetIndex(IndexUtils.createTestIndexConfig(IndexType.BITMAP, "tags[any]"), null);
+
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            put(i, new Item(color(i), tags(i)), null);
+        }
+    }
+
+    @Test
+    public void testEquality() {
+        assertKeys(colorIndex.getRecords("red"), 0, 3, 6, 9);
+        assertEquals(34, colorIndex.getRecords("red").size());
+        assertEquals(33, colorIndex.getRecords("blue").size());
+        assertEquals(0, colorIndex.getRecords("black").size());
+    }
+
+    @Test
+    public void testIn() {
+        Set<QueryableEntry> records = colorIndex.getRecords(new Comparable[]{"red", "green"});
+
+        assertEquals(67, records.size());
+        assertKeysMatch(records, i -> !"blue".equals(color(i)));
+    }
+
+    @Test
+    public void testNulls() {
+        put(ENTRY_COUNT, new Item(null, tags(ENTRY_COUNT)), null);
+
+        Set<QueryableEntry> records = indexes.query(Predicates.equal("color", null));
+
+        assertEquals(1, records.size());
+        assertKeys(records, ENTRY_COUNT);
+    }
+
+    @Test
+    public void testMultiValuedAttribute() {
+        // every entry is tagged with "all", even entries with "even" and every third with "third"
+        assertEquals(ENTRY_COUNT, tagsIndex.getRecords("all").size());
+        assertEquals(50, tagsIndex.getRecords("even").size());
+        assertEquals(34, tagsIndex.getRecords("third").size());
+    }
+
+    @Test
+    public void testMultiValuedAttribute_and() {
+        Set<QueryableEntry> records = indexes.query(
+                Predicates.and(Predicates.equal("tags[any]", "even"), Predicates.equal("tags[any]", "third")));
+
+        assertTrue(records instanceof BitmapResultSet);
+        assertKeysMatch(records, i -> i % 6 == 0);
+    }
+
+    @Test
+    public void testMultiValuedAttribute_or() {
+        Set<QueryableEntry> records = indexes.query(
+                Predicates.or(Predicates.equal("tags[any]", "even"), Predicates.equal("tags[any]", "third")));
+
+        assertTrue(records instanceof BitmapResultSet);
+        assertKeysMatch(records, i -> i % 2 == 0 || i % 3 == 0);
+    }
+
+    @Test
+    public void testAndAcrossIndexes() {
+        Set<QueryableEntry> records = indexes.query(
+                Predicates.and(Predicates.equal("color", "red"), Predicates.equal("tags[any]", "even")));
+
+        assertKeysMatch(records, i -> i % 6 == 0);
+    }
+
+    @Test
+    public void testRange() {
+        Set<QueryableEntry> records = colorIndex.getRecords("green", true, "red", false);
+
+        assertKeysMatch(records, i -> "green".equals(color(i)));
+    }
+
+    @Test
+    public void testUpdate() {
+        put(0, new Item("blue", new String[]{"all"}), new Item(color(0), tags(0)));
+
+        assertEquals(33, colorIndex.getRecords("red").size());
+        assertEquals(34, colorIndex.getRecords("blue").size());
+        assertEquals(49, tagsIndex.getRecords("even").size());
+        assertEquals(ENTRY_COUNT, tagsIndex.getRecords("all").size());
+    }
+
+    @Test
+    public void testRemove() {
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            indexes.removeEntry(ss.toData(i), new Item(color(i), tags(i)), Index.OperationSource.USER);
+        }
+
+        assertEquals(0, tagsIndex.getRecords("even").size());
+        assertEquals(50, tagsIndex.getRecords("all").size());
+        assertKeysMatch(colorIndex.getRecords("red"), i -> i % 2 == 1 && "red".equals(color(i)));
+    }
+
+    @Test
+    public void testResultSetIsSnapshot() {
+        Set<QueryableEntry> records = colorIndex.getRecords("red");
+        put(1, new Item("red", tags(1)), new Item(color(1), tags(1)));
+
+        assertEquals(34, records.size());
+        assertEquals(35, colorIndex.getRecords("red").size());
+    }
+
+    @Test
+    public void testUpdate_keepsId() {
+        BitmapIndexStore store = new BitmapIndexStore(copyBehavior);
+        QueryableEntry entry = entry(1, "red");
+        store.insert("red", entry, IndexOperationStats.EMPTY);
+        int id = store.getId(entry.getKeyData(), Long.MAX_VALUE);
+
+        store.update("red", "blue", entry(1, "blue"), IndexOperationStats.EMPTY);
+
+        assertEquals(id, store.getId(entry.getKeyData(), Long.MAX_VALUE));
+        assertEquals(0, store.getRecords("red").size());
+        assertEquals(1, store.getRecords("blue").size());
+    }
+
+    @Test
+    public void testRemove_idIsReused() {
+        BitmapIndexStore store = new BitmapIndexStore(copyBehavior);
+        QueryableEntry removed = entry(1, "red");
+        store.insert("red", removed, IndexOperationStats.EMPTY);
+        int id = store.getId(removed.getKeyData(), Long.MAX_VALUE);
+
+        store.remove("red", removed.getKeyData(), IndexOperationStats.EMPTY);
+        QueryableEntry inserted = entry(2, "blue");
+        store.insert("blue", inserted, IndexOperationStats.EMPTY);
+
+        assertEquals(-1, store.getId(removed.getKeyData(), Long.MAX_VALUE));
+        assertEquals(id, store.getId(inserted.getKeyData(), Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testResultSet_skipsReusedIds() {
+        BitmapIndexStore store = new BitmapIndexStore(copyBehavior);
+        QueryableEntry removed = entry(1, "red");
+        store.insert("red", removed, IndexOperationStats.EMPTY);
+        Set<QueryableEntry> records = store.getRecords("red");
+
+        store.remove("red", removed.getKeyData(), IndexOperationStats.EMPTY);
+        QueryableEntry inserted = entry(2, "blue");
+        store.insert("blue", inserted, IndexOperationStats.EMPTY);
+
+        // the id of the removed entry now belongs to the inserted one
+        assertTrue(keysOf(records).isEmpty());
+        assertFalse(records.contains(inserted));
+    }
+
+    @Test
+    public void testManyUpdatesAndRemovals() {
+        BitmapIndexStore store = new BitmapIndexStore(copyBehavior);
+        for (int round = 0; round < 10; ++round) {
+            for (int i = 0; i < ENTRY_COUNT; ++i) {
+                if (round == 0) {
+                    store.insert(color(i), entry(i, color(i)), IndexOperationStats.EMPTY);
+                } else {
+                    store.update(color(i + round - 1), color(i + round), entry(i, color(i + round)),
+                            IndexOperationStats.EMPTY);
+                }
+            }
+            for (int i = 0; i < ENTRY_COUNT; i += 2) {
+                store.remove(color(i + round), ss.toData(i), IndexOperationStats.EMPTY);
+                store.insert(color(i + round), entry(i, color(i + round)), IndexOperationStats.EMPTY);
+            }
+        }
+
+        int recordCount = 0;
+        for (String color : new String[]{"red", "green", "blue"}) {
+            for (QueryableEntry record : store.getRecords(color)) {
+                assertEquals(color, ((Item) record.getValue()).getColor());
+                // the ids stay within the number of the entries
+                assertTrue(store.getId(record.getKeyData(), Long.MAX_VALUE) < ENTRY_COUNT);
+                ++recordCount;
+            }
+        }
+        assertEquals(ENTRY_COUNT, recordCount);
+    }
+
+    @Test
+    public void testClear() {
+        indexes.clearAll();
+
+        assertEquals(0, colorIndex.getRecords("red").size());
+        assertEquals(0, tagsIndex.getRecords("all").size());
+    }
+
+    private QueryableEntry entry(int key, String color) {
+        return new QueryEntry(ss, ss.toData(key), new Item(color, tags(key)), extractors);
+    }
+
+    private void put(int key, Item item, Item oldItem) {
+        Data keyData = ss.toData(key);
+        indexes.putEntry(new QueryEntry(ss, keyData, item, extractors), oldItem, Index.OperationSource.USER);
+    }
+
+    private void assertKeys(Set<QueryableEntry> records, int... expectedKeys) {
+        Set<Object> keys = keysOf(records);
+        for (int expectedKey : expectedKeys) {
+            assertTrue("missing key " + expectedKey, keys.contains(expectedKey));
+        }
+    }
+
+    private void assertKeysMatch(Set<QueryableEntry> records, IntPredicate predicate) {
+        Set<Object> expected = new HashSet<Object>();
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            if (predicate.test(i)) {
+                expected.add(i);
+            }
+        }
+        assertEquals(expected, keysOf(records));
+    }
+
+    private Set<Object> keysOf(Set<QueryableEntry> records) {
+        Set<Object> keys = new HashSet<Object>();
+        for (QueryableEntry record : records) {
+            assertTrue("duplicate key " + record.getKey(), keys.add(record.getKey()));
+        }
+        return keys;
+    }
+
+    private static String color(int i) {
+        switch (i % 3) {
+            case 0:
+                return "red";
+            case 1:
+                return "green";
+            default:
+                return "blue";
+        }
+    }
+
+    private static String[] tags(int i) {
+        List<String> tags = new ArrayList<String>();
+        tags.add("all");
+        if (i % 2 == 0) {
+            tags.add("even");
+        }
+        if (i % 3 == 0) {
+            tags.add("third");
+        }
+        return tags.toArray(new String[0]);
+    }
+
+    public static class Item implements Serializable {
+
+        private final String color;
+        private final String[] tags;
+
+        Item(String color, String[] tags) {
+            this.color = color;
+            this.tags = tags;
+        }
+
+        public String getColor() {
+            return color;
+        }
+
+        public String[] getTags() {
+            return tags;
+        }
+
+    }
+
+}
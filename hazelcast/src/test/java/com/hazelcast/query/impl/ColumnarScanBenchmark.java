@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.ColumnarPredicateEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the entry-by-entry and the columnar evaluation of the predicates
+ * supported by the {@link ColumnarPredicateEvaluator} over the entries of a
+ * partition scan.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@SuppressWarnings("unused")
+public class ColumnarScanBenchmark {
+
+    private static final int ENTRY_COUNT = 100000;
+    private static final int BATCH_SIZE = 1024;
+    private static final int WARMUP_ITERATIONS_COUNT = 5;
+    private static final int MEASUREMENT_ITERATIONS_COUNT = 10;
+
+    @Param({"equal", "greaterLess", "between", "in", "and"})
+    public String predicateType;
+
+    private QueryableEntry[] entries;
+    private Predicate predicate;
+    private ColumnarPredicateEvaluator evaluator;
+    private QueryableEntry[] batch;
+    private boolean[] matches;
+
+    @Setup
+    public void setup() {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        Extractors extractors = Extractors.newBuilder(ss).build();
+        entries = new QueryableEntry[ENTRY_COUNT];
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            entries[i] = new QueryEntry(ss, ss.toData(i), new Employee(i % 100, i % 1000 * 10.0), extractors);
+        }
+
+        predicate = createPredicate(predicateType);
+        evaluator = ColumnarPredicateEvaluator.compile(predicate, BATCH_SIZE);
+        batch = new QueryableEntry[BATCH_SIZE];
+        matches = new boolean[BATCH_SIZE];
+    }
+
+    @Benchmark
+    public int entryByEntry() {
+        int count = 0;
+        for (QueryableEntry entry : entries) {
+            if (predicate.apply(entry)) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int columnar() {
+        int count = 0;
+        for (int offset = 0; offset < ENTRY_COUNT; offset += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, ENTRY_COUNT - offset);
+            System.arraycopy(entries, offset, batch, 0, size);
+            evaluator.evaluate(batch, size, matches);
+            for (int i = 0; i < size; ++i) {
+                if (matches[i]) {
+                    ++count;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static Predicate createPredicate(String type) {
+        switch (type) {
+            case "equal":
+                return Predicates.equal("age", 42);
+            case "greaterLess":
+                return Predicates.greaterThan("salary", 9900.0);
+            case "between":
+                return Predicates.between("age", 10, 12);
+            case "in":
+                return Predicates.in("age", 1, 3, 5, 7);
+            case "and":
+                return Predicates.and(Predicates.equal("age", 42), Predicates.lessThan("salary", 100.0));
+            default:
+                throw new IllegalArgumentException(type);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ColumnarScanBenchmark.class.getSimpleName())
+                .warmupIterations(WARMUP_ITERATIONS_COUNT)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+                .measurementTime(TimeValue.seconds(1))
+                .verbosity(VerboseMode.NORMAL)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    public static class Employee implements Serializable {
+
+        private final int age;
+        private final double salary;
+
+        public Employee(int age, double salary) {
+            this.age = age;
+            this.salary = salary;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public double getSalary() {
+            return salary;
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class EquiDepthHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        EquiDepthHistogram histogram = EquiDepthHistogram.build(new TreeMap<Comparable, Map<Integer, Integer>>(), 5);
+
+        assertEquals(0, histogram.getRecordCount());
+        assertEquals(5, histogram.getModificationCount());
+        assertEquals(0, histogram.estimateRecordCount(null, null));
+        assertEquals(0, histogram.estimateRecordCount(1, 10));
+    }
+
+    @Test
+    public void testFewValues() {
+        EquiDepthHistogram histogram = EquiDepthHistogram.build(uniform(10), 0);
+
+        // every value gets its own bucket, so the estimates are exact within
+        // the range of the indexed values
+        assertEquals(10, histogram.getRecordCount());
+        assertEquals(10, histogram.estimateRecordCount(null, null));
+        assertEquals(5, histogram.estimateRecordCount(3, 7));
+        assertEquals(3, histogram.estimateRecordCount(null, 2));
+        assertEquals(2, histogram.estimateRecordCount(8, null));
+        assertEquals(0, histogram.estimateRecordCount(20, null));
+        // the first bucket has no lower bound
+        assertEquals(1, histogram.estimateRecordCount(null, -1));
+    }
+
+    @Test
+    public void testManyValues() {
+        int count = 10000;
+        EquiDepthHistogram histogram = EquiDepthHistogram.build(uniform(count), 0);
+        long depth = count / EquiDepthHistogram.BUCKET_COUNT + 1;
+
+        assertEquals(count, histogram.estimateRecordCount(null, null));
+        assertBounded(1001, histogram.estimateRecordCount(1000, 2000), depth);
+        assertBounded(100, histogram.estimateRecordCount(null, 99), depth);
+        assertBounded(100, histogram.estimateRecordCount(9900, null), depth);
+        assertBounded(1, histogram.estimateRecordCount(5000, 5000), depth);
+    }
+
+    @Test
+    public void testSkewedValues() {
+        NavigableMap<Comparable, Map<Integer, Integer>> recordMap = uniform(100);
+        // a single frequent value occupying several buckets
+        recordMap.put(50, records(50, 1000));
+        EquiDepthHistogram histogram = EquiDepthHistogram.build(recordMap, 0);
+
+        assertEquals(1099, histogram.getRecordCount());
+        assertTrue(histogram.estimateRecordCount(50, 50) >= 1000);
+        assertTrue(histogram.estimateRecordCount(0, 40) < 100);
+    }
+
+    private static void assertBounded(long actual, long estimate, long depth) {
+        assertTrue("estimate " + estimate + " is below " + actual, estimate >= actual);
+        assertTrue("estimate " + estimate + " is too far from " + actual, estimate <= actual + 2 * depth);
+    }
+
+    private static NavigableMap<Comparable, Map<Integer, Integer>> uniform(int count) {
+        NavigableMap<Comparable, Map<Integer, Integer>> recordMap = new TreeMap<Comparable, Map<Integer, Integer>>();
+        for (int i = 0; i < count; ++i) {
+            recordMap.put(i, records(i, 1));
+        }
+        return recordMap;
+    }
+
+    private static Map<Integer, Integer> records(int base, int count) {
+        Map<Integer, Integer> records = new HashMap<Integer, Integer>();
+        for (int i = 0; i < count; ++i) {
+            records.put(base * 10000 + i, i);
+        }
+        return records;
+    }
+
+}
@@ -133,6 +133,22 @@ public class IndexTest {
         assertEquals(1, is.getIndex(config.getName()).getRecords(SerializableWithEnum.City.KRAKOW).size());
     }
 
+    @Test
+    public void testEstimateRecordCount_canonicalizesArgument() {
+        for (IndexType type : new IndexType[]{IndexType.SORTED, IndexType.HASH}) {
+            IndexConfig config = IndexUtils.createTestIndexConfig(type, QueryConstants.THIS_ATTRIBUTE_NAME.value());
+            IndexImpl index = new IndexImpl(config, ss, newExtractor(), copyBehavior, PerIndexStats.EMPTY);
+            index.putEntry(newRecord(1L, 5L), null, Index.OperationSource.USER);
+            index.putEntry(newRecord(2L, 5L), null, Index.OperationSource.USER);
+
+            // the same value in different numeric representations
+            for (Comparable value : new Comparable[]{5L, 5, 5.0, (short) 5}) {
+                assertEquals(2, index.getRecords(value).size());
+                assertEquals(2, index.estimateRecordCount(value));
+            }
+        }
+    }
+
     protected Extractors newExtractor() {
         return Extractors.newBuilder(ss).build();
     }
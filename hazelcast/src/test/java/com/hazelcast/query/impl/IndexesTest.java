@@ -91,6 +91,27 @@ public class IndexesTest {
         assertEquals(1, results.size());
     }
 
+    @Test
+    public void testPartiallyPopulatedIndexesAreNotMatched() {
+        Indexes indexes = Indexes.newBuilder(serializationService, copyBehavior).build();
+        InternalIndex index = indexes.addOrGetIndex(IndexUtils.createTestIndexConfig(IndexType.SORTED, "age"), null);
+        indexes.putEntry(new QueryEntry(serializationService, toData(1), new Employee("1", 1, true, 1), newExtractor()), null,
+                Index.OperationSource.USER);
+
+        index.markPartitionAsPopulating(0);
+        index.markPartitionAsPopulating(1);
+        assertNull(indexes.matchIndex("age", QueryContext.IndexMatchHint.NONE));
+        assertNull(indexes.matchIndex(index.getName(), QueryContext.IndexMatchHint.EXACT_NAME));
+        assertNull(indexes.query(Predicates.equal("age", 1)));
+
+        index.markPartitionAsIndexed(0);
+        assertNull(indexes.matchIndex("age", QueryContext.IndexMatchHint.NONE));
+
+        index.markPartitionAsUnindexed(1);
+        assertSame(index, indexes.matchIndex("age", QueryContext.IndexMatchHint.NONE));
+        assertEquals(1, indexes.query(Predicates.equal("age", 1)).size());
+    }
+
     @Test
     public void testIndex() {
         Indexes indexes = Indexes.newBuilder(serializationService, copyBehavior).build();
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SparseBitSetTest {
+
+    @Test
+    public void testSetAndClear() {
+        SparseBitSet bitSet = new SparseBitSet();
+
+        assertTrue(bitSet.isEmpty());
+        assertTrue(bitSet.set(5));
+        assertFalse(bitSet.set(5));
+        assertTrue(bitSet.set(1L << 40));
+        assertTrue(bitSet.get(5));
+        assertTrue(bitSet.get(1L << 40));
+        assertFalse(bitSet.get(6));
+        assertEquals(2, bitSet.cardinality());
+
+        assertTrue(bitSet.clear(5));
+        assertFalse(bitSet.clear(5));
+        assertTrue(bitSet.clear(1L << 40));
+        assertTrue(bitSet.isEmpty());
+    }
+
+    @Test
+    public void testIterator() {
+        SparseBitSet bitSet = new SparseBitSet();
+        bitSet.set(1000);
+        bitSet.set(63);
+        bitSet.set(0);
+        bitSet.set(64);
+
+        assertEquals(asList(0L, 63L, 64L, 1000L), toList(bitSet));
+        assertEquals(asList(), toList(new SparseBitSet()));
+    }
+
+    @Test
+    public void testCopy() {
+        SparseBitSet bitSet = new SparseBitSet();
+        bitSet.set(1);
+        SparseBitSet copy = bitSet.copy();
+        bitSet.set(2);
+        copy.set(3);
+
+        assertEquals(asList(1L, 2L), toList(bitSet));
+        assertEquals(asList(1L, 3L), toList(copy));
+    }
+
+    @Test
+    public void testAndOr_againstBitSet() {
+        Random random = new Random(42);
+        SparseBitSet left = new SparseBitSet();
+        SparseBitSet right = new SparseBitSet();
+        BitSet expectedLeft = new BitSet();
+        BitSet expectedRight = new BitSet();
+        for (int i = 0; i < 1000; ++i) {
+            int leftPosition = random.nextInt(10000);
+            left.set(leftPosition);
+            expectedLeft.set(leftPosition);
+            int rightPosition = random.nextInt(10000);
+            right.set(rightPosition);
+            expectedRight.set(rightPosition);
+        }
+
+        BitSet expectedAnd = (BitSet) expectedLeft.clone();
+        expectedAnd.and(expectedRight);
+        BitSet expectedOr = (BitSet) expectedLeft.clone();
+        expectedOr.or(expectedRight);
+
+        assertEquals(toList(expectedAnd), toList(SparseBitSet.and(left, right)));
+        assertEquals(toList(expectedOr), toList(SparseBitSet.or(left, right)));
+        assertEquals(expectedOr.cardinality(), SparseBitSet.or(left, right).cardinality());
+    }
+
+    @Test
+    public void testSetAndClear_againstBitSet_acrossContainers() {
+        Random random = new Random(42);
+        SparseBitSet bitSet = new SparseBitSet();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 100000; ++i) {
+            int position = random.nextInt(1 << 20);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.get(position), bitSet.clear(position));
+                expected.clear(position);
+            } else {
+                assertEquals(!expected.get(position), bitSet.set(position));
+                expected.set(position);
+            }
+        }
+
+        assertEquals(expected.cardinality(), bitSet.cardinality());
+        assertEquals(toList(expected), toList(bitSet));
+        assertEquals(toList(expected), toList(bitSet.copy()));
+    }
+
+    private static List<Long> toList(SparseBitSet bitSet) {
+        List<Long> positions = new ArrayList<Long>();
+        for (PrimitiveIterator.OfLong it = bitSet.iterator(); it.hasNext(); ) {
+            positions.add(it.nextLong());
+        }
+        return positions;
+    }
+
+    private static List<Long> toList(BitSet bitSet) {
+        List<Long> positions = new ArrayList<Long>();
+        for (int i = bitSet.nextSetBit(0); i >= 0; i = bitSet.nextSetBit(i + 1)) {
+            positions.add((long) i);
+        }
+        return positions;
+    }
+
+}
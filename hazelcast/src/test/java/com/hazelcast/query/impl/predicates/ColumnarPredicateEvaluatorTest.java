@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.Predicates.like;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarPredicateEvaluatorTest {
+
+    private static final int BATCH_SIZE = 64;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(ss).build();
+
+    @Test
+    public void testCompile() {
+        assertNull(ColumnarPredicateEvaluator.compile(like("name", "a%"), BATCH_SIZE));
+        assertNull(ColumnarPredicateEvaluator.compile(notEqual("age", 1), BATCH_SIZE));
+        assertNull(ColumnarPredicateEvaluator.compile(equal("age", null), BATCH_SIZE));
+        assertNotNull(ColumnarPredicateEvaluator.compile(equal("age", 1), BATCH_SIZE));
+        assertNotNull(ColumnarPredicateEvaluator.compile(and(like("name", "a%"), in("age", 1, 2)), BATCH_SIZE));
+    }
+
+    @Test
+    public void testIntegralAttribute() {
+        List<QueryableEntry> entries = entries(100);
+
+        check(entries, equal("age", 10));
+        check(entries, equal("age", "10"));
+        check(entries, equal("age", 10.0));
+        check(entries, equal("age", 10.5));
+        check(entries, greaterThan("age", 50));
+        check(entries, greaterEqual("age", 50L));
+        check(entries, lessThan("age", "50"));
+        check(entries, lessEqual("age", 50));
+        check(entries, lessThan("age", Integer.MIN_VALUE));
+        check(entries, greaterThan("age", Integer.MAX_VALUE));
+        check(entries, between("age", 10, 20));
+        check(entries, between("age", 20, 10));
+        check(entries, new BoundedRangePredicate("age", 10, false, 20, false));
+        check(entries, in("age", 1, 5L, "7", 9.0, 11.5, 1000));
+    }
+
+    @Test
+    public void testFloatingAttribute() {
+        List<QueryableEntry> entries = entries(100);
+        entries.add(entry(100, new Person("nan", 0, Double.NaN)));
+        entries.add(entry(101, new Person("negative zero", 0, -0.0)));
+
+        check(entries, equal("height", 1.5));
+        check(entries, equal("height", 0.0));
+        check(entries, equal("height", -0.0));
+        check(entries, equal("height", Double.NaN));
+        check(entries, greaterThan("height", 10));
+        check(entries, greaterEqual("height", 0.0));
+        check(entries, lessThan("height", "10.5"));
+        check(entries, lessEqual("height", Double.NaN));
+        check(entries, between("height", -0.0, 20.5));
+        check(entries, in("height", 1.5, 2.5));
+    }
+
+    @Test
+    public void testCompoundPredicates() {
+        List<QueryableEntry> entries = entries(200);
+
+        check(entries, and(greaterThan("age", 10), lessThan("height", 50)));
+        check(entries, or(equal("age", 10), between("height", 30, 40)));
+        check(entries, and(like("name", "1%"), greaterThan("age", 50)));
+        check(entries, or(like("name", "1%"), lessThan("age", 5)));
+        check(entries, and(or(equal("age", 1), like("name", "%5")), or(greaterThan("height", 10), like("name", "2%"))));
+        check(entries, or(and(equal("age", 1), like("name", "%1")), and(greaterThan("height", 10), like("name", "2%"))));
+    }
+
+    @Test
+    public void testIrregularValues() {
+        List<QueryableEntry> entries = entries(100);
+        entries.add(entry(100, new Person("null", null, null)));
+        entries.add(entry(101, new Person("long", 5L, 5.0f)));
+
+        check(entries, equal("age", 5));
+        check(entries, greaterEqual("age", 5));
+        check(entries, in("age", 5, 6));
+        check(entries, equal("height", 5.0));
+        check(entries, and(equal("age", 5), like("name", "%g")));
+        check(entries, or(equal("age", 5), equal("height", 5.0)));
+    }
+
+    @Test
+    public void testIrregularFirstValue() {
+        List<QueryableEntry> entries = new ArrayList<QueryableEntry>();
+        entries.add(entry(-1, new Person("null", null, null)));
+        entries.addAll(entries(100));
+
+        check(entries, greaterThan("age", 50));
+        check(entries, between("height", 10, 20));
+    }
+
+    private void check(List<QueryableEntry> entries, Predicate predicate) {
+        ColumnarPredicateEvaluator evaluator = ColumnarPredicateEvaluator.compile(predicate, BATCH_SIZE);
+        assertNotNull(evaluator);
+
+        QueryableEntry[] batch = new QueryableEntry[BATCH_SIZE];
+        boolean[] matches = new boolean[BATCH_SIZE];
+        for (int offset = 0; offset < entries.size(); offset += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, entries.size() - offset);
+            for (int i = 0; i < size; ++i) {
+                batch[i] = entries.get(offset + i);
+            }
+
+            evaluator.evaluate(batch, size, matches);
+            for (int i = 0; i < size; ++i) {
+                assertEquals(predicate + " for " + batch[i].getValue(), predicate.apply(batch[i]), matches[i]);
+            }
+        }
+    }
+
+    private List<QueryableEntry> entries(int count) {
+        List<QueryableEntry> entries = new ArrayList<QueryableEntry>(count);
+        for (int i = 0; i < count; ++i) {
+            entries.add(entry(i, new Person(Integer.toString(i), i, i * 0.5)));
+        }
+        return entries;
+    }
+
+    private QueryableEntry entry(int key, Person person) {
+        return new QueryEntry(ss, ss.toData(key), person, extractors);
+    }
+
+    public static class Person implements Serializable {
+
+        private final String name;
+        private final Comparable age;
+        private final Comparable height;
+
+        Person(String name, Comparable age, Comparable height) {
+            this.name = name;
+            this.age = age;
+            this.height = height;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Comparable getAge() {
+            return age;
+        }
+
+        public Comparable getHeight() {
+            return height;
+        }
+
+        @Override
+        public String toString() {
+            return "Person{name=" + name + ", age=" + age + ", height=" + height + '}';
+        }
+
+    }
+
+}
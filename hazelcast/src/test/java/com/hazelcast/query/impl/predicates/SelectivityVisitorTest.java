@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryContext.IndexMatchHint;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.like;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SelectivityVisitorTest {
+
+    private SelectivityVisitor visitor;
+    private Indexes indexes;
+
+    @Before
+    public void before() {
+        indexes = mock(Indexes.class);
+
+        // "gender" has two values only, "age" is a number and "id" is unique
+        InternalIndex genderIndex = mock(InternalIndex.class);
+        when(genderIndex.estimateRecordCount(any(Comparable.class))).thenReturn(500L);
+        when(indexes.matchIndex(eq("gender"), any(IndexMatchHint.class))).thenReturn(genderIndex);
+
+        InternalIndex ageIndex = mock(InternalIndex.class);
+        when(ageIndex.estimateRecordCount(any(Comparable.class))).thenReturn(10L);
+        when(ageIndex.estimateRecordCount(nullable(Comparable.class), anyBoolean(), nullable(Comparable.class), anyBoolean()))
+                .thenReturn(200L);
+        when(indexes.matchIndex(eq("age"), any(IndexMatchHint.class))).thenReturn(ageIndex);
+
+        InternalIndex idIndex = mock(InternalIndex.class);
+        when(idIndex.estimateRecordCount(any(Comparable.class))).thenReturn(1L);
+        when(indexes.matchIndex(eq("id"), any(IndexMatchHint.class))).thenReturn(idIndex);
+
+        visitor = new SelectivityVisitor();
+    }
+
+    @Test
+    public void testEstimates() {
+        assertEquals(500, estimate(equal("gender", "female")));
+        assertEquals(1, estimate(equal("id", 1)));
+        assertEquals(3, estimate(in("id", 1, 2, 3)));
+        assertEquals(200, estimate(between("age", 10, 20)));
+        assertEquals(201, estimate(or(equal("id", 1), greaterThan("age", 10))));
+        assertEquals(SelectivityVisitor.UNKNOWN, estimate(or(equal("id", 1), equal("unindexed", 1))));
+        assertEquals(SelectivityVisitor.UNKNOWN, estimate(equal("unindexed", 1)));
+        assertEquals(SelectivityVisitor.UNKNOWN, estimate(like("gender", "f%")));
+    }
+
+    @Test
+    public void testUnoptimizablePredicates() {
+        checkSame(and(equal("gender", "female"), equal("unindexed", 1)));
+        checkSame(and(equal("unindexed", 1), like("gender", "f%")));
+        checkSame(and(equal("id", 1)));
+    }
+
+    @Test
+    public void testMostSelectiveConjunctIsKept() {
+        Predicate gender = equal("gender", "female");
+        Predicate age = between("age", 10, 20);
+        Predicate id = equal("id", 1);
+        Predicate unindexed = equal("unindexed", 1);
+
+        Predicate[] result = visit(and(gender, age, id, unindexed));
+
+        assertSkipped(gender, result[0]);
+        assertSkipped(age, result[1]);
+        assertSame(id, result[2]);
+        assertSame(unindexed, result[3]);
+    }
+
+    @Test
+    public void testRangeMoreSelectiveThanEquality() {
+        Predicate gender = equal("gender", "female");
+        Predicate age = greaterThan("age", 10);
+
+        Predicate[] result = visit(and(gender, age));
+
+        assertSkipped(gender, result[0]);
+        assertSame(age, result[1]);
+    }
+
+    private long estimate(Predicate predicate) {
+        return SelectivityVisitor.estimateRecordCount(predicate, indexes);
+    }
+
+    private void checkSame(Predicate predicate) {
+        assertSame(predicate, visitor.visit((AndPredicate) predicate, indexes));
+    }
+
+    private Predicate[] visit(Predicate predicate) {
+        Predicate result = visitor.visit((AndPredicate) predicate, indexes);
+        assertTrue(result instanceof AndPredicate);
+        return ((AndPredicate) result).predicates;
+    }
+
+    private static void assertSkipped(Predicate expected, Predicate actual) {
+        assertTrue(actual instanceof SkipIndexPredicate);
+        assertSame(expected, ((SkipIndexPredicate) actual).getTarget());
+    }
+
+}
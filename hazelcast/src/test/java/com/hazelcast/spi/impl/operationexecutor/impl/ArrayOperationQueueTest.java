@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.util.concurrent.BusySpinIdleStrategy;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class ArrayOperationQueueTest extends HazelcastTestSupport {
+
+    private static final int CAPACITY = 4;
+
+    private ArrayOperationQueue operationQueue = new ArrayOperationQueue(CAPACITY, CAPACITY, null);
+
+    // ================== add =====================
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNull() {
+        operationQueue.add(null, false);
+    }
+
+    @Test
+    public void add_whenNormal() {
+        operationQueue.add(new Object(), false);
+
+        assertEquals(1, operationQueue.normalSize());
+        assertEquals(0, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenPriority() {
+        operationQueue.add(new Object(), true);
+
+        // no trigger task is needed unlike for the OperationQueueImpl
+        assertEquals(0, operationQueue.normalSize());
+        assertEquals(1, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenOverflow() throws InterruptedException {
+        List<Object> tasks = addTasks(CAPACITY * 3, false);
+        assertEquals(tasks.size(), operationQueue.normalSize());
+
+        // take some tasks and add some more while the tasks are still overflowing
+        List<Object> taken = new ArrayList<Object>();
+        for (int i = 0; i < CAPACITY + 1; ++i) {
+            taken.add(operationQueue.take(false));
+        }
+        tasks.addAll(addTasks(CAPACITY, false));
+
+        while (operationQueue.size() > 0) {
+            taken.add(operationQueue.take(false));
+        }
+        assertEquals(tasks, taken);
+    }
+
+    // ================== take =====================
+
+    @Test
+    public void take_whenPriorityAvailable() throws InterruptedException {
+        Object normalTask = new Object();
+        Object priorityTask = new Object();
+        operationQueue.add(normalTask, false);
+        operationQueue.add(priorityTask, true);
+
+        assertSame(priorityTask, operationQueue.take(false));
+        assertSame(normalTask, operationQueue.take(false));
+    }
+
+    @Test
+    public void take_whenPriorityOverflow() throws InterruptedException {
+        List<Object> tasks = addTasks(CAPACITY * 2, true);
+        operationQueue.add(new Object(), false);
+
+        for (Object task : tasks) {
+            assertSame(task, operationQueue.take(true));
+        }
+        assertEquals(0, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.normalSize());
+    }
+
+    @Test
+    public void take_whenBlocked_thenWokenUpByAdd() throws Exception {
+        assertTakeWokenUp(false);
+    }
+
+    @Test
+    public void take_whenPriorityOnlyBlocked_thenWokenUpByPriorityAdd() throws Exception {
+        assertTakeWokenUp(true);
+    }
+
+    @Test
+    public void take_whenIdleStrategy() throws Exception {
+        operationQueue = new ArrayOperationQueue(CAPACITY, CAPACITY, new BusySpinIdleStrategy());
+        Object task = new Object();
+
+        Future<Object> future = spawn(() -> operationQueue.take(false));
+        sleepMillis(100);
+        assertFalse(future.isDone());
+        operationQueue.add(task, false);
+
+        assertSame(task, future.get());
+    }
+
+    @Test
+    public void take_whenInterrupted() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            try {
+                operationQueue.take(false);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        operationQueue.setConsumerThread(thread);
+        thread.start();
+
+        sleepMillis(100);
+        thread.interrupt();
+        assertOpenEventually(interrupted);
+    }
+
+    @Test
+    public void take_whenManyProducers() throws Exception {
+        int producerCount = 4;
+        int taskCount = 10000;
+        operationQueue.setConsumerThread(Thread.currentThread());
+        List<Future> producers = new ArrayList<Future>();
+        for (int producer = 0; producer < producerCount; ++producer) {
+            int producerId = producer;
+            producers.add(spawn(() -> {
+                for (int i = 0; i < taskCount; ++i) {
+                    operationQueue.add(new long[]{producerId, i}, i % 10 == 0);
+                }
+            }));
+        }
+
+        // the tasks of every producer are taken in the order they were added
+        // within the normal and the priority lanes
+        int[] lastNormal = new int[producerCount];
+        int[] lastPriority = new int[producerCount];
+        Arrays.fill(lastNormal, -1);
+        Arrays.fill(lastPriority, -1);
+        for (int i = 0; i < producerCount * taskCount; ++i) {
+            long[] task = (long[]) operationQueue.take(false);
+            int producerId = (int) task[0];
+            int sequence = (int) task[1];
+            int[] last = sequence % 10 == 0 ? lastPriority : lastNormal;
+            assertTrue(sequence > last[producerId]);
+            last[producerId] = sequence;
+        }
+
+        for (Future producer : producers) {
+            assertCompletesEventually(producer);
+        }
+        assertEquals(0, operationQueue.size());
+    }
+
+    private void assertTakeWokenUp(boolean priority) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Object[] taken = new Object[1];
+        Thread thread = new Thread(() -> {
+            started.countDown();
+            try {
+                taken[0] = operationQueue.take(priority);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        operationQueue.setConsumerThread(thread);
+        thread.start();
+        assertOpenEventually(started);
+        sleepMillis(100);
+
+        Object task = new Object();
+        operationQueue.add(task, priority);
+        thread.join();
+        assertSame(task, taken[0]);
+    }
+
+    private List<Object> addTasks(int count, boolean priority) {
+        List<Object> tasks = new ArrayList<Object>();
+        for (int i = 0; i < count; ++i) {
+            Object task = new Object();
+            operationQueue.add(task, priority);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+}
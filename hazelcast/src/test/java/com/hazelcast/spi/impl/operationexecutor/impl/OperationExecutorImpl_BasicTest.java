@@ -16,6 +16,7 @@
 
 package com.hazelcast.spi.impl.operationexecutor.impl;
 
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.test.AssertTask;
 import com.hazelcast.test.HazelcastSerialClassRunner;
@@ -126,6 +127,40 @@ public class OperationExecutorImpl_BasicTest extends OperationExecutorImpl_Abstr
         });
     }
 
+    @Test
+    public void test_execute_whenArrayQueue() {
+        config.setProperty("hazelcast.operation.partitionthread.queue", "array");
+        initExecutor();
+
+        int taskCount = executor.getPartitionThreadCount() * 10;
+        final CountDownLatch completionLatch = new CountDownLatch(taskCount);
+        for (int k = 0; k < taskCount; k++) {
+            final int partitionId = k % executor.getPartitionThreadCount();
+            executor.execute(new PartitionSpecificRunnable() {
+                @Override
+                public int getPartitionId() {
+                    return partitionId;
+                }
+
+                @Override
+                public void run() {
+                    completionLatch.countDown();
+                }
+            });
+        }
+        for (int k = 0; k < executor.getPartitionThreadCount(); k++) {
+            executor.execute(new DummyOperation(k).durationMs(1));
+        }
+
+        assertOpenEventually(completionLatch);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_construction_whenUnknownQueueType() {
+        config.setProperty("hazelcast.operation.partitionthread.queue", "unknown");
+        initExecutor();
+    }
+
     @Test(expected = NullPointerException.class)
     public void test_runOnAllPartitionThreads_whenTaskNull() {
         initExecutor();
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.spi.impl.operationservice.impl.Invocation.Context;
+import com.hazelcast.spi.impl.sequence.CallIdSequenceWithoutBackpressure;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the {@link InvocationRegistry} with 200K pending invocations: the
+ * register, lookup and deregister cycle of an invocation, and the periodic
+ * timeout check of the {@link InvocationMonitor}.
+ * <p>
+ * The {@code concurrentHashMap} benchmarks are the baseline, they do the same
+ * with a {@code ConcurrentHashMap<Long, Invocation>} and a full scan of the
+ * pending invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@SuppressWarnings("unused")
+public class InvocationRegistryBenchmark {
+
+    private static final int CONCURRENT_INVOCATIONS = 200_000;
+    private static final int WARMUP_ITERATIONS_COUNT = 5;
+    private static final int MEASUREMENT_ITERATIONS_COUNT = 10;
+
+    private final ILogger logger = Logger.getLogger(InvocationRegistryBenchmark.class);
+    private final AtomicLong callIdSequence = new AtomicLong();
+    private final ConcurrentMap<Long, Invocation> concurrentHashMap = new ConcurrentHashMap<>();
+    private InvocationRegistry invocationRegistry;
+    private Context context;
+
+    @Setup
+    public void setup() {
+        HazelcastProperties properties = new HazelcastProperties(new Properties());
+        invocationRegistry = new InvocationRegistry(logger, new CallIdSequenceWithoutBackpressure(),
+                new PartitionCredits(properties, partitionId -> 0), properties);
+        context = new Context(null, null, null, null, null,
+                1000, invocationRegistry, null, logger, null, null, null, null, null, null, null, null, null, null);
+
+        for (int i = 0; i < CONCURRENT_INVOCATIONS; i++) {
+            Invocation invocation = newInvocation();
+            invocationRegistry.register(invocation);
+            concurrentHashMap.put(callIdSequence.incrementAndGet(), invocation);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        Invocation invocation;
+
+        @Setup
+        public void setup(InvocationRegistryBenchmark benchmark) {
+            invocation = benchmark.newInvocation();
+        }
+    }
+
+    private Invocation newInvocation() {
+        return new PartitionInvocation(context, new DummyBackupAwareOperation(), 0, 0, 0, false, false);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Invocation registry_registerGetDeregister(ThreadState state) {
+        Invocation invocation = state.invocation;
+        invocationRegistry.register(invocation);
+        Invocation found = invocationRegistry.get(invocation.op.getCallId());
+        invocationRegistry.deregister(invocation);
+        return found;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Invocation concurrentHashMap_putGetRemove(ThreadState state) {
+        long callId = callIdSequence.incrementAndGet();
+        concurrentHashMap.put(callId, state.invocation);
+        Invocation found = concurrentHashMap.get(callId);
+        concurrentHashMap.remove(callId);
+        return found;
+    }
+
+    @Benchmark
+    public int registry_checkTimeouts() {
+        return invocationRegistry.checkTimeouts(Clock.currentTimeMillis(), invocation -> invocation.skipTimeoutDetection());
+    }
+
+    @Benchmark
+    public int concurrentHashMap_scanTimeouts() {
+        int checked = 0;
+        for (Invocation invocation : concurrentHashMap.values()) {
+            if (!invocation.skipTimeoutDetection()) {
+                checked++;
+            }
+        }
+        return checked;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(InvocationRegistryBenchmark.class.getSimpleName())
+                .warmupIterations(WARMUP_ITERATIONS_COUNT)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -18,11 +18,13 @@ package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.internal.util.Clock;
 import com.hazelcast.internal.util.ConcurrencyDetection;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.impl.Invocation.Context;
 import com.hazelcast.spi.impl.sequence.CallIdSequenceWithBackpressure;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.annotation.QuickTest;
@@ -32,8 +34,15 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
 import java.util.concurrent.ExecutionException;
 
+import static com.hazelcast.spi.impl.operationservice.impl.InvocationRegistry.TIMEOUT_TICK_MILLIS;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -51,8 +60,10 @@ public class InvocationRegistryTest extends HazelcastTestSupport {
     public void setup() {
         logger = Mockito.mock(ILogger.class);
         int capacity = 2;
+        HazelcastProperties properties = new HazelcastProperties(new Properties());
         invocationRegistry = new InvocationRegistry(logger,
-                new CallIdSequenceWithBackpressure(capacity, 1000,  ConcurrencyDetection.createDisabled()));
+                new CallIdSequenceWithBackpressure(capacity, 1000,  ConcurrencyDetection.createDisabled()),
+                new PartitionCredits(properties, partitionId -> 0), properties);
     }
 
     private Invocation newInvocation() {
@@ -150,6 +161,71 @@ public class InvocationRegistryTest extends HazelcastTestSupport {
         assertEquals(2, invocationRegistry.size());
     }
 
+    // ===================== checkTimeouts ============================
+
+    @Test
+    public void checkTimeouts_whenNotDue_thenNotChecked() {
+        Invocation invocation = newInvocation();
+        invocationRegistry.register(invocation);
+        List<Invocation> checked = new ArrayList<>();
+
+        assertEquals(0, invocationRegistry.checkTimeouts(Clock.currentTimeMillis(), checked::add));
+        assertEquals(0, checked.size());
+    }
+
+    @Test
+    public void checkTimeouts_whenDue_thenCheckedEveryTick() {
+        Invocation invocation = newInvocation();
+        invocationRegistry.register(invocation);
+        List<Invocation> checked = new ArrayList<>();
+        long dueMillis = Clock.currentTimeMillis() + SECONDS.toMillis(10);
+
+        invocationRegistry.checkTimeouts(dueMillis, checked::add);
+        assertEquals(singletonList(invocation), checked);
+
+        invocationRegistry.checkTimeouts(dueMillis + TIMEOUT_TICK_MILLIS, checked::add);
+        assertEquals(asList(invocation, invocation), checked);
+    }
+
+    @Test
+    public void checkTimeouts_whenDeregistered_thenNotChecked() {
+        Invocation invocation = newInvocation();
+        invocationRegistry.register(invocation);
+        invocationRegistry.deregister(invocation);
+        List<Invocation> checked = new ArrayList<>();
+
+        invocationRegistry.checkTimeouts(Clock.currentTimeMillis() + SECONDS.toMillis(10), checked::add);
+
+        assertEquals(0, checked.size());
+    }
+
+    @Test
+    public void checkTimeouts_whenDeregisteredWhileChecked_thenNotCheckedAgain() {
+        Invocation invocation = newInvocation();
+        invocationRegistry.register(invocation);
+        List<Invocation> checked = new ArrayList<>();
+        long dueMillis = Clock.currentTimeMillis() + SECONDS.toMillis(10);
+
+        invocationRegistry.checkTimeouts(dueMillis, inv -> {
+            checked.add(inv);
+            invocationRegistry.deregister(inv);
+        });
+        invocationRegistry.checkTimeouts(dueMillis + TIMEOUT_TICK_MILLIS, checked::add);
+
+        assertEquals(singletonList(invocation), checked);
+    }
+
+    @Test
+    public void checkTimeouts_whenLocalNonBackupAware_thenNeverChecked() {
+        Invocation invocation = newInvocation(new DummyOperation());
+        invocationRegistry.register(invocation);
+        List<Invocation> checked = new ArrayList<>();
+
+        invocationRegistry.checkTimeouts(Clock.currentTimeMillis() + SECONDS.toMillis(10), checked::add);
+
+        assertEquals(0, checked.size());
+        assertSame(invocation, invocationRegistry.get(invocation.op.getCallId()));
+    }
 
     // ===================== reset ============================
 
@@ -33,6 +33,7 @@ import com.hazelcast.spi.impl.operationservice.impl.responses.BackupAckResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
@@ -48,6 +49,7 @@ import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.Properties;
 
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallerAddress;
@@ -90,7 +92,8 @@ public class OutboundResponseHandlerTest {
         endpointManager = mock(EndpointManager.class);
         connection = mock(Connection.class);
         when(connection.getEndpointManager()).thenReturn(endpointManager);
-        handler = new OutboundResponseHandler(thisAddress, serializationService, logger);
+        handler = new OutboundResponseHandler(thisAddress, serializationService, logger,
+                new PartitionCredits(new HazelcastProperties(new Properties()), partitionId -> 0));
     }
 
     @Test
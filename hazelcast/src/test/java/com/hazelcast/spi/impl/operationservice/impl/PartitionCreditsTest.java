@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_CREDITS_CLIENT_QUEUE_LIMIT;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_CREDITS_ENABLED;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_CREDITS_FAIL_FAST;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_CREDITS_QUEUE_THRESHOLD;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PartitionCreditsTest extends HazelcastTestSupport {
+
+    private static final int MAX_CREDITS = 8;
+
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private Config config;
+
+    @Before
+    public void setup() {
+        config = new Config();
+        config.setProperty(BACKPRESSURE_CREDITS_ENABLED.getName(), "true");
+        config.setProperty(BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION.getName(), "" + MAX_CREDITS);
+        config.setProperty(BACKPRESSURE_CREDITS_QUEUE_THRESHOLD.getName(), "10");
+        config.setProperty(BACKPRESSURE_CREDITS_CLIENT_QUEUE_LIMIT.getName(), "100");
+        config.setProperty(BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS.getName(), "100");
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        PartitionCredits credits = new PartitionCredits(new HazelcastProperties(new Config()), partitionId -> 0);
+
+        assertFalse(credits.isEnabled());
+    }
+
+    @Test
+    public void whenCongested_thenWindowHalved() {
+        PartitionCredits credits = newCredits();
+        credits.acquire(1, false);
+
+        credits.release(1, true);
+
+        assertEquals(MAX_CREDITS / 2, credits.window(1));
+        assertEquals(MAX_CREDITS, credits.window(2));
+        assertEquals(0, credits.usedCredits(1));
+    }
+
+    @Test
+    public void whenNotCongested_thenWindowGrowsBackToMax() {
+        PartitionCredits credits = newCredits();
+        for (int i = 0; i < 10; i++) {
+            credits.acquire(1, false);
+            credits.release(1, true);
+        }
+        assertEquals(PartitionCredits.MIN_CREDITS, credits.window(1));
+
+        for (int i = 0; i < 2 * MAX_CREDITS; i++) {
+            credits.acquire(1, false);
+            credits.release(1, false);
+        }
+
+        assertEquals(MAX_CREDITS, credits.window(1));
+    }
+
+    @Test(expected = HazelcastOverloadException.class)
+    public void whenNoCredits_thenTimeout() {
+        PartitionCredits credits = newCredits();
+        for (int i = 0; i < MAX_CREDITS; i++) {
+            credits.acquire(1, false);
+        }
+
+        credits.acquire(1, false);
+    }
+
+    @Test(expected = HazelcastOverloadException.class)
+    public void whenNoCreditsAndFailFast_thenRejected() {
+        config.setProperty(BACKPRESSURE_CREDITS_FAIL_FAST.getName(), "true");
+        config.setProperty(BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS.getName(), "60000");
+        PartitionCredits credits = newCredits();
+        for (int i = 0; i < MAX_CREDITS; i++) {
+            credits.acquire(1, false);
+        }
+
+        credits.acquire(1, false);
+    }
+
+    @Test
+    public void whenNoCreditsAndForced_thenAcquired() {
+        PartitionCredits credits = newCredits();
+        for (int i = 0; i < MAX_CREDITS; i++) {
+            credits.acquire(1, false);
+        }
+
+        credits.acquire(1, true);
+
+        assertEquals(MAX_CREDITS + 1, credits.usedCredits(1));
+    }
+
+    @Test
+    public void whenCreditReleased_thenWaitingInvocationProceeds() {
+        config.setProperty(BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS.getName(), "60000");
+        PartitionCredits credits = newCredits();
+        for (int i = 0; i < MAX_CREDITS; i++) {
+            credits.acquire(1, false);
+        }
+
+        spawn(() -> {
+            sleepMillis(100);
+            credits.release(1, false);
+        });
+        credits.acquire(1, false);
+
+        assertEquals(MAX_CREDITS, credits.usedCredits(1));
+    }
+
+    @Test
+    public void isCongested() {
+        PartitionCredits credits = newCredits();
+
+        queueSize.set(10);
+        assertFalse(credits.isCongested(1));
+        assertFalse(credits.isCongested(-1));
+
+        queueSize.set(11);
+        assertTrue(credits.isCongested(1));
+        assertFalse(credits.isCongested(-1));
+    }
+
+    @Test
+    public void admitClientRequest_whenBelowLimit() {
+        PartitionCredits credits = newCredits();
+        queueSize.set(100);
+
+        credits.admitClientRequest(1);
+    }
+
+    @Test(expected = HazelcastOverloadException.class)
+    public void admitClientRequest_whenAboveLimit() {
+        PartitionCredits credits = newCredits();
+        queueSize.set(101);
+
+        credits.admitClientRequest(1);
+    }
+
+    private PartitionCredits newCredits() {
+        return new PartitionCredits(new HazelcastProperties(config), partitionId -> queueSize.get());
+    }
+}